@@ -4,6 +4,7 @@ import br.com.banco.application.dtos.ContaDTO;
 import br.com.banco.domain.ports.interfaces.IContaServicePort;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
@@ -38,11 +39,22 @@ public class ContaController {
         return contaService.obterContaPorNomeResponsavel(nomeResponsavel);
     }
 
+    @GetMapping("/busca")
+    public ResponseEntity<Slice<ContaDTO>> buscarContasPorNomeResponsavel(@RequestParam final String nome,
+                                                                          @PageableDefault(page = 0, size = 10) final Pageable pageable) {
+        return contaService.buscarContasPorNomeResponsavel(nome, pageable);
+    }
+
     @PostMapping
     public ResponseEntity<Void> salvarConta(@RequestBody final ContaDTO contaDTO) {
         return contaService.salvarConta(contaDTO);
     }
 
+    @PostMapping("/indexar-nomes")
+    public ResponseEntity<Integer> indexarNomesPendentes() {
+        return contaService.indexarNomesPendentes();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletarConta(@PathVariable final int id) {
         return contaService.deletarConta(id);
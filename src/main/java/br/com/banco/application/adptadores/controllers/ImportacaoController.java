@@ -0,0 +1,24 @@
+package br.com.banco.application.adptadores.controllers;
+
+import br.com.banco.application.dtos.ResultadoImportacaoDTO;
+import br.com.banco.domain.ports.interfaces.IImportacaoServicePort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequestMapping("/api/importacao")
+@Validated
+public class ImportacaoController {
+    private final IImportacaoServicePort importacaoService;
+
+    public ImportacaoController(IImportacaoServicePort importacaoService) {
+        this.importacaoService = importacaoService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ResultadoImportacaoDTO> importar(@RequestParam final String arquivo) {
+        return importacaoService.importar(arquivo);
+    }
+}
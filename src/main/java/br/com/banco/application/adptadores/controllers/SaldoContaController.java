@@ -0,0 +1,46 @@
+package br.com.banco.application.adptadores.controllers;
+
+import br.com.banco.application.dtos.DivergenciaSaldoDTO;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequestMapping("/api/saldos")
+@Validated
+public class SaldoContaController {
+    private final ISaldoContaServicePort saldoContaService;
+
+    public SaldoContaController(ISaldoContaServicePort saldoContaService) {
+        this.saldoContaService = saldoContaService;
+    }
+
+    @PostMapping("/reconstruir")
+    public ResponseEntity<Integer> reconstruirSaldos() {
+        return saldoContaService.reconstruirSaldos();
+    }
+
+    @GetMapping("/verificar")
+    public ResponseEntity<List<DivergenciaSaldoDTO>> verificarSaldos() {
+        return saldoContaService.verificarSaldos();
+    }
+
+    @PostMapping("/checkpoints")
+    public ResponseEntity<Integer> gerarCheckpoints() {
+        return saldoContaService.gerarCheckpoints();
+    }
+
+    @PostMapping("/totais-diarios/consolidar")
+    public ResponseEntity<Integer> consolidarTotaisDiarios() {
+        return saldoContaService.consolidarTotaisDiarios();
+    }
+
+    @PostMapping("/totais-diarios/reconstruir")
+    public ResponseEntity<Integer> reconstruirTotaisDiarios() {
+        return saldoContaService.reconstruirTotaisDiarios();
+    }
+}
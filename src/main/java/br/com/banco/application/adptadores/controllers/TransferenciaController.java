@@ -1,17 +1,33 @@
 package br.com.banco.application.adptadores.controllers;
 
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
+import br.com.banco.application.dtos.ResultadoLoteDTO;
 import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.application.exportacao.FormatoExportacao;
+import br.com.banco.application.importacao.LeitorLote;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.FiltroTransferencia;
 import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -20,10 +36,16 @@ import java.time.LocalDateTime;
 @RequestMapping("/api/transferencias")
 @Validated
 public class TransferenciaController {
+    private static final long TAMANHO_MAXIMO_PAGINA = 1000;
+    // Repeticoes de um POST com a mesma chave devolvem a resposta original sem executar de novo
+    private static final String CABECALHO_IDEMPOTENCIA = "Idempotency-Key";
+
     private final ITransferenciaServicePort transferenciaService;
+    private final ObjectMapper objectMapper;
 
-    public TransferenciaController(ITransferenciaServicePort transferenciaService) {
+    public TransferenciaController(ITransferenciaServicePort transferenciaService, ObjectMapper objectMapper) {
         this.transferenciaService = transferenciaService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -41,6 +63,28 @@ public class TransferenciaController {
         return transferenciaService.obterTransferenciaPorOperadorEPorData(pageable, nomeOperador, dataInicial, dataFinal);
     }
 
+    @GetMapping("/busca")
+    public ResponseEntity<Page<TransferenciaDTO>> buscarTransferencias(
+            @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.ASC) final Pageable pageable,
+            @RequestParam(required = false) final String nomeOperador,
+            @RequestParam(required = false) final Integer idConta,
+            @RequestParam(required = false) final TipoTransferencia tipo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime dataInicial,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime dataFinal,
+            @RequestParam(required = false) final BigDecimal valorMinimo,
+            @RequestParam(required = false) final BigDecimal valorMaximo
+    ) {
+        FiltroTransferencia filtro = new FiltroTransferencia();
+        filtro.setNomeOperador(nomeOperador);
+        filtro.setIdConta(idConta);
+        filtro.setTipo(tipo);
+        filtro.setDataInicial(dataInicial);
+        filtro.setDataFinal(dataFinal);
+        filtro.setValorMinimo(valorMinimo == null ? null : Dinheiro.de(valorMinimo));
+        filtro.setValorMaximo(valorMaximo == null ? null : Dinheiro.de(valorMaximo));
+        return transferenciaService.buscarTransferencias(pageable, filtro);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TransferenciaDTO> obterTransferenciaPorId(@PathVariable final int id) {
         return transferenciaService.obterTransferenciaPorId(id);
@@ -50,25 +94,36 @@ public class TransferenciaController {
     public ResponseEntity<TransferenciaDTO> realizarTransferencia(
             @RequestBody @Valid final TransferenciaDTO transferenciaDTO,
             @RequestParam final int numeroContaDestino,
-            @RequestParam final int numeroContaOrigem
+            @RequestParam final int numeroContaOrigem,
+            @RequestHeader(name = CABECALHO_IDEMPOTENCIA, required = false) final String chaveIdempotencia
     ) {
-        return transferenciaService.realizarTransferencia(transferenciaDTO, numeroContaDestino, numeroContaOrigem);
+        return transferenciaService.realizarTransferencia(transferenciaDTO, numeroContaDestino, numeroContaOrigem, chaveIdempotencia);
     }
 
     @PostMapping("/realizar-deposito")
     public ResponseEntity<TransferenciaDTO> realizarDeposito(
             @RequestBody @Valid final TransferenciaDTO transferenciaDTO,
-            @RequestParam final int numeroContaDestino
+            @RequestParam final int numeroContaDestino,
+            @RequestHeader(name = CABECALHO_IDEMPOTENCIA, required = false) final String chaveIdempotencia
     ) {
-        return transferenciaService.realizarDeposito(transferenciaDTO, numeroContaDestino);
+        return transferenciaService.realizarDeposito(transferenciaDTO, numeroContaDestino, chaveIdempotencia);
     }
 
     @PostMapping("/realizar-saque")
     public ResponseEntity<TransferenciaDTO> realizarSaque(
             @RequestBody @Valid final TransferenciaDTO transferenciaDTO,
-            @RequestParam final int numeroContaDestino
+            @RequestParam final int numeroContaDestino,
+            @RequestHeader(name = CABECALHO_IDEMPOTENCIA, required = false) final String chaveIdempotencia
     ) {
-        return transferenciaService.realizarSaque(transferenciaDTO, numeroContaDestino);
+        return transferenciaService.realizarSaque(transferenciaDTO, numeroContaDestino, chaveIdempotencia);
+    }
+
+    // Array JSON ou um item por linha (NDJSON), lidos conforme chegam
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResultadoLoteDTO> processarLote(final InputStream corpo) throws IOException {
+        try (LeitorLote itens = new LeitorLote(objectMapper, corpo)) {
+            return transferenciaService.processarLote(itens);
+        }
     }
 
     @GetMapping("/por-periodo")
@@ -90,11 +145,87 @@ public class TransferenciaController {
 
     @GetMapping("/por-conta/{idConta}")
     public ResponseEntity<Page<TransferenciaDTO>> obterTransferenciasPorConta(@PathVariable int idConta,
-                                                                              @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.ASC) final Pageable pageable
+                                                                              @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.ASC) final Pageable pageable,
+                                                                              final WebRequest request
     ) {
+        if (naoModificada(request, idConta)) {
+            return null;
+        }
         return transferenciaService.obterTransferenciasPorConta(pageable, idConta);
     }
 
+    @GetMapping("/por-conta/{idConta}/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportarTransferenciasPorConta(
+            @PathVariable final int idConta,
+            @RequestParam(defaultValue = "NDJSON") final FormatoExportacao formato
+    ) {
+        return transferenciaService.exportarTransferenciasPorConta(idConta, formato);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTodasTransferenciasAposCursor(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(TAMANHO_MAXIMO_PAGINA) final int tamanho
+    ) {
+        return transferenciaService.obterTodasTransferenciasAposCursor(cursor, tamanho);
+    }
+
+    @GetMapping("/por-operador-e-data/cursor")
+    public ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciaPorOperadorEPorDataAposCursor(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(TAMANHO_MAXIMO_PAGINA) final int tamanho,
+            @RequestParam(required = false) final String nomeOperador,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime dataInicial,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime dataFinal
+    ) {
+        return transferenciaService.obterTransferenciaPorOperadorEPorDataAposCursor(cursor, tamanho, nomeOperador, dataInicial, dataFinal);
+    }
+
+    @GetMapping("/por-periodo/cursor")
+    public ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciasPorPeriodoAposCursor(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(TAMANHO_MAXIMO_PAGINA) final int tamanho,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime dataInicial,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime dataFinal
+    ) {
+        return transferenciaService.obterTransferenciasPorPeriodoAposCursor(cursor, tamanho, dataInicial, dataFinal);
+    }
+
+    @GetMapping("/por-operador/cursor")
+    public ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciasPorOperadorAposCursor(
+            @RequestParam final String nomeOperador,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(TAMANHO_MAXIMO_PAGINA) final int tamanho
+    ) {
+        return transferenciaService.obterTransferenciasPorOperadorAposCursor(cursor, tamanho, nomeOperador);
+    }
+
+    @GetMapping("/por-conta/{idConta}/cursor")
+    public ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciasPorContaAposCursor(
+            @PathVariable int idConta,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(TAMANHO_MAXIMO_PAGINA) final int tamanho,
+            final WebRequest request
+    ) {
+        if (naoModificada(request, idConta)) {
+            return null;
+        }
+        return transferenciaService.obterTransferenciasPorContaAposCursor(cursor, tamanho, idConta);
+    }
+
+    @GetMapping("/por-conta/{idConta}/extrato")
+    public ResponseEntity<PaginaCursorDTO<LancamentoExtratoDTO>> obterExtratoPorContaAposCursor(
+            @PathVariable int idConta,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(TAMANHO_MAXIMO_PAGINA) final int tamanho,
+            final WebRequest request
+    ) {
+        if (naoModificada(request, idConta)) {
+            return null;
+        }
+        return transferenciaService.obterExtratoPorContaAposCursor(cursor, tamanho, idConta);
+    }
+
     @GetMapping("/saldo-total-por-periodo")
     public ResponseEntity<BigDecimal> obterSaldoTotalPorPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime dataInicial,
@@ -104,7 +235,30 @@ public class TransferenciaController {
     }
 
     @GetMapping("/saldo-total-por-operador")
-    public ResponseEntity<BigDecimal> obterSaldoTotalPorOperador(@RequestParam final int numeroConta) {
+    public ResponseEntity<BigDecimal> obterSaldoTotalPorOperador(@RequestParam final int numeroConta, final WebRequest request) {
+        if (naoModificada(request, numeroConta)) {
+            return null;
+        }
         return transferenciaService.obterSaldoTotalPorNumeroConta(numeroConta);
     }
+
+    @GetMapping("/saldo-em")
+    public ResponseEntity<BigDecimal> obterSaldoEm(
+            @RequestParam final int numeroConta,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime instante,
+            final WebRequest request
+    ) {
+        if (naoModificada(request, numeroConta)) {
+            return null;
+        }
+        return transferenciaService.obterSaldoEm(numeroConta, instante);
+    }
+
+    /**
+     * Responde {@code 304} quando o {@code If-None-Match} traz a versão atual da conta, sem executar a consulta; senão
+     * põe a versão no cabeçalho {@code ETag}. Ela é lida antes da consulta, então nunca é mais nova que o corpo.
+     */
+    private boolean naoModificada(final WebRequest request, final int idConta) {
+        return request.checkNotModified(transferenciaService.obterVersaoConta(idConta));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package br.com.banco.application.dtos;
+
+import java.math.BigDecimal;
+
+public class DivergenciaSaldoDTO {
+    private int contaId;
+
+    private BigDecimal saldoMaterializado;
+
+    private BigDecimal saldoLancamentos;
+
+    public DivergenciaSaldoDTO() {
+    }
+
+    public DivergenciaSaldoDTO(int contaId, BigDecimal saldoMaterializado, BigDecimal saldoLancamentos) {
+        this.contaId = contaId;
+        this.saldoMaterializado = saldoMaterializado;
+        this.saldoLancamentos = saldoLancamentos;
+    }
+
+    public int getContaId() {
+        return contaId;
+    }
+
+    public void setContaId(int contaId) {
+        this.contaId = contaId;
+    }
+
+    public BigDecimal getSaldoMaterializado() {
+        return saldoMaterializado;
+    }
+
+    public void setSaldoMaterializado(BigDecimal saldoMaterializado) {
+        this.saldoMaterializado = saldoMaterializado;
+    }
+
+    public BigDecimal getSaldoLancamentos() {
+        return saldoLancamentos;
+    }
+
+    public void setSaldoLancamentos(BigDecimal saldoLancamentos) {
+        this.saldoLancamentos = saldoLancamentos;
+    }
+}
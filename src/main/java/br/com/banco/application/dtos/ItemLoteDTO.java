@@ -0,0 +1,50 @@
+package br.com.banco.application.dtos;
+
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+
+/**
+ * Um depósito, saque ou transferência de {@code /api/transferencias/lote}. Como em {@code /realizar-saque}, a conta do
+ * saque vai em {@code numeroContaDestino}; {@code numeroContaOrigem} só é usado nas transferências.
+ */
+public class ItemLoteDTO {
+    private TipoTransferencia tipo;
+
+    private Dinheiro valor;
+
+    private Integer numeroContaDestino;
+
+    private Integer numeroContaOrigem;
+
+    public TipoTransferencia getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoTransferencia tipo) {
+        this.tipo = tipo;
+    }
+
+    public Dinheiro getValor() {
+        return valor;
+    }
+
+    public void setValor(Dinheiro valor) {
+        this.valor = valor;
+    }
+
+    public Integer getNumeroContaDestino() {
+        return numeroContaDestino;
+    }
+
+    public void setNumeroContaDestino(Integer numeroContaDestino) {
+        this.numeroContaDestino = numeroContaDestino;
+    }
+
+    public Integer getNumeroContaOrigem() {
+        return numeroContaOrigem;
+    }
+
+    public void setNumeroContaOrigem(Integer numeroContaOrigem) {
+        this.numeroContaOrigem = numeroContaOrigem;
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.banco.application.dtos;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+
+import java.time.LocalDateTime;
+
+public class LancamentoExtratoDTO {
+    private LocalDateTime dataTransferencia;
+
+    private Dinheiro valor;
+
+    private TipoTransferencia tipo;
+
+    private NaturezaLancamento natureza;
+
+    private String nomeOperadorTransacao;
+
+    private String idTransacao;
+
+    private Dinheiro saldo;
+
+    public LocalDateTime getDataTransferencia() {
+        return dataTransferencia;
+    }
+
+    public void setDataTransferencia(LocalDateTime dataTransferencia) {
+        this.dataTransferencia = dataTransferencia;
+    }
+
+    public Dinheiro getValor() {
+        return valor;
+    }
+
+    public void setValor(Dinheiro valor) {
+        this.valor = valor;
+    }
+
+    public TipoTransferencia getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoTransferencia tipo) {
+        this.tipo = tipo;
+    }
+
+    public NaturezaLancamento getNatureza() {
+        return natureza;
+    }
+
+    public void setNatureza(NaturezaLancamento natureza) {
+        this.natureza = natureza;
+    }
+
+    public String getNomeOperadorTransacao() {
+        return nomeOperadorTransacao;
+    }
+
+    public void setNomeOperadorTransacao(String nomeOperadorTransacao) {
+        this.nomeOperadorTransacao = nomeOperadorTransacao;
+    }
+
+    public String getIdTransacao() {
+        return idTransacao;
+    }
+
+    public void setIdTransacao(String idTransacao) {
+        this.idTransacao = idTransacao;
+    }
+
+    /**
+     * Saldo da conta logo após este lançamento.
+     */
+    public Dinheiro getSaldo() {
+        return saldo;
+    }
+
+    public void setSaldo(Dinheiro saldo) {
+        this.saldo = saldo;
+    }
+}
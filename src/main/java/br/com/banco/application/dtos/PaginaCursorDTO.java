@@ -0,0 +1,36 @@
+package br.com.banco.application.dtos;
+
+import java.util.List;
+
+public class PaginaCursorDTO<T> {
+    private List<T> conteudo;
+
+    private String proximoCursor;
+
+    public PaginaCursorDTO() {
+    }
+
+    public PaginaCursorDTO(List<T> conteudo, String proximoCursor) {
+        this.conteudo = conteudo;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getConteudo() {
+        return conteudo;
+    }
+
+    public void setConteudo(List<T> conteudo) {
+        this.conteudo = conteudo;
+    }
+
+    /**
+     * Token da próxima página, ou {@code null} quando esta é a última.
+     */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.banco.application.dtos;
+
+public class ResultadoImportacaoDTO {
+    private String arquivo;
+
+    private long linhas;
+
+    private long contas;
+
+    private long lancamentos;
+
+    private long retomadaNaLinha;
+
+    public ResultadoImportacaoDTO() {
+    }
+
+    public ResultadoImportacaoDTO(String arquivo, long linhas, long contas, long lancamentos, long retomadaNaLinha) {
+        this.arquivo = arquivo;
+        this.linhas = linhas;
+        this.contas = contas;
+        this.lancamentos = lancamentos;
+        this.retomadaNaLinha = retomadaNaLinha;
+    }
+
+    public String getArquivo() {
+        return arquivo;
+    }
+
+    public void setArquivo(String arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    public void setLinhas(long linhas) {
+        this.linhas = linhas;
+    }
+
+    public long getContas() {
+        return contas;
+    }
+
+    public void setContas(long contas) {
+        this.contas = contas;
+    }
+
+    public long getLancamentos() {
+        return lancamentos;
+    }
+
+    public void setLancamentos(long lancamentos) {
+        this.lancamentos = lancamentos;
+    }
+
+    public long getRetomadaNaLinha() {
+        return retomadaNaLinha;
+    }
+
+    public void setRetomadaNaLinha(long retomadaNaLinha) {
+        this.retomadaNaLinha = retomadaNaLinha;
+    }
+}
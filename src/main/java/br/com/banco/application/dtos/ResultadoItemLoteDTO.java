@@ -0,0 +1,55 @@
+package br.com.banco.application.dtos;
+
+import br.com.banco.domain.enums.SituacaoItemLote;
+
+public class ResultadoItemLoteDTO {
+    private int indice;
+
+    private SituacaoItemLote situacao;
+
+    private String idTransacao;
+
+    private String mensagem;
+
+    public ResultadoItemLoteDTO() {
+    }
+
+    public ResultadoItemLoteDTO(int indice, SituacaoItemLote situacao, String idTransacao, String mensagem) {
+        this.indice = indice;
+        this.situacao = situacao;
+        this.idTransacao = idTransacao;
+        this.mensagem = mensagem;
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public SituacaoItemLote getSituacao() {
+        return situacao;
+    }
+
+    public void setSituacao(SituacaoItemLote situacao) {
+        this.situacao = situacao;
+    }
+
+    public String getIdTransacao() {
+        return idTransacao;
+    }
+
+    public void setIdTransacao(String idTransacao) {
+        this.idTransacao = idTransacao;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+}
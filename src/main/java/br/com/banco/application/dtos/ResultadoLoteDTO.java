@@ -0,0 +1,46 @@
+package br.com.banco.application.dtos;
+
+import br.com.banco.domain.enums.SituacaoItemLote;
+
+import java.util.List;
+
+public class ResultadoLoteDTO {
+    private long processados;
+
+    private long rejeitados;
+
+    private List<ResultadoItemLoteDTO> itens;
+
+    public ResultadoLoteDTO() {
+    }
+
+    public ResultadoLoteDTO(List<ResultadoItemLoteDTO> itens) {
+        this.itens = itens;
+        this.processados = itens.stream().filter(item -> item.getSituacao() == SituacaoItemLote.PROCESSADO).count();
+        this.rejeitados = itens.size() - processados;
+    }
+
+    public long getProcessados() {
+        return processados;
+    }
+
+    public void setProcessados(long processados) {
+        this.processados = processados;
+    }
+
+    public long getRejeitados() {
+        return rejeitados;
+    }
+
+    public void setRejeitados(long rejeitados) {
+        this.rejeitados = rejeitados;
+    }
+
+    public List<ResultadoItemLoteDTO> getItens() {
+        return itens;
+    }
+
+    public void setItens(List<ResultadoItemLoteDTO> itens) {
+        this.itens = itens;
+    }
+}
@@ -1,20 +1,18 @@
 package br.com.banco.application.dtos;
 
+import br.com.banco.domain.enums.NaturezaLancamento;
 import br.com.banco.domain.enums.TipoTransferencia;
 import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
 
-import javax.validation.constraints.Digits;
 import javax.validation.constraints.NotNull;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 public class TransferenciaDTO {
     private LocalDateTime dataTransferencia;
 
     @NotNull(message = "Valor nao pode ser nulo")
-    @Digits(integer = 20, fraction = 2)
-    private BigDecimal valor;
+    private Dinheiro valor;
 
     private TipoTransferencia tipo;
 
@@ -23,6 +21,10 @@ public class TransferenciaDTO {
 
     private Conta conta;
 
+    private String idTransacao;
+
+    private NaturezaLancamento natureza;
+
     public LocalDateTime getDataTransferencia() {
         return dataTransferencia;
     }
@@ -31,12 +33,12 @@ public class TransferenciaDTO {
         this.dataTransferencia = dataTransferencia;
     }
 
-    public BigDecimal getValor() {
+    public Dinheiro getValor() {
         return valor;
     }
 
-    public void setValor(BigDecimal valor) {
-        this.valor = valor.setScale(2, RoundingMode.HALF_EVEN);
+    public void setValor(Dinheiro valor) {
+        this.valor = valor;
     }
 
     public TipoTransferencia getTipo() {
@@ -62,4 +64,20 @@ public class TransferenciaDTO {
     public void setConta(Conta conta) {
         this.conta = conta;
     }
-}
\ No newline at end of file
+
+    public String getIdTransacao() {
+        return idTransacao;
+    }
+
+    public void setIdTransacao(String idTransacao) {
+        this.idTransacao = idTransacao;
+    }
+
+    public NaturezaLancamento getNatureza() {
+        return natureza;
+    }
+
+    public void setNatureza(NaturezaLancamento natureza) {
+        this.natureza = natureza;
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.banco.application.exportacao;
+
+import br.com.banco.application.dtos.TransferenciaDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV (RFC 4180) com cabeçalho e as mesmas colunas de {@link EscritorNdjson}.
+ */
+final class EscritorCsv implements EscritorTransferencias {
+    private static final String CABECALHO = "dataTransferencia,valor,tipo,natureza,nomeOperadorTransacao,idTransacao";
+    private static final String FIM_DE_LINHA = "\r\n";
+
+    private final Writer saida;
+
+    EscritorCsv(final OutputStream saida) {
+        this.saida = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        try {
+            this.saida.write(CABECALHO);
+            this.saida.write(FIM_DE_LINHA);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void escrever(final TransferenciaDTO transferencia) {
+        try {
+            saida.write(FormatoExportacao.FORMATO_DATA.format(transferencia.getDataTransferencia()));
+            saida.write(',');
+            saida.write(transferencia.getValor().toString());
+            saida.write(',');
+            saida.write(transferencia.getTipo().name());
+            saida.write(',');
+            saida.write(transferencia.getNatureza().name());
+            saida.write(',');
+            escreverTexto(transferencia.getNomeOperadorTransacao());
+            saida.write(',');
+            escreverTexto(transferencia.getIdTransacao());
+            saida.write(FIM_DE_LINHA);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void concluir() {
+        try {
+            saida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Campos com separador, aspas ou quebra de linha vao entre aspas, com as aspas internas duplicadas
+    private void escreverTexto(final String texto) throws IOException {
+        if (texto == null) {
+            return;
+        }
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            saida.write(texto);
+            return;
+        }
+        saida.write('"');
+        saida.write(texto.replace("\"", "\"\""));
+        saida.write('"');
+    }
+}
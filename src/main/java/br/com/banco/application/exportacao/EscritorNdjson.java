@@ -0,0 +1,56 @@
+package br.com.banco.application.exportacao;
+
+import br.com.banco.application.dtos.TransferenciaDTO;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Um objeto JSON por linha, com os campos de {@link TransferenciaDTO} exceto a conta, que é a da exportação.
+ */
+final class EscritorNdjson implements EscritorTransferencias {
+    private static final JsonFactory FABRICA = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonGenerator gerador;
+
+    EscritorNdjson(final OutputStream saida) {
+        try {
+            gerador = FABRICA.createGenerator(saida, JsonEncoding.UTF8);
+            // Cada objeto termina com a propria quebra de linha, inclusive o ultimo
+            gerador.setRootValueSeparator(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void escrever(final TransferenciaDTO transferencia) {
+        try {
+            gerador.writeStartObject();
+            gerador.writeStringField("dataTransferencia", FormatoExportacao.FORMATO_DATA.format(transferencia.getDataTransferencia()));
+            gerador.writeFieldName("valor");
+            gerador.writeNumber(transferencia.getValor().toString());
+            gerador.writeStringField("tipo", transferencia.getTipo().name());
+            gerador.writeStringField("natureza", transferencia.getNatureza().name());
+            gerador.writeStringField("nomeOperadorTransacao", transferencia.getNomeOperadorTransacao());
+            gerador.writeStringField("idTransacao", transferencia.getIdTransacao());
+            gerador.writeEndObject();
+            gerador.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void concluir() {
+        try {
+            gerador.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
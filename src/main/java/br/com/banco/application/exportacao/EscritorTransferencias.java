@@ -0,0 +1,19 @@
+package br.com.banco.application.exportacao;
+
+import br.com.banco.application.dtos.TransferenciaDTO;
+
+/**
+ * Escreve as transferências de uma exportação direto na saída, uma por vez, sem acumular linhas em memória.
+ */
+public interface EscritorTransferencias {
+
+    /**
+     * @throws java.io.UncheckedIOException se a saída falhar, por exemplo quando o cliente interrompe o download.
+     */
+    void escrever(final TransferenciaDTO transferencia);
+
+    /**
+     * Descarrega o que ainda estiver no buffer do escritor, sem fechar a saída.
+     */
+    void concluir();
+}
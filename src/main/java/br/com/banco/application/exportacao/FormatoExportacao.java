@@ -0,0 +1,43 @@
+package br.com.banco.application.exportacao;
+
+import org.springframework.http.MediaType;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+public enum FormatoExportacao {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        public EscritorTransferencias criarEscritor(final OutputStream saida) {
+            return new EscritorNdjson(saida);
+        }
+    },
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv") {
+        @Override
+        public EscritorTransferencias criarEscritor(final OutputStream saida) {
+            return new EscritorCsv(saida);
+        }
+    };
+
+    // O mesmo formato de data das respostas JSON da API
+    static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final MediaType tipoConteudo;
+    private final String extensao;
+
+    FormatoExportacao(final MediaType tipoConteudo, final String extensao) {
+        this.tipoConteudo = tipoConteudo;
+        this.extensao = extensao;
+    }
+
+    public MediaType getTipoConteudo() {
+        return tipoConteudo;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    public abstract EscritorTransferencias criarEscritor(final OutputStream saida);
+}
@@ -0,0 +1,376 @@
+package br.com.banco.application.importacao;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.exception.ImportacaoInvalidaException;
+import br.com.banco.domain.models.Dinheiro;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Lê as linhas do CSV de importação direto dos bytes de uma janela do arquivo, normalmente mapeada em memória.
+ * <p>
+ * Cada linha é um registro separado por vírgulas, em UTF-8:
+ * <pre>
+ * CONTA,&lt;id&gt;,&lt;nome_responsavel&gt;
+ * TRANSFERENCIA,&lt;conta_id&gt;,&lt;data_transferencia&gt;,&lt;valor&gt;,&lt;tipo&gt;,&lt;natureza&gt;,&lt;nome_operador&gt;,&lt;id_transacao&gt;
+ * </pre>
+ * Linhas vazias, comentários ({@code #}) e um cabeçalho começando por {@code tipo} são ignorados. Textos podem vir
+ * entre aspas para conter vírgulas ({@code ""} é uma aspa), mas não quebras de linha. Números, datas, valores e
+ * tipos são lidos sem criar texto intermediário; os nomes de operador, que se repetem muito, saem de uma tabela
+ * pequena dos últimos lidos.
+ * <p>
+ * Uma linha inválida interrompe a leitura com {@link ImportacaoInvalidaException}, com o número da linha.
+ */
+public class LeitorCsvImportacao {
+
+    public static final int TAMANHO_NOME_RESPONSAVEL = 50;
+    public static final int TAMANHO_NOME_OPERADOR = 255;
+    public static final int TAMANHO_ID_TRANSACAO = 36;
+
+    private static final int MAXIMO_CAMPOS = 8;
+    private static final int CAMPOS_CONTA = 3;
+    private static final int CAMPOS_TRANSFERENCIA = 8;
+    private static final int OPERADORES_GUARDADOS = 256;
+
+    private static final byte[] CONTA = ascii("CONTA");
+    private static final byte[] TRANSFERENCIA = ascii("TRANSFERENCIA");
+    private static final byte[] CABECALHO = ascii("tipo");
+    private static final TipoTransferencia[] TIPOS = TipoTransferencia.values();
+    private static final byte[][] NOMES_TIPOS = Arrays.stream(TIPOS).map(tipo -> ascii(tipo.name())).toArray(byte[][]::new);
+    private static final NaturezaLancamento[] NATUREZAS = NaturezaLancamento.values();
+    private static final byte[][] NOMES_NATUREZAS = Arrays.stream(NATUREZAS).map(natureza -> ascii(natureza.name())).toArray(byte[][]::new);
+
+    private final int[] inicios = new int[MAXIMO_CAMPOS];
+    private final int[] fins = new int[MAXIMO_CAMPOS];
+    private final boolean[] aspasDuplas = new boolean[MAXIMO_CAMPOS];
+    private final byte[][] bytesOperadores = new byte[OPERADORES_GUARDADOS][];
+    private final String[] operadores = new String[OPERADORES_GUARDADOS];
+    private final Campo campo = new Campo();
+    private byte[] texto = new byte[64];
+    private ByteBuffer janela;
+    private long linha;
+
+    /**
+     * @param linhasLidas Quantas linhas do arquivo já foram lidas antes da janela, para numerar as seguintes.
+     */
+    public LeitorCsvImportacao(final long linhasLidas) {
+        this.linha = linhasLidas;
+    }
+
+    /**
+     * Lê a próxima linha inteira da janela, a partir da posição atual, e avança a posição até o início da seguinte.
+     * Contas e lançamentos vão para o lote; linhas ignoradas só avançam a posição.
+     *
+     * @param janela       Os bytes do arquivo.
+     * @param fimDoArquivo Se a janela termina no fim do arquivo, quando a última linha pode não ter quebra.
+     * @param lote         O lote que recebe o registro lido.
+     * @return {@code false}, sem avançar, quando não há uma linha inteira a partir da posição.
+     * @throws ImportacaoInvalidaException se a linha for inválida.
+     */
+    public boolean ler(final ByteBuffer janela, final boolean fimDoArquivo, final LoteImportacao lote) {
+        this.janela = janela;
+        int inicio = janela.position();
+        int limite = janela.limit();
+
+        int quebra = inicio;
+        while (quebra < limite && janela.get(quebra) != '\n') {
+            quebra++;
+        }
+        if (quebra == limite && (!fimDoArquivo || inicio == limite)) {
+            return false;
+        }
+
+        janela.position(quebra == limite ? limite : quebra + 1);
+        linha++;
+        int fim = quebra > inicio && janela.get(quebra - 1) == '\r' ? quebra - 1 : quebra;
+        if (fim == inicio || janela.get(inicio) == '#') {
+            return true;
+        }
+
+        int campos = separarCampos(inicio, fim);
+        if (igual(0, CONTA)) {
+            exigirCampos(campos, CAMPOS_CONTA);
+            lote.adicionarConta(linha, inteiroPositivo(1, "id da conta"), texto(2, TAMANHO_NOME_RESPONSAVEL, true, "nome do responsavel"));
+        } else if (igual(0, TRANSFERENCIA)) {
+            exigirCampos(campos, CAMPOS_TRANSFERENCIA);
+            String idTransacao = texto(7, TAMANHO_ID_TRANSACAO, false, "id da transacao");
+            lote.adicionarLancamento(linha, inteiroPositivo(1, "id da conta"), data(2), valor(3),
+                    TIPOS[enumerado(4, NOMES_TIPOS, "tipo invalido")], NATUREZAS[enumerado(5, NOMES_NATUREZAS, "natureza invalida")],
+                    operador(6), idTransacao == null ? UUID.randomUUID().toString() : idTransacao);
+        } else if (!igualIgnorandoCaixa(0, CABECALHO)) {
+            throw invalida("tipo de registro desconhecido, esperado CONTA ou TRANSFERENCIA");
+        }
+        return true;
+    }
+
+    /**
+     * A quantidade de linhas lidas, contando as ignoradas e as anteriores à janela.
+     */
+    public long getLinha() {
+        return linha;
+    }
+
+    private int separarCampos(final int inicio, final int fim) {
+        int campos = 0;
+        int i = inicio;
+        while (true) {
+            if (campos == MAXIMO_CAMPOS) {
+                throw invalida("mais de " + MAXIMO_CAMPOS + " campos");
+            }
+            if (i < fim && janela.get(i) == '"') {
+                int j = i + 1;
+                boolean escapada = false;
+                while (true) {
+                    if (j >= fim) {
+                        throw invalida("aspas sem fechamento");
+                    }
+                    if (janela.get(j) == '"') {
+                        if (j + 1 < fim && janela.get(j + 1) == '"') {
+                            escapada = true;
+                            j += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    j++;
+                }
+                inicios[campos] = i + 1;
+                fins[campos] = j;
+                aspasDuplas[campos++] = escapada;
+                i = j + 1;
+                if (i == fim) {
+                    return campos;
+                }
+                if (janela.get(i) != ',') {
+                    throw invalida("texto depois das aspas");
+                }
+                i++;
+            } else {
+                int j = i;
+                while (j < fim && janela.get(j) != ',') {
+                    j++;
+                }
+                inicios[campos] = i;
+                fins[campos] = j;
+                aspasDuplas[campos++] = false;
+                if (j == fim) {
+                    return campos;
+                }
+                i = j + 1;
+            }
+        }
+    }
+
+    private void exigirCampos(final int campos, final int esperados) {
+        if (campos != esperados) {
+            throw invalida("esperados " + esperados + " campos, encontrados " + campos);
+        }
+    }
+
+    private int inteiroPositivo(final int indice, final String nome) {
+        int inicio = inicios[indice];
+        int fim = fins[indice];
+        if (inicio == fim || fim - inicio > 10) {
+            throw invalida(nome + " invalido");
+        }
+        long valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            int digito = janela.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw invalida(nome + " invalido");
+            }
+            valor = valor * 10 + digito;
+        }
+        if (valor == 0 || valor > Integer.MAX_VALUE) {
+            throw invalida(nome + " invalido");
+        }
+        return (int) valor;
+    }
+
+    // yyyy-MM-ddTHH:mm:ss, com espaco no lugar do T e ate nove casas de fracao de segundo opcionais
+    private LocalDateTime data(final int indice) {
+        int inicio = inicios[indice];
+        int tamanho = fins[indice] - inicio;
+        if (tamanho < 19 || tamanho == 20 || tamanho > 29
+                || janela.get(inicio + 4) != '-' || janela.get(inicio + 7) != '-'
+                || (janela.get(inicio + 10) != 'T' && janela.get(inicio + 10) != ' ')
+                || janela.get(inicio + 13) != ':' || janela.get(inicio + 16) != ':'
+                || (tamanho > 19 && janela.get(inicio + 19) != '.')) {
+            throw invalida("data da transferencia invalida");
+        }
+        int nanos = 0;
+        if (tamanho > 19) {
+            nanos = digitos(inicio + 20, tamanho - 20);
+            for (int casas = tamanho - 20; casas < 9; casas++) {
+                nanos *= 10;
+            }
+        }
+        try {
+            return LocalDateTime.of(digitos(inicio, 4), digitos(inicio + 5, 2), digitos(inicio + 8, 2),
+                    digitos(inicio + 11, 2), digitos(inicio + 14, 2), digitos(inicio + 17, 2), nanos);
+        } catch (DateTimeException e) {
+            throw invalida("data da transferencia invalida");
+        }
+    }
+
+    private int digitos(final int inicio, final int quantidade) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + quantidade; i++) {
+            int digito = janela.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw invalida("data da transferencia invalida");
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    private long valor(final int indice) {
+        campo.inicio = inicios[indice];
+        campo.fim = fins[indice];
+        Dinheiro valor;
+        try {
+            valor = Dinheiro.de(campo);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw invalida("valor invalido");
+        }
+        if (valor.isNegativo()) {
+            throw invalida("valor negativo; o sentido do lancamento vem da natureza");
+        }
+        return valor.getCentavos();
+    }
+
+    private int enumerado(final int indice, final byte[][] nomes, final String erro) {
+        for (int i = 0; i < nomes.length; i++) {
+            if (igual(indice, nomes[i])) {
+                return i;
+            }
+        }
+        throw invalida(erro);
+    }
+
+    private String operador(final int indice) {
+        int inicio = inicios[indice];
+        int fim = fins[indice];
+        if (aspasDuplas[indice] || fim - inicio > TAMANHO_NOME_OPERADOR * 4) {
+            return texto(indice, TAMANHO_NOME_OPERADOR, false, "nome do operador");
+        }
+
+        int hash = 1;
+        for (int i = inicio; i < fim; i++) {
+            hash = 31 * hash + janela.get(i);
+        }
+        int posicao = (hash ^ (hash >>> 16)) & (OPERADORES_GUARDADOS - 1);
+        byte[] guardado = bytesOperadores[posicao];
+        if (guardado != null && guardado.length == fim - inicio && igual(indice, guardado)) {
+            return operadores[posicao];
+        }
+
+        String operador = texto(indice, TAMANHO_NOME_OPERADOR, false, "nome do operador");
+        bytesOperadores[posicao] = Arrays.copyOf(texto, fim - inicio);
+        operadores[posicao] = operador;
+        return operador;
+    }
+
+    /**
+     * Decodifica o campo como UTF-8 usando um array reaproveitado, já sem as aspas duplicadas.
+     *
+     * @return O texto, ou {@code null} se o campo estiver vazio e não for obrigatório.
+     */
+    private String texto(final int indice, final int tamanhoMaximo, final boolean obrigatorio, final String nome) {
+        int inicio = inicios[indice];
+        int fim = fins[indice];
+        if (inicio == fim) {
+            if (obrigatorio) {
+                throw invalida(nome + " vazio");
+            }
+            return null;
+        }
+        if (texto.length < fim - inicio) {
+            texto = new byte[Math.max(fim - inicio, texto.length * 2)];
+        }
+        int tamanho = 0;
+        for (int i = inicio; i < fim; i++) {
+            byte b = janela.get(i);
+            texto[tamanho++] = b;
+            if (b == '"' && aspasDuplas[indice]) {
+                i++;
+            }
+        }
+        String valor = new String(texto, 0, tamanho, StandardCharsets.UTF_8);
+        if (valor.length() > tamanhoMaximo) {
+            throw invalida(nome + " com mais de " + tamanhoMaximo + " caracteres");
+        }
+        return valor;
+    }
+
+    private boolean igual(final int indice, final byte[] esperado) {
+        int inicio = inicios[indice];
+        if (fins[indice] - inicio != esperado.length) {
+            return false;
+        }
+        for (int i = 0; i < esperado.length; i++) {
+            if (janela.get(inicio + i) != esperado[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean igualIgnorandoCaixa(final int indice, final byte[] esperado) {
+        int inicio = inicios[indice];
+        if (fins[indice] - inicio != esperado.length) {
+            return false;
+        }
+        for (int i = 0; i < esperado.length; i++) {
+            if (Character.toLowerCase(janela.get(inicio + i)) != esperado[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ImportacaoInvalidaException invalida(final String detalhe) {
+        return new ImportacaoInvalidaException("Linha " + linha + ": " + detalhe);
+    }
+
+    private static byte[] ascii(final String texto) {
+        return texto.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Um campo da janela visto como texto ASCII, para {@link Dinheiro#de(CharSequence)} ler o valor sem cópia.
+     */
+    private final class Campo implements CharSequence {
+        private int inicio;
+        private int fim;
+
+        @Override
+        public int length() {
+            return fim - inicio;
+        }
+
+        @Override
+        public char charAt(final int indice) {
+            return (char) (janela.get(inicio + indice) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(final int inicioSequencia, final int fimSequencia) {
+            return toString().subSequence(inicioSequencia, fimSequencia);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[fim - inicio];
+            janela.get(inicio, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
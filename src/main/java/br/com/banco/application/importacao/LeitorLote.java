@@ -0,0 +1,76 @@
+package br.com.banco.application.importacao;
+
+import br.com.banco.application.dtos.ItemLoteDTO;
+import br.com.banco.domain.exception.TransferenciaInvalidaException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lê os itens de um lote à medida que chegam, sem carregar o corpo inteiro: aceita um array JSON ou um objeto JSON por
+ * linha (NDJSON).
+ * <p>
+ * Um item que não corresponde a {@link ItemLoteDTO} sai de {@link #next()} como {@link TransferenciaInvalidaException}
+ * e a leitura continua no seguinte. JSON malformado também vira a exceção de um item, mas encerra a leitura.
+ */
+public class LeitorLote implements Iterator<ItemLoteDTO>, Closeable {
+
+    private final MappingIterator<ItemLoteDTO> itens;
+    private TransferenciaInvalidaException erroPendente;
+    private boolean encerrado;
+
+    public LeitorLote(final ObjectMapper objectMapper, final InputStream entrada) throws IOException {
+        this.itens = objectMapper.readerFor(ItemLoteDTO.class).readValues(entrada);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (encerrado) {
+            return false;
+        }
+        if (erroPendente != null) {
+            return true;
+        }
+        try {
+            return itens.hasNextValue();
+        } catch (IOException e) {
+            // Entregue como o proximo item, para aparecer no resultado do lote
+            erroPendente = invalido(e);
+            return true;
+        }
+    }
+
+    @Override
+    public ItemLoteDTO next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (erroPendente != null) {
+            encerrado = true;
+            throw erroPendente;
+        }
+        try {
+            return itens.nextValue();
+        } catch (IOException e) {
+            encerrado = e instanceof StreamReadException;
+            throw invalido(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        itens.close();
+    }
+
+    private static TransferenciaInvalidaException invalido(final IOException e) {
+        String detalhe = e instanceof JsonProcessingException ? ((JsonProcessingException) e).getOriginalMessage() : e.getMessage();
+        return new TransferenciaInvalidaException("Item invalido: " + detalhe);
+    }
+}
@@ -0,0 +1,161 @@
+package br.com.banco.application.importacao;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.enums.TipoTransferencia;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registros de um lote da importação, em arrays por coluna reaproveitados de um lote para o outro: ler uma linha não
+ * cria objetos além dos textos e da data.
+ * <p>
+ * A capacidade vale para contas e lançamentos juntos, e cada registro guarda a linha do arquivo de onde veio para as
+ * mensagens de erro.
+ */
+public class LoteImportacao {
+
+    private final int capacidade;
+
+    private final int[] idsContas;
+    private final String[] nomesResponsaveis;
+    private final long[] linhasContas;
+    private int contas;
+
+    private final int[] contasLancamentos;
+    private final LocalDateTime[] datas;
+    private final long[] centavos;
+    private final TipoTransferencia[] tipos;
+    private final NaturezaLancamento[] naturezas;
+    private final String[] operadores;
+    private final String[] idsTransacao;
+    private final long[] linhasLancamentos;
+    private int lancamentos;
+
+    private LocalDateTime dataMinima;
+    private LocalDateTime dataMaxima;
+
+    public LoteImportacao(final int capacidade) {
+        this.capacidade = capacidade;
+        this.idsContas = new int[capacidade];
+        this.nomesResponsaveis = new String[capacidade];
+        this.linhasContas = new long[capacidade];
+        this.contasLancamentos = new int[capacidade];
+        this.datas = new LocalDateTime[capacidade];
+        this.centavos = new long[capacidade];
+        this.tipos = new TipoTransferencia[capacidade];
+        this.naturezas = new NaturezaLancamento[capacidade];
+        this.operadores = new String[capacidade];
+        this.idsTransacao = new String[capacidade];
+        this.linhasLancamentos = new long[capacidade];
+    }
+
+    void adicionarConta(final long linha, final int id, final String nomeResponsavel) {
+        idsContas[contas] = id;
+        nomesResponsaveis[contas] = nomeResponsavel;
+        linhasContas[contas++] = linha;
+    }
+
+    void adicionarLancamento(final long linha, final int contaId, final LocalDateTime data, final long valorCentavos,
+                             final TipoTransferencia tipo, final NaturezaLancamento natureza, final String operador,
+                             final String idTransacao) {
+        contasLancamentos[lancamentos] = contaId;
+        datas[lancamentos] = data;
+        centavos[lancamentos] = valorCentavos;
+        tipos[lancamentos] = tipo;
+        naturezas[lancamentos] = natureza;
+        operadores[lancamentos] = operador;
+        idsTransacao[lancamentos] = idTransacao;
+        linhasLancamentos[lancamentos++] = linha;
+
+        if (dataMinima == null || data.isBefore(dataMinima)) {
+            dataMinima = data;
+        }
+        if (dataMaxima == null || data.isAfter(dataMaxima)) {
+            dataMaxima = data;
+        }
+    }
+
+    public boolean isCheio() {
+        return contas + lancamentos >= capacidade;
+    }
+
+    public boolean isVazio() {
+        return contas + lancamentos == 0;
+    }
+
+    /**
+     * Esvazia o lote. Os textos e datas ficam nos arrays até serem sobrescritos.
+     */
+    public void limpar() {
+        contas = 0;
+        lancamentos = 0;
+        dataMinima = null;
+        dataMaxima = null;
+    }
+
+    public int getContas() {
+        return contas;
+    }
+
+    public int getIdConta(final int i) {
+        return idsContas[i];
+    }
+
+    public String getNomeResponsavel(final int i) {
+        return nomesResponsaveis[i];
+    }
+
+    public long getLinhaConta(final int i) {
+        return linhasContas[i];
+    }
+
+    public int getLancamentos() {
+        return lancamentos;
+    }
+
+    public int getContaLancamento(final int i) {
+        return contasLancamentos[i];
+    }
+
+    public LocalDateTime getData(final int i) {
+        return datas[i];
+    }
+
+    public long getCentavos(final int i) {
+        return centavos[i];
+    }
+
+    public TipoTransferencia getTipo(final int i) {
+        return tipos[i];
+    }
+
+    public NaturezaLancamento getNatureza(final int i) {
+        return naturezas[i];
+    }
+
+    public String getOperador(final int i) {
+        return operadores[i];
+    }
+
+    public String getIdTransacao(final int i) {
+        return idsTransacao[i];
+    }
+
+    public long getLinhaLancamento(final int i) {
+        return linhasLancamentos[i];
+    }
+
+    /**
+     * A menor data entre os lançamentos do lote, ou {@code null} se o lote não tiver lançamentos.
+     */
+    public LocalDateTime getDataMinima() {
+        return dataMinima;
+    }
+
+    /**
+     * A maior data entre os lançamentos do lote, ou {@code null} se o lote não tiver lançamentos.
+     */
+    public LocalDateTime getDataMaxima() {
+        return dataMaxima;
+    }
+}
@@ -4,6 +4,7 @@ import br.com.banco.application.dtos.ContaDTO;
 import br.com.banco.domain.models.Conta;
 import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaEntity;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -67,6 +68,10 @@ public class ContaMapper {
         return contaPageDto.map(this::mapEntityToDto);
     }
 
+    public Slice<ContaDTO> mapToDtoSlice(Slice<ContaEntity> contaSlice) {
+        return contaSlice.map(this::mapEntityToDto);
+    }
+
     private ContaDTO mapEntityToDto(ContaEntity contaEntity) {
         ContaDTO contaDto = new ContaDTO();
         contaDto.setNomeResponsavel(contaEntity.getNomeResponsavel());
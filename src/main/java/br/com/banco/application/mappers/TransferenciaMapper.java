@@ -1,17 +1,23 @@
 package br.com.banco.application.mappers;
 
 
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
 import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.enums.NaturezaLancamento;
 import br.com.banco.domain.enums.TipoTransferencia;
 import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
 import br.com.banco.domain.models.Transferencia;
 import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaEntity;
 import br.com.banco.infrastructure.adaptadores.persistence.entities.TransferenciaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.LancamentoExtratoProjection;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.TransferenciaExportacaoProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -24,16 +30,21 @@ public class TransferenciaMapper {
         transferencia.setTipo(transferenciaDTO.getTipo());
         transferencia.setNomeOperadorTransacao(transferenciaDTO.getNomeOperadorTransacao());
         transferencia.setContaId(transferenciaDTO.getConta());
+        transferencia.setIdTransacao(transferenciaDTO.getIdTransacao());
+        transferencia.setNatureza(transferenciaDTO.getNatureza());
         return transferencia;
     }
 
 
     public Transferencia mapEntityToModel(TransferenciaEntity transferenciaEntity) {
         Transferencia transferencia = new Transferencia();
+        transferencia.setId(transferenciaEntity.getId());
         transferencia.setDataTransferencia(transferenciaEntity.getDataTransferencia());
         transferencia.setValor(transferenciaEntity.getValor());
         transferencia.setTipo(transferenciaEntity.getTipo());
         transferencia.setNomeOperadorTransacao(transferenciaEntity.getNomeOperadorTransacao());
+        transferencia.setIdTransacao(transferenciaEntity.getIdTransacao());
+        transferencia.setNatureza(transferenciaEntity.getNatureza());
 
         Conta contaModel = new Conta();
         contaModel.setNomeResponsavel(transferenciaEntity.getConta().getNomeResponsavel());
@@ -50,15 +61,20 @@ public class TransferenciaMapper {
         transferenciaDTO.setTipo(transferencia.getTipo());
         transferenciaDTO.setNomeOperadorTransacao(transferencia.getNomeOperadorTransacao());
         transferenciaDTO.setConta(transferencia.getContaId());
+        transferenciaDTO.setIdTransacao(transferencia.getIdTransacao());
+        transferenciaDTO.setNatureza(transferencia.getNatureza());
         return transferenciaDTO;
     }
 
     public TransferenciaEntity mapModelToEntity(Transferencia transferencia) {
         TransferenciaEntity transferenciaEntity = new TransferenciaEntity();
+        transferenciaEntity.setId(transferencia.getId());
         transferenciaEntity.setDataTransferencia(transferencia.getDataTransferencia());
         transferenciaEntity.setValor(transferencia.getValor());
         transferenciaEntity.setTipo(transferencia.getTipo());
         transferenciaEntity.setNomeOperadorTransacao(transferencia.getNomeOperadorTransacao());
+        transferenciaEntity.setIdTransacao(transferencia.getIdTransacao());
+        transferenciaEntity.setNatureza(transferencia.getNatureza());
 
         ContaEntity contaEntity = new ContaEntity();
         contaEntity.setNomeResponsavel(transferencia.getContaId().getNomeResponsavel());
@@ -93,26 +109,48 @@ public class TransferenciaMapper {
         transferencia.setContaId(origem);
         transferencia.setDataTransferencia(LocalDateTime.now());
         transferencia.setTipo(TipoTransferencia.TRANSFERENCIA);
+        transferencia.setIdTransacao(UUID.randomUUID().toString());
+        transferencia.setNatureza(NaturezaLancamento.DEBITO);
         return transferencia;
     }
 
+    /**
+     * Gera as duas pernas de uma transferência: o débito na conta de origem e o crédito na conta de destino,
+     * com a mesma data e o mesmo ID de transação.
+     */
+    public List<Transferencia> mapLancamentosTransferencia(TransferenciaDTO transferenciaDTO, Conta destinatario, Conta origem) {
+        Transferencia debito = mapTransferencia(transferenciaDTO, destinatario, origem);
+
+        Transferencia credito = mapDtoToModel(transferenciaDTO);
+        credito.setNomeOperadorTransacao(origem.getNomeResponsavel());
+        credito.setContaId(destinatario);
+        credito.setDataTransferencia(debito.getDataTransferencia());
+        credito.setTipo(TipoTransferencia.TRANSFERENCIA);
+        credito.setIdTransacao(debito.getIdTransacao());
+        credito.setNatureza(NaturezaLancamento.CREDITO);
+
+        return List.of(debito, credito);
+    }
+
     public Transferencia mapTransferenciaDeposito(TransferenciaDTO transferenciaDTO, Conta destinatario) {
         Transferencia transferencia = mapDtoToModel(transferenciaDTO);
-        transferencia.setValor(transferencia.getValor());
         transferencia.setNomeOperadorTransacao(destinatario.getNomeResponsavel());
         transferencia.setContaId(destinatario);
         transferencia.setDataTransferencia(LocalDateTime.now());
         transferencia.setTipo(TipoTransferencia.DEPOSITO);
+        transferencia.setIdTransacao(UUID.randomUUID().toString());
+        transferencia.setNatureza(NaturezaLancamento.CREDITO);
         return transferencia;
     }
 
     public Transferencia mapTransferenciaSaque(TransferenciaDTO transferenciaDTO, Conta destinatario) {
         Transferencia transferencia = mapDtoToModel(transferenciaDTO);
-        transferencia.setValor(transferencia.getValor());
         transferencia.setNomeOperadorTransacao(destinatario.getNomeResponsavel());
         transferencia.setContaId(destinatario);
         transferencia.setDataTransferencia(LocalDateTime.now());
         transferencia.setTipo(TipoTransferencia.SAQUE);
+        transferencia.setIdTransacao(UUID.randomUUID().toString());
+        transferencia.setNatureza(NaturezaLancamento.DEBITO);
         return transferencia;
     }
 
@@ -121,12 +159,44 @@ public class TransferenciaMapper {
         return contaPageDto.map(this::mapEntityToDto);
     }
 
+    public List<TransferenciaDTO> mapEntityListToDtoList(List<TransferenciaEntity> transferenciasEntities) {
+        return transferenciasEntities.stream()
+                .map(this::mapEntityToDto)
+                .collect(Collectors.toList());
+    }
+
+    // Sem a conta: a exportacao e sempre de uma conta so
+    public TransferenciaDTO mapExportacaoToDto(TransferenciaExportacaoProjection linha) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setTipo(linha.getTipo());
+        transferenciaDTO.setValor(linha.getValor());
+        transferenciaDTO.setDataTransferencia(linha.getDataTransferencia());
+        transferenciaDTO.setNomeOperadorTransacao(linha.getNomeOperadorTransacao());
+        transferenciaDTO.setIdTransacao(linha.getIdTransacao());
+        transferenciaDTO.setNatureza(linha.getNatureza());
+        return transferenciaDTO;
+    }
+
+    public LancamentoExtratoDTO mapExtratoToDto(LancamentoExtratoProjection linha) {
+        LancamentoExtratoDTO lancamentoDTO = new LancamentoExtratoDTO();
+        lancamentoDTO.setDataTransferencia(linha.getDataTransferencia());
+        lancamentoDTO.setValor(Dinheiro.de(linha.getValor()));
+        lancamentoDTO.setTipo(TipoTransferencia.values()[linha.getTipo()]);
+        lancamentoDTO.setNatureza(NaturezaLancamento.values()[linha.getNatureza()]);
+        lancamentoDTO.setNomeOperadorTransacao(linha.getNomeOperadorTransacao());
+        lancamentoDTO.setIdTransacao(linha.getIdTransacao());
+        lancamentoDTO.setSaldo(Dinheiro.de(linha.getSaldo()));
+        return lancamentoDTO;
+    }
+
     private TransferenciaDTO mapEntityToDto(TransferenciaEntity transferenciaEntity) {
         TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
         transferenciaDTO.setTipo(transferenciaEntity.getTipo());
         transferenciaDTO.setValor(transferenciaEntity.getValor());
         transferenciaDTO.setDataTransferencia(transferenciaEntity.getDataTransferencia());
         transferenciaDTO.setNomeOperadorTransacao(transferenciaEntity.getNomeOperadorTransacao());
+        transferenciaDTO.setIdTransacao(transferenciaEntity.getIdTransacao());
+        transferenciaDTO.setNatureza(transferenciaEntity.getNatureza());
 
         Conta contaModel = new Conta();
         contaModel.setNomeResponsavel(transferenciaEntity.getConta().getNomeResponsavel());
@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 
 import javax.validation.Valid;
@@ -20,6 +21,8 @@ import java.util.Optional;
 
 public class ContaServiceImpl implements IContaServicePort {
     private static final Logger LOGGER = LoggerFactory.getLogger(ContaServiceImpl.class);
+    // Termos menores nao tem trigrama: so poderiam ser atendidos varrendo todas as contas
+    private static final int TAMANHO_MINIMO_TERMO_BUSCA = 3;
 
     private final IContaRepositoryPort contaRepository;
     private final ContaMapper contaMapper;
@@ -82,6 +85,18 @@ public class ContaServiceImpl implements IContaServicePort {
         }
     }
 
+    @Override
+    public ResponseEntity<Slice<ContaDTO>> buscarContasPorNomeResponsavel(final String termo, final Pageable pageable) {
+        validarTermoBusca(termo);
+        try {
+            LOGGER.info("Buscando contas pelo nome do responsável: {}", termo);
+            return ResponseEntity.ok(contaRepository.buscarPorNomeResponsavel(termo, pageable));
+        } catch (ContaNaoEncontradaException e) {
+            LOGGER.error("Erro ao buscar contas pelo nome do responsavel: {}", termo, e);
+            throw new ContaNaoEncontradaException("Erro ao buscar contas pelo nome do responsavel: " + termo);
+        }
+    }
+
     @Override
     public ResponseEntity<Void> salvarConta(@Valid final ContaDTO contaDTO) {
         try {
@@ -107,6 +122,12 @@ public class ContaServiceImpl implements IContaServicePort {
         return ResponseEntity.ok().build();
     }
 
+    @Override
+    public ResponseEntity<Integer> indexarNomesPendentes() {
+        LOGGER.info("Indexando nomes de contas pendentes");
+        return ResponseEntity.ok(contaRepository.indexarNomesPendentes());
+    }
+
     private void validarId(final int id) {
         if (id <= 0) {
             throw new IllegalArgumentException("O ID da conta nao pode ser nulo.");
@@ -118,4 +139,10 @@ public class ContaServiceImpl implements IContaServicePort {
             throw new IllegalArgumentException("O nome do responsavel da conta nao pode ser nulo ou vazio.");
         }
     }
-}
\ No newline at end of file
+
+    private void validarTermoBusca(final String termo) {
+        if (termo == null || termo.trim().length() < TAMANHO_MINIMO_TERMO_BUSCA) {
+            throw new IllegalArgumentException("O termo de busca deve ter pelo menos " + TAMANHO_MINIMO_TERMO_BUSCA + " caracteres.");
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package br.com.banco.domain.adaptadores.services;
+
+import br.com.banco.application.dtos.ResultadoImportacaoDTO;
+import br.com.banco.application.importacao.LeitorCsvImportacao;
+import br.com.banco.application.importacao.LoteImportacao;
+import br.com.banco.domain.exception.ImportacaoInvalidaException;
+import br.com.banco.domain.models.CheckpointImportacao;
+import br.com.banco.domain.ports.interfaces.IFiltroContasPort;
+import br.com.banco.domain.ports.interfaces.IImportacaoServicePort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.repositories.IImportacaoRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Importação de contas e lançamentos históricos a partir de um CSV do diretório de importação (ver
+ * {@link LeitorCsvImportacao} para o formato).
+ * <p>
+ * O arquivo é mapeado em memória em janelas de {@code tamanhoJanela} bytes e lido em lotes de {@code tamanhoLote}
+ * registros. Antes de cada lote ser gravado, os IDs das contas citadas e ainda não vistas são conferidos no banco com
+ * uma única consulta. Uma importação retomada confere o CRC32 dos bytes já gravados antes de continuar.
+ */
+public class ImportacaoServiceImpl implements IImportacaoServicePort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportacaoServiceImpl.class);
+
+    private final IImportacaoRepositoryPort importacaoRepository;
+    private final ITransferenciaRepositoryPort transferenciaRepository;
+    private final IFiltroContasPort filtroContas;
+    private final IMotorSaldoPort motorSaldo;
+    private final Path diretorio;
+    private final int tamanhoLote;
+    private final int tamanhoJanela;
+    private final Set<String> emAndamento = ConcurrentHashMap.newKeySet();
+
+    public ImportacaoServiceImpl(IImportacaoRepositoryPort importacaoRepository, ITransferenciaRepositoryPort transferenciaRepository,
+                                 IFiltroContasPort filtroContas, IMotorSaldoPort motorSaldo,
+                                 Path diretorio, int tamanhoLote, int tamanhoJanela) {
+        this.importacaoRepository = importacaoRepository;
+        this.transferenciaRepository = transferenciaRepository;
+        this.filtroContas = filtroContas;
+        this.motorSaldo = motorSaldo;
+        this.diretorio = diretorio.toAbsolutePath().normalize();
+        this.tamanhoLote = tamanhoLote;
+        this.tamanhoJanela = tamanhoJanela;
+    }
+
+    @Override
+    public ResponseEntity<ResultadoImportacaoDTO> importar(final String arquivo) {
+        Path caminho = resolver(arquivo);
+        String nome = diretorio.relativize(caminho).toString();
+        if (!emAndamento.add(nome)) {
+            throw new ImportacaoInvalidaException("A importacao de " + nome + " ja esta em andamento");
+        }
+
+        try {
+            CheckpointImportacao checkpoint = importacaoRepository.obterCheckpoint(nome).orElseGet(() -> new CheckpointImportacao(nome));
+            long retomadaNaLinha = checkpoint.getLinhas();
+
+            if (checkpoint.isConcluida()) {
+                LOGGER.info("Importacao de {} ja concluida", nome);
+            } else {
+                LOGGER.info("Importando {} a partir da linha {}", nome, retomadaNaLinha + 1);
+                gravarLotes(caminho, checkpoint);
+                concluir(checkpoint);
+                LOGGER.info("Importacao de {} concluida: {} contas e {} lancamentos em {} linhas", nome,
+                        checkpoint.getContas(), checkpoint.getLancamentos(), checkpoint.getLinhas());
+            }
+
+            return ResponseEntity.ok(new ResultadoImportacaoDTO(nome, checkpoint.getLinhas(), checkpoint.getContas(),
+                    checkpoint.getLancamentos(), retomadaNaLinha));
+        } catch (ImportacaoInvalidaException e) {
+            LOGGER.error("Importacao de {} interrompida: {}", nome, e.getMessage());
+            throw e;
+        } catch (IOException e) {
+            LOGGER.error("Erro ao ler o arquivo de importacao {}", nome, e);
+            throw new ImportacaoInvalidaException("Erro ao ler o arquivo " + nome);
+        } finally {
+            emAndamento.remove(nome);
+        }
+    }
+
+    // Caminhos fora do diretorio de importacao, inclusive por links, sao recusados como inexistentes
+    private Path resolver(final String arquivo) {
+        if (arquivo == null || arquivo.isBlank()) {
+            throw new ImportacaoInvalidaException("Arquivo de importacao nao informado");
+        }
+        try {
+            Path caminho = diretorio.resolve(arquivo).normalize();
+            if (caminho.startsWith(diretorio) && caminho.toRealPath().startsWith(diretorio.toRealPath()) && Files.isRegularFile(caminho)) {
+                return caminho;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Arquivo de importacao {} inacessivel", arquivo, e);
+        }
+        throw new ImportacaoInvalidaException("Arquivo de importacao nao encontrado: " + arquivo);
+    }
+
+    private void gravarLotes(final Path caminho, final CheckpointImportacao checkpoint) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            CRC32 crc = conferirParteGravada(canal, checkpoint, tamanho);
+            LeitorCsvImportacao leitor = new LeitorCsvImportacao(checkpoint.getLinhas());
+            LoteImportacao lote = new LoteImportacao(tamanhoLote);
+            Set<Integer> contasConhecidas = new HashSet<>();
+
+            long posicao = checkpoint.getPosicao();
+            while (posicao < tamanho) {
+                MappedByteBuffer janela = canal.map(FileChannel.MapMode.READ_ONLY, posicao, Math.min(tamanhoJanela, tamanho - posicao));
+                boolean fimDoArquivo = posicao + janela.limit() == tamanho;
+                int inicioLote = 0;
+
+                while (leitor.ler(janela, fimDoArquivo, lote)) {
+                    if (lote.isCheio()) {
+                        crc.update(trecho(janela, inicioLote, janela.position()));
+                        inicioLote = janela.position();
+                        gravar(lote, checkpoint, posicao + inicioLote, leitor.getLinha(), crc, contasConhecidas);
+                    }
+                }
+                if (janela.position() == 0) {
+                    throw new ImportacaoInvalidaException("Linha " + (leitor.getLinha() + 1) + ": mais longa que a janela de leitura de "
+                            + tamanhoJanela + " bytes");
+                }
+
+                // O lote incompleto continua na proxima janela, a partir da primeira linha que nao coube nesta
+                crc.update(trecho(janela, inicioLote, janela.position()));
+                posicao += janela.position();
+            }
+
+            if (!lote.isVazio()) {
+                gravar(lote, checkpoint, posicao, leitor.getLinha(), crc, contasConhecidas);
+            }
+            checkpoint.setPosicao(posicao);
+            checkpoint.setLinhas(leitor.getLinha());
+            checkpoint.setCrc(crc.getValue());
+        }
+    }
+
+    /**
+     * Calcula o CRC32 dos bytes antes do checkpoint e o compara com o gravado, deixando-o pronto para continuar.
+     */
+    private CRC32 conferirParteGravada(final FileChannel canal, final CheckpointImportacao checkpoint, final long tamanho) throws IOException {
+        CRC32 crc = new CRC32();
+        if (checkpoint.getPosicao() > tamanho) {
+            throw new ImportacaoInvalidaException("O arquivo " + checkpoint.getArquivo() + " mudou desde a ultima execucao da importacao");
+        }
+        for (long posicao = 0; posicao < checkpoint.getPosicao(); posicao += tamanhoJanela) {
+            crc.update(canal.map(FileChannel.MapMode.READ_ONLY, posicao, Math.min(tamanhoJanela, checkpoint.getPosicao() - posicao)));
+        }
+        if (crc.getValue() != checkpoint.getCrc()) {
+            throw new ImportacaoInvalidaException("O arquivo " + checkpoint.getArquivo() + " mudou desde a ultima execucao da importacao");
+        }
+        return crc;
+    }
+
+    private void gravar(final LoteImportacao lote, final CheckpointImportacao checkpoint, final long posicao, final long linhas,
+                        final CRC32 crc, final Set<Integer> contasConhecidas) {
+        resolverContas(lote, contasConhecidas);
+        // Antes do commit, como em ContaRepositoryImpl: a conta nao pode ser recusada pelo filtro depois de gravada
+        for (int i = 0; i < lote.getContas(); i++) {
+            filtroContas.registrarConta(lote.getIdConta(i));
+        }
+
+        if (lote.getContas() > 0) {
+            int maiorId = 0;
+            for (int i = 0; i < lote.getContas(); i++) {
+                maiorId = Math.max(maiorId, lote.getIdConta(i));
+            }
+            importacaoRepository.ajustarGeracaoIdsContas(maiorId);
+        }
+
+        checkpoint.setPosicao(posicao);
+        checkpoint.setLinhas(linhas);
+        checkpoint.setCrc(crc.getValue());
+        checkpoint.setContas(checkpoint.getContas() + lote.getContas());
+        checkpoint.setLancamentos(checkpoint.getLancamentos() + lote.getLancamentos());
+        if (lote.getDataMinima() != null) {
+            checkpoint.registrarPeriodo(lote.getDataMinima(), lote.getDataMaxima());
+        }
+        importacaoRepository.gravarLote(lote, checkpoint);
+        // Os saldos materializados ja tem os lancamentos do lote, que o motor nao viu
+        Set<Integer> contasMovimentadas = new HashSet<>();
+        for (int i = 0; i < lote.getLancamentos(); i++) {
+            contasMovimentadas.add(lote.getContaLancamento(i));
+        }
+        motorSaldo.invalidar(contasMovimentadas);
+        LOGGER.info("Importacao de {}: {} linhas gravadas", checkpoint.getArquivo(), linhas);
+        lote.limpar();
+    }
+
+    /**
+     * Confere que as contas do lote são novas e que os lançamentos são de contas do arquivo ou já gravadas. As contas
+     * conferidas ficam em {@code contasConhecidas}, e só as outras vão ao banco.
+     */
+    private void resolverContas(final LoteImportacao lote, final Set<Integer> contasConhecidas) {
+        List<Integer> novas = new ArrayList<>(lote.getContas());
+        for (int i = 0; i < lote.getContas(); i++) {
+            if (!contasConhecidas.add(lote.getIdConta(i))) {
+                throw new ImportacaoInvalidaException("Linha " + lote.getLinhaConta(i) + ": conta " + lote.getIdConta(i) + " repetida");
+            }
+            novas.add(lote.getIdConta(i));
+        }
+        Set<Integer> existentes = importacaoRepository.obterContasExistentes(novas);
+        for (int i = 0; i < lote.getContas(); i++) {
+            if (existentes.contains(lote.getIdConta(i))) {
+                throw new ImportacaoInvalidaException("Linha " + lote.getLinhaConta(i) + ": conta " + lote.getIdConta(i) + " ja existe");
+            }
+        }
+
+        Set<Integer> desconhecidas = new HashSet<>();
+        for (int i = 0; i < lote.getLancamentos(); i++) {
+            if (!contasConhecidas.contains(lote.getContaLancamento(i))) {
+                desconhecidas.add(lote.getContaLancamento(i));
+            }
+        }
+        if (desconhecidas.isEmpty()) {
+            return;
+        }
+        contasConhecidas.addAll(importacaoRepository.obterContasExistentes(desconhecidas));
+        for (int i = 0; i < lote.getLancamentos(); i++) {
+            if (!contasConhecidas.contains(lote.getContaLancamento(i))) {
+                throw new ImportacaoInvalidaException("Linha " + lote.getLinhaLancamento(i) + ": conta " + lote.getContaLancamento(i) + " nao encontrada");
+            }
+        }
+    }
+
+    /**
+     * Descarta o que fica em memória sobre o período importado; os saldos e os totais diários já foram atualizados
+     * em cada lote. Uma execução interrompida aqui refaz o descarte na próxima chamada, já que o checkpoint só é
+     * marcado como concluído no fim.
+     */
+    private void concluir(final CheckpointImportacao checkpoint) {
+        if (checkpoint.getLancamentos() > 0) {
+            transferenciaRepository.registrarLancamentosImportados(checkpoint.getDataMinima(), checkpoint.getDataMaxima());
+        }
+        checkpoint.setConcluida(true);
+        importacaoRepository.salvarCheckpoint(checkpoint);
+    }
+
+    private static ByteBuffer trecho(final ByteBuffer janela, final int inicio, final int fim) {
+        return janela.duplicate().position(inicio).limit(fim);
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.banco.domain.adaptadores.services;
+
+import br.com.banco.application.dtos.DivergenciaSaldoDTO;
+import br.com.banco.domain.exception.SaldoNaoEncontradoException;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import br.com.banco.domain.ports.repositories.ICheckpointSaldoRepositoryPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITotalDiarioRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+
+public class SaldoContaServiceImpl implements ISaldoContaServicePort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaldoContaServiceImpl.class);
+
+    // Lancamentos gravados com LocalDateTime.now() pouco antes da meia-noite ainda podem estar em transacoes abertas
+    public static final Duration MARGEM_FECHAMENTO_DIA = Duration.ofMinutes(5);
+
+    private final ISaldoContaRepositoryPort saldoContaRepository;
+    private final ICheckpointSaldoRepositoryPort checkpointSaldoRepository;
+    private final ITotalDiarioRepositoryPort totalDiarioRepository;
+
+    // O agendador e os endpoints podem disparar a mesma rotina ao mesmo tempo; as duas gravariam o mesmo dia
+    private final Lock geracaoCheckpoints = new ReentrantLock();
+    private final Lock consolidacaoTotais = new ReentrantLock();
+
+    public SaldoContaServiceImpl(ISaldoContaRepositoryPort saldoContaRepository, ICheckpointSaldoRepositoryPort checkpointSaldoRepository,
+                                 ITotalDiarioRepositoryPort totalDiarioRepository) {
+        this.saldoContaRepository = saldoContaRepository;
+        this.checkpointSaldoRepository = checkpointSaldoRepository;
+        this.totalDiarioRepository = totalDiarioRepository;
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<Integer> reconstruirSaldos() {
+        try {
+            LOGGER.info("Reconstruindo saldos materializados");
+            Map<Integer, BigDecimal> saldos = saldoContaRepository.calcularSaldosPelosLancamentos();
+            int contas = saldoContaRepository.substituirSaldos(saldos);
+
+            LOGGER.info("Saldos de {} contas reconstruidos com sucesso", contas);
+            return ResponseEntity.ok(contas);
+        } catch (SaldoNaoEncontradoException e) {
+            LOGGER.error("Erro ao reconstruir saldos materializados", e);
+            throw new SaldoNaoEncontradoException("Ocorreu um erro ao reconstruir os saldos.");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<DivergenciaSaldoDTO>> verificarSaldos() {
+        try {
+            LOGGER.info("Verificando saldos materializados");
+            Map<Integer, BigDecimal> materializados = saldoContaRepository.obterSaldosMaterializados();
+            Map<Integer, BigDecimal> lancamentos = saldoContaRepository.calcularSaldosPelosLancamentos();
+
+            Set<Integer> contas = new HashSet<>(materializados.keySet());
+            contas.addAll(lancamentos.keySet());
+
+            List<DivergenciaSaldoDTO> divergencias = new ArrayList<>();
+            for (Integer contaId : contas) {
+                BigDecimal saldoMaterializado = materializados.getOrDefault(contaId, BigDecimal.ZERO);
+                BigDecimal saldoLancamentos = lancamentos.getOrDefault(contaId, BigDecimal.ZERO);
+
+                if (saldoMaterializado.compareTo(saldoLancamentos) != 0) {
+                    divergencias.add(new DivergenciaSaldoDTO(contaId, saldoMaterializado, saldoLancamentos));
+                }
+            }
+
+            if (!divergencias.isEmpty()) {
+                LOGGER.warn("{} contas com saldo materializado divergente dos lancamentos", divergencias.size());
+            }
+
+            return ResponseEntity.ok(divergencias);
+        } catch (SaldoNaoEncontradoException e) {
+            LOGGER.error("Erro ao verificar saldos materializados", e);
+            throw new SaldoNaoEncontradoException("Ocorreu um erro ao verificar os saldos.");
+        }
+    }
+
+    @Override
+    public ResponseEntity<Integer> gerarCheckpoints() {
+        try {
+            int checkpoints = processarDiasEncerrados(geracaoCheckpoints, checkpointSaldoRepository::obterProximoDiaPendente,
+                    checkpointSaldoRepository::gerarCheckpoints);
+
+            LOGGER.info("{} checkpoints de saldo gravados", checkpoints);
+            return ResponseEntity.ok(checkpoints);
+        } catch (SaldoNaoEncontradoException e) {
+            LOGGER.error("Erro ao gerar checkpoints de saldo", e);
+            throw new SaldoNaoEncontradoException("Ocorreu um erro ao gerar os checkpoints de saldo.");
+        }
+    }
+
+    @Override
+    public ResponseEntity<Integer> consolidarTotaisDiarios() {
+        try {
+            int totais = processarDiasEncerrados(consolidacaoTotais, totalDiarioRepository::obterProximoDiaPendente,
+                    totalDiarioRepository::consolidarDia);
+
+            LOGGER.info("{} totais diarios consolidados", totais);
+            return ResponseEntity.ok(totais);
+        } catch (SaldoNaoEncontradoException e) {
+            LOGGER.error("Erro ao consolidar totais diarios", e);
+            throw new SaldoNaoEncontradoException("Ocorreu um erro ao consolidar os totais diarios.");
+        }
+    }
+
+    @Override
+    public ResponseEntity<Integer> reconstruirTotaisDiarios() {
+        try {
+            LOGGER.info("Reconstruindo totais diarios");
+            int totais;
+            consolidacaoTotais.lock();
+            try {
+                totais = totalDiarioRepository.reconstruir();
+                processarDiasEncerrados(consolidacaoTotais, totalDiarioRepository::obterProximoDiaPendente,
+                        totalDiarioRepository::consolidarDia);
+            } finally {
+                consolidacaoTotais.unlock();
+            }
+
+            LOGGER.info("{} totais diarios por conta reconstruidos com sucesso", totais);
+            return ResponseEntity.ok(totais);
+        } catch (SaldoNaoEncontradoException e) {
+            LOGGER.error("Erro ao reconstruir totais diarios", e);
+            throw new SaldoNaoEncontradoException("Ocorreu um erro ao reconstruir os totais diarios.");
+        }
+    }
+
+    @Override
+    public ResponseEntity<Integer> completarTotaisDiarios() {
+        if (totalDiarioRepository.historicoCompleto()) {
+            return ResponseEntity.ok(0);
+        }
+
+        LOGGER.info("Totais diarios nao cobrem todos os lancamentos");
+        return reconstruirTotaisDiarios();
+    }
+
+    /**
+     * Processa em ordem os dias encerrados ainda pendentes, um por chamada de {@code processarDia}. Uma execução
+     * concorrente da mesma rotina espera esta terminar e encontra apenas os dias que ainda restarem.
+     */
+    private int processarDiasEncerrados(final Lock execucao, final Function<LocalDate, Optional<LocalDate>> proximoDiaPendente,
+                                        final ToIntFunction<LocalDate> processarDia) {
+        execucao.lock();
+        try {
+            LocalDate limite = LocalDateTime.now().minus(MARGEM_FECHAMENTO_DIA).toLocalDate();
+            int processados = 0;
+
+            Optional<LocalDate> dia = proximoDiaPendente.apply(limite);
+            while (dia.isPresent()) {
+                processados += processarDia.applyAsInt(dia.get());
+                dia = proximoDiaPendente.apply(limite);
+            }
+            return processados;
+        } finally {
+            execucao.unlock();
+        }
+    }
+}
@@ -1,41 +1,89 @@
 package br.com.banco.domain.adaptadores.services;
 
+import br.com.banco.application.dtos.ItemLoteDTO;
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
+import br.com.banco.application.dtos.ResultadoItemLoteDTO;
+import br.com.banco.application.dtos.ResultadoLoteDTO;
 import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.application.exportacao.EscritorTransferencias;
+import br.com.banco.application.exportacao.FormatoExportacao;
 import br.com.banco.application.mappers.TransferenciaMapper;
+import br.com.banco.domain.enums.SituacaoItemLote;
+import br.com.banco.domain.enums.TipoTransferencia;
 import br.com.banco.domain.exception.ContaNaoEncontradaException;
+import br.com.banco.domain.exception.SaldoInsuficienteException;
 import br.com.banco.domain.exception.SaldoNaoEncontradoException;
 import br.com.banco.domain.exception.TransferenciaInvalidaException;
 import br.com.banco.domain.exception.TransferenciaNaoEncontradaException;
 import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.CursorTransferencia;
+import br.com.banco.domain.models.FiltroTransferencia;
 import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IControleConcorrenciaPort;
+import br.com.banco.domain.ports.interfaces.IFiltroContasPort;
+import br.com.banco.domain.ports.interfaces.IIdempotenciaPort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
 import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.domain.ports.repositories.ICheckpointSaldoRepositoryPort;
 import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
 import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 
 public class TransferenciaServiceImpl implements ITransferenciaServicePort {
     private static final Logger LOGGER = LoggerFactory.getLogger(TransferenciaServiceImpl.class);
 
+    // Itens por transacao no lote: limita o tempo dos bloqueios e o tamanho do contexto de persistencia
+    private static final int TAMANHO_BLOCO_LOTE = 500;
+
     private final ITransferenciaRepositoryPort transferenciaRepository;
     private final TransferenciaMapper transferenciaMapper;
     private final IContaRepositoryPort contaRepository;
+    private final IMotorSaldoPort motorSaldo;
+    private final IControleConcorrenciaPort controleConcorrencia;
+    private final ICheckpointSaldoRepositoryPort checkpointSaldoRepository;
+    private final IFiltroContasPort filtroContas;
+    private final IIdempotenciaPort idempotencia;
 
     public TransferenciaServiceImpl(ITransferenciaRepositoryPort transferenciaRepository,
                                     TransferenciaMapper transferenciaMapper,
-                                    IContaRepositoryPort contaRepository) {
+                                    IContaRepositoryPort contaRepository,
+                                    IMotorSaldoPort motorSaldo,
+                                    IControleConcorrenciaPort controleConcorrencia,
+                                    ICheckpointSaldoRepositoryPort checkpointSaldoRepository,
+                                    IFiltroContasPort filtroContas,
+                                    IIdempotenciaPort idempotencia) {
         this.transferenciaRepository = transferenciaRepository;
         this.transferenciaMapper = transferenciaMapper;
         this.contaRepository = contaRepository;
+        this.motorSaldo = motorSaldo;
+        this.controleConcorrencia = controleConcorrencia;
+        this.checkpointSaldoRepository = checkpointSaldoRepository;
+        this.filtroContas = filtroContas;
+        this.idempotencia = idempotencia;
     }
 
     @Override
@@ -55,22 +103,23 @@ public class TransferenciaServiceImpl implements ITransferenciaServicePort {
                                                                                         final String nomeOperador,
                                                                                         final LocalDateTime dataInicial,
                                                                                         final LocalDateTime dataFinal) {
-        try {
-            LOGGER.info("Obtendo transferencias por operador e data");
-            Page<TransferenciaDTO> transferencias;
-
-            if (nomeOperador != null && dataInicial != null && dataFinal != null) {
-                transferencias = transferenciaRepository.obterTransferenciasPorOperadorEData(pageable, nomeOperador,
-                        dataInicial, dataFinal);
-            } else if (nomeOperador != null) {
-                transferencias = transferenciaRepository.obterTransferenciasPorOperador(pageable, nomeOperador);
-            } else if (dataInicial != null && dataFinal != null) {
-                transferencias = transferenciaRepository.obterTransferenciasPorPeriodo(pageable, dataInicial, dataFinal);
-            } else {
-                transferencias = transferenciaRepository.obterTodasTransferencias(pageable);
-            }
+        LOGGER.info("Obtendo transferencias por operador e data");
+        FiltroTransferencia filtro = new FiltroTransferencia();
+        filtro.setNomeOperador(nomeOperador);
+        // O periodo so filtra com as duas datas informadas
+        if (dataInicial != null && dataFinal != null) {
+            filtro.setDataInicial(dataInicial);
+            filtro.setDataFinal(dataFinal);
+        }
+        return buscarTransferencias(pageable, filtro);
+    }
 
-            return ResponseEntity.ok(transferencias);
+    @Override
+    public ResponseEntity<Page<TransferenciaDTO>> buscarTransferencias(final Pageable pageable, final FiltroTransferencia filtro) {
+        validarFiltro(filtro);
+        try {
+            LOGGER.info("Buscando transferencias por filtro");
+            return ResponseEntity.ok(transferenciaRepository.buscarTransferencias(pageable, filtro));
         } catch (TransferenciaNaoEncontradaException e) {
             LOGGER.error("Transferência não encontrada", e);
             throw new TransferenciaNaoEncontradaException("Transferência não encontrada.");
@@ -98,24 +147,40 @@ public class TransferenciaServiceImpl implements ITransferenciaServicePort {
     @Override
     public ResponseEntity<TransferenciaDTO> realizarTransferencia(@Valid final TransferenciaDTO transferenciaDTO,
                                                                   final int numeroConta, final int numeroContaOrigem) {
+        return realizarTransferencia(transferenciaDTO, numeroConta, numeroContaOrigem, null);
+    }
+
+    @Override
+    public ResponseEntity<TransferenciaDTO> realizarTransferencia(@Valid final TransferenciaDTO transferenciaDTO,
+                                                                  final int numeroConta, final int numeroContaOrigem,
+                                                                  final String chaveIdempotencia) {
         try {
             LOGGER.info("Realizando transferencia");
-            Optional<Conta> contaDestinatarioOpt = contaRepository.obterContaPorId(numeroConta);
-            Optional<Conta> contaOrigemOpt = contaRepository.obterContaPorId(numeroContaOrigem);
+            String requisicao = requisicaoIdempotente(TipoTransferencia.TRANSFERENCIA, transferenciaDTO, numeroContaOrigem, numeroConta);
+            TransferenciaDTO transferenciaDTO1 = idempotencia.executar(chaveIdempotencia, requisicao, () -> {
+                exigirContasExistentes(numeroContaOrigem, numeroConta);
+                IMotorSaldoPort.Movimento movimento = motorSaldo.transferir(numeroContaOrigem, numeroConta, transferenciaDTO.getValor());
+                return gravarMovimento(movimento, () -> controleConcorrencia.executar(List.of(numeroContaOrigem, numeroConta), () -> {
+                    Optional<Conta> contaDestinatarioOpt = contaRepository.obterContaPorId(numeroConta);
+                    Optional<Conta> contaOrigemOpt = contaRepository.obterContaPorId(numeroContaOrigem);
 
-            if (contaDestinatarioOpt.isEmpty() || contaOrigemOpt.isEmpty()) {
-                throw new ContaNaoEncontradaException("A conta de destino não foi encontrada.");
-            }
+                    if (contaDestinatarioOpt.isEmpty() || contaOrigemOpt.isEmpty()) {
+                        throw new ContaNaoEncontradaException("A conta de destino não foi encontrada.");
+                    }
 
-            Conta contaDestinatario = contaDestinatarioOpt.get();
-            Conta contaOrigem = contaOrigemOpt.get();
+                    Conta contaDestinatario = contaDestinatarioOpt.get();
+                    Conta contaOrigem = contaOrigemOpt.get();
 
-            Transferencia transferencia = transferenciaMapper.mapTransferencia(transferenciaDTO,
-                    contaDestinatario, contaOrigem);
+                    List<Transferencia> lancamentos = transferenciaMapper.mapLancamentosTransferencia(transferenciaDTO,
+                            contaDestinatario, contaOrigem);
 
-            transferenciaRepository.salvar(transferencia);
+                    transferenciaRepository.salvarLancamentos(lancamentos);
 
-            TransferenciaDTO transferenciaDTO1 = transferenciaMapper.mapModelToDto(transferencia);
+                    TransferenciaDTO resposta = transferenciaMapper.mapModelToDto(lancamentos.get(0));
+                    idempotencia.registrar(chaveIdempotencia, requisicao, resposta);
+                    return resposta;
+                }));
+            });
 
             LOGGER.info("Transferência realizada com sucesso");
 
@@ -128,22 +193,37 @@ public class TransferenciaServiceImpl implements ITransferenciaServicePort {
 
     @Override
     public ResponseEntity<TransferenciaDTO> realizarDeposito(@Valid final TransferenciaDTO transferenciaDTO, final int numeroConta) {
+        return realizarDeposito(transferenciaDTO, numeroConta, null);
+    }
+
+    @Override
+    public ResponseEntity<TransferenciaDTO> realizarDeposito(@Valid final TransferenciaDTO transferenciaDTO, final int numeroConta,
+                                                             final String chaveIdempotencia) {
         try {
             LOGGER.info("Realizando deposito");
-            Optional<Conta> contaDestinatarioOpt = contaRepository.obterContaPorId(numeroConta);
+            String requisicao = requisicaoIdempotente(TipoTransferencia.DEPOSITO, transferenciaDTO, numeroConta);
+            TransferenciaDTO transferenciaDTO1 = idempotencia.executar(chaveIdempotencia, requisicao, () -> {
+                exigirContasExistentes(numeroConta);
+                IMotorSaldoPort.Movimento movimento = motorSaldo.creditar(numeroConta, transferenciaDTO.getValor());
+                return gravarMovimento(movimento, () -> controleConcorrencia.executar(List.of(numeroConta), () -> {
+                    Optional<Conta> contaDestinatarioOpt = contaRepository.obterContaPorId(numeroConta);
 
-            if (contaDestinatarioOpt.isEmpty()) {
-                throw new ContaNaoEncontradaException("A conta de destino não foi encontrada.");
-            }
+                    if (contaDestinatarioOpt.isEmpty()) {
+                        throw new ContaNaoEncontradaException("A conta de destino não foi encontrada.");
+                    }
 
-            Conta contaDestinatario = contaDestinatarioOpt.get();
+                    Conta contaDestinatario = contaDestinatarioOpt.get();
 
-            Transferencia deposito = transferenciaMapper.mapTransferenciaDeposito(transferenciaDTO,
-                    contaDestinatario);
+                    Transferencia deposito = transferenciaMapper.mapTransferenciaDeposito(transferenciaDTO,
+                            contaDestinatario);
 
-            transferenciaRepository.salvar(deposito);
+                    transferenciaRepository.salvar(deposito);
 
-            TransferenciaDTO transferenciaDTO1 = transferenciaMapper.mapModelToDto(deposito);
+                    TransferenciaDTO resposta = transferenciaMapper.mapModelToDto(deposito);
+                    idempotencia.registrar(chaveIdempotencia, requisicao, resposta);
+                    return resposta;
+                }));
+            });
 
             LOGGER.info("Deposito realizado com sucesso");
 
@@ -156,21 +236,36 @@ public class TransferenciaServiceImpl implements ITransferenciaServicePort {
 
     @Override
     public ResponseEntity<TransferenciaDTO> realizarSaque(@Valid final TransferenciaDTO transferenciaDTO, final int numeroConta) {
+        return realizarSaque(transferenciaDTO, numeroConta, null);
+    }
+
+    @Override
+    public ResponseEntity<TransferenciaDTO> realizarSaque(@Valid final TransferenciaDTO transferenciaDTO, final int numeroConta,
+                                                          final String chaveIdempotencia) {
         try {
             LOGGER.info("Realizando saque");
-            Optional<Conta> contaOpt = contaRepository.obterContaPorId(numeroConta);
+            String requisicao = requisicaoIdempotente(TipoTransferencia.SAQUE, transferenciaDTO, numeroConta);
+            TransferenciaDTO transferenciaDTO1 = idempotencia.executar(chaveIdempotencia, requisicao, () -> {
+                exigirContasExistentes(numeroConta);
+                IMotorSaldoPort.Movimento movimento = motorSaldo.debitar(numeroConta, transferenciaDTO.getValor());
+                return gravarMovimento(movimento, () -> controleConcorrencia.executar(List.of(numeroConta), () -> {
+                    Optional<Conta> contaOpt = contaRepository.obterContaPorId(numeroConta);
 
-            if (contaOpt.isEmpty()) {
-                throw new ContaNaoEncontradaException("Conta não encontrada.");
-            }
+                    if (contaOpt.isEmpty()) {
+                        throw new ContaNaoEncontradaException("Conta não encontrada.");
+                    }
 
-            Conta conta = contaOpt.get();
+                    Conta conta = contaOpt.get();
 
-            Transferencia saque = transferenciaMapper.mapTransferenciaSaque(transferenciaDTO, conta);
+                    Transferencia saque = transferenciaMapper.mapTransferenciaSaque(transferenciaDTO, conta);
 
-            transferenciaRepository.salvar(saque);
+                    transferenciaRepository.salvar(saque);
 
-            TransferenciaDTO transferenciaDTO1 = transferenciaMapper.mapModelToDto(saque);
+                    TransferenciaDTO resposta = transferenciaMapper.mapModelToDto(saque);
+                    idempotencia.registrar(chaveIdempotencia, requisicao, resposta);
+                    return resposta;
+                }));
+            });
 
             LOGGER.info("Saque realizado com sucesso");
 
@@ -181,6 +276,187 @@ public class TransferenciaServiceImpl implements ITransferenciaServicePort {
         }
     }
 
+    @Override
+    public ResponseEntity<ResultadoLoteDTO> processarLote(final Iterator<ItemLoteDTO> itens) {
+        LOGGER.info("Processando lote de transferencias");
+        List<ResultadoItemLoteDTO> resultados = new ArrayList<>();
+        Map<Integer, ItemLoteDTO> bloco = new LinkedHashMap<>();
+        int indice = 0;
+
+        while (itens.hasNext()) {
+            try {
+                bloco.put(indice, itens.next());
+            } catch (TransferenciaInvalidaException e) {
+                resultados.add(rejeitado(indice, e.getMessage()));
+            }
+            indice++;
+            if (bloco.size() == TAMANHO_BLOCO_LOTE) {
+                resultados.addAll(processarBloco(bloco));
+                bloco.clear();
+            }
+        }
+        resultados.addAll(processarBloco(bloco));
+
+        resultados.sort(Comparator.comparingInt(ResultadoItemLoteDTO::getIndice));
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO(resultados);
+        LOGGER.info("Lote processado: {} item(ns) processado(s), {} rejeitado(s)", resultado.getProcessados(), resultado.getRejeitados());
+        return ResponseEntity.ok(resultado);
+    }
+
+    // Uma transacao por bloco: um erro ao gravar rejeita o bloco inteiro, sem desfazer os blocos anteriores
+    private List<ResultadoItemLoteDTO> processarBloco(final Map<Integer, ItemLoteDTO> bloco) {
+        List<ResultadoItemLoteDTO> resultados = new ArrayList<>();
+        Map<Integer, ItemLoteDTO> validos = new LinkedHashMap<>();
+        bloco.forEach((indice, item) -> {
+            String erro = validarItemLote(item);
+            if (erro == null) {
+                validos.put(indice, item);
+            } else {
+                resultados.add(rejeitado(indice, erro));
+            }
+        });
+        if (validos.isEmpty()) {
+            return resultados;
+        }
+
+        List<Integer> contas = validos.values().stream()
+                .flatMap(item -> contasDoItem(item).stream())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Integer, IMotorSaldoPort.Movimento> movimentos = new LinkedHashMap<>();
+        validos.forEach((indice, item) -> {
+            try {
+                movimentos.put(indice, aplicarNoMotor(item));
+            } catch (SaldoInsuficienteException e) {
+                resultados.add(rejeitado(indice, e.getMessage()));
+            }
+        });
+        if (movimentos.isEmpty()) {
+            return resultados;
+        }
+
+        Map<Integer, ItemLoteDTO> aplicados = new LinkedHashMap<>();
+        movimentos.keySet().forEach(indice -> aplicados.put(indice, validos.get(indice)));
+        try {
+            List<ResultadoItemLoteDTO> gravados = controleConcorrencia.executar(contas,
+                    () -> gravarBloco(aplicados, contaRepository.obterContasPorIds(contas)));
+            for (ResultadoItemLoteDTO gravado : gravados) {
+                if (gravado.getSituacao() == SituacaoItemLote.PROCESSADO) {
+                    movimentos.get(gravado.getIndice()).confirmar();
+                } else {
+                    movimentos.get(gravado.getIndice()).desfazer();
+                }
+            }
+            resultados.addAll(gravados);
+        } catch (RuntimeException e) {
+            LOGGER.error("Erro ao gravar bloco do lote com {} item(ns)", aplicados.size(), e);
+            movimentos.values().forEach(IMotorSaldoPort.Movimento::desfazer);
+            aplicados.keySet().forEach(indice -> resultados.add(rejeitado(indice, "Erro ao gravar o bloco do item: " + e.getMessage())));
+        }
+        return resultados;
+    }
+
+    private List<ResultadoItemLoteDTO> gravarBloco(final Map<Integer, ItemLoteDTO> itens, final Map<Integer, Conta> contas) {
+        List<ResultadoItemLoteDTO> resultados = new ArrayList<>();
+        List<Transferencia> lancamentos = new ArrayList<>();
+        Set<Integer> movimentadas = new HashSet<>();
+
+        itens.forEach((indice, item) -> {
+            Optional<Integer> ausente = contasDoItem(item).stream().filter(conta -> !contas.containsKey(conta)).findFirst();
+            if (ausente.isPresent()) {
+                resultados.add(rejeitado(indice, "Conta não encontrada: " + ausente.get()));
+                return;
+            }
+            List<Transferencia> doItem = mapearLancamentos(item, contas);
+            lancamentos.addAll(doItem);
+            movimentadas.addAll(contasDoItem(item));
+            resultados.add(new ResultadoItemLoteDTO(indice, SituacaoItemLote.PROCESSADO, doItem.get(0).getIdTransacao(), null));
+        });
+
+        if (!lancamentos.isEmpty()) {
+            transferenciaRepository.salvarLancamentos(lancamentos);
+            motorSaldo.invalidar(movimentadas);
+        }
+        return resultados;
+    }
+
+    private String validarItemLote(final ItemLoteDTO item) {
+        if (item.getTipo() == null) {
+            return "Tipo nao pode ser nulo";
+        }
+        if (item.getValor() == null) {
+            return "Valor nao pode ser nulo";
+        }
+        if (item.getValor().isNegativo()) {
+            return "Valor nao pode ser negativo";
+        }
+        if (item.getNumeroContaDestino() == null || item.getNumeroContaDestino() <= 0) {
+            return "numeroContaDestino invalido";
+        }
+        if (item.getTipo() == TipoTransferencia.TRANSFERENCIA && (item.getNumeroContaOrigem() == null || item.getNumeroContaOrigem() <= 0)) {
+            return "numeroContaOrigem invalido";
+        }
+        for (int conta : contasDoItem(item)) {
+            if (!filtroContas.podeExistir(conta)) {
+                return "Conta não encontrada: " + conta;
+            }
+        }
+        return null;
+    }
+
+    private static List<Integer> contasDoItem(final ItemLoteDTO item) {
+        if (item.getTipo() == TipoTransferencia.TRANSFERENCIA) {
+            return List.of(item.getNumeroContaOrigem(), item.getNumeroContaDestino());
+        }
+        return List.of(item.getNumeroContaDestino());
+    }
+
+    private IMotorSaldoPort.Movimento aplicarNoMotor(final ItemLoteDTO item) {
+        switch (item.getTipo()) {
+            case DEPOSITO:
+                return motorSaldo.creditar(item.getNumeroContaDestino(), item.getValor());
+            case SAQUE:
+                return motorSaldo.debitar(item.getNumeroContaDestino(), item.getValor());
+            default:
+                return motorSaldo.transferir(item.getNumeroContaOrigem(), item.getNumeroContaDestino(), item.getValor());
+        }
+    }
+
+    // O motor recusa o saque sem saldo antes de qualquer acesso ao banco; o movimento so e desfeito se a gravacao falhar
+    private static <T> T gravarMovimento(final IMotorSaldoPort.Movimento movimento, final Supplier<T> gravacao) {
+        boolean gravado = false;
+        try {
+            T resultado = gravacao.get();
+            gravado = true;
+            return resultado;
+        } finally {
+            if (gravado) {
+                movimento.confirmar();
+            } else {
+                movimento.desfazer();
+            }
+        }
+    }
+
+    private List<Transferencia> mapearLancamentos(final ItemLoteDTO item, final Map<Integer, Conta> contas) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(item.getValor());
+        Conta destino = contas.get(item.getNumeroContaDestino());
+
+        switch (item.getTipo()) {
+            case DEPOSITO:
+                return List.of(transferenciaMapper.mapTransferenciaDeposito(transferenciaDTO, destino));
+            case SAQUE:
+                return List.of(transferenciaMapper.mapTransferenciaSaque(transferenciaDTO, destino));
+            default:
+                return transferenciaMapper.mapLancamentosTransferencia(transferenciaDTO, destino, contas.get(item.getNumeroContaOrigem()));
+        }
+    }
+
+    private static ResultadoItemLoteDTO rejeitado(final int indice, final String mensagem) {
+        return new ResultadoItemLoteDTO(indice, SituacaoItemLote.REJEITADO, null, mensagem);
+    }
+
     @Override
     public ResponseEntity<Page<TransferenciaDTO>> obterTransferenciasPorPeriodo(final Pageable pageable,
                                                                                 final LocalDateTime dataInicial,
@@ -226,6 +502,111 @@ public class TransferenciaServiceImpl implements ITransferenciaServicePort {
         }
     }
 
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportarTransferenciasPorConta(final int idConta, final FormatoExportacao formato) {
+        LOGGER.info("Exportando transferencias da conta {} em {}", idConta, formato);
+        // Valida a conta antes de a resposta comecar: depois do primeiro byte nao da mais para responder 404
+        contaRepository.obterContaPorId(idConta);
+
+        StreamingResponseBody corpo = saida -> {
+            EscritorTransferencias escritor = formato.criarEscritor(saida);
+            transferenciaRepository.exportarTransferenciasPorConta(idConta, escritor::escrever);
+            escritor.concluir();
+        };
+        String nomeArquivo = "transferencias-conta-" + idConta + "." + formato.getExtensao();
+
+        return ResponseEntity.ok()
+                .contentType(formato.getTipoConteudo())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(nomeArquivo).build().toString())
+                .body(corpo);
+    }
+
+    @Override
+    public ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTodasTransferenciasAposCursor(final String cursor, final int tamanho) {
+        try {
+            LOGGER.info("Obtendo todas as transferencias por cursor");
+            return ResponseEntity.ok(transferenciaRepository.obterTodasTransferenciasAposCursor(CursorTransferencia.decodificar(cursor), tamanho));
+        } catch (TransferenciaInvalidaException e) {
+            LOGGER.error("Erro ao obter todas as transferencias por cursor");
+            throw new TransferenciaInvalidaException("Ocorreu um erro ao obter todas as transferencias.");
+        }
+    }
+
+    @Override
+    public ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciaPorOperadorEPorDataAposCursor(final String cursor, final int tamanho,
+                                                                                                            final String nomeOperador,
+                                                                                                            final LocalDateTime dataInicial,
+                                                                                                            final LocalDateTime dataFinal) {
+        try {
+            LOGGER.info("Obtendo transferencias por operador e data por cursor");
+            FiltroTransferencia filtro = new FiltroTransferencia();
+            filtro.setNomeOperador(nomeOperador);
+            // O periodo so filtra com as duas datas informadas
+            if (dataInicial != null && dataFinal != null) {
+                filtro.setDataInicial(dataInicial);
+                filtro.setDataFinal(dataFinal);
+            }
+            validarFiltro(filtro);
+            return ResponseEntity.ok(transferenciaRepository.buscarTransferenciasAposCursor(CursorTransferencia.decodificar(cursor), tamanho, filtro));
+        } catch (TransferenciaNaoEncontradaException e) {
+            LOGGER.error("Transferência não encontrada", e);
+            throw new TransferenciaNaoEncontradaException("Transferência não encontrada.");
+        }
+    }
+
+    @Override
+    public ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciasPorPeriodoAposCursor(final String cursor, final int tamanho,
+                                                                                                    final LocalDateTime dataInicial,
+                                                                                                    final LocalDateTime dataFinal) {
+        try {
+            LOGGER.info("Obtendo transferencias por periodo por cursor");
+            return ResponseEntity.ok(transferenciaRepository.obterTransferenciasPorPeriodoAposCursor(CursorTransferencia.decodificar(cursor), tamanho,
+                    dataInicial, dataFinal));
+        } catch (TransferenciaInvalidaException e) {
+            LOGGER.error("Erro ao obter transferencias por periodo por cursor");
+            throw new TransferenciaInvalidaException("Ocorreu um erro ao obter as transferencias por periodo.");
+        }
+    }
+
+    @Override
+    public ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciasPorOperadorAposCursor(final String cursor, final int tamanho,
+                                                                                                     final String nomeOperador) {
+        try {
+            LOGGER.info("Obtendo transferencias por operador por cursor");
+            FiltroTransferencia filtro = new FiltroTransferencia();
+            filtro.setNomeOperador(nomeOperador);
+            return ResponseEntity.ok(transferenciaRepository.buscarTransferenciasAposCursor(CursorTransferencia.decodificar(cursor), tamanho, filtro));
+        } catch (TransferenciaInvalidaException e) {
+            LOGGER.error("Erro ao obter transferencias por operador por cursor");
+            throw new TransferenciaInvalidaException("Ocorreu um erro ao obter as transferencias por operador.");
+        }
+    }
+
+    @Override
+    public ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciasPorContaAposCursor(final String cursor, final int tamanho, final int idConta) {
+        try {
+            LOGGER.info("Obtendo transferencias por conta por cursor");
+            return ResponseEntity.ok(transferenciaRepository.obterTransferenciasPorContaAposCursor(CursorTransferencia.decodificar(cursor), tamanho,
+                    idConta));
+        } catch (TransferenciaInvalidaException e) {
+            LOGGER.error("Erro ao obter transferencias por conta por cursor");
+            throw new TransferenciaInvalidaException("Ocorreu um erro ao obter as transferencias por conta.");
+        }
+    }
+
+    @Override
+    public ResponseEntity<PaginaCursorDTO<LancamentoExtratoDTO>> obterExtratoPorContaAposCursor(final String cursor, final int tamanho, final int idConta) {
+        try {
+            LOGGER.info("Obtendo extrato da conta {} por cursor", idConta);
+            CursorTransferencia posicao = CursorTransferencia.decodificar(cursor);
+            contaRepository.obterContaPorId(idConta);
+            return ResponseEntity.ok(transferenciaRepository.obterExtratoPorContaAposCursor(posicao, tamanho, idConta));
+        } catch (TransferenciaInvalidaException e) {
+            LOGGER.error("Erro ao obter extrato da conta {} por cursor", idConta);
+            throw new TransferenciaInvalidaException("Ocorreu um erro ao obter o extrato da conta.");
+        }
+    }
+
     @Override
     public ResponseEntity<BigDecimal> obterSaldoTotalPorPeriodo(final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
         try {
@@ -251,4 +632,50 @@ public class TransferenciaServiceImpl implements ITransferenciaServicePort {
             throw new SaldoNaoEncontradoException("Ocorreu um erro ao obter o saldo total por operador.");
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public ResponseEntity<BigDecimal> obterSaldoEm(final int numeroConta, final LocalDateTime instante) {
+        try {
+            LOGGER.info("Obtendo saldo da conta {} em {}", numeroConta, instante);
+            BigDecimal saldo = checkpointSaldoRepository.obterSaldoEm(numeroConta, instante);
+
+            return ResponseEntity.ok(saldo);
+        } catch (SaldoNaoEncontradoException e) {
+            LOGGER.error("Erro ao obter saldo da conta {} em {}", numeroConta, instante, e);
+            throw new SaldoNaoEncontradoException("Ocorreu um erro ao obter o saldo da conta no instante informado.");
+        }
+    }
+
+    // Operacao, contas e valor: a mesma chave de idempotencia com outra requisicao e recusada
+    private static String requisicaoIdempotente(final TipoTransferencia tipo, final TransferenciaDTO transferenciaDTO, final int... contas) {
+        StringBuilder requisicao = new StringBuilder(tipo.name());
+        for (int conta : contas) {
+            requisicao.append(':').append(conta);
+        }
+        return requisicao.append(':').append(transferenciaDTO.getValor()).toString();
+    }
+
+    // Contas recusadas pelo filtro nunca existiram: a operacao termina antes de bloquear qualquer conta no banco
+    private void exigirContasExistentes(final int... contas) {
+        for (int conta : contas) {
+            if (!filtroContas.podeExistir(conta)) {
+                throw new ContaNaoEncontradaException("Conta não encontrada: " + conta);
+            }
+        }
+    }
+
+    private void validarFiltro(final FiltroTransferencia filtro) {
+        if (filtro.getDataInicial() != null && filtro.getDataFinal() != null && filtro.getDataInicial().isAfter(filtro.getDataFinal())) {
+            throw new IllegalArgumentException("A data inicial nao pode ser posterior a data final.");
+        }
+        if (filtro.getValorMinimo() != null && filtro.getValorMaximo() != null && filtro.getValorMinimo().compareTo(filtro.getValorMaximo()) > 0) {
+            throw new IllegalArgumentException("O valor minimo nao pode ser maior que o valor maximo.");
+        }
+    }
+
+    @Override
+    public String obterVersaoConta(final int idConta) {
+        LOGGER.info("Obtendo versao da conta {}", idConta);
+        return transferenciaRepository.obterVersaoConta(idConta);
+    }
+}
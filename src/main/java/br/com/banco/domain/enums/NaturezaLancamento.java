@@ -0,0 +1,6 @@
+package br.com.banco.domain.enums;
+
+public enum NaturezaLancamento {
+    CREDITO,
+    DEBITO
+}
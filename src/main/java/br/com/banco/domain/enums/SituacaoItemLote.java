@@ -0,0 +1,6 @@
+package br.com.banco.domain.enums;
+
+public enum SituacaoItemLote {
+    PROCESSADO,
+    REJEITADO
+}
@@ -0,0 +1,7 @@
+package br.com.banco.domain.exception;
+
+public class ChaveIdempotenciaInvalidaException extends RuntimeException {
+    public ChaveIdempotenciaInvalidaException(String message) {
+        super(message);
+    }
+}
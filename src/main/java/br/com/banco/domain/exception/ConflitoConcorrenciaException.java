@@ -0,0 +1,7 @@
+package br.com.banco.domain.exception;
+
+public class ConflitoConcorrenciaException extends RuntimeException {
+    public ConflitoConcorrenciaException(String message) {
+        super(message);
+    }
+}
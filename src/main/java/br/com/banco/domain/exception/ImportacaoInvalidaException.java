@@ -0,0 +1,7 @@
+package br.com.banco.domain.exception;
+
+public class ImportacaoInvalidaException extends RuntimeException {
+    public ImportacaoInvalidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.banco.domain.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progresso da importação de um arquivo, gravado na mesma transação de cada lote.
+ * <p>
+ * {@code posicao} é o byte seguinte ao último lote gravado e {@code crc} é o CRC32 dos bytes antes dela: uma nova
+ * execução confere o CRC e continua da posição, e o arquivo só pode mudar depois dela. As datas mínima e máxima
+ * dos lançamentos importados limitam o que precisa ser recalculado ao concluir.
+ */
+public class CheckpointImportacao {
+
+    private String arquivo;
+
+    private long posicao;
+
+    private long crc;
+
+    private long linhas;
+
+    private long contas;
+
+    private long lancamentos;
+
+    private LocalDateTime dataMinima;
+
+    private LocalDateTime dataMaxima;
+
+    private boolean concluida;
+
+    public CheckpointImportacao() {
+    }
+
+    public CheckpointImportacao(String arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    /**
+     * Amplia o intervalo de datas dos lançamentos importados.
+     */
+    public void registrarPeriodo(final LocalDateTime inicio, final LocalDateTime fim) {
+        if (dataMinima == null || inicio.isBefore(dataMinima)) {
+            dataMinima = inicio;
+        }
+        if (dataMaxima == null || fim.isAfter(dataMaxima)) {
+            dataMaxima = fim;
+        }
+    }
+
+    public String getArquivo() {
+        return arquivo;
+    }
+
+    public void setArquivo(String arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    public long getPosicao() {
+        return posicao;
+    }
+
+    public void setPosicao(long posicao) {
+        this.posicao = posicao;
+    }
+
+    public long getCrc() {
+        return crc;
+    }
+
+    public void setCrc(long crc) {
+        this.crc = crc;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    public void setLinhas(long linhas) {
+        this.linhas = linhas;
+    }
+
+    public long getContas() {
+        return contas;
+    }
+
+    public void setContas(long contas) {
+        this.contas = contas;
+    }
+
+    public long getLancamentos() {
+        return lancamentos;
+    }
+
+    public void setLancamentos(long lancamentos) {
+        this.lancamentos = lancamentos;
+    }
+
+    public LocalDateTime getDataMinima() {
+        return dataMinima;
+    }
+
+    public void setDataMinima(LocalDateTime dataMinima) {
+        this.dataMinima = dataMinima;
+    }
+
+    public LocalDateTime getDataMaxima() {
+        return dataMaxima;
+    }
+
+    public void setDataMaxima(LocalDateTime dataMaxima) {
+        this.dataMaxima = dataMaxima;
+    }
+
+    public boolean isConcluida() {
+        return concluida;
+    }
+
+    public void setConcluida(boolean concluida) {
+        this.concluida = concluida;
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.banco.domain.models;
+
+import br.com.banco.domain.exception.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição da última transferência entregue em uma listagem paginada por cursor, na ordem
+ * {@code (dataTransferencia, id)}. Para o cliente, o token é opaco.
+ */
+public final class CursorTransferencia {
+    private static final String SEPARADOR = "|";
+
+    private final LocalDateTime dataTransferencia;
+    private final int id;
+
+    public CursorTransferencia(final LocalDateTime dataTransferencia, final int id) {
+        this.dataTransferencia = dataTransferencia;
+        this.id = id;
+    }
+
+    /**
+     * Lê um token gerado por {@link #codificar()}.
+     *
+     * @return O cursor, ou {@code null} quando o token é vazio (primeira página).
+     * @throws CursorInvalidoException se o token não foi gerado pela API.
+     */
+    public static CursorTransferencia decodificar(final String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = texto.lastIndexOf(SEPARADOR);
+            return new CursorTransferencia(LocalDateTime.parse(texto.substring(0, separador)),
+                    Integer.parseInt(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new CursorInvalidoException("Cursor invalido: " + token);
+        }
+    }
+
+    public String codificar() {
+        String texto = dataTransferencia + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getDataTransferencia() {
+        return dataTransferencia;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
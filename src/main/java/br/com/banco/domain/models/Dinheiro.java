@@ -0,0 +1,151 @@
+package br.com.banco.domain.models;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário em centavos, armazenado em um {@code long}.
+ * <p>
+ * Imutável e sem alocação nas operações aritméticas além do próprio resultado. A conversão para
+ * {@link BigDecimal} só acontece nas bordas (JDBC e respostas em {@code BigDecimal}) e é exata em
+ * escala 2, a mesma das colunas {@code NUMERIC(20,2)}.
+ */
+public final class Dinheiro implements Comparable<Dinheiro>, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final Dinheiro ZERO = new Dinheiro(0);
+
+    private static final int ESCALA = 2;
+
+    private final long centavos;
+
+    private Dinheiro(long centavos) {
+        this.centavos = centavos;
+    }
+
+    public static Dinheiro deCentavos(final long centavos) {
+        return centavos == 0 ? ZERO : new Dinheiro(centavos);
+    }
+
+    /**
+     * Converte um {@link BigDecimal}, arredondando para centavos com {@link RoundingMode#HALF_EVEN}.
+     *
+     * @throws ArithmeticException se o valor não couber em um {@code long} de centavos.
+     */
+    public static Dinheiro de(final BigDecimal valor) {
+        return deCentavos(valor.setScale(ESCALA, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Lê um valor decimal como {@code "-1234.5"} sem passar por {@link BigDecimal}. Textos com mais de duas
+     * casas decimais ou em notação científica são arredondados com {@link RoundingMode#HALF_EVEN}.
+     *
+     * @throws NumberFormatException se o texto não for um número.
+     * @throws ArithmeticException   se o valor não couber em um {@code long} de centavos.
+     */
+    public static Dinheiro de(final CharSequence texto) {
+        int tamanho = texto.length();
+        int i = 0;
+        boolean negativo = false;
+        if (tamanho > 0 && (texto.charAt(0) == '-' || texto.charAt(0) == '+')) {
+            negativo = texto.charAt(0) == '-';
+            i++;
+        }
+
+        long centavos = 0;
+        int casasDecimais = -1;
+        boolean temDigito = false;
+        for (; i < tamanho; i++) {
+            char c = texto.charAt(i);
+            if (c == '.' && casasDecimais < 0) {
+                casasDecimais = 0;
+            } else if (c >= '0' && c <= '9' && casasDecimais < ESCALA) {
+                centavos = Math.addExact(Math.multiplyExact(centavos, 10), c - '0');
+                temDigito = true;
+                if (casasDecimais >= 0) {
+                    casasDecimais++;
+                }
+            } else {
+                return de(new BigDecimal(texto.toString()));
+            }
+        }
+        if (!temDigito) {
+            throw new NumberFormatException("Valor monetario invalido: " + texto);
+        }
+
+        for (int casas = Math.max(casasDecimais, 0); casas < ESCALA; casas++) {
+            centavos = Math.multiplyExact(centavos, 10);
+        }
+        return deCentavos(negativo ? -centavos : centavos);
+    }
+
+    public long getCentavos() {
+        return centavos;
+    }
+
+    public Dinheiro somar(final Dinheiro outro) {
+        return deCentavos(Math.addExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro subtrair(final Dinheiro outro) {
+        return deCentavos(Math.subtractExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro negar() {
+        return deCentavos(Math.negateExact(centavos));
+    }
+
+    public int signum() {
+        return Long.signum(centavos);
+    }
+
+    public boolean isNegativo() {
+        return centavos < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+
+    @Override
+    public int compareTo(final Dinheiro outro) {
+        return Long.compare(centavos, outro.centavos);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Dinheiro)) {
+            return false;
+        }
+        return centavos == ((Dinheiro) o).centavos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+
+    /**
+     * Representação decimal com duas casas, como {@code "-1234.50"}.
+     */
+    @Override
+    public String toString() {
+        long reais = Math.abs(centavos / 100);
+        long resto = Math.abs(centavos % 100);
+        StringBuilder texto = new StringBuilder(24);
+        if (centavos < 0) {
+            texto.append('-');
+        }
+        texto.append(reais).append('.');
+        if (resto < 10) {
+            texto.append('0');
+        }
+        return texto.append(resto).toString();
+    }
+}
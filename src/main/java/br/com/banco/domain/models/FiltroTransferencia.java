@@ -0,0 +1,82 @@
+package br.com.banco.domain.models;
+
+import br.com.banco.domain.enums.TipoTransferencia;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionais da busca de transferências. Campos nulos não restringem o resultado; os limites de data e valor
+ * são inclusivos e podem ser informados separadamente.
+ */
+public class FiltroTransferencia {
+
+    private String nomeOperador;
+
+    private Integer idConta;
+
+    private TipoTransferencia tipo;
+
+    private LocalDateTime dataInicial;
+
+    private LocalDateTime dataFinal;
+
+    private Dinheiro valorMinimo;
+
+    private Dinheiro valorMaximo;
+
+    public String getNomeOperador() {
+        return nomeOperador;
+    }
+
+    public void setNomeOperador(String nomeOperador) {
+        this.nomeOperador = nomeOperador;
+    }
+
+    public Integer getIdConta() {
+        return idConta;
+    }
+
+    public void setIdConta(Integer idConta) {
+        this.idConta = idConta;
+    }
+
+    public TipoTransferencia getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoTransferencia tipo) {
+        this.tipo = tipo;
+    }
+
+    public LocalDateTime getDataInicial() {
+        return dataInicial;
+    }
+
+    public void setDataInicial(LocalDateTime dataInicial) {
+        this.dataInicial = dataInicial;
+    }
+
+    public LocalDateTime getDataFinal() {
+        return dataFinal;
+    }
+
+    public void setDataFinal(LocalDateTime dataFinal) {
+        this.dataFinal = dataFinal;
+    }
+
+    public Dinheiro getValorMinimo() {
+        return valorMinimo;
+    }
+
+    public void setValorMinimo(Dinheiro valorMinimo) {
+        this.valorMinimo = valorMinimo;
+    }
+
+    public Dinheiro getValorMaximo() {
+        return valorMaximo;
+    }
+
+    public void setValorMaximo(Dinheiro valorMaximo) {
+        this.valorMaximo = valorMaximo;
+    }
+}
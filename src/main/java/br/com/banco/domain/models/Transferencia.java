@@ -1,10 +1,9 @@
 package br.com.banco.domain.models;
 
 import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.enums.NaturezaLancamento;
 import br.com.banco.domain.enums.TipoTransferencia;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 public class Transferencia {
@@ -13,7 +12,7 @@ public class Transferencia {
 
     private LocalDateTime dataTransferencia;
 
-    private BigDecimal valor;
+    private Dinheiro valor;
 
     private TipoTransferencia tipo;
 
@@ -21,6 +20,10 @@ public class Transferencia {
 
     private Conta contaId;
 
+    private String idTransacao;
+
+    private NaturezaLancamento natureza;
+
     public Transferencia() {
     }
 
@@ -32,7 +35,7 @@ public class Transferencia {
         this.contaId = transferenciaDTO.getConta();
     }
 
-    public Transferencia(int id, LocalDateTime dataTransferencia, BigDecimal valor, TipoTransferencia tipo, String nomeOperadorTransacao, Conta contaId) {
+    public Transferencia(int id, LocalDateTime dataTransferencia, Dinheiro valor, TipoTransferencia tipo, String nomeOperadorTransacao, Conta contaId) {
         this.id = id;
         this.dataTransferencia = dataTransferencia;
         this.valor = valor;
@@ -57,18 +60,18 @@ public class Transferencia {
         this.dataTransferencia = dataTransferencia;
     }
 
-    public BigDecimal getValor() {
+    public Dinheiro getValor() {
         return valor;
     }
 
-    public void setValor(BigDecimal valor) {
+    public void setValor(Dinheiro valor) {
         if (valor == null) {
             throw new IllegalArgumentException("Valor não pode ser nulo");
         }
-        if (valor.compareTo(BigDecimal.ZERO) < 0) {
+        if (valor.isNegativo()) {
             throw new IllegalArgumentException("Valor não pode ser negativo");
         }
-        this.valor = valor.setScale(2, RoundingMode.HALF_EVEN);
+        this.valor = valor;
     }
 
     public TipoTransferencia getTipo() {
@@ -94,4 +97,20 @@ public class Transferencia {
     public void setContaId(Conta contaId) {
         this.contaId = contaId;
     }
+
+    public String getIdTransacao() {
+        return idTransacao;
+    }
+
+    public void setIdTransacao(String idTransacao) {
+        this.idTransacao = idTransacao;
+    }
+
+    public NaturezaLancamento getNatureza() {
+        return natureza;
+    }
+
+    public void setNatureza(NaturezaLancamento natureza) {
+        this.natureza = natureza;
+    }
 }
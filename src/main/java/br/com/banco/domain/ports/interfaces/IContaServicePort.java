@@ -3,6 +3,7 @@ package br.com.banco.domain.ports.interfaces;
 import br.com.banco.application.dtos.ContaDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 
 
@@ -33,6 +34,18 @@ public interface IContaServicePort {
      */
     ResponseEntity<ContaDTO> obterContaPorNomeResponsavel(final String nomeResponsavel);
 
+    /**
+     * Busca as contas cujo nome do responsável contém o termo, sem diferenciar maiúsculas de minúsculas. Os nomes
+     * iguais ao termo vêm primeiro, depois os que começam por ele, os que têm uma palavra começando por ele e, por
+     * fim, os demais, do nome mais curto ao mais longo.
+     *
+     * @param termo    O trecho do nome, com pelo menos 3 caracteres.
+     * @param pageable A página da busca; a ordenação é sempre a da relevância.
+     * @return As contas da página, sem a contagem total de resultados.
+     * @throws IllegalArgumentException se o termo for nulo ou tiver menos de 3 caracteres.
+     */
+    ResponseEntity<Slice<ContaDTO>> buscarContasPorNomeResponsavel(final String termo, final Pageable pageable);
+
     /**
      * Salva uma conta no banco de dados.
      *
@@ -47,4 +60,12 @@ public interface IContaServicePort {
      * @return
      */
     ResponseEntity<Void> deletarConta(final int id);
+
+    /**
+     * Indexa para a busca por nome as contas que ainda não têm trigramas, como as de um banco anterior à busca ou as
+     * criadas direto no banco. Executado também na inicialização.
+     *
+     * @return Quantas contas foram indexadas.
+     */
+    ResponseEntity<Integer> indexarNomesPendentes();
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package br.com.banco.domain.ports.interfaces;
+
+import br.com.banco.domain.exception.ConflitoConcorrenciaException;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+
+public interface IControleConcorrenciaPort {
+
+    /**
+     * Executa uma operação em uma transação protegida contra escritas concorrentes nas contas informadas.
+     *
+     * @param contas   Os IDs das contas alteradas pela operação.
+     * @param operacao A operação a ser executada.
+     * @return O resultado da operação.
+     * @throws ConflitoConcorrenciaException se a operação não puder ser concluída por disputa com outra transação.
+     */
+    <T> T executar(final List<Integer> contas, final Supplier<T> operacao);
+}
@@ -0,0 +1,28 @@
+package br.com.banco.domain.ports.interfaces;
+
+
+public interface IFiltroContasPort {
+
+    /**
+     * Indica se a conta pode existir, sem acessar o banco. A negativa é definitiva: a conta nunca foi gravada.
+     *
+     * @param contaId O ID da conta.
+     * @return {@code false} quando a conta certamente não existe; {@code true} quando é preciso confirmar no banco.
+     */
+    boolean podeExistir(final int contaId);
+
+    /**
+     * Registra no filtro uma conta gravada. Deve ser chamado antes do commit, para que a conta nunca seja recusada
+     * depois de visível no banco.
+     *
+     * @param contaId O ID da conta gravada.
+     */
+    void registrarConta(final int contaId);
+
+    /**
+     * Registra uma conta que passou pelo filtro mas não foi encontrada no banco, para a taxa de falsos positivos.
+     *
+     * @param contaId O ID da conta procurada.
+     */
+    void registrarFalsoPositivo(final int contaId);
+}
@@ -0,0 +1,30 @@
+package br.com.banco.domain.ports.interfaces;
+
+import br.com.banco.domain.models.Transferencia;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+
+public interface IGravacaoEmGrupoPort {
+
+    /**
+     * Entrega o lançamento ao próximo grupo, cujo commit é feito em outra transação. Dentro de uma transação, a entrega
+     * e a espera pelo grupo acontecem no commit dela, depois das demais escritas; com rollback, nada é gravado. Fora de
+     * uma transação, só retorna depois do commit do grupo.
+     *
+     * @param lancamento O lançamento a ser gravado.
+     * @return {@code false} quando a gravação em grupo está desligada e o lançamento deve ser gravado direto no banco.
+     * @throws RuntimeException o erro da gravação, se o lançamento não pôde ser gravado.
+     */
+    boolean gravar(final Transferencia lancamento);
+
+    /**
+     * Espera o primeiro lançamento, junta os que chegarem dentro da janela configurada, até o tamanho máximo, e
+     * entrega o grupo à gravação. Os chamadores de {@link #gravar} são liberados quando ela termina.
+     *
+     * @param gravacao Grava os lançamentos no banco, em uma única transação.
+     * @return O número de lançamentos do grupo; {@code 0} se nenhum chegou durante a espera.
+     */
+    int gravarProximoGrupo(final Consumer<List<Transferencia>> gravacao);
+}
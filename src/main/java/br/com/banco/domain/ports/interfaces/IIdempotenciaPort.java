@@ -0,0 +1,41 @@
+package br.com.banco.domain.ports.interfaces;
+
+import br.com.banco.application.dtos.TransferenciaDTO;
+
+import java.util.function.Supplier;
+
+
+public interface IIdempotenciaPort {
+
+    /**
+     * Executa a operação uma única vez por chave. Uma chave já concluída devolve a resposta guardada sem executar de
+     * novo, e uma chave ainda em execução espera a primeira requisição terminar e devolve o mesmo resultado.
+     *
+     * @param chave      A chave enviada pelo cliente; sem chave, a operação é executada normalmente.
+     * @param requisicao Identifica a operação e seus parâmetros; a mesma chave com outra requisição é recusada.
+     * @param operacao   A operação, que deve chamar {@link #registrar} dentro da própria transação.
+     * @return A resposta da operação, ou a guardada para a chave.
+     * @throws br.com.banco.domain.exception.ChaveIdempotenciaInvalidaException se a chave já foi usada com outra requisição,
+     *                                                                          ou se a configuração não aceita chaves.
+     * @throws br.com.banco.domain.exception.ConflitoConcorrenciaException       se a requisição em andamento com a chave
+     *                                                                          não termina dentro da espera configurada.
+     */
+    TransferenciaDTO executar(final String chave, final String requisicao, final Supplier<TransferenciaDTO> operacao);
+
+    /**
+     * Guarda a resposta da chave na transação corrente, de modo que ela só existe se a operação for confirmada. Sem
+     * chave, não faz nada.
+     *
+     * @param chave      A chave enviada pelo cliente.
+     * @param requisicao A mesma requisição passada a {@link #executar}.
+     * @param resposta   A resposta da operação.
+     */
+    void registrar(final String chave, final String requisicao, final TransferenciaDTO resposta);
+
+    /**
+     * Remove as respostas guardadas há mais tempo que a retenção configurada.
+     *
+     * @return O número de chaves removidas.
+     */
+    int removerExpiradas();
+}
@@ -0,0 +1,22 @@
+package br.com.banco.domain.ports.interfaces;
+
+import br.com.banco.application.dtos.ResultadoImportacaoDTO;
+import org.springframework.http.ResponseEntity;
+
+
+public interface IImportacaoServicePort {
+
+    /**
+     * Importa as contas e os lançamentos de um arquivo CSV do diretório de importação.
+     * <p>
+     * O arquivo é lido em lotes, e cada lote é gravado em sua própria transação junto com o checkpoint da
+     * importação: uma execução interrompida continua, na próxima chamada, do lote em que parou. Ao final, os saldos
+     * materializados e os totais diários são reconstruídos e os checkpoints de saldo afetados são descartados.
+     *
+     * @param arquivo O nome do arquivo, relativo ao diretório de importação.
+     * @return As quantidades de linhas, contas e lançamentos importados do arquivo, somando todas as execuções.
+     * @throws br.com.banco.domain.exception.ImportacaoInvalidaException se o arquivo não existir, tiver mudado antes
+     *                                                                   do checkpoint ou tiver uma linha inválida.
+     */
+    ResponseEntity<ResultadoImportacaoDTO> importar(final String arquivo);
+}
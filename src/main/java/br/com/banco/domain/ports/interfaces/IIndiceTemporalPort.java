@@ -0,0 +1,40 @@
+package br.com.banco.domain.ports.interfaces;
+
+import br.com.banco.domain.models.Transferencia;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+
+public interface IIndiceTemporalPort {
+
+    /**
+     * Obtém pelo índice em memória a soma dos créditos entre duas datas, inclusive.
+     *
+     * @param dataInicial A data inicial do período.
+     * @param dataFinal   A data final do período.
+     * @return A soma, ou vazio quando o período não é coberto pelo índice ou não tem créditos.
+     */
+    Optional<BigDecimal> obterTotalCreditos(final LocalDateTime dataInicial, final LocalDateTime dataFinal);
+
+    /**
+     * Registra no índice um lançamento gravado; só tem efeito depois do commit da transação atual.
+     *
+     * @param transferencia O lançamento gravado.
+     */
+    void registrarLancamento(final Transferencia transferencia);
+
+    /**
+     * Remove do índice um lançamento excluído; só tem efeito depois do commit da transação atual.
+     *
+     * @param transferencia O lançamento excluído.
+     */
+    void removerLancamento(final Transferencia transferencia);
+
+    /**
+     * Recarrega o índice a partir da tabela de transferências, para incluir lançamentos gravados sem passar por
+     * {@link #registrarLancamento}, como os de uma importação.
+     */
+    void carregar();
+}
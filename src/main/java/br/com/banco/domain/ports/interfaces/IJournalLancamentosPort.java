@@ -0,0 +1,39 @@
+package br.com.banco.domain.ports.interfaces;
+
+import br.com.banco.domain.models.Transferencia;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+
+public interface IJournalLancamentosPort {
+
+    /**
+     * Grava o lançamento no journal. Dentro de uma transação, a gravação acontece no commit dela, e o commit só
+     * retorna depois que o lançamento está em disco; com rollback, nada é gravado. Fora de uma transação, a gravação é
+     * imediata. O lançamento chega ao banco depois, por {@link #aplicarPendentes}.
+     *
+     * @param lancamento O lançamento a ser gravado.
+     * @return {@code false} quando o journal está desligado e o lançamento deve ser gravado direto no banco.
+     */
+    boolean registrar(final Transferencia lancamento);
+
+    /**
+     * Entrega à gravação os próximos lançamentos ainda não aplicados, na ordem do journal, e os marca como aplicados
+     * quando ela termina sem erro. Com erro, os mesmos lançamentos são entregues de novo na próxima chamada.
+     *
+     * @param limite   O número máximo de lançamentos lidos do journal.
+     * @param gravacao Grava os lançamentos no banco, em uma única transação.
+     * @return O número de lançamentos lidos do journal, incluindo os descartados por já estarem no banco.
+     */
+    int aplicarPendentes(final int limite, final Consumer<List<Transferencia>> gravacao);
+
+    /**
+     * Indica se a conta tem lançamentos registrados que ainda não chegaram ao banco, contando os de transações ainda
+     * não confirmadas. Sem nenhum, o saldo materializado da conta está completo.
+     *
+     * @param contaId O ID da conta.
+     * @return {@code true} se há lançamentos da conta ainda por gravar.
+     */
+    boolean possuiPendentes(final int contaId);
+}
@@ -0,0 +1,85 @@
+package br.com.banco.domain.ports.interfaces;
+
+import br.com.banco.domain.exception.SaldoInsuficienteException;
+import br.com.banco.domain.models.Dinheiro;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+
+public interface IMotorSaldoPort {
+
+    /**
+     * Debita um valor do saldo em memória da conta.
+     *
+     * @param contaId O ID da conta debitada.
+     * @param valor   O valor a ser debitado.
+     * @return O movimento, a ser confirmado depois de gravado no banco ou desfeito se a gravação falhar.
+     * @throws SaldoInsuficienteException se o saldo da conta não cobrir o valor.
+     */
+    Movimento debitar(final int contaId, final Dinheiro valor);
+
+    /**
+     * Credita um valor no saldo em memória da conta.
+     *
+     * @param contaId O ID da conta creditada.
+     * @param valor   O valor a ser creditado.
+     * @return O movimento, a ser confirmado depois de gravado no banco ou desfeito se a gravação falhar.
+     */
+    Movimento creditar(final int contaId, final Dinheiro valor);
+
+    /**
+     * Move um valor entre duas contas, debitando a origem antes de creditar o destino.
+     *
+     * @param contaOrigem  O ID da conta debitada.
+     * @param contaDestino O ID da conta creditada.
+     * @param valor        O valor transferido.
+     * @return O movimento, a ser confirmado depois de gravado no banco ou desfeito se a gravação falhar.
+     * @throws SaldoInsuficienteException se o saldo da conta de origem não cobrir o valor.
+     */
+    Movimento transferir(final int contaOrigem, final int contaDestino, final Dinheiro valor);
+
+    /**
+     * Obtém o saldo em memória da conta.
+     *
+     * @param contaId O ID da conta.
+     * @return O saldo atual da conta.
+     */
+    BigDecimal consultar(final int contaId);
+
+    /**
+     * Marca o saldo em memória das contas como desatualizado, depois de o saldo materializado receber lançamentos por
+     * outro caminho. O próximo movimento de cada conta recarrega o saldo materializado. Dentro de uma transação, a
+     * marcação só acontece depois do commit dela.
+     *
+     * @param contas Os IDs das contas.
+     */
+    void invalidar(final Collection<Integer> contas);
+
+    /**
+     * Movimento já aplicado ao saldo em memória e ainda não gravado no banco. Só a primeira chamada a
+     * {@link #confirmar} ou {@link #desfazer} tem efeito.
+     */
+    interface Movimento {
+
+        Movimento NENHUM = new Movimento() {
+            @Override
+            public void confirmar() {
+            }
+
+            @Override
+            public void desfazer() {
+            }
+        };
+
+        /**
+         * Indica que os lançamentos do movimento foram gravados no banco.
+         */
+        void confirmar();
+
+        /**
+         * Devolve o valor do movimento ao saldo em memória, quando a gravação dos lançamentos falha.
+         */
+        void desfazer();
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.banco.domain.ports.interfaces;
+
+import br.com.banco.application.dtos.DivergenciaSaldoDTO;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+
+public interface ISaldoContaServicePort {
+
+    /**
+     * Recalcula o saldo materializado de todas as contas a partir dos lançamentos de transferência.
+     *
+     * @return A quantidade de contas com saldo reconstruído.
+     */
+    ResponseEntity<Integer> reconstruirSaldos();
+
+    /**
+     * Compara o saldo materializado de cada conta com o saldo calculado pelos lançamentos.
+     *
+     * @return As contas cujo saldo materializado diverge dos lançamentos, ou uma lista vazia se estiverem consistentes.
+     */
+    ResponseEntity<List<DivergenciaSaldoDTO>> verificarSaldos();
+
+    /**
+     * Grava os checkpoints diários de saldo dos dias já encerrados que ainda não foram processados.
+     * Cada dia é gravado em sua própria transação, então uma execução interrompida continua do dia em que parou.
+     *
+     * @return A quantidade de checkpoints gravados.
+     */
+    ResponseEntity<Integer> gerarCheckpoints();
+
+    /**
+     * Consolida os totais diários por conta dos dias já encerrados em um total por dia e tipo.
+     * Assim como os checkpoints, cada dia é consolidado em sua própria transação.
+     *
+     * @return A quantidade de totais diários gravados.
+     */
+    ResponseEntity<Integer> consolidarTotaisDiarios();
+
+    /**
+     * Recalcula os totais diários a partir dos lançamentos de transferência e consolida os dias encerrados.
+     *
+     * @return A quantidade de totais diários por conta reconstruídos.
+     */
+    ResponseEntity<Integer> reconstruirTotaisDiarios();
+
+    /**
+     * Reconstrói os totais diários quando eles não cobrem todos os lançamentos, como os gravados antes da
+     * implantação dos totais. Executado na inicialização, antes de o serviço receber requisições.
+     *
+     * @return A quantidade de totais diários por conta reconstruídos, ou zero se os totais já estavam completos.
+     */
+    ResponseEntity<Integer> completarTotaisDiarios();
+}
@@ -1,14 +1,22 @@
 package br.com.banco.domain.ports.interfaces;
 
+import br.com.banco.application.dtos.ItemLoteDTO;
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
+import br.com.banco.application.dtos.ResultadoLoteDTO;
 import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.application.exportacao.FormatoExportacao;
 import br.com.banco.domain.exception.ContaNaoEncontradaException;
 import br.com.banco.domain.exception.SaldoInsuficienteException;
+import br.com.banco.domain.models.FiltroTransferencia;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 
 
 public interface ITransferenciaServicePort {
@@ -32,6 +40,16 @@ public interface ITransferenciaServicePort {
      */
     ResponseEntity<Page<TransferenciaDTO>> obterTransferenciaPorOperadorEPorData(final Pageable pageable, final String nomeOperador, final LocalDateTime dataInicial, final LocalDateTime dataFinal);
 
+    /**
+     * Busca transferências com qualquer combinação dos filtros de {@link FiltroTransferencia}, em uma única consulta.
+     *
+     * @param pageable informações de paginação.
+     * @param filtro   Os filtros; campos nulos não restringem o resultado.
+     * @return As transferências que atendem a todos os filtros informados, possivelmente nenhuma.
+     * @throws IllegalArgumentException se a data inicial for posterior à data final ou o valor mínimo maior que o máximo.
+     */
+    ResponseEntity<Page<TransferenciaDTO>> buscarTransferencias(final Pageable pageable, final FiltroTransferencia filtro);
+
     /**
      * Obtém uma transferência por ID.
      *
@@ -52,6 +70,16 @@ public interface ITransferenciaServicePort {
      */
     ResponseEntity<TransferenciaDTO> realizarTransferencia(final TransferenciaDTO transferenciaDTO, final int numeroConta, final int numeroContaOrigem );
 
+    /**
+     * Realiza uma transferência no máximo uma vez por chave de idempotência: repetições da chave devolvem a resposta
+     * original sem transferir de novo.
+     *
+     * @param chaveIdempotencia A chave enviada pelo cliente no cabeçalho {@code Idempotency-Key}, ou {@code null}.
+     * @see #realizarTransferencia(TransferenciaDTO, int, int)
+     */
+    ResponseEntity<TransferenciaDTO> realizarTransferencia(final TransferenciaDTO transferenciaDTO, final int numeroConta, final int numeroContaOrigem,
+                                                           final String chaveIdempotencia);
+
 
     /**
      * Realiza um depósito em uma conta.
@@ -63,6 +91,14 @@ public interface ITransferenciaServicePort {
      */
     ResponseEntity<TransferenciaDTO> realizarDeposito(final TransferenciaDTO transferenciaDTO, final int numeroConta);
 
+    /**
+     * Realiza um depósito no máximo uma vez por chave de idempotência.
+     *
+     * @param chaveIdempotencia A chave enviada pelo cliente no cabeçalho {@code Idempotency-Key}, ou {@code null}.
+     * @see #realizarDeposito(TransferenciaDTO, int)
+     */
+    ResponseEntity<TransferenciaDTO> realizarDeposito(final TransferenciaDTO transferenciaDTO, final int numeroConta, final String chaveIdempotencia);
+
     /**
      * Realiza um saque em uma conta.
      *
@@ -73,6 +109,25 @@ public interface ITransferenciaServicePort {
      */
     ResponseEntity<TransferenciaDTO> realizarSaque(final TransferenciaDTO transferenciaDTO, final int numeroConta);
 
+    /**
+     * Realiza um saque no máximo uma vez por chave de idempotência.
+     *
+     * @param chaveIdempotencia A chave enviada pelo cliente no cabeçalho {@code Idempotency-Key}, ou {@code null}.
+     * @see #realizarSaque(TransferenciaDTO, int)
+     */
+    ResponseEntity<TransferenciaDTO> realizarSaque(final TransferenciaDTO transferenciaDTO, final int numeroConta, final String chaveIdempotencia);
+
+    /**
+     * Processa um lote de depósitos, saques e transferências à medida que os itens são lidos. Os itens vão em blocos,
+     * cada um em uma única transação: as contas do bloco são lidas em uma só consulta e os lançamentos gravados em
+     * batches JDBC.
+     *
+     * @param itens Os itens do lote, na ordem recebida. Um item ilegível é lançado por {@code next()} como
+     *              {@link br.com.banco.domain.exception.TransferenciaInvalidaException}.
+     * @return O resultado de cada item, pela posição no lote: processado, com o ID da transação, ou rejeitado, com o motivo.
+     */
+    ResponseEntity<ResultadoLoteDTO> processarLote(final Iterator<ItemLoteDTO> itens);
+
     /**
      * Obtém todas as transferências relacionadas a um determinado período de tempo.
      *
@@ -104,6 +159,84 @@ public interface ITransferenciaServicePort {
      */
     ResponseEntity<Page<TransferenciaDTO>> obterTransferenciasPorConta(final Pageable pageable, final int idConta);
 
+    /**
+     * Exporta todas as transferências de uma conta, na ordem (data, ID). As linhas são lidas do banco e escritas na
+     * resposta uma a uma, sem paginação nem contagem, com memória constante qualquer que seja o tamanho do histórico.
+     *
+     * @param idConta O ID da conta.
+     * @param formato O formato do arquivo.
+     * @return A resposta com o arquivo, escrito enquanto é enviado.
+     * @throws ContaNaoEncontradaException se a conta não for encontrada com o ID fornecido.
+     */
+    ResponseEntity<StreamingResponseBody> exportarTransferenciasPorConta(final int idConta, final FormatoExportacao formato);
+
+    /**
+     * Obtém as transferências na ordem (data, ID), continuando depois do cursor informado, sem OFFSET nem COUNT.
+     *
+     * @param cursor  O token {@code proximoCursor} da página anterior, ou vazio para a primeira página.
+     * @param tamanho A quantidade máxima de transferências na página.
+     * @return A página e o cursor da próxima, nulo na última página.
+     * @throws br.com.banco.domain.exception.CursorInvalidoException se o cursor não foi gerado pela API.
+     */
+    ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTodasTransferenciasAposCursor(final String cursor, final int tamanho);
+
+    /**
+     * Versão por cursor de {@link #obterTransferenciaPorOperadorEPorData}, com os mesmos filtros opcionais.
+     *
+     * @param cursor       O token {@code proximoCursor} da página anterior, ou vazio para a primeira página.
+     * @param tamanho      A quantidade máxima de transferências na página.
+     * @param nomeOperador nome de quem fez a transferencia
+     * @param dataInicial  A data inicial do período.
+     * @param dataFinal    A data final do período.
+     * @return A página e o cursor da próxima, nulo na última página.
+     */
+    ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciaPorOperadorEPorDataAposCursor(final String cursor, final int tamanho, final String nomeOperador,
+                                                                                                     final LocalDateTime dataInicial, final LocalDateTime dataFinal);
+
+    /**
+     * Versão por cursor de {@link #obterTransferenciasPorPeriodo}.
+     *
+     * @param cursor      O token {@code proximoCursor} da página anterior, ou vazio para a primeira página.
+     * @param tamanho     A quantidade máxima de transferências na página.
+     * @param dataInicial A data inicial do período.
+     * @param dataFinal   A data final do período.
+     * @return A página e o cursor da próxima, nulo na última página.
+     */
+    ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciasPorPeriodoAposCursor(final String cursor, final int tamanho, final LocalDateTime dataInicial,
+                                                                                             final LocalDateTime dataFinal);
+
+    /**
+     * Versão por cursor de {@link #obterTransferenciasPorOperador}.
+     *
+     * @param cursor       O token {@code proximoCursor} da página anterior, ou vazio para a primeira página.
+     * @param tamanho      A quantidade máxima de transferências na página.
+     * @param nomeOperador O nome do operador.
+     * @return A página e o cursor da próxima, nulo na última página.
+     */
+    ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciasPorOperadorAposCursor(final String cursor, final int tamanho, final String nomeOperador);
+
+    /**
+     * Versão por cursor de {@link #obterTransferenciasPorConta}.
+     *
+     * @param cursor  O token {@code proximoCursor} da página anterior, ou vazio para a primeira página.
+     * @param tamanho A quantidade máxima de transferências na página.
+     * @param idConta O ID da conta.
+     * @return A página e o cursor da próxima, nulo na última página.
+     */
+    ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> obterTransferenciasPorContaAposCursor(final String cursor, final int tamanho, final int idConta);
+
+    /**
+     * Obtém o extrato de uma conta, na ordem (data, ID), com o saldo da conta após cada lançamento. O saldo é
+     * calculado pelo banco, então o cliente não precisa ler as páginas anteriores nem somar os lançamentos.
+     *
+     * @param cursor  O token {@code proximoCursor} da página anterior, ou vazio para a primeira página.
+     * @param tamanho A quantidade máxima de lançamentos na página.
+     * @param idConta O ID da conta.
+     * @return A página e o cursor da próxima, nulo na última página.
+     * @throws ContaNaoEncontradaException se a conta não for encontrada com o ID fornecido.
+     */
+    ResponseEntity<PaginaCursorDTO<LancamentoExtratoDTO>> obterExtratoPorContaAposCursor(final String cursor, final int tamanho, final int idConta);
+
     /**
      * Obtém o saldo total das transferências realizadas dentro de um determinado período.
      *
@@ -122,4 +255,22 @@ public interface ITransferenciaServicePort {
      * @return O saldo total das transferências relacionadas ao operador especificado.
      */
     ResponseEntity<BigDecimal> obterSaldoTotalPorNumeroConta(final int numeroCOnta);
+
+    /**
+     * Obtém o saldo de uma conta em um instante passado, incluindo os lançamentos feitos até esse instante.
+     *
+     * @param numeroConta numero da conta
+     * @param instante    O instante consultado.
+     * @return O saldo da conta no instante especificado.
+     */
+    ResponseEntity<BigDecimal> obterSaldoEm(final int numeroConta, final LocalDateTime instante);
+
+    /**
+     * Obtém a versão de uma conta e dos seus lançamentos, que muda a cada lançamento gravado ou excluído nela e a cada
+     * alteração da conta. Serve de ETag para as consultas por conta, que podem responder {@code 304} sem serem executadas.
+     *
+     * @param idConta O ID da conta.
+     * @return A versão atual, igual enquanto a conta e seus lançamentos não mudarem.
+     */
+    String obterVersaoConta(final int idConta);
 }
\ No newline at end of file
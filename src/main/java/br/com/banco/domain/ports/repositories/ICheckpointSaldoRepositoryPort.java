@@ -0,0 +1,29 @@
+package br.com.banco.domain.ports.repositories;
+
+import br.com.banco.domain.models.CursorTransferencia;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+
+public interface ICheckpointSaldoRepositoryPort {
+
+    BigDecimal obterSaldoEm(final int contaId, final LocalDateTime instante);
+
+    BigDecimal obterSaldoAteLancamento(final int contaId, final CursorTransferencia lancamento);
+
+    Optional<LocalDate> obterProximoDiaPendente(final LocalDate limite);
+
+    int gerarCheckpoints(final LocalDate dia);
+
+    void invalidarAPartirDe(final LocalDate dia);
+
+    /**
+     * Descarta os checkpoints a partir do dia de um lançamento gravado ou excluído, se algum já cobrir esse dia.
+     * Deve ser chamado na transação do lançamento, que impede a geração de checkpoints de dias encerrados até terminar.
+     */
+    void invalidarPorLancamento(final LocalDate dia);
+
+}
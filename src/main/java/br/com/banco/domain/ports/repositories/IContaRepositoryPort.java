@@ -4,7 +4,10 @@ import br.com.banco.application.dtos.ContaDTO;
 import br.com.banco.domain.models.Conta;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -14,10 +17,28 @@ public interface IContaRepositoryPort {
 
     Optional<Conta> obterContaPorId(final int id);
 
+    /**
+     * Obtém várias contas em uma só consulta.
+     *
+     * @param ids Os IDs das contas.
+     * @return As contas encontradas, por ID; os IDs sem conta ficam de fora.
+     */
+    Map<Integer, Conta> obterContasPorIds(final Collection<Integer> ids);
+
     Optional<Conta> obterContaPorNomeResponsavel(final String nomeResponsavel);
 
+    Slice<ContaDTO> buscarPorNomeResponsavel(final String termo, final Pageable pageable);
+
     void salvar(final Conta conta);
 
     void deletar(final int id);
 
+    /**
+     * Grava os trigramas das contas que ainda não os têm, como as criadas antes da busca por trigramas ou direto no
+     * banco, para que sejam encontradas pelo nome do responsável.
+     *
+     * @return Quantas contas foram indexadas.
+     */
+    int indexarNomesPendentes();
+
 }
\ No newline at end of file
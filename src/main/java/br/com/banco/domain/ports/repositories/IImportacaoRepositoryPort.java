@@ -0,0 +1,36 @@
+package br.com.banco.domain.ports.repositories;
+
+import br.com.banco.application.importacao.LoteImportacao;
+import br.com.banco.domain.models.CheckpointImportacao;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+
+public interface IImportacaoRepositoryPort {
+
+    Optional<CheckpointImportacao> obterCheckpoint(final String arquivo);
+
+    /**
+     * Obtém, em uma única consulta, quais dos IDs informados já são contas gravadas.
+     */
+    Set<Integer> obterContasExistentes(final Collection<Integer> ids);
+
+    /**
+     * Grava as contas, os trigramas dos nomes e os lançamentos do lote em batches JDBC, junto com o checkpoint,
+     * tudo na mesma transação. Os saldos materializados e os totais diários recebem os lançamentos do lote como
+     * incrementos, e os checkpoints a partir do dia mais antigo do lote são descartados.
+     */
+    void gravarLote(final LoteImportacao lote, final CheckpointImportacao checkpoint);
+
+    void salvarCheckpoint(final CheckpointImportacao checkpoint);
+
+    /**
+     * Faz a geração de IDs de contas continuar depois do maior ID gravado ou de {@code maiorIdImportado}, o que for
+     * maior. Chamado antes de gravar cada lote com contas, para que as contas criadas pela API durante a importação
+     * não recebam um ID do arquivo.
+     */
+    void ajustarGeracaoIdsContas(final int maiorIdImportado);
+
+}
@@ -0,0 +1,31 @@
+package br.com.banco.domain.ports.repositories;
+
+import br.com.banco.domain.models.Transferencia;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+
+public interface ISaldoContaRepositoryPort {
+
+    BigDecimal obterSaldo(final int contaId);
+
+    String obterVersao(final int contaId);
+
+    void aplicarLancamento(final Transferencia transferencia);
+
+    /**
+     * Aplica os lançamentos com um único incremento por conta.
+     */
+    void aplicarLancamentos(final List<Transferencia> lancamentos);
+
+    void estornarLancamento(final Transferencia transferencia);
+
+    Map<Integer, BigDecimal> obterSaldosMaterializados();
+
+    Map<Integer, BigDecimal> calcularSaldosPelosLancamentos();
+
+    int substituirSaldos(final Map<Integer, BigDecimal> saldos);
+
+}
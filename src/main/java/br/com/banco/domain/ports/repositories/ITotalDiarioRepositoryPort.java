@@ -0,0 +1,37 @@
+package br.com.banco.domain.ports.repositories;
+
+import br.com.banco.domain.models.Transferencia;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+
+public interface ITotalDiarioRepositoryPort {
+
+    void aplicarLancamento(final Transferencia transferencia);
+
+    /**
+     * Aplica os lançamentos com um único incremento por dia, tipo e conta.
+     */
+    void aplicarLancamentos(final List<Transferencia> lancamentos);
+
+    void estornarLancamento(final Transferencia transferencia);
+
+    BigDecimal obterTotalCreditos(final LocalDateTime dataInicial, final LocalDateTime dataFinal);
+
+    Optional<LocalDate> obterProximoDiaPendente(final LocalDate limite);
+
+    int consolidarDia(final LocalDate dia);
+
+    /**
+     * Indica se os totais diários cobrem todos os lançamentos de crédito, inclusive os gravados antes de existirem
+     * os totais, e se os dias consolidados têm linha para todos os tipos.
+     */
+    boolean historicoCompleto();
+
+    int reconstruir();
+
+}
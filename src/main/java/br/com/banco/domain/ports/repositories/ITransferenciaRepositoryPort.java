@@ -1,13 +1,19 @@
 package br.com.banco.domain.ports.repositories;
 
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
 import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.models.CursorTransferencia;
+import br.com.banco.domain.models.FiltroTransferencia;
 import br.com.banco.domain.models.Transferencia;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 
 public interface ITransferenciaRepositoryPort {
@@ -17,18 +23,40 @@ public interface ITransferenciaRepositoryPort {
 
     Page<TransferenciaDTO> obterTransferenciasPorPeriodo(final Pageable pageable, final LocalDateTime dataInicial, final LocalDateTime dataFinal);
 
-    Page<TransferenciaDTO> obterTransferenciasPorOperadorEData(final Pageable pageable, final String nomeOperador , final LocalDateTime dataInicial, final LocalDateTime dataFinal);
+    Page<TransferenciaDTO> buscarTransferencias(final Pageable pageable, final FiltroTransferencia filtro);
 
     Page<TransferenciaDTO> obterTransferenciasPorOperador(final Pageable pageable, final String nomeOperador);
 
     Page<TransferenciaDTO> obterTransferenciasPorConta(final Pageable pageable, final int idConta);
 
+    void exportarTransferenciasPorConta(final int idConta, final Consumer<TransferenciaDTO> consumidor);
+
+    PaginaCursorDTO<TransferenciaDTO> obterTodasTransferenciasAposCursor(final CursorTransferencia cursor, final int tamanho);
+
+    PaginaCursorDTO<TransferenciaDTO> obterTransferenciasPorPeriodoAposCursor(final CursorTransferencia cursor, final int tamanho, final LocalDateTime dataInicial, final LocalDateTime dataFinal);
+
+    PaginaCursorDTO<TransferenciaDTO> buscarTransferenciasAposCursor(final CursorTransferencia cursor, final int tamanho, final FiltroTransferencia filtro);
+
+    PaginaCursorDTO<TransferenciaDTO> obterTransferenciasPorContaAposCursor(final CursorTransferencia cursor, final int tamanho, final int idConta);
+
+    PaginaCursorDTO<LancamentoExtratoDTO> obterExtratoPorContaAposCursor(final CursorTransferencia cursor, final int tamanho, final int idConta);
+
     BigDecimal obterSaldoTotalPorPeriodo(final LocalDateTime dataInicial, final LocalDateTime dataFinal);
 
     BigDecimal obterSaldoTotalPorNumeroConta(final int nomeOperador);
 
+    String obterVersaoConta(final int idConta);
+
     void salvar(final Transferencia transferencia);
 
+    void salvarLancamentos(final List<Transferencia> lancamentos);
+
     void deletar(final Transferencia transferencia);
 
+    /**
+     * Descarta o que foi calculado a partir dos lançamentos entre as datas, depois de lançamentos gravados por fora
+     * deste repositório, como os de uma importação. Saldos materializados e totais diários não são tocados.
+     */
+    void registrarLancamentosImportados(final LocalDateTime dataInicial, final LocalDateTime dataFinal);
+
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package br.com.banco.infrastructure.adaptadores.agendamento;
+
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Grava periodicamente os checkpoints diarios de saldo. Uma execucao que falhar no meio e retomada
+ * no ciclo seguinte a partir do primeiro dia sem checkpoint.
+ */
+public class AgendadorCheckpointSaldo {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgendadorCheckpointSaldo.class);
+
+    private final ISaldoContaServicePort saldoContaService;
+
+    public AgendadorCheckpointSaldo(ISaldoContaServicePort saldoContaService) {
+        this.saldoContaService = saldoContaService;
+    }
+
+    @Scheduled(initialDelayString = "${banco.checkpoint-saldo.espera-inicial-ms:60000}",
+            fixedDelayString = "${banco.checkpoint-saldo.intervalo-ms:3600000}")
+    public void gerarCheckpoints() {
+        try {
+            saldoContaService.gerarCheckpoints();
+        } catch (RuntimeException e) {
+            LOGGER.error("Erro ao gerar checkpoints de saldo, nova tentativa no proximo ciclo", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.banco.infrastructure.adaptadores.agendamento;
+
+import br.com.banco.domain.ports.interfaces.IIdempotenciaPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Remove periodicamente da tabela as chaves de idempotencia mais antigas que a retencao.
+ */
+public class AgendadorIdempotencia {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgendadorIdempotencia.class);
+
+    private final IIdempotenciaPort idempotencia;
+
+    public AgendadorIdempotencia(IIdempotenciaPort idempotencia) {
+        this.idempotencia = idempotencia;
+    }
+
+    @Scheduled(initialDelayString = "${banco.idempotencia.espera-inicial-ms:60000}",
+            fixedDelayString = "${banco.idempotencia.intervalo-ms:3600000}")
+    public void removerExpiradas() {
+        try {
+            idempotencia.removerExpiradas();
+        } catch (RuntimeException e) {
+            LOGGER.error("Erro ao remover chaves de idempotencia expiradas, nova tentativa no proximo ciclo", e);
+        }
+    }
+}
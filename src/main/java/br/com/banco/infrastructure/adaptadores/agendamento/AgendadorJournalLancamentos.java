@@ -0,0 +1,67 @@
+package br.com.banco.infrastructure.adaptadores.agendamento;
+
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IJournalLancamentosPort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Grava no banco, em lotes, os lançamentos confirmados pelo journal. Cada lote é uma transação, sem bloquear as
+ * contas: os lançamentos já foram validados com a conta bloqueada antes de entrar no journal, e o saldo e os totais
+ * recebem incrementos atômicos. Um lote que falhar, inclusive por uma corrida com outra transação na primeira linha
+ * de saldo ou de total de uma conta, continua no journal e é gravado no ciclo seguinte.
+ */
+public class AgendadorJournalLancamentos {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgendadorJournalLancamentos.class);
+
+    private final IJournalLancamentosPort journal;
+    private final ITransferenciaRepositoryPort transferenciaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IMotorSaldoPort motorSaldo;
+    private final int tamanhoLote;
+
+    public AgendadorJournalLancamentos(IJournalLancamentosPort journal, ITransferenciaRepositoryPort transferenciaRepository,
+                                       TransactionTemplate transactionTemplate, IMotorSaldoPort motorSaldo, int tamanhoLote) {
+        this.journal = journal;
+        this.transferenciaRepository = transferenciaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.motorSaldo = motorSaldo;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Scheduled(initialDelayString = "${banco.journal.espera-inicial-ms:1000}",
+            fixedDelayString = "${banco.journal.intervalo-ms:100}")
+    public void aplicarJournal() {
+        try {
+            while (journal.aplicarPendentes(tamanhoLote, this::gravar) == tamanhoLote) {
+                LOGGER.debug("Lote do journal gravado, lendo o proximo");
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Erro ao gravar os lancamentos do journal, nova tentativa no proximo ciclo", e);
+        }
+    }
+
+    /**
+     * Grava o que restar no journal antes do encerramento.
+     */
+    @PreDestroy
+    public void encerrar() {
+        aplicarJournal();
+    }
+
+    private void gravar(final List<Transferencia> lancamentos) {
+        // Sem o bloqueio das contas: quem espera por ele pode ser justamente quem espera espaco no journal
+        transactionTemplate.executeWithoutResult(status -> {
+            transferenciaRepository.salvarLancamentos(lancamentos);
+            motorSaldo.invalidar(lancamentos.stream().map(lancamento -> lancamento.getContaId().getId()).collect(Collectors.toSet()));
+        });
+    }
+}
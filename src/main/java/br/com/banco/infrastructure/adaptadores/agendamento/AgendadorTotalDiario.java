@@ -0,0 +1,30 @@
+package br.com.banco.infrastructure.adaptadores.agendamento;
+
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Consolida periodicamente os totais diarios dos dias encerrados. Uma execucao que falhar no meio e retomada
+ * no ciclo seguinte a partir do primeiro dia nao consolidado.
+ */
+public class AgendadorTotalDiario {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgendadorTotalDiario.class);
+
+    private final ISaldoContaServicePort saldoContaService;
+
+    public AgendadorTotalDiario(ISaldoContaServicePort saldoContaService) {
+        this.saldoContaService = saldoContaService;
+    }
+
+    @Scheduled(initialDelayString = "${banco.total-diario.espera-inicial-ms:60000}",
+            fixedDelayString = "${banco.total-diario.intervalo-ms:3600000}")
+    public void consolidarTotaisDiarios() {
+        try {
+            saldoContaService.consolidarTotaisDiarios();
+        } catch (RuntimeException e) {
+            LOGGER.error("Erro ao consolidar totais diarios, nova tentativa no proximo ciclo", e);
+        }
+    }
+}
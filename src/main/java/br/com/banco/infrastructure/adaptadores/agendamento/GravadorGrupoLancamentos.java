@@ -0,0 +1,116 @@
+package br.com.banco.infrastructure.adaptadores.agendamento;
+
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IGravacaoEmGrupoPort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thread que grava os grupos da gravação em grupo, um commit por grupo.
+ * <p>
+ * Os chamadores esperam o commit ainda dentro das próprias transações, cada um com uma conexão do pool e com as
+ * contas bloqueadas. Por isso o gravador não bloqueia as contas, ao contrário do {@link AgendadorJournalLancamentos},
+ * e usa uma conexão própria, obtida ao iniciar e mantida até o encerramento: com o pool tomado por chamadores
+ * esperando, ele não conseguiria outra. Cada grupo usa uma sessão nova sobre essa conexão.
+ */
+public class GravadorGrupoLancamentos {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GravadorGrupoLancamentos.class);
+
+    private final IGravacaoEmGrupoPort gravacaoEmGrupo;
+    private final ITransferenciaRepositoryPort transferenciaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IMotorSaldoPort motorSaldo;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private volatile boolean ativo;
+    private Connection conexao;
+    private Thread thread;
+
+    public GravadorGrupoLancamentos(IGravacaoEmGrupoPort gravacaoEmGrupo, ITransferenciaRepositoryPort transferenciaRepository,
+                                    TransactionTemplate transactionTemplate, IMotorSaldoPort motorSaldo,
+                                    EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.gravacaoEmGrupo = gravacaoEmGrupo;
+        this.transferenciaRepository = transferenciaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.motorSaldo = motorSaldo;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+    }
+
+    public void iniciar() throws SQLException {
+        conexao = dataSource.getConnection();
+        ativo = true;
+        thread = new Thread(this::executar, "gravacao-grupo");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Para a thread, grava o que ainda estiver na fila e devolve a conexão.
+     */
+    public void encerrar() throws InterruptedException, SQLException {
+        ativo = false;
+        thread.join();
+        try {
+            while (gravacaoEmGrupo.gravarProximoGrupo(this::gravar) > 0) {
+                LOGGER.debug("Grupo gravado no encerramento");
+            }
+        } finally {
+            conexao.close();
+        }
+    }
+
+    private void executar() {
+        while (ativo && !Thread.currentThread().isInterrupted()) {
+            try {
+                gravacaoEmGrupo.gravarProximoGrupo(this::gravar);
+            } catch (RuntimeException e) {
+                LOGGER.error("Erro inesperado na gravacao em grupo", e);
+            }
+        }
+    }
+
+    private void gravar(final List<Transferencia> lancamentos) {
+        Session sessao = entityManagerFactory.unwrap(SessionFactory.class).withOptions().connection(conexao).openSession();
+        // Os repositorios e o gerenciador de transacoes usam a sessao ligada a thread em vez de abrir outra pelo pool
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(sessao));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                transferenciaRepository.salvarLancamentos(lancamentos);
+                motorSaldo.invalidar(lancamentos.stream().map(lancamento -> lancamento.getContaId().getId()).collect(Collectors.toSet()));
+            });
+        } catch (RuntimeException e) {
+            renovarConexaoInvalida();
+            throw e;
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            sessao.close();
+        }
+    }
+
+    private void renovarConexaoInvalida() {
+        try {
+            if (!conexao.isValid(1)) {
+                LOGGER.warn("Conexao da gravacao em grupo invalida, obtendo outra");
+                conexao.close();
+                conexao = dataSource.getConnection();
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Erro ao renovar a conexao da gravacao em grupo", e);
+        }
+    }
+}
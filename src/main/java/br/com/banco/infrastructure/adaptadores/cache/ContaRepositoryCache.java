@@ -0,0 +1,131 @@
+package br.com.banco.infrastructure.adaptadores.cache;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache das contas lidas por ID e por nome do responsável, na frente de outro {@link IContaRepositoryPort}. As
+ * entradas saem pelo tamanho máximo ou pelo tempo desde a gravação; só contas encontradas são guardadas.
+ * <p>
+ * {@code salvar} e {@code deletar} invalidam o ID da conta e todas as buscas por nome, já que um nome novo pode
+ * mudar a melhor conta de outro termo. Dentro de uma transação a invalidação se repete depois do commit, para
+ * descartar o que foi lido do banco antes de a escrita ficar visível.
+ */
+public class ContaRepositoryCache implements IContaRepositoryPort {
+
+    private final IContaRepositoryPort contaRepository;
+    private final Cache<Integer, Conta> contasPorId;
+    private final Cache<String, Conta> contasPorNome;
+
+    public ContaRepositoryCache(IContaRepositoryPort contaRepository, long tamanhoMaximo, Duration expiracao, Ticker relogio,
+                                MeterRegistry meterRegistry) {
+        this.contaRepository = contaRepository;
+        this.contasPorId = CaffeineCacheMetrics.monitor(meterRegistry, criar(tamanhoMaximo, expiracao, relogio), "conta.por-id");
+        this.contasPorNome = CaffeineCacheMetrics.monitor(meterRegistry, criar(tamanhoMaximo, expiracao, relogio), "conta.por-nome");
+    }
+
+    private static <K> Cache<K, Conta> criar(final long tamanhoMaximo, final Duration expiracao, final Ticker relogio) {
+        return Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .ticker(relogio)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Page<ContaDTO> obterTodasContas(final Pageable pageable) {
+        return contaRepository.obterTodasContas(pageable);
+    }
+
+    @Override
+    public Optional<Conta> obterContaPorId(final int id) {
+        return copiar(contasPorId.get(id, chave -> contaRepository.obterContaPorId(chave).orElse(null)));
+    }
+
+    // So os IDs fora do cache vao ao repositorio, todos na mesma consulta
+    @Override
+    public Map<Integer, Conta> obterContasPorIds(final Collection<Integer> ids) {
+        Map<Integer, Conta> contas = new HashMap<>();
+        contasPorId.getAll(ids, faltantes -> {
+            List<Integer> lista = new ArrayList<>();
+            faltantes.forEach(lista::add);
+            return contaRepository.obterContasPorIds(lista);
+        }).forEach((id, conta) -> contas.put(id, copiar(conta).orElseThrow()));
+        return contas;
+    }
+
+    @Override
+    public Optional<Conta> obterContaPorNomeResponsavel(final String nomeResponsavel) {
+        return copiar(contasPorNome.get(nomeResponsavel, chave -> contaRepository.obterContaPorNomeResponsavel(chave).orElse(null)));
+    }
+
+    @Override
+    public Slice<ContaDTO> buscarPorNomeResponsavel(final String termo, final Pageable pageable) {
+        return contaRepository.buscarPorNomeResponsavel(termo, pageable);
+    }
+
+    @Override
+    public void salvar(final Conta conta) {
+        contaRepository.salvar(conta);
+        invalidar(conta.getId());
+    }
+
+    @Override
+    public void deletar(final int id) {
+        contaRepository.deletar(id);
+        invalidar(id);
+    }
+
+    // Contas indexadas agora podem ser a melhor de um nome ja buscado
+    @Override
+    public int indexarNomesPendentes() {
+        int indexadas = contaRepository.indexarNomesPendentes();
+        contasPorNome.invalidateAll();
+        return indexadas;
+    }
+
+    private void invalidar(final int id) {
+        contasPorId.invalidate(id);
+        contasPorNome.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    contasPorId.invalidate(id);
+                    contasPorNome.invalidateAll();
+                }
+            });
+        }
+    }
+
+    // A conta guardada nao sai do cache: quem chama pode alterar a copia
+    private static Optional<Conta> copiar(final Conta conta) {
+        if (conta == null) {
+            return Optional.empty();
+        }
+        Conta copia = new Conta();
+        copia.setId(conta.getId());
+        copia.setNomeResponsavel(conta.getNomeResponsavel());
+        return Optional.of(copia);
+    }
+}
@@ -0,0 +1,255 @@
+package br.com.banco.infrastructure.adaptadores.cache;
+
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.models.CursorTransferencia;
+import br.com.banco.domain.models.FiltroTransferencia;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Cache dos saldos por conta e das somas de períodos encerrados, na frente de outro {@link ITransferenciaRepositoryPort}.
+ * <p>
+ * O saldo de uma conta fica guardado até um lançamento dela passar por {@code salvar}, {@code salvarLancamentos} ou
+ * {@code deletar}; a expiração só limita quanto tempo uma correção feita fora daqui (a reconciliação dos saldos) leva
+ * para aparecer. A soma de um período encerrado não expira: sai pelo tamanho máximo ou quando um lançamento retroativo
+ * cai dentro dele. Um período está encerrado quando termina antes do dia aberto, o dia de agora menos a margem de
+ * fechamento, a mesma dos totais diários; os demais vão sempre ao repositório.
+ * <p>
+ * Dentro de uma transação a invalidação se repete depois do commit, como em {@link ContaRepositoryCache}. Uma soma lida
+ * enquanto algum período era descartado não é guardada, porque a leitura pode ter começado antes do commit. Uma
+ * importação descarta todos os saldos e as somas dos períodos que se cruzam com as datas importadas.
+ */
+public class TransferenciaRepositoryCache implements ITransferenciaRepositoryPort {
+
+    private final ITransferenciaRepositoryPort transferenciaRepository;
+    private final Clock relogio;
+    private final Duration margemFechamento;
+    private final Cache<Integer, BigDecimal> saldosPorConta;
+    private final Cache<Periodo, BigDecimal> somasPorPeriodo;
+    // Incrementada antes de cada descarte de somas
+    private final AtomicLong geracaoPeriodos = new AtomicLong();
+
+    public TransferenciaRepositoryCache(ITransferenciaRepositoryPort transferenciaRepository, long tamanhoMaximo, Duration expiracaoSaldo,
+                                        Ticker ticker, Clock relogio, Duration margemFechamento, MeterRegistry meterRegistry) {
+        this.transferenciaRepository = transferenciaRepository;
+        this.relogio = relogio;
+        this.margemFechamento = margemFechamento;
+        this.saldosPorConta = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracaoSaldo)
+                .ticker(ticker)
+                .recordStats()
+                .<Integer, BigDecimal>build(), "saldo.por-conta");
+        this.somasPorPeriodo = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .<Periodo, BigDecimal>build(), "saldo.por-periodo");
+    }
+
+    @Override
+    public Page<TransferenciaDTO> obterTodasTransferencias(final Pageable pageable) {
+        return transferenciaRepository.obterTodasTransferencias(pageable);
+    }
+
+    @Override
+    public Optional<Transferencia> obterTransferenciaPorId(final int id) {
+        return transferenciaRepository.obterTransferenciaPorId(id);
+    }
+
+    @Override
+    public Page<TransferenciaDTO> obterTransferenciasPorPeriodo(final Pageable pageable, final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
+        return transferenciaRepository.obterTransferenciasPorPeriodo(pageable, dataInicial, dataFinal);
+    }
+
+    @Override
+    public Page<TransferenciaDTO> buscarTransferencias(final Pageable pageable, final FiltroTransferencia filtro) {
+        return transferenciaRepository.buscarTransferencias(pageable, filtro);
+    }
+
+    @Override
+    public Page<TransferenciaDTO> obterTransferenciasPorOperador(final Pageable pageable, final String nomeOperador) {
+        return transferenciaRepository.obterTransferenciasPorOperador(pageable, nomeOperador);
+    }
+
+    @Override
+    public Page<TransferenciaDTO> obterTransferenciasPorConta(final Pageable pageable, final int idConta) {
+        return transferenciaRepository.obterTransferenciasPorConta(pageable, idConta);
+    }
+
+    @Override
+    public void exportarTransferenciasPorConta(final int idConta, final Consumer<TransferenciaDTO> consumidor) {
+        transferenciaRepository.exportarTransferenciasPorConta(idConta, consumidor);
+    }
+
+    @Override
+    public PaginaCursorDTO<TransferenciaDTO> obterTodasTransferenciasAposCursor(final CursorTransferencia cursor, final int tamanho) {
+        return transferenciaRepository.obterTodasTransferenciasAposCursor(cursor, tamanho);
+    }
+
+    @Override
+    public PaginaCursorDTO<TransferenciaDTO> obterTransferenciasPorPeriodoAposCursor(final CursorTransferencia cursor, final int tamanho,
+                                                                                    final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
+        return transferenciaRepository.obterTransferenciasPorPeriodoAposCursor(cursor, tamanho, dataInicial, dataFinal);
+    }
+
+    @Override
+    public PaginaCursorDTO<TransferenciaDTO> buscarTransferenciasAposCursor(final CursorTransferencia cursor, final int tamanho,
+                                                                           final FiltroTransferencia filtro) {
+        return transferenciaRepository.buscarTransferenciasAposCursor(cursor, tamanho, filtro);
+    }
+
+    @Override
+    public PaginaCursorDTO<TransferenciaDTO> obterTransferenciasPorContaAposCursor(final CursorTransferencia cursor, final int tamanho, final int idConta) {
+        return transferenciaRepository.obterTransferenciasPorContaAposCursor(cursor, tamanho, idConta);
+    }
+
+    @Override
+    public PaginaCursorDTO<LancamentoExtratoDTO> obterExtratoPorContaAposCursor(final CursorTransferencia cursor, final int tamanho, final int idConta) {
+        return transferenciaRepository.obterExtratoPorContaAposCursor(cursor, tamanho, idConta);
+    }
+
+    @Override
+    public BigDecimal obterSaldoTotalPorPeriodo(final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
+        if (!dataFinal.isBefore(inicioDoDiaAberto())) {
+            return transferenciaRepository.obterSaldoTotalPorPeriodo(dataInicial, dataFinal);
+        }
+
+        Periodo periodo = new Periodo(dataInicial, dataFinal);
+        BigDecimal soma = somasPorPeriodo.getIfPresent(periodo);
+        if (soma != null) {
+            return soma;
+        }
+
+        long geracao = geracaoPeriodos.get();
+        soma = transferenciaRepository.obterSaldoTotalPorPeriodo(dataInicial, dataFinal);
+        if (soma != null) {
+            somasPorPeriodo.put(periodo, soma);
+            // Um descarte que passou antes desta gravacao nao a viu: a soma pode ser anterior ao lancamento dele. Um
+            // descarte posterior incrementa a geracao antes de remover, entao remove esta soma
+            if (geracaoPeriodos.get() != geracao) {
+                somasPorPeriodo.asMap().remove(periodo, soma);
+            }
+        }
+        return soma;
+    }
+
+    @Override
+    public BigDecimal obterSaldoTotalPorNumeroConta(final int numeroConta) {
+        return saldosPorConta.get(numeroConta, transferenciaRepository::obterSaldoTotalPorNumeroConta);
+    }
+
+    @Override
+    public String obterVersaoConta(final int idConta) {
+        return transferenciaRepository.obterVersaoConta(idConta);
+    }
+
+    @Override
+    public void salvar(final Transferencia transferencia) {
+        transferenciaRepository.salvar(transferencia);
+        invalidar(List.of(transferencia));
+    }
+
+    @Override
+    public void salvarLancamentos(final List<Transferencia> lancamentos) {
+        transferenciaRepository.salvarLancamentos(lancamentos);
+        invalidar(lancamentos);
+    }
+
+    @Override
+    public void deletar(final Transferencia transferencia) {
+        transferenciaRepository.deletar(transferencia);
+        invalidar(List.of(transferencia));
+    }
+
+    @Override
+    public void registrarLancamentosImportados(final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
+        transferenciaRepository.registrarLancamentosImportados(dataInicial, dataFinal);
+        // Sem a lista de contas, todos os saldos saem; das somas, so as que se cruzam com o periodo importado
+        saldosPorConta.invalidateAll();
+        geracaoPeriodos.incrementAndGet();
+        somasPorPeriodo.asMap().keySet().removeIf(periodo -> !periodo.inicio.isAfter(dataFinal) && !periodo.fim.isBefore(dataInicial));
+    }
+
+    private void invalidar(final List<Transferencia> lancamentos) {
+        Set<Integer> contas = lancamentos.stream().map(lancamento -> lancamento.getContaId().getId()).collect(Collectors.toSet());
+        List<LocalDateTime> datas = lancamentos.stream().map(Transferencia::getDataTransferencia).collect(Collectors.toList());
+        descartar(contas, datas);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartar(contas, datas);
+                }
+            });
+        }
+    }
+
+    private void descartar(final Set<Integer> contas, final List<LocalDateTime> datas) {
+        saldosPorConta.invalidateAll(contas);
+        // Todo periodo guardado terminou antes do dia aberto: so um lancamento retroativo pode cair dentro de algum
+        LocalDateTime inicioDoDiaAberto = inicioDoDiaAberto();
+        List<LocalDateTime> retroativas = datas.stream().filter(data -> data.isBefore(inicioDoDiaAberto)).collect(Collectors.toList());
+        if (!retroativas.isEmpty()) {
+            geracaoPeriodos.incrementAndGet();
+            somasPorPeriodo.asMap().keySet().removeIf(periodo -> retroativas.stream().anyMatch(periodo::contem));
+        }
+    }
+
+    private LocalDateTime inicioDoDiaAberto() {
+        return LocalDateTime.now(relogio).minus(margemFechamento).toLocalDate().atStartOfDay();
+    }
+
+    private static final class Periodo {
+        private final LocalDateTime inicio;
+        private final LocalDateTime fim;
+
+        private Periodo(LocalDateTime inicio, LocalDateTime fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        private boolean contem(final LocalDateTime data) {
+            return !data.isBefore(inicio) && !data.isAfter(fim);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Periodo)) {
+                return false;
+            }
+            Periodo periodo = (Periodo) o;
+            return inicio.equals(periodo.inicio) && fim.equals(periodo.fim);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(inicio, fim);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.banco.infrastructure.adaptadores.concorrencia;
+
+import br.com.banco.domain.exception.ConflitoConcorrenciaException;
+import br.com.banco.domain.ports.interfaces.IControleConcorrenciaPort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaEntity;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringContaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Controla a concorrência pela {@code @Version} das contas, sem {@code SELECT ... FOR UPDATE}.
+ * <p>
+ * As versões das contas são lidas antes da operação, sem bloquear nada, e só no fim da transação, logo antes do
+ * commit, são conferidas e incrementadas, em ordem crescente de ID. Se outra transação alterou alguma conta nesse
+ * meio tempo, a transação é desfeita e a operação é repetida em uma nova, com espera exponencial e jitter, até o
+ * limite de tentativas. Timeouts de bloqueio de linha do banco também são tratados como conflito.
+ */
+public class ControleConcorrenciaOtimista implements IControleConcorrenciaPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ControleConcorrenciaOtimista.class);
+
+    private final SpringContaRepository contaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int tentativas;
+    private final long esperaInicialMs;
+    private final long esperaMaximaMs;
+    private final Counter retentativas;
+    private final Counter conflitosEsgotados;
+
+    public ControleConcorrenciaOtimista(SpringContaRepository contaRepository, TransactionTemplate transactionTemplate,
+                                        MeterRegistry meterRegistry, int tentativas, long esperaInicialMs, long esperaMaximaMs) {
+        if (tentativas <= 0) {
+            throw new IllegalArgumentException("O numero de tentativas deve ser positivo.");
+        }
+        this.contaRepository = contaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.tentativas = tentativas;
+        this.esperaInicialMs = esperaInicialMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.retentativas = Counter.builder("banco.concorrencia.retentativas")
+                .description("Operacoes repetidas apos conflito de versao")
+                .tag("estrategia", "otimista")
+                .register(meterRegistry);
+        this.conflitosEsgotados = Counter.builder("banco.concorrencia.conflitos.esgotados")
+                .description("Operacoes abandonadas apos esgotar as tentativas")
+                .tag("estrategia", "otimista")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T executar(final List<Integer> contas, final Supplier<T> operacao) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Map<Integer, Long> versoes = lerVersoes(contas);
+                    T resultado = operacao.get();
+                    versoes.forEach(this::incrementarVersao);
+                    return resultado;
+                });
+            } catch (ConcurrencyFailureException e) {
+                if (tentativa >= tentativas) {
+                    conflitosEsgotados.increment();
+                    LOGGER.error("Conflito de concorrencia nas contas {} apos {} tentativas", contas, tentativa);
+                    throw new ConflitoConcorrenciaException("Conflito de concorrencia nas contas: " + contas);
+                }
+                retentativas.increment();
+                LOGGER.info("Conflito de concorrencia nas contas {}, tentativa {} de {}", contas, tentativa, tentativas);
+                aguardar(tentativa);
+            }
+        }
+    }
+
+    // Ordenadas por ID, para que transacoes concorrentes incrementem as mesmas contas na mesma ordem
+    private Map<Integer, Long> lerVersoes(final List<Integer> contas) {
+        Map<Integer, Long> versoes = new TreeMap<>();
+        for (int contaId : contas) {
+            if (!versoes.containsKey(contaId)) {
+                contaRepository.obterVersao(contaId).ifPresent(versao -> versoes.put(contaId, versao));
+            }
+        }
+        return versoes;
+    }
+
+    private void incrementarVersao(final int contaId, final long versao) {
+        if (contaRepository.incrementarVersao(contaId, versao) == 0) {
+            throw new ObjectOptimisticLockingFailureException(ContaEntity.class, contaId);
+        }
+    }
+
+    private void aguardar(final int tentativa) {
+        long espera = Math.min(esperaMaximaMs, esperaInicialMs << Math.min(tentativa - 1, 20));
+        try {
+            Thread.sleep(espera / 2 + ThreadLocalRandom.current().nextLong(espera / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflitoConcorrenciaException("Operacao interrompida aguardando nova tentativa.");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.banco.infrastructure.adaptadores.concorrencia;
+
+import br.com.banco.domain.exception.ConflitoConcorrenciaException;
+import br.com.banco.domain.ports.interfaces.IControleConcorrenciaPort;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringContaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bloqueia as linhas das contas com {@code SELECT ... FOR UPDATE} antes de executar a operação.
+ * <p>
+ * Os bloqueios são sempre obtidos em ordem crescente de ID, de modo que duas transferências opostas
+ * entre as mesmas contas esperam uma pela outra em vez de entrarem em deadlock.
+ */
+public class ControleConcorrenciaPessimista implements IControleConcorrenciaPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ControleConcorrenciaPessimista.class);
+
+    private final SpringContaRepository contaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer esperaBloqueio;
+    private final Counter bloqueiosExpirados;
+
+    public ControleConcorrenciaPessimista(SpringContaRepository contaRepository, TransactionTemplate transactionTemplate,
+                                          MeterRegistry meterRegistry) {
+        this.contaRepository = contaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.esperaBloqueio = Timer.builder("banco.concorrencia.bloqueio.espera")
+                .description("Tempo de espera pelo bloqueio das contas")
+                .tag("estrategia", "pessimista")
+                .register(meterRegistry);
+        this.bloqueiosExpirados = Counter.builder("banco.concorrencia.bloqueio.expirados")
+                .description("Bloqueios de conta nao obtidos dentro do timeout")
+                .tag("estrategia", "pessimista")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T executar(final List<Integer> contas, final Supplier<T> operacao) {
+        try {
+            return transactionTemplate.execute(status -> {
+                contas.stream()
+                        .distinct()
+                        .sorted()
+                        .forEach(this::bloquear);
+                return operacao.get();
+            });
+        } catch (PessimisticLockingFailureException e) {
+            bloqueiosExpirados.increment();
+            LOGGER.error("Tempo esgotado aguardando bloqueio das contas: {}", contas, e);
+            throw new ConflitoConcorrenciaException("Tempo esgotado aguardando bloqueio das contas: " + contas);
+        }
+    }
+
+    private void bloquear(final int contaId) {
+        esperaBloqueio.record(() -> contaRepository.bloquearParaAtualizacao(contaId));
+    }
+}
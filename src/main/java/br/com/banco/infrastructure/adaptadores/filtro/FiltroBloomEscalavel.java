@@ -0,0 +1,148 @@
+package br.com.banco.infrastructure.adaptadores.filtro;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom escalável sobre valores {@code long}: sem falsos negativos, e com falsos positivos abaixo de
+ * {@code taxaFalsoPositivo} qualquer que seja a quantidade de valores.
+ * <p>
+ * Quando a camada atual chega à capacidade, abre-se outra com o dobro da capacidade e metade da taxa da anterior; a
+ * primeira fica com metade da taxa pedida, então a soma das taxas de todas as camadas nunca passa dela.
+ * <p>
+ * Consultas podem correr em paralelo com uma inclusão, mas as inclusões precisam ser serializadas por quem chama.
+ */
+class FiltroBloomEscalavel {
+
+    private static final int FATOR_CRESCIMENTO = 2;
+    private static final double RAZAO_TAXA = 0.5;
+
+    private volatile Camada[] camadas;
+    private volatile long quantidade;
+
+    FiltroBloomEscalavel(final long capacidadeInicial, final double taxaFalsoPositivo) {
+        if (capacidadeInicial <= 0) {
+            throw new IllegalArgumentException("A capacidade inicial do filtro deve ser positiva.");
+        }
+        if (taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("A taxa de falsos positivos do filtro deve estar entre 0 e 1.");
+        }
+        this.camadas = new Camada[]{new Camada(capacidadeInicial, taxaFalsoPositivo * (1 - RAZAO_TAXA))};
+    }
+
+    boolean podeConter(final long valor) {
+        long hash1 = misturar(valor);
+        long hash2 = segundoHash(hash1);
+        for (Camada camada : camadas) {
+            if (camada.contem(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inclui o valor na camada atual, abrindo uma nova se ela estiver cheia.
+     *
+     * @return {@code false} quando o valor já podia estar no filtro e nada foi alterado.
+     */
+    boolean adicionar(final long valor) {
+        if (podeConter(valor)) {
+            return false;
+        }
+        Camada atual = camadas[camadas.length - 1];
+        if (atual.quantidade >= atual.capacidade) {
+            atual = new Camada(atual.capacidade * FATOR_CRESCIMENTO, atual.taxa * RAZAO_TAXA);
+            Camada[] novas = Arrays.copyOf(camadas, camadas.length + 1);
+            novas[novas.length - 1] = atual;
+            camadas = novas;
+        }
+        long hash1 = misturar(valor);
+        atual.adicionar(hash1, segundoHash(hash1));
+        quantidade++;
+        return true;
+    }
+
+    long quantidade() {
+        return quantidade;
+    }
+
+    int quantidadeCamadas() {
+        return camadas.length;
+    }
+
+    /**
+     * Taxa de falsos positivos esperada com o preenchimento atual das camadas: uma consulta é falso positivo quando
+     * todos os bits de alguma camada estão ligados.
+     */
+    double taxaFalsoPositivoEstimada() {
+        double nenhumaCamada = 1;
+        for (Camada camada : camadas) {
+            nenhumaCamada *= 1 - camada.taxaEstimada();
+        }
+        return 1 - nenhumaCamada;
+    }
+
+    // Finalizador do MurmurHash3: espalha IDs sequenciais por todos os bits
+    private static long misturar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xff51afd7ed558ccdL;
+        valor ^= valor >>> 33;
+        valor *= 0xc4ceb9fe1a85ec53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+
+    // Impar, para que as posicoes hash1 + i * hash2 nao se repitam dentro de uma camada
+    private static long segundoHash(final long hash1) {
+        return misturar(hash1 ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+
+    private static final class Camada {
+        private final long capacidade;
+        private final double taxa;
+        private final long tamanho;
+        private final int funcoes;
+        private final AtomicLongArray bits;
+        private long quantidade;
+        private volatile long bitsLigados;
+
+        private Camada(final long capacidade, final double taxa) {
+            this.capacidade = capacidade;
+            this.taxa = taxa;
+            // Tamanho e numero de funcoes otimos para a capacidade e a taxa da camada, arredondado para palavras de 64 bits
+            long bitsOtimos = (long) Math.ceil(-capacidade * Math.log(taxa) / (Math.log(2) * Math.log(2)));
+            int palavras = Math.toIntExact(Math.max(1, (bitsOtimos + 63) / 64));
+            this.tamanho = palavras * 64L;
+            this.funcoes = Math.max(1, (int) Math.ceil(-Math.log(taxa) / Math.log(2)));
+            this.bits = new AtomicLongArray(palavras);
+        }
+
+        private boolean contem(final long hash1, final long hash2) {
+            for (int i = 0; i < funcoes; i++) {
+                long posicao = Math.floorMod(hash1 + i * hash2, tamanho);
+                if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void adicionar(final long hash1, final long hash2) {
+            for (int i = 0; i < funcoes; i++) {
+                long posicao = Math.floorMod(hash1 + i * hash2, tamanho);
+                int palavra = (int) (posicao >>> 6);
+                long atual = bits.get(palavra);
+                if ((atual & (1L << posicao)) == 0) {
+                    bits.set(palavra, atual | (1L << posicao));
+                    bitsLigados++;
+                }
+            }
+            quantidade++;
+        }
+
+        private double taxaEstimada() {
+            return Math.pow((double) bitsLigados / tamanho, funcoes);
+        }
+    }
+}
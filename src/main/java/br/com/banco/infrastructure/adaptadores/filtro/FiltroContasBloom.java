@@ -0,0 +1,96 @@
+package br.com.banco.infrastructure.adaptadores.filtro;
+
+import br.com.banco.domain.ports.interfaces.IFiltroContasPort;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringContaRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom escalável com os IDs de todas as contas já gravadas, para recusar sem acessar o banco as consultas
+ * por contas que nunca existiram.
+ * <p>
+ * A carga lê os IDs da tabela de contas em lotes pela chave primária; depois dela, cada conta entra no filtro ao ser
+ * salva, antes do commit. Contas excluídas continuam no filtro e, quando consultadas, contam como falso positivo.
+ * <p>
+ * A taxa observada é a fração das consultas por contas inexistentes que passaram pelo filtro e foram ao banco; a
+ * estimada vem do preenchimento das camadas.
+ */
+public class FiltroContasBloom implements IFiltroContasPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FiltroContasBloom.class);
+
+    private static final int TAMANHO_LOTE = 10_000;
+
+    private final SpringContaRepository contaRepository;
+    private final FiltroBloomEscalavel filtro;
+    private final LongAdder rejeicoes = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+
+    public FiltroContasBloom(SpringContaRepository contaRepository, long capacidadeInicial, double taxaFalsoPositivo,
+                             MeterRegistry meterRegistry) {
+        this.contaRepository = contaRepository;
+        this.filtro = new FiltroBloomEscalavel(capacidadeInicial, taxaFalsoPositivo);
+
+        Gauge.builder("conta.filtro.taxa-falso-positivo", this, FiltroContasBloom::taxaFalsoPositivoObservada)
+                .description("Fracao das consultas por contas inexistentes que passaram pelo filtro")
+                .register(meterRegistry);
+        Gauge.builder("conta.filtro.taxa-falso-positivo.estimada", filtro, FiltroBloomEscalavel::taxaFalsoPositivoEstimada)
+                .description("Taxa de falsos positivos esperada pelo preenchimento do filtro")
+                .register(meterRegistry);
+        Gauge.builder("conta.filtro.contas", filtro, FiltroBloomEscalavel::quantidade)
+                .register(meterRegistry);
+        FunctionCounter.builder("conta.filtro.rejeicoes", rejeicoes, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder("conta.filtro.falsos-positivos", falsosPositivos, LongAdder::sum)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carrega no filtro os IDs de todas as contas. Chamado na inicialização, antes de o filtro recusar qualquer conta.
+     */
+    public void carregar() {
+        int ultimoId = Integer.MIN_VALUE;
+        List<Integer> lote;
+        do {
+            lote = contaRepository.findIdsAposId(PageRequest.of(0, TAMANHO_LOTE), ultimoId);
+            lote.forEach(this::registrarConta);
+            if (!lote.isEmpty()) {
+                ultimoId = lote.get(lote.size() - 1);
+            }
+        } while (lote.size() == TAMANHO_LOTE);
+        LOGGER.info("Filtro de contas carregado com {} contas em {} camadas", filtro.quantidade(), filtro.quantidadeCamadas());
+    }
+
+    @Override
+    public boolean podeExistir(final int contaId) {
+        if (filtro.podeConter(contaId)) {
+            return true;
+        }
+        rejeicoes.increment();
+        return false;
+    }
+
+    @Override
+    public void registrarConta(final int contaId) {
+        synchronized (filtro) {
+            filtro.adicionar(contaId);
+        }
+    }
+
+    @Override
+    public void registrarFalsoPositivo(final int contaId) {
+        falsosPositivos.increment();
+    }
+
+    double taxaFalsoPositivoObservada() {
+        long falsos = falsosPositivos.sum();
+        long inexistentes = falsos + rejeicoes.sum();
+        return inexistentes == 0 ? 0 : (double) falsos / inexistentes;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.banco.infrastructure.adaptadores.filtro;
+
+import br.com.banco.domain.ports.interfaces.IFiltroContasPort;
+
+/**
+ * Usado quando o filtro de contas está desligado: toda conta pode existir e a consulta segue para o banco.
+ */
+public class FiltroContasDesabilitado implements IFiltroContasPort {
+
+    @Override
+    public boolean podeExistir(final int contaId) {
+        return true;
+    }
+
+    @Override
+    public void registrarConta(final int contaId) {
+    }
+
+    @Override
+    public void registrarFalsoPositivo(final int contaId) {
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.banco.infrastructure.adaptadores.gravacao;
+
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IGravacaoEmGrupoPort;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Usado quando a gravação em grupo está desligada: cada lançamento é gravado na transação da própria requisição.
+ */
+public class GravacaoEmGrupoDesabilitada implements IGravacaoEmGrupoPort {
+
+    @Override
+    public boolean gravar(final Transferencia lancamento) {
+        return false;
+    }
+
+    @Override
+    public int gravarProximoGrupo(final Consumer<List<Transferencia>> gravacao) {
+        return 0;
+    }
+}
@@ -0,0 +1,208 @@
+package br.com.banco.infrastructure.adaptadores.gravacao;
+
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IGravacaoEmGrupoPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Junta os lançamentos de requisições simultâneas em um único commit.
+ * <p>
+ * Cada chamador de {@link #gravar} entra na fila e espera. Dentro de uma transação, isso só acontece no commit dela,
+ * depois que as demais escritas da transação, como a chave de idempotência, foram enviadas ao banco: um erro nelas ou
+ * um rollback não deixam o lançamento gravado pelo grupo. O gravador pega o primeiro da fila e junta os que chegarem
+ * dentro da janela, até o tamanho máximo, em uma transação com um único batch de inserts. Todos os chamadores do grupo
+ * são liberados depois desse commit. Se o grupo falhar, cada lançamento é gravado de novo na própria transação, para
+ * que só o chamador do lançamento com problema receba o erro.
+ */
+public class GravacaoEmGrupoLancamentos implements IGravacaoEmGrupoPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GravacaoEmGrupoLancamentos.class);
+
+    // Quanto o gravador espera pelo primeiro lancamento antes de devolver o controle, para poder ser encerrado
+    private static final long ESPERA_PRIMEIRO_MS = 100;
+
+    private final BlockingQueue<Pedido> fila = new LinkedBlockingQueue<>();
+    private final EntityManager entityManager;
+    private final long janelaNanos;
+    private final int tamanhoMaximo;
+    private final Timer espera;
+    private final DistributionSummary tamanhoGrupo;
+    private final Counter gruposDesfeitos;
+    private volatile boolean encerrada;
+
+    public GravacaoEmGrupoLancamentos(EntityManager entityManager, Duration janela, int tamanhoMaximo, MeterRegistry meterRegistry) {
+        if (tamanhoMaximo <= 0) {
+            throw new IllegalArgumentException("O tamanho maximo do grupo deve ser positivo.");
+        }
+        this.entityManager = entityManager;
+        this.janelaNanos = janela.toNanos();
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.espera = Timer.builder("banco.gravacao-grupo.espera")
+                .description("Tempo entre a entrada do lancamento na fila e o commit do seu grupo")
+                .register(meterRegistry);
+        this.tamanhoGrupo = DistributionSummary.builder("banco.gravacao-grupo.lancamentos")
+                .description("Lancamentos gravados em cada commit")
+                .register(meterRegistry);
+        this.gruposDesfeitos = Counter.builder("banco.gravacao-grupo.desfeitos")
+                .description("Grupos que falharam e foram gravados lancamento a lancamento")
+                .register(meterRegistry);
+        Gauge.builder("banco.gravacao-grupo.janela", () -> janela.toNanos() / 1_000_000.0)
+                .description("Janela configurada para juntar lancamentos, em milissegundos")
+                .register(meterRegistry);
+        Gauge.builder("banco.gravacao-grupo.tamanho-maximo", () -> tamanhoMaximo)
+                .description("Numero maximo de lancamentos por commit")
+                .register(meterRegistry);
+        Gauge.builder("banco.gravacao-grupo.fila", fila, BlockingQueue::size)
+                .description("Lancamentos esperando o proximo grupo")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean gravar(final Transferencia lancamento) {
+        if (encerrada) {
+            return false;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enfileirar(lancamento);
+            return true;
+        }
+        // O grupo confirma o lancamento em outra transacao: so depois de a do chamador nao ter mais o que falhar alem do commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(final boolean readOnly) {
+                entityManager.flush();
+                enfileirar(lancamento);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public int gravarProximoGrupo(final Consumer<List<Transferencia>> gravacao) {
+        List<Pedido> grupo = new ArrayList<>();
+        try {
+            Pedido primeiro = fila.poll(ESPERA_PRIMEIRO_MS, TimeUnit.MILLISECONDS);
+            if (primeiro == null) {
+                return 0;
+            }
+            grupo.add(primeiro);
+            juntar(grupo);
+        } catch (InterruptedException e) {
+            // Grava o que ja foi tirado da fila; quem interrompeu ve a interrupcao depois
+            Thread.currentThread().interrupt();
+        }
+        if (!grupo.isEmpty()) {
+            gravarGrupo(grupo, gravacao);
+        }
+        return grupo.size();
+    }
+
+    /**
+     * Novas chamadas de {@link #gravar} passam a gravar direto, e quem ainda estiver na fila recebe erro.
+     */
+    public void encerrar() {
+        encerrada = true;
+        List<Pedido> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        restantes.forEach(pedido -> pedido.falhar(new IllegalStateException("Gravacao em grupo encerrada.")));
+    }
+
+    private void enfileirar(final Transferencia lancamento) {
+        if (encerrada) {
+            // Chamador que passou por gravar antes do encerramento e so chegou ao commit depois dele
+            throw new IllegalStateException("Gravacao em grupo encerrada.");
+        }
+        Pedido pedido = new Pedido(lancamento);
+        fila.add(pedido);
+        espera.record(pedido::aguardar);
+    }
+
+    private void juntar(final List<Pedido> grupo) throws InterruptedException {
+        long limite = System.nanoTime() + janelaNanos;
+        while (grupo.size() < tamanhoMaximo) {
+            fila.drainTo(grupo, tamanhoMaximo - grupo.size());
+            long restante = limite - System.nanoTime();
+            if (grupo.size() >= tamanhoMaximo || restante <= 0) {
+                return;
+            }
+            Pedido proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proximo == null) {
+                return;
+            }
+            grupo.add(proximo);
+        }
+    }
+
+    private void gravarGrupo(final List<Pedido> grupo, final Consumer<List<Transferencia>> gravacao) {
+        try {
+            gravacao.accept(grupo.stream().map(pedido -> pedido.lancamento).collect(Collectors.toList()));
+            tamanhoGrupo.record(grupo.size());
+            grupo.forEach(Pedido::concluir);
+        } catch (RuntimeException e) {
+            if (grupo.size() == 1) {
+                grupo.get(0).falhar(e);
+                return;
+            }
+            gruposDesfeitos.increment();
+            LOGGER.warn("Erro ao gravar grupo de {} lancamentos, gravando um a um", grupo.size(), e);
+            grupo.forEach(pedido -> gravarSozinho(pedido, gravacao));
+        }
+    }
+
+    private void gravarSozinho(final Pedido pedido, final Consumer<List<Transferencia>> gravacao) {
+        try {
+            gravacao.accept(List.of(pedido.lancamento));
+            tamanhoGrupo.record(1);
+            pedido.concluir();
+        } catch (RuntimeException e) {
+            pedido.falhar(e);
+        }
+    }
+
+    private static final class Pedido {
+        private final Transferencia lancamento;
+        private final CompletableFuture<Void> commit = new CompletableFuture<>();
+
+        private Pedido(Transferencia lancamento) {
+            this.lancamento = lancamento;
+        }
+
+        private void concluir() {
+            commit.complete(null);
+        }
+
+        private void falhar(final RuntimeException erro) {
+            commit.completeExceptionally(erro);
+        }
+
+        private void aguardar() {
+            try {
+                commit.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
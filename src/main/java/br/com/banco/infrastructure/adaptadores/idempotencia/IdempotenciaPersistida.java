@@ -0,0 +1,185 @@
+package br.com.banco.infrastructure.adaptadores.idempotencia;
+
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.exception.ChaveIdempotenciaInvalidaException;
+import br.com.banco.domain.exception.ConflitoConcorrenciaException;
+import br.com.banco.domain.ports.interfaces.IIdempotenciaPort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.IdempotenciaEntity;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringIdempotenciaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Chaves de idempotência em memória (Caffeine, com tamanho máximo e expiração), com a tabela {@code idempotencia} por
+ * trás.
+ * <p>
+ * A primeira requisição de uma chave deixa em memória a resposta ainda por vir: as repetições que chegam enquanto ela
+ * executa esperam por essa resposta em vez de executar de novo. A resposta também é gravada na tabela, na transação da
+ * própria operação, e é de lá que vem depois de sair da memória, de um reinício ou quando a repetição chega a outra
+ * instância. Se duas instâncias executam a mesma chave ao mesmo tempo, a segunda falha na chave primária, sua transação
+ * é desfeita e ela devolve a resposta da primeira.
+ * <p>
+ * Tudo isso depende de o lançamento e a chave serem confirmados pela mesma transação; com o journal ou a gravação em
+ * grupo ligados, o {@link IdempotenciaRecusada} é usado no lugar.
+ */
+public class IdempotenciaPersistida implements IIdempotenciaPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotenciaPersistida.class);
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private final SpringIdempotenciaRepository idempotenciaRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retencao;
+    private final Duration espera;
+    private final Clock relogio;
+    private final Cache<String, Execucao> execucoes;
+    private final Counter repeticoes;
+
+    public IdempotenciaPersistida(SpringIdempotenciaRepository idempotenciaRepository, ObjectMapper objectMapper, long tamanhoMaximo,
+                                  Duration retencao, Duration espera, Ticker ticker, Clock relogio, MeterRegistry meterRegistry) {
+        this.idempotenciaRepository = idempotenciaRepository;
+        this.objectMapper = objectMapper;
+        this.retencao = retencao;
+        this.espera = espera;
+        this.relogio = relogio;
+        this.execucoes = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(retencao)
+                .ticker(ticker)
+                .recordStats()
+                .<String, Execucao>build(), "idempotencia");
+        this.repeticoes = Counter.builder("banco.idempotencia.repeticoes")
+                .description("Requisicoes respondidas com a resposta ja existente da chave de idempotencia")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TransferenciaDTO executar(final String chave, final String requisicao, final Supplier<TransferenciaDTO> operacao) {
+        if (chave == null) {
+            return operacao.get();
+        }
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new ChaveIdempotenciaInvalidaException("A chave de idempotencia deve ter de 1 a " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        }
+
+        Execucao nova = new Execucao(requisicao);
+        Execucao existente = execucoes.asMap().putIfAbsent(chave, nova);
+        if (existente != null) {
+            exigirMesmaRequisicao(chave, existente.requisicao, requisicao);
+            repeticoes.increment();
+            return existente.aguardar(chave, espera);
+        }
+
+        try {
+            TransferenciaDTO resposta = buscarGravada(chave, requisicao).orElseGet(() -> executarUmaVez(chave, requisicao, operacao));
+            nova.resposta.complete(resposta);
+            return resposta;
+        } catch (RuntimeException e) {
+            // Sem resposta, a proxima requisicao com a chave executa de novo; as que ja esperavam recebem o mesmo erro
+            execucoes.asMap().remove(chave, nova);
+            nova.resposta.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void registrar(final String chave, final String requisicao, final TransferenciaDTO resposta) {
+        if (chave == null) {
+            return;
+        }
+        idempotenciaRepository.save(new IdempotenciaEntity(chave, requisicao, escrever(resposta), LocalDateTime.now(relogio)));
+    }
+
+    @Override
+    public int removerExpiradas() {
+        int removidas = idempotenciaRepository.deleteByCriadaEmAntesDe(LocalDateTime.now(relogio).minus(retencao));
+        LOGGER.info("Chaves de idempotencia expiradas removidas: {}", removidas);
+        return removidas;
+    }
+
+    private TransferenciaDTO executarUmaVez(final String chave, final String requisicao, final Supplier<TransferenciaDTO> operacao) {
+        try {
+            return operacao.get();
+        } catch (DataIntegrityViolationException e) {
+            // Outra instancia confirmou a mesma chave antes; a transacao desta ja foi desfeita
+            LOGGER.info("Chave de idempotencia gravada por outra requisicao: {}", chave);
+            return buscarGravada(chave, requisicao).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<TransferenciaDTO> buscarGravada(final String chave, final String requisicao) {
+        return idempotenciaRepository.findById(chave).map(gravada -> {
+            exigirMesmaRequisicao(chave, gravada.getRequisicao(), requisicao);
+            repeticoes.increment();
+            return ler(gravada.getResposta());
+        });
+    }
+
+    private static void exigirMesmaRequisicao(final String chave, final String original, final String requisicao) {
+        if (!original.equals(requisicao)) {
+            throw new ChaveIdempotenciaInvalidaException("A chave de idempotencia " + chave + " ja foi usada em outra requisicao.");
+        }
+    }
+
+    private String escrever(final TransferenciaDTO resposta) {
+        try {
+            return objectMapper.writeValueAsString(resposta);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TransferenciaDTO ler(final String resposta) {
+        try {
+            return objectMapper.readValue(resposta, TransferenciaDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Execucao {
+        private final String requisicao;
+        private final CompletableFuture<TransferenciaDTO> resposta = new CompletableFuture<>();
+
+        private Execucao(String requisicao) {
+            this.requisicao = requisicao;
+        }
+
+        // A primeira requisicao pode estar presa esperando um bloqueio; a repeticao desiste antes, sem executar
+        private TransferenciaDTO aguardar(final String chave, final Duration espera) {
+            try {
+                return resposta.get(espera.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (TimeoutException e) {
+                throw new ConflitoConcorrenciaException("Tempo esgotado aguardando a requisicao em andamento com a chave " + chave);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConflitoConcorrenciaException("Requisicao interrompida aguardando a chave " + chave);
+            }
+        }
+    }
+}
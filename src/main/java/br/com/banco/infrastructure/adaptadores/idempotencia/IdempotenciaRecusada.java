@@ -0,0 +1,33 @@
+package br.com.banco.infrastructure.adaptadores.idempotencia;
+
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.exception.ChaveIdempotenciaInvalidaException;
+import br.com.banco.domain.ports.interfaces.IIdempotenciaPort;
+
+import java.util.function.Supplier;
+
+/**
+ * Usado com o journal ou a gravação em grupo ligados: o lançamento é confirmado fora da transação que guardaria a
+ * chave, e a chave poderia existir sem o lançamento, ou o contrário. Requisições com chave são recusadas; as demais
+ * executam normalmente.
+ */
+public class IdempotenciaRecusada implements IIdempotenciaPort {
+
+    @Override
+    public TransferenciaDTO executar(final String chave, final String requisicao, final Supplier<TransferenciaDTO> operacao) {
+        if (chave != null) {
+            throw new ChaveIdempotenciaInvalidaException("Chaves de idempotencia nao sao aceitas com o journal ou a gravacao em grupo ligados.");
+        }
+        return operacao.get();
+    }
+
+    @Override
+    public void registrar(final String chave, final String requisicao, final TransferenciaDTO resposta) {
+        // Nunca ha chave: executar ja recusou as requisicoes com chave
+    }
+
+    @Override
+    public int removerExpiradas() {
+        return 0;
+    }
+}
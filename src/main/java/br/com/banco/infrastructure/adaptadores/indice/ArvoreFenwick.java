@@ -0,0 +1,39 @@
+package br.com.banco.infrastructure.adaptadores.indice;
+
+/**
+ * Árvore de Fenwick sobre posições {@code 0..tamanho-1}: soma pontual e soma de prefixo em O(log n).
+ * Não é thread-safe.
+ */
+class ArvoreFenwick {
+
+    private final long[] arvore;
+
+    ArvoreFenwick(final int tamanho) {
+        this.arvore = new long[tamanho + 1];
+    }
+
+    int tamanho() {
+        return arvore.length - 1;
+    }
+
+    void somar(final int posicao, final long valor) {
+        for (int i = posicao + 1; i < arvore.length; i += i & -i) {
+            arvore[i] += valor;
+        }
+    }
+
+    /**
+     * Soma das posições {@code inicio..fim}, inclusive; zero quando {@code fim < inicio}.
+     */
+    long somar(final int inicio, final int fim) {
+        return fim < inicio ? 0 : prefixo(fim) - prefixo(inicio - 1);
+    }
+
+    private long prefixo(final int posicao) {
+        long soma = 0;
+        for (int i = posicao + 1; i > 0; i -= i & -i) {
+            soma += arvore[i];
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.banco.infrastructure.adaptadores.indice;
+
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IIndiceTemporalPort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Usado quando o índice temporal em memória está desligado: não guarda nada e toda consulta segue para o banco.
+ */
+public class IndiceTemporalDesabilitado implements IIndiceTemporalPort {
+
+    @Override
+    public Optional<BigDecimal> obterTotalCreditos(final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void registrarLancamento(final Transferencia transferencia) {
+    }
+
+    @Override
+    public void removerLancamento(final Transferencia transferencia) {
+    }
+
+    @Override
+    public void carregar() {
+    }
+}
@@ -0,0 +1,259 @@
+package br.com.banco.infrastructure.adaptadores.indice;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IIndiceTemporalPort;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.TotalPorMinutoProjection;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringTransferenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos créditos por minuto, em duas árvores de Fenwick (soma e quantidade), cobrindo os últimos
+ * {@code retencaoDias} dias e até um dia à frente.
+ * <p>
+ * Os minutos inteiros do período saem das árvores em O(log n). As frações de minuto nas pontas são lidas do banco
+ * por faixa de data, no máximo um minuto de cada lado; períodos fora da janela, ou sem nenhum minuto inteiro,
+ * ficam com a consulta SQL.
+ * <p>
+ * Os lançamentos entram no índice depois do commit. Créditos datados depois do fim da janela ficam guardados por minuto
+ * e entram nas árvores quando a janela chega até eles. Assim, quando o relógio se aproxima do fim, a janela desliza em
+ * memória, sem ler o banco: os minutos em comum são copiados para árvores novas, que substituem as antigas no mesmo
+ * bloco sincronizado que verificou a necessidade.
+ * <p>
+ * A carga completa, na inicialização e depois de uma importação, lê o banco. Cada transação com lançamentos segura a
+ * leitura de {@code barreira} do {@code beforeCommit} até aplicá-los, e a carga segura a escrita enquanto lê o banco,
+ * então nenhum lançamento fica de fora nem entra duas vezes.
+ */
+public class IndiceTemporalFenwick implements IIndiceTemporalPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndiceTemporalFenwick.class);
+
+    private static final long FOLGA_MINUTOS = 24 * 60;
+    // Os creditos depois do fim da janela sao lidos ate aqui na carga
+    private static final LocalDateTime LIMITE_ADIANTADOS = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private final SpringTransferenciaRepository transferenciaRepository;
+    private final long retencaoMinutos;
+    private final Clock relogio;
+    private final ReentrantReadWriteLock barreira = new ReentrantReadWriteLock();
+
+    private Janela janela;
+
+    public IndiceTemporalFenwick(SpringTransferenciaRepository transferenciaRepository, int retencaoDias, Clock relogio) {
+        if (retencaoDias <= 0) {
+            throw new IllegalArgumentException("A retencao do indice temporal deve ser positiva.");
+        }
+        this.transferenciaRepository = transferenciaRepository;
+        this.retencaoMinutos = retencaoDias * 24L * 60;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Carrega a janela a partir da tabela de transferências. Chamado na inicialização e depois de lançamentos
+     * gravados sem passar pelo índice.
+     */
+    @Override
+    public void carregar() {
+        barreira.writeLock().lock();
+        try {
+            LocalDateTime origem = minuto(LocalDateTime.now(relogio)).minusMinutes(retencaoMinutos);
+            Janela nova = new Janela(origem, (int) (retencaoMinutos + FOLGA_MINUTOS));
+            for (TotalPorMinutoProjection total : transferenciaRepository.sumValorCreditosGroupByMinutoEntre(origem, LIMITE_ADIANTADOS)) {
+                LocalDateTime minuto = LocalDateTime.of(total.getAno(), total.getMes(), total.getDia(), total.getHora(), total.getMinuto());
+                nova.somar(minuto, total.getQuantidade(), total.getTotal().getCentavos());
+            }
+
+            synchronized (this) {
+                janela = nova;
+            }
+            LOGGER.info("Indice temporal carregado de {} a {}", nova.origem, nova.fim());
+        } finally {
+            barreira.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<BigDecimal> obterTotalCreditos(final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
+        deslizarSeNecessario();
+
+        // Minutos inteiros dentro de [dataInicial, dataFinal]; dataFinal e inclusiva
+        LocalDateTime primeiroMinuto = minuto(dataInicial).equals(dataInicial) ? dataInicial : minuto(dataInicial).plusMinutes(1);
+        LocalDateTime fimMinutos = minuto(dataFinal.plusNanos(1));
+        if (!primeiroMinuto.isBefore(fimMinutos)) {
+            return Optional.empty();
+        }
+
+        long quantidade;
+        long centavos;
+        synchronized (this) {
+            if (primeiroMinuto.isBefore(janela.origem) || fimMinutos.isAfter(janela.fim())) {
+                return Optional.empty();
+            }
+            quantidade = janela.quantidades.somar(janela.posicao(primeiroMinuto), janela.posicao(fimMinutos) - 1);
+            centavos = janela.valores.somar(janela.posicao(primeiroMinuto), janela.posicao(fimMinutos) - 1);
+        }
+
+        Dinheiro total = quantidade == 0 ? null : Dinheiro.deCentavos(centavos);
+        if (dataInicial.isBefore(primeiroMinuto)) {
+            total = somar(total, transferenciaRepository.sumValorCreditosEntre(dataInicial, primeiroMinuto));
+        }
+        if (!fimMinutos.isAfter(dataFinal)) {
+            total = somar(total, transferenciaRepository.sumValorByDataTransferenciaBetween(fimMinutos, dataFinal));
+        }
+        return Optional.ofNullable(total).map(Dinheiro::toBigDecimal);
+    }
+
+    @Override
+    public void registrarLancamento(final Transferencia transferencia) {
+        if (transferencia.getNatureza() == NaturezaLancamento.CREDITO) {
+            aplicarAposCommit(transferencia.getDataTransferencia(), 1, transferencia.getValor().getCentavos());
+        }
+    }
+
+    @Override
+    public void removerLancamento(final Transferencia transferencia) {
+        if (transferencia.getNatureza() == NaturezaLancamento.CREDITO) {
+            aplicarAposCommit(transferencia.getDataTransferencia(), -1, -transferencia.getValor().getCentavos());
+        }
+    }
+
+    private void aplicarAposCommit(final LocalDateTime data, final long quantidade, final long centavos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            barreira.readLock().lock();
+            try {
+                aplicar(data, quantidade, centavos);
+            } finally {
+                barreira.readLock().unlock();
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean bloqueado;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                barreira.readLock().lock();
+                bloqueado = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        aplicar(data, quantidade, centavos);
+                    }
+                } finally {
+                    if (bloqueado) {
+                        barreira.readLock().unlock();
+                    }
+                }
+            }
+        });
+    }
+
+    private synchronized void aplicar(final LocalDateTime data, final long quantidade, final long centavos) {
+        janela.somar(minuto(data), quantidade, centavos);
+    }
+
+    // Verificacao e troca no mesmo bloco: so uma thread desliza, e nenhum lancamento e aplicado na janela antiga depois da copia
+    private synchronized void deslizarSeNecessario() {
+        LocalDateTime agora = minuto(LocalDateTime.now(relogio));
+        if (agora.isBefore(janela.origem.plusMinutes(retencaoMinutos + FOLGA_MINUTOS / 2))) {
+            return;
+        }
+        janela = janela.deslizar(agora.minusMinutes(retencaoMinutos));
+        LOGGER.info("Indice temporal deslizado para {} a {}", janela.origem, janela.fim());
+    }
+
+    private static LocalDateTime minuto(final LocalDateTime data) {
+        return data.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    private static Dinheiro somar(final Dinheiro total, final Dinheiro parcela) {
+        if (parcela == null) {
+            return total;
+        }
+        return total == null ? parcela : total.somar(parcela);
+    }
+
+    private static final class Janela {
+        private final LocalDateTime origem;
+        private final ArvoreFenwick valores;
+        private final ArvoreFenwick quantidades;
+        // Quantidade e centavos dos creditos de cada minuto depois do fim
+        private final NavigableMap<LocalDateTime, long[]> adiantados;
+
+        private Janela(final LocalDateTime origem, final int minutos) {
+            this(origem, minutos, new TreeMap<>());
+        }
+
+        private Janela(final LocalDateTime origem, final int minutos, final NavigableMap<LocalDateTime, long[]> adiantados) {
+            this.origem = origem;
+            this.valores = new ArvoreFenwick(minutos);
+            this.quantidades = new ArvoreFenwick(minutos);
+            this.adiantados = adiantados;
+        }
+
+        /**
+         * Uma janela do mesmo tamanho a partir de {@code novaOrigem}, com os minutos em comum copiados desta e os
+         * adiantados que passam a caber nela.
+         */
+        private Janela deslizar(final LocalDateTime novaOrigem) {
+            Janela nova = new Janela(novaOrigem, valores.tamanho(), new TreeMap<>(adiantados));
+            int inicio = Math.max(0, posicao(novaOrigem));
+            for (int i = inicio; i < valores.tamanho(); i++) {
+                long quantidade = quantidades.somar(i, i);
+                if (quantidade != 0) {
+                    nova.somar(origem.plusMinutes(i), quantidade, valores.somar(i, i));
+                }
+            }
+
+            Map<LocalDateTime, long[]> alcancados = nova.adiantados.headMap(nova.fim());
+            Map<LocalDateTime, long[]> copia = new TreeMap<>(alcancados);
+            alcancados.clear();
+            copia.forEach((minuto, total) -> nova.somar(minuto, total[0], total[1]));
+            return nova;
+        }
+
+        private LocalDateTime fim() {
+            return origem.plusMinutes(valores.tamanho());
+        }
+
+        private int posicao(final LocalDateTime minuto) {
+            return (int) Duration.between(origem, minuto).toMinutes();
+        }
+
+        private void somar(final LocalDateTime minuto, final long quantidade, final long centavos) {
+            // Lancamentos antes da janela ficam so no banco; os periodos que os incluem nao sao atendidos pelo indice
+            if (minuto.isBefore(origem)) {
+                return;
+            }
+            if (!minuto.isBefore(fim())) {
+                long[] total = adiantados.computeIfAbsent(minuto, chave -> new long[2]);
+                total[0] += quantidade;
+                total[1] += centavos;
+                if (total[0] == 0) {
+                    adiantados.remove(minuto);
+                }
+                return;
+            }
+            valores.somar(posicao(minuto), centavos);
+            quantidades.somar(posicao(minuto), quantidade);
+        }
+    }
+}
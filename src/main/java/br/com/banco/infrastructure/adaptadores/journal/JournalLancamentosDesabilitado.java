@@ -0,0 +1,28 @@
+package br.com.banco.infrastructure.adaptadores.journal;
+
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IJournalLancamentosPort;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Usado quando o journal está desligado: os lançamentos são gravados direto no banco.
+ */
+public class JournalLancamentosDesabilitado implements IJournalLancamentosPort {
+
+    @Override
+    public boolean registrar(final Transferencia lancamento) {
+        return false;
+    }
+
+    @Override
+    public int aplicarPendentes(final int limite, final Consumer<List<Transferencia>> gravacao) {
+        return 0;
+    }
+
+    @Override
+    public boolean possuiPendentes(final int contaId) {
+        return false;
+    }
+}
@@ -0,0 +1,434 @@
+package br.com.banco.infrastructure.adaptadores.journal;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IJournalLancamentosPort;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringTransferenciaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Journal dos lançamentos em um arquivo mapeado em memória, gravado antes da tabela {@code transferencia}.
+ * <p>
+ * Cada registro tem o tamanho, o CRC32, um número de sequência e o lançamento serializado. Dentro de uma transação,
+ * {@link #registrar} só escreve o registro no commit dela, depois de liberados os bloqueios das contas; um rollback
+ * não deixa nada no journal. A escrita termina com o {@code force()} que leva o registro ao disco, e escritas
+ * concorrentes dividem o mesmo {@code force()}. O cabeçalho guarda a posição e a sequência do primeiro registro ainda não aplicado ao banco.
+ * <p>
+ * Na abertura, os registros são lidos a partir do cabeçalho até o primeiro com sequência ou CRC inválidos, que marca
+ * o fim: um registro cortado por uma queda nunca foi confirmado. Esses registros podem já estar no banco, se a queda
+ * veio entre o commit de um lote e a atualização do cabeçalho; antes de gravá-los, os que já têm o
+ * {@code idTransacao} na tabela são descartados.
+ * <p>
+ * O arquivo só volta ao início por inteiro: quando um registro não cabe no fim, a escrita recomeça do início assim
+ * que todos os registros anteriores forem aplicados, e até lá a escrita espera, já sem bloqueios no banco.
+ */
+public class JournalLancamentosMapeado implements IJournalLancamentosPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalLancamentosMapeado.class);
+
+    // Posicao e sequencia do primeiro registro nao aplicado
+    private static final int CABECALHO = 16;
+    // Tamanho do conteudo, CRC32 da sequencia e do conteudo, sequencia
+    private static final int CABECALHO_REGISTRO = 16;
+    // Folga na busca pelos lancamentos ja gravados, para a precisao do TIMESTAMP do banco
+    private static final long FOLGA_NANOS = 1_000_000;
+
+    private final SpringTransferenciaRepository transferenciaRepository;
+    private final Path arquivo;
+    private final int capacidade;
+    private final Counter registros;
+    private final Counter sincronizacoes;
+
+    private MappedByteBuffer mapa;
+
+    private final ReentrantLock escrita = new ReentrantLock();
+    private final Condition espacoLiberado = escrita.newCondition();
+    // Protegidos por escrita
+    private int posicaoEscrita;
+    private long proximaSequencia;
+    private int posicaoAplicada;
+    private long sequenciaAplicada;
+    private volatile long bytesEscritos;
+
+    private final ReentrantLock sincronizacao = new ReentrantLock();
+    private final Condition sincronizado = sincronizacao.newCondition();
+    // Protegidos por sincronizacao
+    private boolean sincronizando;
+    private long bytesDuraveis;
+
+    // Lancamentos ainda nao aplicados por conta, desde o registro, antes mesmo do commit de quem registrou
+    private final Map<Integer, Integer> pendentesPorConta = new ConcurrentHashMap<>();
+
+    private final Object aplicacao = new Object();
+    // Registros lidos na abertura, que podem ja estar no banco
+    private long ultimaSequenciaRecuperada = -1;
+
+    public JournalLancamentosMapeado(SpringTransferenciaRepository transferenciaRepository, Path arquivo, int capacidade,
+                                     MeterRegistry meterRegistry) {
+        this.transferenciaRepository = transferenciaRepository;
+        this.arquivo = arquivo;
+        this.capacidade = capacidade;
+        this.registros = Counter.builder("banco.journal.registros")
+                .description("Lancamentos gravados no journal")
+                .register(meterRegistry);
+        this.sincronizacoes = Counter.builder("banco.journal.sincronizacoes")
+                .description("Chamadas a force() do journal, cada uma confirmando um grupo de lancamentos")
+                .register(meterRegistry);
+        Gauge.builder("banco.journal.pendentes", this, JournalLancamentosMapeado::pendentes)
+                .description("Lancamentos do journal ainda nao aplicados ao banco")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Mapeia o arquivo, criando-o se preciso, e encontra o fim dos registros. Chamado na inicialização.
+     */
+    public void abrir() throws IOException {
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidade);
+        }
+
+        escrita.lock();
+        try {
+            long posicao = mapa.getLong(0);
+            // Arquivo novo, ou cabecalho de um arquivo maior que a capacidade atual
+            if (posicao < CABECALHO || posicao > capacidade) {
+                posicao = CABECALHO;
+            }
+            posicaoAplicada = (int) posicao;
+            sequenciaAplicada = mapa.getLong(8);
+            posicaoEscrita = posicaoAplicada;
+            proximaSequencia = sequenciaAplicada;
+            ByteBuffer conteudo;
+            while ((conteudo = ler(posicaoEscrita, proximaSequencia)) != null) {
+                contarPendente(desserializar(conteudo), 1);
+                posicaoEscrita += CABECALHO_REGISTRO + conteudo.remaining();
+                proximaSequencia++;
+            }
+            ultimaSequenciaRecuperada = proximaSequencia - 1;
+            gravarCabecalho();
+        } finally {
+            escrita.unlock();
+        }
+        LOGGER.info("Journal de lancamentos aberto em {} com {} lancamento(s) pendente(s)", arquivo, pendentes());
+    }
+
+    /**
+     * Leva ao disco o que ainda estiver só na memória. Chamado no encerramento.
+     */
+    public void fechar() {
+        if (mapa != null) {
+            mapa.force();
+        }
+    }
+
+    @Override
+    public boolean registrar(final Transferencia lancamento) {
+        byte[] conteudo = serializar(lancamento);
+        int tamanho = CABECALHO_REGISTRO + conteudo.length;
+        if (tamanho > capacidade - CABECALHO) {
+            throw new IllegalArgumentException("Lancamento maior que o journal: " + tamanho + " bytes");
+        }
+
+        contarPendente(lancamento, 1);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            anexarOuDescontar(lancamento, conteudo, tamanho);
+            return true;
+        }
+        // So depois do commit: a transacao ainda segura o bloqueio das contas, e um rollback nao pode chegar ao journal
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                anexarOuDescontar(lancamento, conteudo, tamanho);
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                if (status != STATUS_COMMITTED) {
+                    contarPendente(lancamento, -1);
+                }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean possuiPendentes(final int contaId) {
+        return pendentesPorConta.containsKey(contaId);
+    }
+
+    private void anexarOuDescontar(final Transferencia lancamento, final byte[] conteudo, final int tamanho) {
+        try {
+            anexar(conteudo, tamanho);
+        } catch (RuntimeException e) {
+            contarPendente(lancamento, -1);
+            throw e;
+        }
+    }
+
+    private void contarPendente(final Transferencia lancamento, final int quantidade) {
+        pendentesPorConta.compute(lancamento.getContaId().getId(), (conta, pendentes) -> {
+            int total = (pendentes == null ? 0 : pendentes) + quantidade;
+            return total == 0 ? null : total;
+        });
+    }
+
+    private void anexar(final byte[] conteudo, final int tamanho) {
+        long alvo;
+        escrita.lock();
+        try {
+            while (posicaoEscrita + tamanho > capacidade) {
+                if (posicaoAplicada == posicaoEscrita) {
+                    // Tudo aplicado: a escrita volta ao inicio. O cabecalho vai ao disco no force() deste registro
+                    posicaoEscrita = CABECALHO;
+                    posicaoAplicada = CABECALHO;
+                    sequenciaAplicada = proximaSequencia;
+                    gravarCabecalho();
+                } else {
+                    espacoLiberado.awaitUninterruptibly();
+                }
+            }
+            escrever(posicaoEscrita, proximaSequencia, conteudo);
+            posicaoEscrita += tamanho;
+            proximaSequencia++;
+            bytesEscritos += tamanho;
+            alvo = bytesEscritos;
+        } finally {
+            escrita.unlock();
+        }
+
+        aguardarDisco(alvo);
+        registros.increment();
+    }
+
+    @Override
+    public int aplicarPendentes(final int limite, final Consumer<List<Transferencia>> gravacao) {
+        synchronized (aplicacao) {
+            int posicao;
+            long sequencia;
+            int fim;
+            escrita.lock();
+            try {
+                posicao = posicaoAplicada;
+                sequencia = sequenciaAplicada;
+                fim = posicaoEscrita;
+            } finally {
+                escrita.unlock();
+            }
+
+            long primeiraSequencia = sequencia;
+            List<Transferencia> lote = new ArrayList<>();
+            while (lote.size() < limite && posicao < fim) {
+                ByteBuffer conteudo = ler(posicao, sequencia);
+                if (conteudo == null) {
+                    throw new IllegalStateException("Registro invalido no journal na posicao " + posicao);
+                }
+                lote.add(desserializar(conteudo));
+                posicao += CABECALHO_REGISTRO + conteudo.remaining();
+                sequencia++;
+            }
+            if (lote.isEmpty()) {
+                return 0;
+            }
+
+            List<Transferencia> novos = primeiraSequencia <= ultimaSequenciaRecuperada ? descartarGravados(lote, primeiraSequencia) : lote;
+            if (!novos.isEmpty()) {
+                gravacao.accept(novos);
+            }
+            confirmarAplicados(posicao, sequencia);
+            // Depois do commit da gravacao: sem pendentes, o saldo materializado da conta ja esta completo
+            lote.forEach(lancamento -> contarPendente(lancamento, -1));
+            return lote.size();
+        }
+    }
+
+    private List<Transferencia> descartarGravados(final List<Transferencia> lote, final long primeiraSequencia) {
+        int recuperados = (int) Math.min(lote.size(), ultimaSequenciaRecuperada - primeiraSequencia + 1);
+        List<Transferencia> candidatos = lote.subList(0, recuperados);
+        LocalDateTime inicio = candidatos.stream().map(Transferencia::getDataTransferencia).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime fim = candidatos.stream().map(Transferencia::getDataTransferencia).max(LocalDateTime::compareTo).orElseThrow();
+        Set<String> gravados = new HashSet<>(transferenciaRepository.findIdsTransacaoEntre(inicio.minusNanos(FOLGA_NANOS), fim.plusNanos(FOLGA_NANOS)));
+
+        List<Transferencia> novos = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            if (i >= recuperados || !gravados.contains(lote.get(i).getIdTransacao())) {
+                novos.add(lote.get(i));
+            }
+        }
+        if (novos.size() < lote.size()) {
+            LOGGER.info("{} lancamento(s) recuperado(s) do journal ja estavam no banco", lote.size() - novos.size());
+        }
+        return novos;
+    }
+
+    private void confirmarAplicados(final int posicao, final long sequencia) {
+        escrita.lock();
+        try {
+            posicaoAplicada = posicao;
+            sequenciaAplicada = sequencia;
+            gravarCabecalho();
+            espacoLiberado.signalAll();
+        } finally {
+            escrita.unlock();
+        }
+        // Sem este force() a proxima abertura so releria lancamentos ja aplicados, que seriam descartados
+        mapa.force(0, CABECALHO);
+    }
+
+    // Um force() por vez; quem chega durante um force() espera o seguinte, que cobre todos os registros escritos ate ele
+    private void aguardarDisco(final long alvo) {
+        sincronizacao.lock();
+        try {
+            while (bytesDuraveis < alvo) {
+                if (sincronizando) {
+                    sincronizado.awaitUninterruptibly();
+                    continue;
+                }
+                sincronizando = true;
+                long escritos = bytesEscritos;
+                boolean sincronizou = false;
+                sincronizacao.unlock();
+                try {
+                    mapa.force();
+                    sincronizacoes.increment();
+                    sincronizou = true;
+                } finally {
+                    sincronizacao.lock();
+                    sincronizando = false;
+                    if (sincronizou) {
+                        bytesDuraveis = Math.max(bytesDuraveis, escritos);
+                    }
+                    sincronizado.signalAll();
+                }
+            }
+        } finally {
+            sincronizacao.unlock();
+        }
+    }
+
+    private void gravarCabecalho() {
+        mapa.putLong(0, posicaoAplicada);
+        mapa.putLong(8, sequenciaAplicada);
+    }
+
+    private void escrever(final int posicao, final long sequencia, final byte[] conteudo) {
+        mapa.putInt(posicao, conteudo.length);
+        mapa.putLong(posicao + 8, sequencia);
+        fatia(posicao + CABECALHO_REGISTRO, conteudo.length).put(conteudo);
+        mapa.putInt(posicao + 4, crc(posicao + 8, 8 + conteudo.length));
+    }
+
+    // O conteudo do registro na posicao, ou null quando ali nao ha um registro valido com a sequencia esperada
+    private ByteBuffer ler(final int posicao, final long sequencia) {
+        if (posicao + CABECALHO_REGISTRO > capacidade) {
+            return null;
+        }
+        int tamanho = mapa.getInt(posicao);
+        if (tamanho <= 0 || tamanho > capacidade - posicao - CABECALHO_REGISTRO || mapa.getLong(posicao + 8) != sequencia) {
+            return null;
+        }
+        if (mapa.getInt(posicao + 4) != crc(posicao + 8, 8 + tamanho)) {
+            return null;
+        }
+        return fatia(posicao + CABECALHO_REGISTRO, tamanho);
+    }
+
+    private int crc(final int posicao, final int tamanho) {
+        CRC32 crc = new CRC32();
+        crc.update(fatia(posicao, tamanho));
+        return (int) crc.getValue();
+    }
+
+    private ByteBuffer fatia(final int posicao, final int tamanho) {
+        ByteBuffer fatia = mapa.duplicate();
+        fatia.position(posicao);
+        fatia.limit(posicao + tamanho);
+        return fatia.slice();
+    }
+
+    private long pendentes() {
+        escrita.lock();
+        try {
+            return proximaSequencia - sequenciaAplicada;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private static byte[] serializar(final Transferencia lancamento) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            saida.writeInt(lancamento.getContaId().getId());
+            saida.writeLong(lancamento.getDataTransferencia().toEpochSecond(ZoneOffset.UTC));
+            saida.writeInt(lancamento.getDataTransferencia().getNano());
+            saida.writeLong(lancamento.getValor().getCentavos());
+            saida.writeByte(lancamento.getTipo().ordinal());
+            saida.writeByte(lancamento.getNatureza().ordinal());
+            saida.writeUTF(lancamento.getIdTransacao());
+            saida.writeBoolean(lancamento.getNomeOperadorTransacao() != null);
+            if (lancamento.getNomeOperadorTransacao() != null) {
+                saida.writeUTF(lancamento.getNomeOperadorTransacao());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Transferencia desserializar(final ByteBuffer conteudo) {
+        byte[] bytes = new byte[conteudo.remaining()];
+        conteudo.duplicate().get(bytes);
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            Conta conta = new Conta();
+            conta.setId(entrada.readInt());
+            Transferencia lancamento = new Transferencia();
+            lancamento.setContaId(conta);
+            lancamento.setDataTransferencia(LocalDateTime.ofEpochSecond(entrada.readLong(), entrada.readInt(), ZoneOffset.UTC));
+            lancamento.setValor(Dinheiro.deCentavos(entrada.readLong()));
+            lancamento.setTipo(TipoTransferencia.values()[entrada.readByte()]);
+            lancamento.setNatureza(NaturezaLancamento.values()[entrada.readByte()]);
+            lancamento.setIdTransacao(entrada.readUTF());
+            if (entrada.readBoolean()) {
+                lancamento.setNomeOperadorTransacao(entrada.readUTF());
+            }
+            return lancamento;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
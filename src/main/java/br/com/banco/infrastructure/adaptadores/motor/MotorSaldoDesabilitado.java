@@ -0,0 +1,45 @@
+package br.com.banco.infrastructure.adaptadores.motor;
+
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Usado quando o motor de saldos em memória está desligado: não valida nem reserva nada,
+ * e a consulta lê o saldo materializado.
+ */
+public class MotorSaldoDesabilitado implements IMotorSaldoPort {
+
+    private final ISaldoContaRepositoryPort saldoContaRepository;
+
+    public MotorSaldoDesabilitado(ISaldoContaRepositoryPort saldoContaRepository) {
+        this.saldoContaRepository = saldoContaRepository;
+    }
+
+    @Override
+    public Movimento debitar(final int contaId, final Dinheiro valor) {
+        return Movimento.NENHUM;
+    }
+
+    @Override
+    public Movimento creditar(final int contaId, final Dinheiro valor) {
+        return Movimento.NENHUM;
+    }
+
+    @Override
+    public Movimento transferir(final int contaOrigem, final int contaDestino, final Dinheiro valor) {
+        return Movimento.NENHUM;
+    }
+
+    @Override
+    public BigDecimal consultar(final int contaId) {
+        return saldoContaRepository.obterSaldo(contaId);
+    }
+
+    @Override
+    public void invalidar(final Collection<Integer> contas) {
+    }
+}
@@ -0,0 +1,453 @@
+package br.com.banco.infrastructure.adaptadores.motor;
+
+import br.com.banco.domain.exception.ConflitoConcorrenciaException;
+import br.com.banco.domain.exception.ContaNaoEncontradaException;
+import br.com.banco.domain.exception.SaldoInsuficienteException;
+import br.com.banco.domain.exception.TransferenciaInvalidaException;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IJournalLancamentosPort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Motor de saldos em memória com um único escritor por partição.
+ * <p>
+ * Cada conta pertence à partição {@code contaId % particoes}, e todas as leituras e escritas do seu saldo
+ * acontecem na thread sequenciadora dessa partição, por isso os saldos ficam em arrays primitivos sem
+ * sincronização. Uma transferência entre partições debita a origem e só depois credita o destino; como
+ * nenhuma etapa espera por outra partição enquanto executa, não há ordem de bloqueio que possa gerar deadlock.
+ * Se o crédito falhar, o débito é devolvido.
+ * <p>
+ * O motor é chamado antes de qualquer transação ou bloqueio no banco, e cada movimento devolve um
+ * {@link Movimento} que o chamador confirma depois de gravar os lançamentos ou desfaz se a gravação falhar.
+ * <p>
+ * Os saldos são carregados do saldo materializado no primeiro acesso à conta, pela thread de quem pediu a
+ * operação: a sequenciadora só responde quais contas faltam e instala os saldos lidos, sem nunca esperar o banco.
+ * {@link #invalidar} marca o saldo como desatualizado, e o próximo movimento da conta o recarrega. O banco só tem o
+ * saldo inteiro quando nenhum movimento da conta está em andamento e o journal não tem lançamentos dela ainda não
+ * gravados; fora disso, uma conta desatualizada segue com o saldo em memória, e uma conta nunca carregada com
+ * lançamentos no journal é recusada com {@link ConflitoConcorrenciaException}. Todo movimento muda a geração da
+ * conta, e uma carga lida antes dele é descartada.
+ * <p>
+ * Uma operação que esgota o tempo de espera sem ter começado é cancelada; uma que já começou é esperada até o fim.
+ */
+public class MotorSaldoParticionado implements IMotorSaldoPort, AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MotorSaldoParticionado.class);
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+    private static final long TIMEOUT_SEGUNDOS = 5;
+    // Cargas seguidas descartadas por invalidacoes concorrentes antes de desistir
+    private static final int TENTATIVAS_CARGA = 3;
+
+    private final ISaldoContaRepositoryPort saldoContaRepository;
+    private final IJournalLancamentosPort journal;
+    private final Particao[] particoes;
+
+    public MotorSaldoParticionado(ISaldoContaRepositoryPort saldoContaRepository, IJournalLancamentosPort journal, int numeroParticoes) {
+        if (numeroParticoes <= 0) {
+            throw new IllegalArgumentException("O numero de particoes deve ser positivo.");
+        }
+        this.saldoContaRepository = saldoContaRepository;
+        this.journal = journal;
+        this.particoes = new Particao[numeroParticoes];
+        for (int i = 0; i < numeroParticoes; i++) {
+            particoes[i] = new Particao(i);
+        }
+        LOGGER.info("Motor de saldos iniciado com {} particoes", numeroParticoes);
+    }
+
+    @Override
+    public Movimento debitar(final int contaId, final Dinheiro valor) {
+        long centavos = paraCentavos(valor);
+        Particao particao = particaoDa(contaId);
+
+        if (!executar(particao, true, () -> particao.debitar(contaId, centavos), contaId)) {
+            throw new SaldoInsuficienteException("Saldo insuficiente na conta: " + contaId);
+        }
+        return new MovimentoEmMemoria(new int[]{contaId}, new long[]{-centavos});
+    }
+
+    @Override
+    public Movimento creditar(final int contaId, final Dinheiro valor) {
+        long centavos = paraCentavos(valor);
+        Particao particao = particaoDa(contaId);
+
+        executar(particao, true, () -> particao.ajustar(contaId, centavos), contaId);
+        return new MovimentoEmMemoria(new int[]{contaId}, new long[]{centavos});
+    }
+
+    @Override
+    public Movimento transferir(final int contaOrigem, final int contaDestino, final Dinheiro valor) {
+        long centavos = paraCentavos(valor);
+        Particao origem = particaoDa(contaOrigem);
+        Particao destino = particaoDa(contaDestino);
+
+        if (origem == destino) {
+            boolean debitado = executar(origem, true, () -> {
+                if (!origem.debitar(contaOrigem, centavos)) {
+                    return false;
+                }
+                origem.ajustar(contaDestino, centavos);
+                return true;
+            }, contaOrigem, contaDestino);
+            if (!debitado) {
+                throw new SaldoInsuficienteException("Saldo insuficiente na conta: " + contaOrigem);
+            }
+        } else {
+            if (!executar(origem, true, () -> origem.debitar(contaOrigem, centavos), contaOrigem)) {
+                throw new SaldoInsuficienteException("Saldo insuficiente na conta: " + contaOrigem);
+            }
+            try {
+                executar(destino, true, () -> destino.ajustar(contaDestino, centavos), contaDestino);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Credito na conta {} falhou, devolvendo o debito da conta {}", contaDestino, contaOrigem);
+                concluir(contaOrigem, centavos);
+                throw e;
+            }
+        }
+        return new MovimentoEmMemoria(new int[]{contaOrigem, contaDestino}, new long[]{-centavos, centavos});
+    }
+
+    @Override
+    public BigDecimal consultar(final int contaId) {
+        Particao particao = particaoDa(contaId);
+        long centavos = executar(particao, false, () -> particao.saldo(contaId), contaId);
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    @Override
+    public void invalidar(final Collection<Integer> contas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            marcarDesatualizadas(contas);
+            return;
+        }
+        // Antes do commit, uma carga ainda leria o saldo materializado sem os lancamentos desta transacao
+        List<Integer> copia = List.copyOf(contas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                marcarDesatualizadas(copia);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        for (Particao particao : particoes) {
+            particao.executor.shutdown();
+        }
+    }
+
+    /**
+     * Executa a operação na sequenciadora da partição assim que todas as contas estiverem carregadas, lendo do banco,
+     * nesta thread, as que faltarem.
+     */
+    private <T> T executar(final Particao particao, final boolean movimento, final Supplier<T> operacao, final int... contas) {
+        Map<Integer, Carga> cargas = Map.of();
+        for (int tentativa = 0; tentativa < TENTATIVAS_CARGA; tentativa++) {
+            Map<Integer, Carga> recebidas = cargas;
+            Resultado<T> resultado = aguardar(particao.executar(() -> particao.executar(recebidas, movimento, operacao, contas)));
+            if (resultado.ausentes.isEmpty()) {
+                return resultado.valor;
+            }
+            cargas = carregar(resultado.ausentes);
+        }
+        throw new ConflitoConcorrenciaException("Saldo invalidado durante a carga das contas: " + Arrays.toString(contas));
+    }
+
+    private Map<Integer, Carga> carregar(final List<Ausente> ausentes) {
+        Map<Integer, Carga> cargas = new HashMap<>();
+        for (Ausente ausente : ausentes) {
+            if (journal.possuiPendentes(ausente.contaId)) {
+                if (!ausente.carregada) {
+                    throw new ConflitoConcorrenciaException("Conta com lancamentos do journal ainda nao gravados: " + ausente.contaId);
+                }
+                // O saldo em memoria ja inclui os lancamentos do journal, que o banco ainda nao tem
+                cargas.put(ausente.contaId, new Carga(ausente.geracao, null));
+                continue;
+            }
+            BigDecimal saldo = saldoContaRepository.obterSaldo(ausente.contaId);
+            cargas.put(ausente.contaId, new Carga(ausente.geracao, saldo == null ? 0L : Dinheiro.de(saldo).getCentavos()));
+        }
+        return cargas;
+    }
+
+    // Encerra o movimento em andamento na conta, devolvendo o valor informado ao saldo
+    private void concluir(final int contaId, final long centavos) {
+        Particao particao = particaoDa(contaId);
+        particao.executar(() -> {
+            particao.concluir(contaId, centavos);
+            return null;
+        });
+    }
+
+    private void marcarDesatualizadas(final Collection<Integer> contas) {
+        for (int contaId : contas) {
+            Particao particao = particaoDa(contaId);
+            particao.executar(() -> {
+                particao.invalidar(contaId);
+                return null;
+            });
+        }
+    }
+
+    private Particao particaoDa(final int contaId) {
+        if (contaId <= 0) {
+            throw new ContaNaoEncontradaException("Conta invalida para o motor de saldos: " + contaId);
+        }
+        return particoes[contaId % particoes.length];
+    }
+
+    private static long paraCentavos(final Dinheiro valor) {
+        if (valor == null || valor.isNegativo()) {
+            throw new TransferenciaInvalidaException("Valor invalido para o motor de saldos.");
+        }
+        return valor.getCentavos();
+    }
+
+    private static <T> T aguardar(final Tarefa<T> tarefa) {
+        try {
+            try {
+                return tarefa.resultado.get(TIMEOUT_SEGUNDOS, TimeUnit.SECONDS);
+            } catch (TimeoutException | InterruptedException e) {
+                if (tarefa.cancelar()) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                        throw new TransferenciaInvalidaException("Operacao interrompida no motor de saldos.");
+                    }
+                    throw new TransferenciaInvalidaException("Tempo esgotado no motor de saldos.");
+                }
+                // Ja comecou e so mexe em memoria: o resultado vem logo, e desistir perderia o movimento
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                return tarefa.resultado.join();
+            }
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TransferenciaInvalidaException("Erro no motor de saldos.");
+        }
+    }
+
+    /**
+     * Operação enfileirada em uma sequenciadora, que só executa se ninguém a cancelou antes.
+     */
+    private static final class Tarefa<T> implements Runnable {
+        private final Supplier<T> operacao;
+        private final CompletableFuture<T> resultado = new CompletableFuture<>();
+        private final AtomicBoolean iniciada = new AtomicBoolean();
+
+        private Tarefa(Supplier<T> operacao) {
+            this.operacao = operacao;
+        }
+
+        @Override
+        public void run() {
+            if (!iniciada.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                resultado.complete(operacao.get());
+            } catch (RuntimeException e) {
+                resultado.completeExceptionally(e);
+            }
+        }
+
+        private boolean cancelar() {
+            return iniciada.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Movimento aplicado às contas na ordem informada, com o valor somado a cada uma.
+     */
+    private final class MovimentoEmMemoria implements Movimento {
+        private final int[] contas;
+        private final long[] centavos;
+        private final AtomicBoolean concluido = new AtomicBoolean();
+
+        private MovimentoEmMemoria(int[] contas, long[] centavos) {
+            this.contas = contas;
+            this.centavos = centavos;
+        }
+
+        @Override
+        public void confirmar() {
+            if (concluido.compareAndSet(false, true)) {
+                for (int conta : contas) {
+                    concluir(conta, 0);
+                }
+            }
+        }
+
+        @Override
+        public void desfazer() {
+            if (concluido.compareAndSet(false, true)) {
+                LOGGER.info("Desfazendo movimento em memoria nas contas {}", Arrays.toString(contas));
+                for (int i = 0; i < contas.length; i++) {
+                    concluir(contas[i], -centavos[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Saldo lido do banco para uma conta na geração informada; sem saldo, a conta segue com o valor em memória.
+     */
+    private static final class Carga {
+        private final long geracao;
+        private final Long centavos;
+
+        private Carga(long geracao, Long centavos) {
+            this.geracao = geracao;
+            this.centavos = centavos;
+        }
+    }
+
+    private static final class Ausente {
+        private final int contaId;
+        private final long geracao;
+        private final boolean carregada;
+
+        private Ausente(int contaId, long geracao, boolean carregada) {
+            this.contaId = contaId;
+            this.geracao = geracao;
+            this.carregada = carregada;
+        }
+    }
+
+    private static final class Resultado<T> {
+        private final List<Ausente> ausentes;
+        private final T valor;
+
+        private Resultado(List<Ausente> ausentes, T valor) {
+            this.ausentes = ausentes;
+            this.valor = valor;
+        }
+    }
+
+    /**
+     * Estado de uma partição. Acessado apenas pela sua thread sequenciadora.
+     * <p>
+     * A geração de uma conta muda a cada carga, movimento e invalidação: uma carga lida antes de qualquer um deles é
+     * descartada. Enquanto a conta tiver movimentos em andamento, ela não é recarregada, e desfazer um deles é só
+     * devolver o valor ao saldo em memória.
+     */
+    private final class Particao {
+        private final ExecutorService executor;
+        private long[] saldos = new long[CAPACIDADE_INICIAL];
+        private boolean[] carregados = new boolean[CAPACIDADE_INICIAL];
+        private boolean[] desatualizados = new boolean[CAPACIDADE_INICIAL];
+        private long[] geracoes = new long[CAPACIDADE_INICIAL];
+        private int[] emAndamento = new int[CAPACIDADE_INICIAL];
+
+        private Particao(int numero) {
+            this.executor = Executors.newSingleThreadExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "motor-saldo-" + numero);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private <T> Tarefa<T> executar(final Supplier<T> operacao) {
+            Tarefa<T> tarefa = new Tarefa<>(operacao);
+            executor.execute(tarefa);
+            return tarefa;
+        }
+
+        private <T> Resultado<T> executar(final Map<Integer, Carga> cargas, final boolean movimento, final Supplier<T> operacao,
+                                          final int[] contas) {
+            List<Ausente> ausentes = new ArrayList<>();
+            for (int contaId : contas) {
+                int indice = indice(contaId);
+                Carga carga = cargas.get(contaId);
+                boolean recebida = carga != null && carga.geracao == geracoes[indice];
+                if (recebida && carga.centavos != null) {
+                    saldos[indice] = carga.centavos;
+                    carregados[indice] = true;
+                    desatualizados[indice] = false;
+                    geracoes[indice]++;
+                }
+                // Consultas aceitam o saldo desatualizado, e movimentos em andamento ainda nao estao no banco
+                boolean pronta = carregados[indice]
+                        && (!movimento || !desatualizados[indice] || recebida || emAndamento[indice] > 0);
+                if (!pronta) {
+                    ausentes.add(new Ausente(contaId, geracoes[indice], carregados[indice]));
+                }
+            }
+            return ausentes.isEmpty() ? new Resultado<>(List.of(), operacao.get()) : new Resultado<>(ausentes, null);
+        }
+
+        private boolean debitar(final int contaId, final long centavos) {
+            int indice = indice(contaId);
+            if (saldos[indice] < centavos) {
+                return false;
+            }
+            movimentar(indice, -centavos);
+            return true;
+        }
+
+        private boolean ajustar(final int contaId, final long centavos) {
+            movimentar(indice(contaId), centavos);
+            return true;
+        }
+
+        private long saldo(final int contaId) {
+            return saldos[indice(contaId)];
+        }
+
+        private void concluir(final int contaId, final long centavos) {
+            int indice = indice(contaId);
+            saldos[indice] += centavos;
+            emAndamento[indice]--;
+        }
+
+        private void movimentar(final int indice, final long centavos) {
+            saldos[indice] += centavos;
+            emAndamento[indice]++;
+            geracoes[indice]++;
+        }
+
+        private void invalidar(final int contaId) {
+            int indice = indice(contaId);
+            desatualizados[indice] = true;
+            geracoes[indice]++;
+        }
+
+        private int indice(final int contaId) {
+            int indice = contaId / particoes.length;
+            if (indice >= saldos.length) {
+                int capacidade = Math.max(saldos.length * 2, indice + 1);
+                saldos = Arrays.copyOf(saldos, capacidade);
+                carregados = Arrays.copyOf(carregados, capacidade);
+                desatualizados = Arrays.copyOf(desatualizados, capacidade);
+                geracoes = Arrays.copyOf(geracoes, capacidade);
+                emAndamento = Arrays.copyOf(emAndamento, capacidade);
+            }
+            return indice;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.banco.infrastructure.adaptadores.persistence.converters;
+
+import br.com.banco.domain.models.Dinheiro;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.math.BigDecimal;
+
+/**
+ * Converte {@link Dinheiro} de e para as colunas {@code NUMERIC(20,2)}.
+ */
+@Converter
+public class DinheiroConverter implements AttributeConverter<Dinheiro, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(final Dinheiro dinheiro) {
+        return dinheiro == null ? null : dinheiro.toBigDecimal();
+    }
+
+    @Override
+    public Dinheiro convertToEntityAttribute(final BigDecimal valor) {
+        return valor == null ? null : Dinheiro.de(valor);
+    }
+}
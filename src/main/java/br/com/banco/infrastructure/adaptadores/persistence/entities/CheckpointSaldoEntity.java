@@ -0,0 +1,78 @@
+package br.com.banco.infrastructure.adaptadores.persistence.entities;
+
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.infrastructure.adaptadores.persistence.converters.DinheiroConverter;
+
+import javax.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Saldo de uma conta ao final de {@code dataReferencia}, incluindo todos os lançamentos anteriores ao dia seguinte.
+ * Só existe checkpoint nos dias em que a conta teve lançamentos.
+ */
+@Entity
+@Table(name = "checkpoint_saldo",
+        uniqueConstraints = @UniqueConstraint(name = "uk_checkpoint_saldo_conta_data", columnNames = {"conta_id", "data_referencia"}))
+public class CheckpointSaldoEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Sequencia em vez de IDENTITY para que os checkpoints de um dia sejam gravados em batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "checkpoint_saldo_seq")
+    @SequenceGenerator(name = "checkpoint_saldo_seq", sequenceName = "checkpoint_saldo_seq", allocationSize = 50)
+    private long id;
+
+    @Column(name = "conta_id", nullable = false)
+    private int contaId;
+
+    @Column(name = "data_referencia", nullable = false)
+    private LocalDate dataReferencia;
+
+    @Convert(converter = DinheiroConverter.class)
+    @Column(nullable = false, precision = 20, scale = 2)
+    private Dinheiro saldo;
+
+    public CheckpointSaldoEntity() {
+    }
+
+    public CheckpointSaldoEntity(int contaId, LocalDate dataReferencia, Dinheiro saldo) {
+        this.contaId = contaId;
+        this.dataReferencia = dataReferencia;
+        this.saldo = saldo;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getContaId() {
+        return contaId;
+    }
+
+    public void setContaId(int contaId) {
+        this.contaId = contaId;
+    }
+
+    public LocalDate getDataReferencia() {
+        return dataReferencia;
+    }
+
+    public void setDataReferencia(LocalDate dataReferencia) {
+        this.dataReferencia = dataReferencia;
+    }
+
+    public Dinheiro getSaldo() {
+        return saldo;
+    }
+
+    public void setSaldo(Dinheiro saldo) {
+        this.saldo = saldo;
+    }
+}
@@ -6,7 +6,7 @@ import java.io.Serializable;
 
 
 @Entity
-@Table(name = "conta")
+@Table(name = "conta", indexes = @Index(name = "idx_conta_nome", columnList = "nomeResponsavel"))
 public class ContaEntity implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
@@ -16,6 +16,8 @@ public class ContaEntity implements Serializable {
     private int id;
     @Column(nullable = false, length = 50)
     private String nomeResponsavel;
+    @Version
+    private long versao;
 
 
     public int getId() {
@@ -33,4 +35,12 @@ public class ContaEntity implements Serializable {
     public void setNomeResponsavel(String nomeResponsavel) {
         this.nomeResponsavel = nomeResponsavel;
     }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(long versao) {
+        this.versao = versao;
+    }
 }
\ No newline at end of file
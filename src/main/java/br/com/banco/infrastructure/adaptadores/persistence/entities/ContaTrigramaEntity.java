@@ -0,0 +1,62 @@
+package br.com.banco.infrastructure.adaptadores.persistence.entities;
+
+import javax.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Um trigrama do nome do responsável de uma conta, em minúsculas. A busca por trecho do nome lê as contas de cada
+ * trigrama do termo pela chave única, em vez de aplicar {@code LIKE '%termo%'} a todas as contas.
+ */
+@Entity
+@Table(name = "conta_trigrama",
+        uniqueConstraints = @UniqueConstraint(name = "uk_conta_trigrama", columnNames = {"trigrama", "conta_id"}),
+        indexes = @Index(name = "idx_conta_trigrama_conta", columnList = "conta_id"))
+public class ContaTrigramaEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Sequencia em vez de IDENTITY para que os trigramas de um nome sejam gravados em batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conta_trigrama_seq")
+    @SequenceGenerator(name = "conta_trigrama_seq", sequenceName = "conta_trigrama_seq", allocationSize = 50)
+    private long id;
+
+    @Column(nullable = false, length = 3)
+    private String trigrama;
+
+    @Column(name = "conta_id", nullable = false)
+    private int contaId;
+
+    public ContaTrigramaEntity() {
+    }
+
+    public ContaTrigramaEntity(String trigrama, int contaId) {
+        this.trigrama = trigrama;
+        this.contaId = contaId;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getTrigrama() {
+        return trigrama;
+    }
+
+    public void setTrigrama(String trigrama) {
+        this.trigrama = trigrama;
+    }
+
+    public int getContaId() {
+        return contaId;
+    }
+
+    public void setContaId(int contaId) {
+        this.contaId = contaId;
+    }
+}
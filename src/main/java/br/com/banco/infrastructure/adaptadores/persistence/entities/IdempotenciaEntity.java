@@ -0,0 +1,94 @@
+package br.com.banco.infrastructure.adaptadores.persistence.entities;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Resposta de uma operação identificada por uma chave de idempotência, gravada na mesma transação da operação.
+ */
+@Entity
+@Table(name = "idempotencia", indexes = @Index(name = "idx_idempotencia_criada_em", columnList = "criada_em"))
+public class IdempotenciaEntity implements Persistable<String>, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 255)
+    private String chave;
+
+    @Column(nullable = false, length = 255)
+    private String requisicao;
+
+    @Column(nullable = false, length = 4000)
+    private String resposta;
+
+    @Column(name = "criada_em", nullable = false)
+    private LocalDateTime criadaEm;
+
+    // A chave e atribuida pelo cliente: o save sempre insere, e uma chave repetida falha na chave primaria em vez de
+    // sobrescrever a resposta que ja estava gravada
+    @Transient
+    private boolean nova = true;
+
+    public IdempotenciaEntity() {
+    }
+
+    public IdempotenciaEntity(String chave, String requisicao, String resposta, LocalDateTime criadaEm) {
+        this.chave = chave;
+        this.requisicao = requisicao;
+        this.resposta = resposta;
+        this.criadaEm = criadaEm;
+    }
+
+    @Override
+    public String getId() {
+        return chave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nova;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarGravada() {
+        this.nova = false;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public String getRequisicao() {
+        return requisicao;
+    }
+
+    public void setRequisicao(String requisicao) {
+        this.requisicao = requisicao;
+    }
+
+    public String getResposta() {
+        return resposta;
+    }
+
+    public void setResposta(String resposta) {
+        this.resposta = resposta;
+    }
+
+    public LocalDateTime getCriadaEm() {
+        return criadaEm;
+    }
+
+    public void setCriadaEm(LocalDateTime criadaEm) {
+        this.criadaEm = criadaEm;
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.banco.infrastructure.adaptadores.persistence.entities;
+
+import javax.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint da importação de um arquivo: até onde o arquivo foi gravado e o CRC32 dos bytes até ali.
+ */
+@Entity
+@Table(name = "importacao")
+public class ImportacaoEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 255)
+    private String arquivo;
+
+    @Column(nullable = false)
+    private long posicao;
+
+    @Column(nullable = false)
+    private long crc;
+
+    @Column(nullable = false)
+    private long linhas;
+
+    @Column(nullable = false)
+    private long contas;
+
+    @Column(nullable = false)
+    private long lancamentos;
+
+    @Column(name = "data_minima")
+    private LocalDateTime dataMinima;
+
+    @Column(name = "data_maxima")
+    private LocalDateTime dataMaxima;
+
+    @Column(nullable = false)
+    private boolean concluida;
+
+    @Column(name = "data_atualizacao", nullable = false)
+    private LocalDateTime dataAtualizacao;
+
+    public String getArquivo() {
+        return arquivo;
+    }
+
+    public void setArquivo(String arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    public long getPosicao() {
+        return posicao;
+    }
+
+    public void setPosicao(long posicao) {
+        this.posicao = posicao;
+    }
+
+    public long getCrc() {
+        return crc;
+    }
+
+    public void setCrc(long crc) {
+        this.crc = crc;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    public void setLinhas(long linhas) {
+        this.linhas = linhas;
+    }
+
+    public long getContas() {
+        return contas;
+    }
+
+    public void setContas(long contas) {
+        this.contas = contas;
+    }
+
+    public long getLancamentos() {
+        return lancamentos;
+    }
+
+    public void setLancamentos(long lancamentos) {
+        this.lancamentos = lancamentos;
+    }
+
+    public LocalDateTime getDataMinima() {
+        return dataMinima;
+    }
+
+    public void setDataMinima(LocalDateTime dataMinima) {
+        this.dataMinima = dataMinima;
+    }
+
+    public LocalDateTime getDataMaxima() {
+        return dataMaxima;
+    }
+
+    public void setDataMaxima(LocalDateTime dataMaxima) {
+        this.dataMaxima = dataMaxima;
+    }
+
+    public boolean isConcluida() {
+        return concluida;
+    }
+
+    public void setConcluida(boolean concluida) {
+        this.concluida = concluida;
+    }
+
+    public LocalDateTime getDataAtualizacao() {
+        return dataAtualizacao;
+    }
+
+    public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
+        this.dataAtualizacao = dataAtualizacao;
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.banco.infrastructure.adaptadores.persistence.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "saldo_conta")
+public class SaldoContaEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "conta_id")
+    private int contaId;
+
+    @Column(nullable = false, precision = 20, scale = 2)
+    private BigDecimal saldo;
+
+    @Column(name = "data_atualizacao", nullable = false)
+    private LocalDateTime dataAtualizacao;
+
+    // Incrementada a cada lancamento da conta; com dataAtualizacao, identifica o estado dos lancamentos nos ETags
+    @Column(nullable = false)
+    private long versao;
+
+    public SaldoContaEntity() {
+    }
+
+    public SaldoContaEntity(int contaId, BigDecimal saldo, LocalDateTime dataAtualizacao) {
+        this.contaId = contaId;
+        this.saldo = saldo;
+        this.dataAtualizacao = dataAtualizacao;
+    }
+
+    public int getContaId() {
+        return contaId;
+    }
+
+    public void setContaId(int contaId) {
+        this.contaId = contaId;
+    }
+
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+
+    public void setSaldo(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
+
+    public LocalDateTime getDataAtualizacao() {
+        return dataAtualizacao;
+    }
+
+    public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
+        this.dataAtualizacao = dataAtualizacao;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(long versao) {
+        this.versao = versao;
+    }
+}
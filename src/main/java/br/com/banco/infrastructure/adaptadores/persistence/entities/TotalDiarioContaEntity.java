@@ -0,0 +1,90 @@
+package br.com.banco.infrastructure.adaptadores.persistence.entities;
+
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.infrastructure.adaptadores.persistence.converters.DinheiroConverter;
+
+import javax.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Soma dos lançamentos de crédito de uma conta em um dia, por tipo. É atualizada na mesma transação de cada
+ * lançamento; por ser uma linha por conta, dois lançamentos só disputam a mesma linha quando já disputam a conta.
+ */
+@Entity
+@Table(name = "total_diario_conta",
+        uniqueConstraints = @UniqueConstraint(name = "uk_total_diario_conta", columnNames = {"dia", "tipo", "conta_id"}))
+public class TotalDiarioContaEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "total_diario_conta_seq")
+    @SequenceGenerator(name = "total_diario_conta_seq", sequenceName = "total_diario_conta_seq", allocationSize = 50)
+    private long id;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private TipoTransferencia tipo;
+
+    @Column(name = "conta_id", nullable = false)
+    private int contaId;
+
+    @Convert(converter = DinheiroConverter.class)
+    @Column(nullable = false, precision = 20, scale = 2)
+    private Dinheiro total;
+
+    public TotalDiarioContaEntity() {
+    }
+
+    public TotalDiarioContaEntity(LocalDate dia, TipoTransferencia tipo, int contaId, Dinheiro total) {
+        this.dia = dia;
+        this.tipo = tipo;
+        this.contaId = contaId;
+        this.total = total;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public TipoTransferencia getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoTransferencia tipo) {
+        this.tipo = tipo;
+    }
+
+    public int getContaId() {
+        return contaId;
+    }
+
+    public void setContaId(int contaId) {
+        this.contaId = contaId;
+    }
+
+    public Dinheiro getTotal() {
+        return total;
+    }
+
+    public void setTotal(Dinheiro total) {
+        this.total = total;
+    }
+}
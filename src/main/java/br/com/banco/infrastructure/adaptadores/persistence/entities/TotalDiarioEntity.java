@@ -0,0 +1,77 @@
+package br.com.banco.infrastructure.adaptadores.persistence.entities;
+
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.infrastructure.adaptadores.persistence.converters.DinheiroConverter;
+
+import javax.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Soma dos lançamentos de crédito de um dia já encerrado, por tipo, consolidada a partir de {@link TotalDiarioContaEntity}.
+ */
+@Entity
+@Table(name = "total_diario",
+        uniqueConstraints = @UniqueConstraint(name = "uk_total_diario", columnNames = {"dia", "tipo"}))
+public class TotalDiarioEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "total_diario_seq")
+    @SequenceGenerator(name = "total_diario_seq", sequenceName = "total_diario_seq", allocationSize = 50)
+    private long id;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private TipoTransferencia tipo;
+
+    @Convert(converter = DinheiroConverter.class)
+    @Column(nullable = false, precision = 20, scale = 2)
+    private Dinheiro total;
+
+    public TotalDiarioEntity() {
+    }
+
+    public TotalDiarioEntity(LocalDate dia, TipoTransferencia tipo, Dinheiro total) {
+        this.dia = dia;
+        this.tipo = tipo;
+        this.total = total;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public TipoTransferencia getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoTransferencia tipo) {
+        this.tipo = tipo;
+    }
+
+    public Dinheiro getTotal() {
+        return total;
+    }
+
+    public void setTotal(Dinheiro total) {
+        this.total = total;
+    }
+}
@@ -1,29 +1,45 @@
 package br.com.banco.infrastructure.adaptadores.persistence.entities;
 
+import br.com.banco.domain.enums.NaturezaLancamento;
 import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.infrastructure.adaptadores.persistence.converters.DinheiroConverter;
 
 import javax.persistence.*;
 import java.io.Serial;
 import java.io.Serializable;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
+/**
+ * Os índices seguem as consultas de {@code SpringTransferenciaRepository}: cada filtro (conta, operador, período) tem um
+ * índice que começa pela igualdade e continua na ordem (data, id) das listagens, e as somas leem só colunas do índice.
+ */
 @Entity
-@Table(name = "transferencia")
+@Table(name = "transferencia", indexes = {
+        // Listagens e pontas de periodo por faixa de data
+        @Index(name = "idx_transferencia_data", columnList = "data_transferencia, id"),
+        // Extrato e saldo da conta: listagem por cursor e somas por conta ate/entre datas
+        @Index(name = "idx_transferencia_conta_data", columnList = "conta_id, data_transferencia, id, natureza, valor"),
+        @Index(name = "idx_transferencia_operador_data", columnList = "nome_operador_transacao, data_transferencia, id"),
+        // Somas de creditos por periodo, por minuto e por dia
+        @Index(name = "idx_transferencia_natureza_data", columnList = "natureza, data_transferencia, valor")
+})
 public class TransferenciaEntity implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    // Sequencia em vez de IDENTITY para que o Hibernate agrupe os lancamentos de uma transferencia em um unico batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transferencia_seq")
+    @SequenceGenerator(name = "transferencia_seq", sequenceName = "transferencia_seq", allocationSize = 50)
     private int id;
 
     @Column(name = "data_transferencia", nullable = false)
     private LocalDateTime dataTransferencia;
 
-    @Column(nullable = false)
-    private BigDecimal valor;
+    @Convert(converter = DinheiroConverter.class)
+    @Column(nullable = false, precision = 20, scale = 2)
+    private Dinheiro valor;
 
     @Column(nullable = false)
     private TipoTransferencia tipo;
@@ -35,6 +51,12 @@ public class TransferenciaEntity implements Serializable {
     @JoinColumn(name = "conta_id")
     private ContaEntity conta;
 
+    @Column(name = "id_transacao", nullable = false, length = 36)
+    private String idTransacao;
+
+    @Column(nullable = false)
+    private NaturezaLancamento natureza;
+
     public int getId() {
         return id;
     }
@@ -51,18 +73,18 @@ public class TransferenciaEntity implements Serializable {
         this.dataTransferencia = dataTransferencia;
     }
 
-    public BigDecimal getValor() {
+    public Dinheiro getValor() {
         return valor;
     }
 
-    public void setValor(BigDecimal valor) {
+    public void setValor(Dinheiro valor) {
         if (valor == null) {
             throw new IllegalArgumentException("Valor não pode ser nulo");
         }
-        if (valor.compareTo(BigDecimal.ZERO) < 0) {
+        if (valor.isNegativo()) {
             throw new IllegalArgumentException("Valor não pode ser negativo");
         }
-        this.valor = valor.setScale(2, RoundingMode.HALF_EVEN);
+        this.valor = valor;
     }
 
     public TipoTransferencia getTipo() {
@@ -88,4 +110,20 @@ public class TransferenciaEntity implements Serializable {
     public void setConta(ContaEntity conta) {
         this.conta = conta;
     }
-}
\ No newline at end of file
+
+    public String getIdTransacao() {
+        return idTransacao;
+    }
+
+    public void setIdTransacao(String idTransacao) {
+        this.idTransacao = idTransacao;
+    }
+
+    public NaturezaLancamento getNatureza() {
+        return natureza;
+    }
+
+    public void setNatureza(NaturezaLancamento natureza) {
+        this.natureza = natureza;
+    }
+}
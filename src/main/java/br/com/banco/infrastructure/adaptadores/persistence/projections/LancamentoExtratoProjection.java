@@ -0,0 +1,26 @@
+package br.com.banco.infrastructure.adaptadores.persistence.projections;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Linha do extrato lida por SQL nativo: valores como vêm do banco, sem os conversores da entidade (tipo e
+ * natureza pelo ordinal).
+ */
+public interface LancamentoExtratoProjection {
+    Integer getId();
+
+    LocalDateTime getDataTransferencia();
+
+    BigDecimal getValor();
+
+    Integer getTipo();
+
+    Integer getNatureza();
+
+    String getNomeOperadorTransacao();
+
+    String getIdTransacao();
+
+    BigDecimal getSaldo();
+}
@@ -0,0 +1,9 @@
+package br.com.banco.infrastructure.adaptadores.persistence.projections;
+
+import br.com.banco.domain.models.Dinheiro;
+
+public interface SaldoContaProjection {
+    Integer getContaId();
+
+    Dinheiro getSaldo();
+}
@@ -0,0 +1,18 @@
+package br.com.banco.infrastructure.adaptadores.persistence.projections;
+
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+
+public interface TotalDiarioContaProjection {
+    Integer getAno();
+
+    Integer getMes();
+
+    Integer getDia();
+
+    TipoTransferencia getTipo();
+
+    Integer getContaId();
+
+    Dinheiro getTotal();
+}
@@ -0,0 +1,19 @@
+package br.com.banco.infrastructure.adaptadores.persistence.projections;
+
+import br.com.banco.domain.models.Dinheiro;
+
+public interface TotalPorMinutoProjection {
+    Integer getAno();
+
+    Integer getMes();
+
+    Integer getDia();
+
+    Integer getHora();
+
+    Integer getMinuto();
+
+    Long getQuantidade();
+
+    Dinheiro getTotal();
+}
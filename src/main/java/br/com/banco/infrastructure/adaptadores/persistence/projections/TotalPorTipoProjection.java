@@ -0,0 +1,10 @@
+package br.com.banco.infrastructure.adaptadores.persistence.projections;
+
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+
+public interface TotalPorTipoProjection {
+    TipoTransferencia getTipo();
+
+    Dinheiro getTotal();
+}
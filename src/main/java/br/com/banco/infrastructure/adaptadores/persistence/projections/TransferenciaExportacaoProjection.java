@@ -0,0 +1,21 @@
+package br.com.banco.infrastructure.adaptadores.persistence.projections;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+
+import java.time.LocalDateTime;
+
+public interface TransferenciaExportacaoProjection {
+    LocalDateTime getDataTransferencia();
+
+    Dinheiro getValor();
+
+    TipoTransferencia getTipo();
+
+    NaturezaLancamento getNatureza();
+
+    String getNomeOperadorTransacao();
+
+    String getIdTransacao();
+}
@@ -0,0 +1,11 @@
+package br.com.banco.infrastructure.adaptadores.persistence.projections;
+
+import java.time.LocalDateTime;
+
+public interface VersaoContaProjection {
+    Long getVersaoConta();
+
+    Long getVersaoSaldo();
+
+    LocalDateTime getDataAtualizacao();
+}
@@ -0,0 +1,73 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Estado de leitura da thread atual: a versão de escrita que o chamador já viu, para ler as próprias escritas, e se
+ * o método em execução aceita a réplica. A versão chega pelo cabeçalho {@value #CABECALHO} e volta no mesmo
+ * cabeçalho depois de cada escrita confirmada na requisição.
+ */
+public final class ConsistenciaLeitura {
+
+    public static final String CABECALHO = "Banco-Versao-Escrita";
+
+    private static final ThreadLocal<Long> VERSAO_EXIGIDA = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPLICA_PERMITIDA = new ThreadLocal<>();
+
+    private ConsistenciaLeitura() {
+    }
+
+    public static long versaoExigida() {
+        Long versao = VERSAO_EXIGIDA.get();
+        return versao == null ? 0 : versao;
+    }
+
+    /**
+     * Passa a exigir ao menos {@code versao} nas leituras desta thread; uma versão menor que a atual é ignorada.
+     */
+    public static void exigir(final long versao) {
+        if (versao > versaoExigida()) {
+            VERSAO_EXIGIDA.set(versao);
+        }
+    }
+
+    /**
+     * Registra uma escrita confirmada por esta thread e devolve a versão no cabeçalho da resposta em andamento.
+     */
+    static void escritaConfirmada(final long versao) {
+        exigir(versao);
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos instanceof ServletRequestAttributes) {
+            HttpServletResponse resposta = ((ServletRequestAttributes) atributos).getResponse();
+            if (resposta != null && !resposta.isCommitted()) {
+                resposta.setHeader(CABECALHO, String.valueOf(versaoExigida()));
+            }
+        }
+    }
+
+    static boolean replicaPermitida() {
+        return Boolean.TRUE.equals(REPLICA_PERMITIDA.get());
+    }
+
+    /**
+     * Define se a réplica é aceita e devolve o valor anterior, para ser restaurado ao fim do método.
+     */
+    static boolean permitirReplica(final boolean permitida) {
+        boolean anterior = replicaPermitida();
+        if (permitida) {
+            REPLICA_PERMITIDA.set(Boolean.TRUE);
+        } else {
+            REPLICA_PERMITIDA.remove();
+        }
+        return anterior;
+    }
+
+    public static void limpar() {
+        VERSAO_EXIGIDA.remove();
+        REPLICA_PERMITIDA.remove();
+    }
+}
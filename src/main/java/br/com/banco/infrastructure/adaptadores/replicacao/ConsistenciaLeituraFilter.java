@@ -0,0 +1,34 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Lê a versão de escrita enviada pelo cliente no cabeçalho {@value ConsistenciaLeitura#CABECALHO}, para que as
+ * leituras da requisição enxerguem o que ele mesmo gravou, e limpa o estado da thread ao final.
+ */
+public class ConsistenciaLeituraFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            String versao = request.getHeader(ConsistenciaLeitura.CABECALHO);
+            if (versao != null) {
+                try {
+                    ConsistenciaLeitura.exigir(Long.parseLong(versao.trim()));
+                } catch (NumberFormatException e) {
+                    // Cabecalho invalido: a requisicao segue sem exigir versao
+                }
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsistenciaLeitura.limpar();
+        }
+    }
+}
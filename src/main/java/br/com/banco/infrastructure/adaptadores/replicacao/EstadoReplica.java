@@ -0,0 +1,66 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versões de escrita do primário e o ponto até onde a réplica foi atualizada.
+ * <p>
+ * Cada transação de escrita confirmada no primário incrementa a versão. Uma cópia para a réplica anota a versão e o
+ * instante lidos antes de começar, então tudo o que foi confirmado até aquela versão está na réplica, e o atraso
+ * dela é o tempo desde aquele instante.
+ */
+public class EstadoReplica {
+
+    private final Clock relogio;
+    private final Duration atrasoMaximo;
+    private final AtomicLong versaoEscrita = new AtomicLong();
+
+    private volatile Copia ultimaCopia;
+
+    public EstadoReplica(Clock relogio, Duration atrasoMaximo) {
+        if (atrasoMaximo.isNegative()) {
+            throw new IllegalArgumentException("O atraso maximo da replica nao pode ser negativo.");
+        }
+        this.relogio = relogio;
+        this.atrasoMaximo = atrasoMaximo;
+    }
+
+    public long registrarEscrita() {
+        return versaoEscrita.incrementAndGet();
+    }
+
+    public long versaoAtual() {
+        return versaoEscrita.get();
+    }
+
+    public Instant agora() {
+        return relogio.instant();
+    }
+
+    public void registrarCopia(final long versao, final Instant inicio) {
+        ultimaCopia = new Copia(versao, inicio);
+    }
+
+    /**
+     * Se a réplica pode atender uma leitura que precisa enxergar a escrita {@code versaoExigida}.
+     */
+    public boolean podeLer(final long versaoExigida) {
+        Copia copia = ultimaCopia;
+        return copia != null
+                && copia.versao >= versaoExigida
+                && Duration.between(copia.inicio, relogio.instant()).compareTo(atrasoMaximo) <= 0;
+    }
+
+    private static final class Copia {
+        private final long versao;
+        private final Instant inicio;
+
+        private Copia(long versao, Instant inicio) {
+            this.versao = versao;
+            this.inicio = inicio;
+        }
+    }
+}
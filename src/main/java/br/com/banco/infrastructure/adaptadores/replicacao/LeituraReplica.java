@@ -0,0 +1,21 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Método de leitura de um adaptador que pode ser atendido pela réplica. Abre uma transação somente leitura; com a
+ * réplica habilitada ({@code banco.replica.habilitado}), a conexão vem da réplica enquanto ela estiver dentro do
+ * atraso tolerado e já tiver as escritas do chamador. Chamado dentro de uma transação de escrita, segue no primário.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface LeituraReplica {
+}
@@ -0,0 +1,22 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Marca, durante a execução de um método {@link LeituraReplica}, que a conexão aberta pode vir da réplica.
+ */
+@Aspect
+public class LeituraReplicaAspect {
+
+    @Around("@annotation(br.com.banco.infrastructure.adaptadores.replicacao.LeituraReplica)")
+    public Object permitirReplica(final ProceedingJoinPoint chamada) throws Throwable {
+        boolean anterior = ConsistenciaLeitura.permitirReplica(true);
+        try {
+            return chamada.proceed();
+        } finally {
+            ConsistenciaLeitura.permitirReplica(anterior);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSetMetaData;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alimenta a réplica H2 local copiando as tabelas do primário a cada ciclo. Faz as vezes da replicação do banco
+ * em desenvolvimento e nos testes: a cópia é completa, e não incremental.
+ * <p>
+ * O esquema é criado uma vez, a partir do {@code SCRIPT NODATA} do primário. Cada ciclo substitui o conteúdo de
+ * todas as tabelas numa única transação da réplica, então quem lê a réplica vê a cópia anterior ou a nova inteira.
+ * Do lado do primário, todas as tabelas são lidas numa única transação somente leitura, na mesma conexão e sobre
+ * o mesmo instantâneo, para que a cópia não junte linhas de antes e de depois de um mesmo commit.
+ */
+public class ReplicadorH2 {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicadorH2.class);
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    private final JdbcTemplate primario;
+    private final JdbcTemplate replica;
+    private final TransactionTemplate leituraPrimario;
+    private final TransactionTemplate transacaoReplica;
+    private final EstadoReplica estado;
+
+    private boolean esquemaCriado;
+
+    public ReplicadorH2(JdbcTemplate primario, JdbcTemplate replica, TransactionTemplate leituraPrimario,
+                        TransactionTemplate transacaoReplica, EstadoReplica estado) {
+        this.primario = primario;
+        this.replica = replica;
+        this.leituraPrimario = leituraPrimario;
+        this.transacaoReplica = transacaoReplica;
+        this.estado = estado;
+    }
+
+    @Scheduled(initialDelayString = "${banco.replica.espera-inicial-ms:1000}",
+            fixedDelayString = "${banco.replica.intervalo-ms:1000}")
+    public void replicarAgendado() {
+        try {
+            replicar();
+        } catch (RuntimeException e) {
+            LOGGER.error("Erro ao atualizar a replica, nova tentativa no proximo ciclo", e);
+        }
+    }
+
+    public synchronized void replicar() {
+        // Lidos antes da copia: tudo o que foi confirmado ate esta versao entra nela
+        long versao = estado.versaoAtual();
+        Instant inicio = estado.agora();
+
+        if (!esquemaCriado) {
+            criarEsquema();
+            esquemaCriado = true;
+        }
+        // Todas as tabelas saem do mesmo instantaneo do primario
+        leituraPrimario.executeWithoutResult(leitura -> {
+            List<String> tabelas = primario.queryForList("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES " +
+                    "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'TABLE' ORDER BY TABLE_NAME", String.class);
+            transacaoReplica.executeWithoutResult(status -> tabelas.forEach(this::copiar));
+        });
+
+        estado.registrarCopia(versao, inicio);
+        LOGGER.debug("Replica atualizada ate a versao {}", versao);
+    }
+
+    private void criarEsquema() {
+        primario.queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS", String.class).stream()
+                .filter(comando -> !comando.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+        // As tabelas sao copiadas uma a uma, em qualquer ordem
+        replica.execute("SET REFERENTIAL_INTEGRITY FALSE");
+    }
+
+    private void copiar(final String tabela) {
+        String nome = '"' + tabela.replace("\"", "\"\"") + '"';
+        replica.update("DELETE FROM " + nome);
+
+        List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+        StringBuilder insert = new StringBuilder();
+        primario.query("SELECT * FROM " + nome, resultado -> {
+            ResultSetMetaData metadados = resultado.getMetaData();
+            int colunas = metadados.getColumnCount();
+            if (insert.length() == 0) {
+                StringBuilder nomes = new StringBuilder();
+                StringBuilder parametros = new StringBuilder();
+                for (int i = 1; i <= colunas; i++) {
+                    nomes.append(i > 1 ? ", " : "").append('"').append(metadados.getColumnName(i).replace("\"", "\"\"")).append('"');
+                    parametros.append(i > 1 ? ", ?" : "?");
+                }
+                insert.append("INSERT INTO ").append(nome).append(" (").append(nomes).append(") VALUES (").append(parametros).append(')');
+            }
+            Object[] linha = new Object[colunas];
+            for (int i = 1; i <= colunas; i++) {
+                linha[i - 1] = resultado.getObject(i);
+            }
+            lote.add(linha);
+            if (lote.size() == TAMANHO_LOTE) {
+                replica.batchUpdate(insert.toString(), lote);
+                lote.clear();
+            }
+        });
+        if (!lote.isEmpty()) {
+            replica.batchUpdate(insert.toString(), lote);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Escolhe o banco de cada conexão: a réplica só para transações somente leitura abertas por um método
+ * {@link LeituraReplica} e quando {@link EstadoReplica#podeLer} permite; todo o resto vai para o primário. Quando uma
+ * dessas leituras cai no primário, as seguintes da mesma thread passam a exigir a versão atual, para que uma
+ * requisição nunca leia um estado anterior ao que já leu.
+ * <p>
+ * Precisa ficar atrás de um {@code LazyConnectionDataSourceProxy}, para que a escolha seja feita no primeiro
+ * comando, já com a transação definida.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIO,
+        REPLICA
+    }
+
+    private final EstadoReplica estado;
+
+    public RoteamentoDataSource(EstadoReplica estado) {
+        this.estado = estado;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Destino.PRIMARIO;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registrarEscrita();
+            return Destino.PRIMARIO;
+        }
+        if (ConsistenciaLeitura.replicaPermitida()) {
+            if (estado.podeLer(ConsistenciaLeitura.versaoExigida())) {
+                return Destino.REPLICA;
+            }
+            // Leu do primario: o resto da requisicao nao pode voltar a uma copia mais antiga que esta leitura
+            ConsistenciaLeitura.exigir(estado.versaoAtual());
+        }
+        return Destino.PRIMARIO;
+    }
+
+    private void registrarEscrita() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getSynchronizations().stream().noneMatch(RegistroEscrita.class::isInstance)) {
+            TransactionSynchronizationManager.registerSynchronization(new RegistroEscrita());
+        }
+    }
+
+    private final class RegistroEscrita implements TransactionSynchronization {
+        @Override
+        public void afterCommit() {
+            ConsistenciaLeitura.escritaConfirmada(estado.registrarEscrita());
+        }
+    }
+}
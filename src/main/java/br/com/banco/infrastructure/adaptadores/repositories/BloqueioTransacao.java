@@ -0,0 +1,30 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Bloqueios em memoria liberados so depois do commit ou rollback da transacao corrente, para que uma rotina que
+ * recalcula dados derivados nao leia a tabela enquanto outra transacao ainda tem escritas sem commit nela.
+ */
+final class BloqueioTransacao {
+
+    private BloqueioTransacao() {
+    }
+
+    static void bloquearAteOFimDaTransacao(final Lock bloqueio) {
+        bloqueio.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bloqueio.unlock();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                bloqueio.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.domain.models.CursorTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.repositories.ICheckpointSaldoRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.CheckpointSaldoEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.SaldoContaProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Checkpoints diarios de saldo. Os dias sao processados em ordem e a tabela sempre cobre todos os dias ate o
+ * ultimo checkpoint gravado, entao o checkpoint anterior de cada conta e uma base valida para o dia seguinte.
+ * <p>
+ * Lancamentos gravados ou excluidos em dias ja encerrados seguram o bloqueio compartilhado ate o fim da transacao, e
+ * a geracao de um dia, o exclusivo: um checkpoint nao e gravado sem um lancamento do dia que ainda esteja sem commit.
+ */
+@Component
+public class CheckpointSaldoRepositoryImpl implements ICheckpointSaldoRepositoryPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CheckpointSaldoRepositoryImpl.class);
+
+    private final SpringCheckpointSaldoRepository checkpointSaldoRepository;
+    private final SpringTransferenciaRepository transferenciaRepository;
+    private final ReadWriteLock geracao = new ReentrantReadWriteLock();
+
+    public CheckpointSaldoRepositoryImpl(SpringCheckpointSaldoRepository checkpointSaldoRepository,
+                                         SpringTransferenciaRepository transferenciaRepository) {
+        this.checkpointSaldoRepository = checkpointSaldoRepository;
+        this.transferenciaRepository = transferenciaRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obterSaldoEm(final int contaId, final LocalDateTime instante) {
+        LOGGER.info("Obtendo saldo da conta {} em {}", contaId, instante);
+        // Um checkpoint do dia D cobre ate o inicio de D+1, entao so serve se D for anterior ao dia do instante
+        Optional<CheckpointSaldoEntity> checkpoint = checkpointSaldoRepository
+                .findFirstByContaIdAndDataReferenciaLessThanOrderByDataReferenciaDesc(contaId, instante.toLocalDate());
+
+        if (checkpoint.isEmpty()) {
+            return somar(Dinheiro.ZERO, transferenciaRepository.sumValorByContaAte(contaId, instante));
+        }
+
+        LocalDateTime inicioDelta = checkpoint.get().getDataReferencia().plusDays(1).atStartOfDay();
+        return somar(checkpoint.get().getSaldo(), transferenciaRepository.sumValorByContaEntre(contaId, inicioDelta, instante));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obterSaldoAteLancamento(final int contaId, final CursorTransferencia lancamento) {
+        LOGGER.info("Obtendo saldo da conta {} ate o lancamento {}", contaId, lancamento.getId());
+        LocalDateTime data = lancamento.getDataTransferencia();
+        // Mesma base do obterSaldoEm; no dia do lancamento, o id desempata os lancamentos no mesmo instante
+        Optional<CheckpointSaldoEntity> checkpoint = checkpointSaldoRepository
+                .findFirstByContaIdAndDataReferenciaLessThanOrderByDataReferenciaDesc(contaId, data.toLocalDate());
+
+        if (checkpoint.isEmpty()) {
+            return somar(Dinheiro.ZERO, transferenciaRepository.sumValorByContaAteLancamento(contaId, data, lancamento.getId()));
+        }
+
+        LocalDateTime inicioDelta = checkpoint.get().getDataReferencia().plusDays(1).atStartOfDay();
+        return somar(checkpoint.get().getSaldo(),
+                transferenciaRepository.sumValorByContaEntreInicioELancamento(contaId, inicioDelta, data, lancamento.getId()));
+    }
+
+    @Override
+    public Optional<LocalDate> obterProximoDiaPendente(final LocalDate limite) {
+        Optional<LocalDateTime> proximaTransferencia = checkpointSaldoRepository.obterUltimaDataReferencia()
+                .map(ultimo -> transferenciaRepository.obterPrimeiraDataTransferenciaAPartirDe(ultimo.plusDays(1).atStartOfDay()))
+                .orElseGet(transferenciaRepository::obterPrimeiraDataTransferencia);
+
+        return proximaTransferencia
+                .map(LocalDateTime::toLocalDate)
+                .filter(dia -> dia.isBefore(limite));
+    }
+
+    @Override
+    @Transactional
+    public int gerarCheckpoints(final LocalDate dia) {
+        LOGGER.info("Gerando checkpoints de saldo do dia {}", dia);
+        BloqueioTransacao.bloquearAteOFimDaTransacao(geracao.writeLock());
+        List<SaldoContaProjection> movimentos = transferenciaRepository.sumValorGroupByContaEntreDatas(
+                dia.atStartOfDay(), dia.plusDays(1).atStartOfDay());
+
+        if (movimentos.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, Dinheiro> anteriores = checkpointSaldoRepository
+                .findUltimosAntesDe(movimentos.stream().map(SaldoContaProjection::getContaId).collect(Collectors.toList()), dia)
+                .stream()
+                .collect(Collectors.toMap(CheckpointSaldoEntity::getContaId, CheckpointSaldoEntity::getSaldo));
+
+        List<CheckpointSaldoEntity> checkpoints = movimentos.stream()
+                .map(movimento -> new CheckpointSaldoEntity(movimento.getContaId(), dia,
+                        anteriores.getOrDefault(movimento.getContaId(), Dinheiro.ZERO).somar(movimento.getSaldo())))
+                .collect(Collectors.toList());
+        checkpointSaldoRepository.saveAll(checkpoints);
+
+        return checkpoints.size();
+    }
+
+    @Override
+    @Transactional
+    public void invalidarAPartirDe(final LocalDate dia) {
+        int removidos = checkpointSaldoRepository.deleteByDataReferenciaAPartirDe(dia);
+        LOGGER.info("{} checkpoints de saldo a partir de {} invalidados", removidos, dia);
+    }
+
+    @Override
+    public void invalidarPorLancamento(final LocalDate dia) {
+        // Dias anteriores a hoje podem ganhar checkpoint a qualquer momento; o dia corrente so depois da margem de fechamento
+        if (!dia.isBefore(LocalDate.now())) {
+            return;
+        }
+
+        BloqueioTransacao.bloquearAteOFimDaTransacao(geracao.readLock());
+        if (checkpointSaldoRepository.obterUltimaDataReferencia().filter(ultimo -> !dia.isAfter(ultimo)).isPresent()) {
+            int removidos = checkpointSaldoRepository.deleteByDataReferenciaAPartirDe(dia);
+            LOGGER.info("{} checkpoints de saldo a partir de {} invalidados por lancamento retroativo", removidos, dia);
+        }
+    }
+
+    private static BigDecimal somar(final Dinheiro base, final Dinheiro delta) {
+        return (delta == null ? base : base.somar(delta)).toBigDecimal();
+    }
+}
@@ -5,29 +5,49 @@ import br.com.banco.application.mappers.ContaMapper;
 import br.com.banco.domain.exception.ContaNaoEncontradaException;
 import br.com.banco.domain.exception.SalvarContaException;
 import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.ports.interfaces.IFiltroContasPort;
 import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
 import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaTrigramaEntity;
+import br.com.banco.infrastructure.adaptadores.replicacao.LeituraReplica;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class ContaRepositoryImpl implements IContaRepositoryPort {
     private static final Logger LOGGER = LoggerFactory.getLogger(ContaRepositoryImpl.class);
 
+    private static final int TAMANHO_LOTE_INDEXACAO = 1000;
+
     private final SpringContaRepository contaRepository;
+    private final SpringContaTrigramaRepository contaTrigramaRepository;
     private final ContaMapper contaMapper;
+    private final IFiltroContasPort filtroContas;
 
-    public ContaRepositoryImpl(SpringContaRepository contaRepository, ContaMapper contaMapper) {
+    public ContaRepositoryImpl(SpringContaRepository contaRepository, SpringContaTrigramaRepository contaTrigramaRepository,
+                               ContaMapper contaMapper, IFiltroContasPort filtroContas) {
         this.contaRepository = contaRepository;
+        this.contaTrigramaRepository = contaTrigramaRepository;
         this.contaMapper = contaMapper;
+        this.filtroContas = filtroContas;
     }
 
     @Override
+    @LeituraReplica
     public Page<ContaDTO> obterTodasContas(final Pageable pageable) {
         try {
             LOGGER.info("Obtendo todas as contas");
@@ -45,14 +65,11 @@ public class ContaRepositoryImpl implements IContaRepositoryPort {
     }
 
     @Override
+    @LeituraReplica
     public Optional<Conta> obterContaPorId(final int id) {
         try {
             LOGGER.info("Obtendo conta por ID: {}", id);
-            Optional<ContaEntity> contaEntity = contaRepository.findById(id);
-
-            if (contaEntity.isEmpty()) {
-                throw new ContaNaoEncontradaException("Conta não encontrada");
-            }
+            Optional<ContaEntity> contaEntity = buscarPorId(id);
 
             return contaMapper.mapEntityToModel(contaEntity.get());
         } catch (Exception e) {
@@ -62,16 +79,39 @@ public class ContaRepositoryImpl implements IContaRepositoryPort {
     }
 
     @Override
+    @LeituraReplica
+    public Map<Integer, Conta> obterContasPorIds(final Collection<Integer> ids) {
+        try {
+            LOGGER.info("Obtendo {} conta(s) por ID", ids.size());
+            List<Integer> candidatos = ids.stream().filter(filtroContas::podeExistir).collect(Collectors.toList());
+            Map<Integer, Conta> contas = new HashMap<>();
+            if (candidatos.isEmpty()) {
+                return contas;
+            }
+
+            contaRepository.findAllById(candidatos)
+                    .forEach(contaEntity -> contaMapper.mapEntityToModel(contaEntity).ifPresent(conta -> contas.put(conta.getId(), conta)));
+            candidatos.stream().filter(id -> !contas.containsKey(id)).forEach(filtroContas::registrarFalsoPositivo);
+            return contas;
+        } catch (Exception e) {
+            LOGGER.error("Erro ao obter contas por ID: {}", ids, e);
+            throw new ContaNaoEncontradaException("Erro ao obter contas por ID");
+        }
+    }
+
+    @Override
+    @LeituraReplica
     public Optional<Conta> obterContaPorNomeResponsavel(final String nomeResponsavel) {
         try {
             LOGGER.info("Obtendo conta por nome do responsável: {}", nomeResponsavel);
-            ContaEntity contaEntity = contaRepository.findByNomeResponsavelContainingIgnoreCase(nomeResponsavel);
+            // Com varios nomes contendo o termo, fica a melhor colocada na busca: o nome exato vem primeiro
+            Slice<ContaEntity> contaEntities = buscar(nomeResponsavel, PageRequest.of(0, 1));
 
-            if (contaEntity == null) {
+            if (contaEntities.isEmpty()) {
                 return Optional.empty();
             }
 
-            return contaMapper.mapEntityToModel(contaEntity);
+            return contaMapper.mapEntityToModel(contaEntities.getContent().get(0));
         } catch (Exception e) {
             LOGGER.error("Erro ao obter conta por nome do responsável: {}", nomeResponsavel, e);
             throw new ContaNaoEncontradaException("Erro ao obter conta por nome do responsável: " + nomeResponsavel);
@@ -79,11 +119,36 @@ public class ContaRepositoryImpl implements IContaRepositoryPort {
     }
 
     @Override
+    @LeituraReplica
+    public Slice<ContaDTO> buscarPorNomeResponsavel(final String termo, final Pageable pageable) {
+        try {
+            LOGGER.info("Buscando contas pelo nome do responsável: {}", termo);
+            return contaMapper.mapToDtoSlice(buscar(termo, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())));
+        } catch (Exception e) {
+            LOGGER.error("Erro ao buscar contas pelo nome do responsável: {}", termo, e);
+            throw new ContaNaoEncontradaException("Erro ao buscar contas pelo nome do responsável: " + termo);
+        }
+    }
+
+    private Slice<ContaEntity> buscar(final String termo, final Pageable pageable) {
+        Set<String> trigramas = Trigramas.extrair(termo);
+        if (trigramas.isEmpty()) {
+            return contaRepository.findByNomeResponsavelOrderByIdAsc(pageable, termo.trim());
+        }
+
+        String normalizado = Trigramas.normalizar(termo);
+        return contaRepository.buscarPorTrigramas(pageable, trigramas, trigramas.size(), normalizado, Trigramas.padraoContendo(termo),
+                Trigramas.padraoIniciandoCom(normalizado), "% " + Trigramas.padraoIniciandoCom(normalizado));
+    }
+
+    @Override
+    @Transactional
     public void salvar(final Conta conta) {
         try {
             LOGGER.info("Salvando conta");
-            ContaEntity contaEntity = contaMapper.mapModelToEntity(conta);
-            contaRepository.save(contaEntity);
+            ContaEntity contaEntity = contaRepository.save(contaMapper.mapModelToEntity(conta));
+            indexarNome(contaEntity);
+            filtroContas.registrarConta(contaEntity.getId());
         } catch (Exception e) {
             LOGGER.error("Erro ao salvar conta", e);
             throw new SalvarContaException("Erro ao salvar conta");
@@ -91,19 +156,67 @@ public class ContaRepositoryImpl implements IContaRepositoryPort {
     }
 
     @Override
+    @Transactional
     public void deletar(final int id) {
         try {
             LOGGER.info("Deletando conta com ID: {}", id);
-            Optional<ContaEntity> contaEntity = contaRepository.findById(id);
-
-            if (contaEntity.isEmpty()) {
-                throw new ContaNaoEncontradaException("Conta não encontrada");
-            }
+            Optional<ContaEntity> contaEntity = buscarPorId(id);
 
+            contaTrigramaRepository.deleteByContaId(id);
             contaRepository.delete(contaEntity.get());
         } catch (Exception e) {
             LOGGER.error("Erro ao deletar conta com ID: {}", id, e);
             throw new ContaNaoEncontradaException("Erro ao deletar conta com ID: " + id);
         }
     }
-}
\ No newline at end of file
+
+    // Um lote por transacao, pela chave primaria. A conta e seus trigramas sao gravados juntos em salvar, entao uma
+    // conta sem trigramas nunca e uma conta nova ainda sendo indexada
+    @Override
+    public int indexarNomesPendentes() {
+        LOGGER.info("Indexando nomes de contas sem trigramas");
+        int indexadas = 0;
+        int ultimoId = Integer.MIN_VALUE;
+        List<ContaEntity> lote;
+        do {
+            lote = contaRepository.findSemTrigramasAposId(PageRequest.of(0, TAMANHO_LOTE_INDEXACAO), ultimoId);
+            List<ContaTrigramaEntity> trigramas = lote.stream()
+                    .flatMap(contaEntity -> trigramas(contaEntity).stream())
+                    .collect(Collectors.toList());
+            contaTrigramaRepository.saveAll(trigramas);
+            // Nomes com menos de 3 letras nao tem trigramas e continuam pendentes
+            indexadas += (int) lote.stream().filter(contaEntity -> !Trigramas.extrair(contaEntity.getNomeResponsavel()).isEmpty()).count();
+            if (!lote.isEmpty()) {
+                ultimoId = lote.get(lote.size() - 1).getId();
+            }
+        } while (lote.size() == TAMANHO_LOTE_INDEXACAO);
+        LOGGER.info("Nomes de {} contas indexados", indexadas);
+        return indexadas;
+    }
+
+    // IDs recusados pelo filtro nunca foram gravados: nao vao ao banco
+    private Optional<ContaEntity> buscarPorId(final int id) {
+        if (!filtroContas.podeExistir(id)) {
+            throw new ContaNaoEncontradaException("Conta não encontrada");
+        }
+
+        Optional<ContaEntity> contaEntity = contaRepository.findById(id);
+
+        if (contaEntity.isEmpty()) {
+            filtroContas.registrarFalsoPositivo(id);
+            throw new ContaNaoEncontradaException("Conta não encontrada");
+        }
+        return contaEntity;
+    }
+
+    private void indexarNome(final ContaEntity contaEntity) {
+        contaTrigramaRepository.deleteByContaId(contaEntity.getId());
+        contaTrigramaRepository.saveAll(trigramas(contaEntity));
+    }
+
+    private static List<ContaTrigramaEntity> trigramas(final ContaEntity contaEntity) {
+        return Trigramas.extrair(contaEntity.getNomeResponsavel()).stream()
+                .map(trigrama -> new ContaTrigramaEntity(trigrama, contaEntity.getId()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,210 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.importacao.LoteImportacao;
+import br.com.banco.domain.models.CheckpointImportacao;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.repositories.ICheckpointSaldoRepositoryPort;
+import br.com.banco.domain.ports.repositories.IImportacaoRepositoryPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITotalDiarioRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaTrigramaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.ImportacaoEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.TransferenciaEntity;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Gravação dos lotes da importação direto em JDBC, na conexão da transação atual: um batch por tabela e por lote,
+ * sem entidades nem contexto de persistência.
+ * <p>
+ * As contas mantêm os IDs do arquivo. Os IDs dos trigramas e dos lançamentos saem dos mesmos geradores de sequência
+ * das entidades, então não colidem com os gravados pelo Hibernate ao mesmo tempo. Os saldos materializados, os
+ * totais diários e os checkpoints recebem os lançamentos do lote na mesma transação, como em
+ * {@link TransferenciaRepositoryImpl#salvarLancamentos}.
+ */
+@Component
+public class ImportacaoRepositoryImpl implements IImportacaoRepositoryPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportacaoRepositoryImpl.class);
+
+    private static final String INSERIR_CONTA =
+            "INSERT INTO \"conta\" (\"id\", \"nome_responsavel\", \"versao\") VALUES (?, ?, 0)";
+    private static final String INSERIR_TRIGRAMA =
+            "INSERT INTO \"conta_trigrama\" (\"id\", \"trigrama\", \"conta_id\") VALUES (?, ?, ?)";
+    private static final String INSERIR_LANCAMENTO = "INSERT INTO \"transferencia\" (\"id\", \"data_transferencia\", \"valor\", \"tipo\", " +
+            "\"nome_operador_transacao\", \"conta_id\", \"id_transacao\", \"natureza\") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final SpringImportacaoRepository importacaoRepository;
+    private final SpringContaRepository contaRepository;
+    private final EntityManager entityManager;
+    private final ISaldoContaRepositoryPort saldoContaRepository;
+    private final ITotalDiarioRepositoryPort totalDiarioRepository;
+    private final ICheckpointSaldoRepositoryPort checkpointSaldoRepository;
+
+    public ImportacaoRepositoryImpl(SpringImportacaoRepository importacaoRepository, SpringContaRepository contaRepository,
+                                    EntityManager entityManager, ISaldoContaRepositoryPort saldoContaRepository,
+                                    ITotalDiarioRepositoryPort totalDiarioRepository,
+                                    ICheckpointSaldoRepositoryPort checkpointSaldoRepository) {
+        this.importacaoRepository = importacaoRepository;
+        this.contaRepository = contaRepository;
+        this.entityManager = entityManager;
+        this.saldoContaRepository = saldoContaRepository;
+        this.totalDiarioRepository = totalDiarioRepository;
+        this.checkpointSaldoRepository = checkpointSaldoRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<CheckpointImportacao> obterCheckpoint(final String arquivo) {
+        return importacaoRepository.findById(arquivo).map(ImportacaoRepositoryImpl::mapEntityToModel);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Integer> obterContasExistentes(final Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(contaRepository.findIdsExistentes(ids));
+    }
+
+    @Override
+    @Transactional
+    public void gravarLote(final LoteImportacao lote, final CheckpointImportacao checkpoint) {
+        SessionImplementor sessao = entityManager.unwrap(SessionImplementor.class);
+        IdentifierGenerator idsTrigramas = gerador(sessao, ContaTrigramaEntity.class);
+        IdentifierGenerator idsLancamentos = gerador(sessao, TransferenciaEntity.class);
+
+        sessao.doWork(conexao -> {
+            // Na ordem das chaves estrangeiras: os lancamentos e trigramas podem ser de contas do proprio lote
+            try (PreparedStatement contas = conexao.prepareStatement(INSERIR_CONTA);
+                 PreparedStatement trigramas = conexao.prepareStatement(INSERIR_TRIGRAMA)) {
+                for (int i = 0; i < lote.getContas(); i++) {
+                    contas.setInt(1, lote.getIdConta(i));
+                    contas.setString(2, lote.getNomeResponsavel(i));
+                    contas.addBatch();
+                    for (String trigrama : Trigramas.extrair(lote.getNomeResponsavel(i))) {
+                        trigramas.setLong(1, ((Number) idsTrigramas.generate(sessao, null)).longValue());
+                        trigramas.setString(2, trigrama);
+                        trigramas.setInt(3, lote.getIdConta(i));
+                        trigramas.addBatch();
+                    }
+                }
+                contas.executeBatch();
+                trigramas.executeBatch();
+            }
+
+            try (PreparedStatement lancamentos = conexao.prepareStatement(INSERIR_LANCAMENTO)) {
+                for (int i = 0; i < lote.getLancamentos(); i++) {
+                    lancamentos.setInt(1, ((Number) idsLancamentos.generate(sessao, null)).intValue());
+                    lancamentos.setObject(2, lote.getData(i));
+                    lancamentos.setBigDecimal(3, BigDecimal.valueOf(lote.getCentavos(i), 2));
+                    lancamentos.setInt(4, lote.getTipo(i).ordinal());
+                    if (lote.getOperador(i) == null) {
+                        lancamentos.setNull(5, Types.VARCHAR);
+                    } else {
+                        lancamentos.setString(5, lote.getOperador(i));
+                    }
+                    lancamentos.setInt(6, lote.getContaLancamento(i));
+                    lancamentos.setString(7, lote.getIdTransacao(i));
+                    lancamentos.setInt(8, lote.getNatureza(i).ordinal());
+                    lancamentos.addBatch();
+                }
+                lancamentos.executeBatch();
+            }
+        });
+
+        if (lote.getLancamentos() > 0) {
+            // Incrementos sobre os valores atuais: lancamentos gravados pela API durante a importacao continuam valendo
+            List<Transferencia> lancamentos = lancamentos(lote);
+            saldoContaRepository.aplicarLancamentos(lancamentos);
+            totalDiarioRepository.aplicarLancamentos(lancamentos);
+            checkpointSaldoRepository.invalidarPorLancamento(lote.getDataMinima().toLocalDate());
+        }
+
+        importacaoRepository.save(mapModelToEntity(checkpoint));
+        LOGGER.debug("Lote com {} contas e {} lancamentos gravado; arquivo {} ate o byte {}",
+                lote.getContas(), lote.getLancamentos(), checkpoint.getArquivo(), checkpoint.getPosicao());
+    }
+
+    @Override
+    @Transactional
+    public void salvarCheckpoint(final CheckpointImportacao checkpoint) {
+        importacaoRepository.save(mapModelToEntity(checkpoint));
+    }
+
+    @Override
+    @Transactional
+    public void ajustarGeracaoIdsContas(final int maiorIdImportado) {
+        // IDENTITY do H2: os IDs gravados explicitamente nao avancam o gerador
+        int proximo = Math.max(contaRepository.findMaiorId().orElse(0), maiorIdImportado) + 1;
+        entityManager.createNativeQuery("ALTER TABLE \"conta\" ALTER COLUMN \"id\" RESTART WITH " + proximo).executeUpdate();
+        LOGGER.info("Geracao de IDs de contas reiniciada em {}", proximo);
+    }
+
+    // Apenas o que os saldos e os totais diarios usam de cada lancamento
+    private static List<Transferencia> lancamentos(final LoteImportacao lote) {
+        List<Transferencia> lancamentos = new ArrayList<>(lote.getLancamentos());
+        for (int i = 0; i < lote.getLancamentos(); i++) {
+            Conta conta = new Conta();
+            conta.setId(lote.getContaLancamento(i));
+            Transferencia lancamento = new Transferencia();
+            lancamento.setContaId(conta);
+            lancamento.setDataTransferencia(lote.getData(i));
+            lancamento.setValor(Dinheiro.deCentavos(lote.getCentavos(i)));
+            lancamento.setTipo(lote.getTipo(i));
+            lancamento.setNatureza(lote.getNatureza(i));
+            lancamentos.add(lancamento);
+        }
+        return lancamentos;
+    }
+
+    private static IdentifierGenerator gerador(final SessionImplementor sessao, final Class<?> entidade) {
+        return sessao.getFactory().getMetamodel().entityPersister(entidade).getIdentifierGenerator();
+    }
+
+    private static CheckpointImportacao mapEntityToModel(final ImportacaoEntity entity) {
+        CheckpointImportacao checkpoint = new CheckpointImportacao(entity.getArquivo());
+        checkpoint.setPosicao(entity.getPosicao());
+        checkpoint.setCrc(entity.getCrc());
+        checkpoint.setLinhas(entity.getLinhas());
+        checkpoint.setContas(entity.getContas());
+        checkpoint.setLancamentos(entity.getLancamentos());
+        checkpoint.setDataMinima(entity.getDataMinima());
+        checkpoint.setDataMaxima(entity.getDataMaxima());
+        checkpoint.setConcluida(entity.isConcluida());
+        return checkpoint;
+    }
+
+    private static ImportacaoEntity mapModelToEntity(final CheckpointImportacao checkpoint) {
+        ImportacaoEntity entity = new ImportacaoEntity();
+        entity.setArquivo(checkpoint.getArquivo());
+        entity.setPosicao(checkpoint.getPosicao());
+        entity.setCrc(checkpoint.getCrc());
+        entity.setLinhas(checkpoint.getLinhas());
+        entity.setContas(checkpoint.getContas());
+        entity.setLancamentos(checkpoint.getLancamentos());
+        entity.setDataMinima(checkpoint.getDataMinima());
+        entity.setDataMaxima(checkpoint.getDataMaxima());
+        entity.setConcluida(checkpoint.isConcluida());
+        entity.setDataAtualizacao(LocalDateTime.now());
+        return entity;
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.exception.SaldoNaoEncontradoException;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.SaldoContaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.SaldoContaProjection;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.VersaoContaProjection;
+import br.com.banco.infrastructure.adaptadores.replicacao.LeituraReplica;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+public class SaldoContaRepositoryImpl implements ISaldoContaRepositoryPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaldoContaRepositoryImpl.class);
+
+    private final SpringSaldoContaRepository saldoContaRepository;
+    private final SpringTransferenciaRepository transferenciaRepository;
+
+    public SaldoContaRepositoryImpl(SpringSaldoContaRepository saldoContaRepository,
+                                    SpringTransferenciaRepository transferenciaRepository) {
+        this.saldoContaRepository = saldoContaRepository;
+        this.transferenciaRepository = transferenciaRepository;
+    }
+
+    @Override
+    public BigDecimal obterSaldo(final int contaId) {
+        try {
+            LOGGER.info("Obtendo saldo materializado da conta: {}", contaId);
+            Optional<SaldoContaEntity> saldoConta = saldoContaRepository.findById(contaId);
+
+            if (saldoConta.isPresent()) {
+                return saldoConta.get().getSaldo();
+            }
+
+            LOGGER.info("Conta {} sem saldo materializado, calculando pelos lancamentos", contaId);
+            return paraBigDecimal(transferenciaRepository.sumValorByOperadorTransacao(contaId));
+        } catch (SaldoNaoEncontradoException e) {
+            LOGGER.error("Erro ao obter saldo materializado da conta: {}", contaId);
+            throw new SaldoNaoEncontradoException("Erro ao obter saldo da conta: " + contaId);
+        }
+    }
+
+    /**
+     * Muda a cada lançamento gravado ou excluído na conta, quando os saldos são reconstruídos e quando a própria conta
+     * é alterada; "0" se a conta não existe. Lida como os lançamentos que ela identifica, para não ficar à frente deles.
+     */
+    @Override
+    @LeituraReplica
+    public String obterVersao(final int contaId) {
+        return saldoContaRepository.findVersaoByContaId(contaId)
+                .map(versao -> versaoSaldo(versao) + "-" + versao.getVersaoConta())
+                .orElse("0");
+    }
+
+    // "0" enquanto a conta nao tem saldo materializado
+    private static String versaoSaldo(final VersaoContaProjection versao) {
+        if (versao.getVersaoSaldo() == null) {
+            return "0";
+        }
+        LocalDateTime dataAtualizacao = versao.getDataAtualizacao();
+        return versao.getVersaoSaldo() + "-" + dataAtualizacao.toEpochSecond(ZoneOffset.UTC) + "." + dataAtualizacao.getNano();
+    }
+
+    @Override
+    public void aplicarLancamento(final Transferencia transferencia) {
+        atualizarSaldo(transferencia.getContaId().getId(), contribuicao(transferencia));
+    }
+
+    @Override
+    public void aplicarLancamentos(final List<Transferencia> lancamentos) {
+        // Um incremento por conta: com a linha ainda ausente, a materializacao ja soma todos os lancamentos da conta
+        lancamentos.stream()
+                .collect(Collectors.groupingBy(lancamento -> lancamento.getContaId().getId(), LinkedHashMap::new,
+                        Collectors.reducing(Dinheiro.ZERO, this::contribuicao, Dinheiro::somar)))
+                .forEach(this::atualizarSaldo);
+    }
+
+    @Override
+    public void estornarLancamento(final Transferencia transferencia) {
+        atualizarSaldo(transferencia.getContaId().getId(), contribuicao(transferencia).negar());
+    }
+
+    @Override
+    public Map<Integer, BigDecimal> obterSaldosMaterializados() {
+        LOGGER.info("Obtendo todos os saldos materializados");
+        return saldoContaRepository.findAll().stream()
+                .collect(Collectors.toMap(SaldoContaEntity::getContaId, SaldoContaEntity::getSaldo));
+    }
+
+    @Override
+    public Map<Integer, BigDecimal> calcularSaldosPelosLancamentos() {
+        LOGGER.info("Calculando saldos de todas as contas pelos lancamentos");
+        List<SaldoContaProjection> saldos = transferenciaRepository.sumValorGroupByConta();
+
+        Map<Integer, BigDecimal> saldosPorConta = new HashMap<>();
+        saldos.forEach(saldo -> saldosPorConta.put(saldo.getContaId(), paraBigDecimal(saldo.getSaldo())));
+        return saldosPorConta;
+    }
+
+    @Override
+    public int substituirSaldos(final Map<Integer, BigDecimal> saldos) {
+        LOGGER.info("Substituindo saldos materializados de {} contas", saldos.size());
+        LocalDateTime agora = LocalDateTime.now();
+
+        saldoContaRepository.deleteAllInBatch();
+        List<SaldoContaEntity> entidades = saldos.entrySet().stream()
+                .map(saldo -> new SaldoContaEntity(saldo.getKey(), saldo.getValue(), agora))
+                .collect(Collectors.toList());
+        saldoContaRepository.saveAll(entidades);
+
+        return entidades.size();
+    }
+
+    // Roda mesmo para valor zero: o lancamento novo muda a versao da conta
+    private void atualizarSaldo(final int contaId, final Dinheiro valor) {
+        LOGGER.info("Atualizando saldo materializado da conta: {}", contaId);
+        LocalDateTime agora = LocalDateTime.now();
+        int atualizados = saldoContaRepository.incrementarSaldo(contaId, valor.toBigDecimal(), agora);
+
+        if (atualizados == 0) {
+            // Primeira movimentacao desde a criacao da tabela: materializa a partir dos lancamentos,
+            // que ja incluem o lancamento corrente por estarem na mesma transacao.
+            Dinheiro saldo = transferenciaRepository.sumValorByOperadorTransacao(contaId);
+            saldoContaRepository.save(new SaldoContaEntity(contaId, saldo == null ? BigDecimal.ZERO : saldo.toBigDecimal(), agora));
+        }
+    }
+
+    /**
+     * Mesma regra de {@link SpringTransferenciaRepository#sumValorByOperadorTransacao}: debitos reduzem o saldo.
+     */
+    private Dinheiro contribuicao(final Transferencia transferencia) {
+        if (transferencia.getNatureza() == NaturezaLancamento.DEBITO) {
+            return transferencia.getValor().negar();
+        }
+        return transferencia.getValor();
+    }
+
+    private static BigDecimal paraBigDecimal(final Dinheiro valor) {
+        return valor == null ? null : valor.toBigDecimal();
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.infrastructure.adaptadores.persistence.entities.CheckpointSaldoEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SpringCheckpointSaldoRepository extends JpaRepository<CheckpointSaldoEntity, Long> {
+
+    @Query("SELECT MAX(c.dataReferencia) FROM CheckpointSaldoEntity c")
+    Optional<LocalDate> obterUltimaDataReferencia();
+
+    Optional<CheckpointSaldoEntity> findFirstByContaIdAndDataReferenciaLessThanOrderByDataReferenciaDesc(final int contaId, final LocalDate dataReferencia);
+
+    @Query("SELECT c FROM CheckpointSaldoEntity c WHERE c.contaId IN :contas AND c.dataReferencia = " +
+            "(SELECT MAX(u.dataReferencia) FROM CheckpointSaldoEntity u WHERE u.contaId = c.contaId AND u.dataReferencia < :data)")
+    List<CheckpointSaldoEntity> findUltimosAntesDe(@Param("contas") final Collection<Integer> contas, @Param("data") final LocalDate data);
+
+    @Modifying
+    @Query("DELETE FROM CheckpointSaldoEntity c WHERE c.dataReferencia >= :data")
+    int deleteByDataReferenciaAPartirDe(@Param("data") final LocalDate data);
+}
@@ -1,11 +1,64 @@
 package br.com.banco.infrastructure.adaptadores.repositories;
 
 import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 
 @Repository
 public interface SpringContaRepository extends JpaRepository<ContaEntity, Integer> {
-    ContaEntity findByNomeResponsavelContainingIgnoreCase(final String nomeResponsavel);
-}
\ No newline at end of file
+    // Candidatas: contas que tem todos os trigramas do termo, lidas pelo indice de conta_trigrama. O LIKE so confirma o
+    // trecho nelas. Ordem: nome igual ao termo, nome que comeca pelo termo, palavra que comeca pelo termo, nome mais curto.
+    @Query("SELECT c FROM ContaEntity c WHERE c.id IN (SELECT t.contaId FROM ContaTrigramaEntity t WHERE t.trigrama IN :trigramas " +
+            "GROUP BY t.contaId HAVING COUNT(t) = :quantidade) AND LOWER(c.nomeResponsavel) LIKE :padrao ESCAPE '\\' " +
+            "ORDER BY CASE WHEN LOWER(c.nomeResponsavel) = :termo THEN 0 " +
+            "WHEN LOWER(c.nomeResponsavel) LIKE :prefixo ESCAPE '\\' THEN 1 " +
+            "WHEN LOWER(c.nomeResponsavel) LIKE :palavra ESCAPE '\\' THEN 2 ELSE 3 END, LENGTH(c.nomeResponsavel), c.id")
+    Slice<ContaEntity> buscarPorTrigramas(final Pageable pageable, @Param("trigramas") final Collection<String> trigramas,
+                                          @Param("quantidade") final long quantidade, @Param("termo") final String termo,
+                                          @Param("padrao") final String padrao, @Param("prefixo") final String prefixo,
+                                          @Param("palavra") final String palavra);
+
+    // Termos curtos demais para ter trigrama: so o nome exato, pelo indice de nome_responsavel
+    Slice<ContaEntity> findByNomeResponsavelOrderByIdAsc(final Pageable pageable, final String nomeResponsavel);
+
+    // Carga do filtro de contas: lotes de IDs pela chave primaria, sem ler as linhas
+    @Query("SELECT c.id FROM ContaEntity c WHERE c.id > :ultimoId ORDER BY c.id")
+    List<Integer> findIdsAposId(final Pageable limite, @Param("ultimoId") final int ultimoId);
+
+    // Importacao: quais IDs de um lote ja existem, pela chave primaria
+    @Query("SELECT c.id FROM ContaEntity c WHERE c.id IN :ids")
+    List<Integer> findIdsExistentes(@Param("ids") final Collection<Integer> ids);
+
+    @Query("SELECT c FROM ContaEntity c WHERE c.id > :ultimoId AND NOT EXISTS " +
+            "(SELECT t.id FROM ContaTrigramaEntity t WHERE t.contaId = c.id) ORDER BY c.id")
+    List<ContaEntity> findSemTrigramasAposId(final Pageable pageable, @Param("ultimoId") final int ultimoId);
+
+    @Query("SELECT MAX(c.id) FROM ContaEntity c")
+    Optional<Integer> findMaiorId();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT c FROM ContaEntity c WHERE c.id = :id")
+    Optional<ContaEntity> bloquearParaAtualizacao(@Param("id") final int id);
+
+    @Query("SELECT c.versao FROM ContaEntity c WHERE c.id = :id")
+    Optional<Long> obterVersao(@Param("id") final int id);
+
+    @Modifying
+    @Query("UPDATE ContaEntity c SET c.versao = c.versao + 1 WHERE c.id = :id AND c.versao = :versao")
+    int incrementarVersao(@Param("id") final int id, @Param("versao") final long versao);
+}
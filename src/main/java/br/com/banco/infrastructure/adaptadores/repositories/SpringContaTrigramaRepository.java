@@ -0,0 +1,16 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaTrigramaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SpringContaTrigramaRepository extends JpaRepository<ContaTrigramaEntity, Long> {
+
+    @Modifying
+    @Query("DELETE FROM ContaTrigramaEntity t WHERE t.contaId = :contaId")
+    int deleteByContaId(@Param("contaId") final int contaId);
+}
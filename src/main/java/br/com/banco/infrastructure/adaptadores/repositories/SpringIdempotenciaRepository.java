@@ -0,0 +1,20 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.infrastructure.adaptadores.persistence.entities.IdempotenciaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SpringIdempotenciaRepository extends JpaRepository<IdempotenciaEntity, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotenciaEntity i WHERE i.criadaEm < :limite")
+    int deleteByCriadaEmAntesDe(@Param("limite") final LocalDateTime limite);
+}
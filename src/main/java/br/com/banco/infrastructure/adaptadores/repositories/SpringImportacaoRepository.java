@@ -0,0 +1,9 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.infrastructure.adaptadores.persistence.entities.ImportacaoEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SpringImportacaoRepository extends JpaRepository<ImportacaoEntity, String> {
+}
@@ -0,0 +1,26 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.infrastructure.adaptadores.persistence.entities.SaldoContaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.VersaoContaProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface SpringSaldoContaRepository extends JpaRepository<SaldoContaEntity, Integer> {
+
+    @Modifying
+    @Query("UPDATE SaldoContaEntity s SET s.saldo = s.saldo + :valor, s.versao = s.versao + 1, s.dataAtualizacao = :data WHERE s.contaId = :contaId")
+    int incrementarSaldo(@Param("contaId") final int contaId, @Param("valor") final BigDecimal valor, @Param("data") final LocalDateTime data);
+
+    // A versao da conta muda com o nome, que tambem aparece nas respostas por conta
+    @Query("SELECT c.versao AS versaoConta, s.versao AS versaoSaldo, s.dataAtualizacao AS dataAtualizacao " +
+            "FROM ContaEntity c LEFT JOIN SaldoContaEntity s ON s.contaId = c.id WHERE c.id = :contaId")
+    Optional<VersaoContaProjection> findVersaoByContaId(@Param("contaId") final int contaId);
+}
@@ -0,0 +1,36 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.TotalDiarioContaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.TotalPorTipoProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SpringTotalDiarioContaRepository extends JpaRepository<TotalDiarioContaEntity, Long> {
+
+    @Modifying
+    @Query("UPDATE TotalDiarioContaEntity t SET t.total = t.total + :valor WHERE t.dia = :dia AND t.tipo = :tipo AND t.contaId = :contaId")
+    int incrementarTotal(@Param("dia") final LocalDate dia, @Param("tipo") final TipoTransferencia tipo,
+                         @Param("contaId") final int contaId, @Param("valor") final Dinheiro valor);
+
+    @Query("SELECT SUM(t.total) FROM TotalDiarioContaEntity t WHERE t.dia BETWEEN :inicio AND :fim")
+    Dinheiro sumTotalEntreDias(@Param("inicio") final LocalDate inicio, @Param("fim") final LocalDate fim);
+
+    @Query("SELECT SUM(t.total) FROM TotalDiarioContaEntity t")
+    Dinheiro sumTotal();
+
+    @Query("SELECT t.tipo AS tipo, SUM(t.total) AS total FROM TotalDiarioContaEntity t WHERE t.dia = :dia GROUP BY t.tipo")
+    List<TotalPorTipoProjection> sumTotalGroupByTipo(@Param("dia") final LocalDate dia);
+
+    @Query("SELECT MIN(t.dia) FROM TotalDiarioContaEntity t")
+    Optional<LocalDate> obterPrimeiroDia();
+}
@@ -0,0 +1,30 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.TotalDiarioEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface SpringTotalDiarioRepository extends JpaRepository<TotalDiarioEntity, Long> {
+
+    @Modifying
+    @Query("UPDATE TotalDiarioEntity t SET t.total = t.total + :valor WHERE t.dia = :dia AND t.tipo = :tipo")
+    int incrementarTotal(@Param("dia") final LocalDate dia, @Param("tipo") final TipoTransferencia tipo, @Param("valor") final Dinheiro valor);
+
+    @Query("SELECT SUM(t.total) FROM TotalDiarioEntity t WHERE t.dia BETWEEN :inicio AND :fim")
+    Dinheiro sumTotalEntreDias(@Param("inicio") final LocalDate inicio, @Param("fim") final LocalDate fim);
+
+    @Query("SELECT MIN(t.dia) FROM TotalDiarioEntity t")
+    Optional<LocalDate> obterPrimeiroDia();
+
+    @Query("SELECT MAX(t.dia) FROM TotalDiarioEntity t")
+    Optional<LocalDate> obterUltimoDia();
+}
@@ -1,31 +1,166 @@
 package br.com.banco.infrastructure.adaptadores.repositories;
 
+import br.com.banco.domain.models.Dinheiro;
 import br.com.banco.infrastructure.adaptadores.persistence.entities.TransferenciaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.LancamentoExtratoProjection;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.SaldoContaProjection;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.TotalDiarioContaProjection;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.TotalPorMinutoProjection;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.TransferenciaExportacaoProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SpringTransferenciaRepository extends JpaRepository<TransferenciaEntity, Integer> {
-    Page<TransferenciaEntity> findByTipo(final Pageable pageable, final String tipo);
+public interface SpringTransferenciaRepository extends JpaRepository<TransferenciaEntity, Integer>, JpaSpecificationExecutor<TransferenciaEntity> {
+    // Equivale a (data > :data OR (data = :data AND id > :id)); o ">=" isolado da ao banco uma faixa no indice de datas
+    String APOS_CURSOR = "t.dataTransferencia >= :data AND (t.dataTransferencia > :data OR t.id > :id)";
 
-    Page<TransferenciaEntity> findByNomeOperadorTransacao(final Pageable pageable, final String nomeOperadorTransacao);
+    // As listagens trazem a conta no mesmo SELECT (JOIN FETCH / grafo de entidade). Sem isso, o @ManyToOne EAGER
+    // dispara um SELECT extra por conta distinta da pagina quando o mapper chama getConta(). O LEFT JOIN mantem a
+    // transferencia como tabela de partida do plano, lida pelo indice do filtro.
+    String LISTAGEM = "SELECT t FROM TransferenciaEntity t LEFT JOIN FETCH t.conta";
+    String CONTAGEM = "SELECT COUNT(t) FROM TransferenciaEntity t";
+    String TAMANHO_LOTE_EXPORTACAO = "1000";
 
-    Page<TransferenciaEntity> findByContaId(final Pageable pageable, final Integer contaId);
+    // Ate o lancamento (:data, :id), inclusive, na mesma ordem do cursor
+    String ATE_LANCAMENTO = "t.dataTransferencia <= :data AND (t.dataTransferencia < :data OR t.id <= :id)";
 
-    Page<TransferenciaEntity> findByDataTransferenciaBetween(final Pageable pageable, final LocalDateTime dataInicial, final LocalDateTime dataFinal);
+    // Extrato: a pagina e limitada antes da funcao de janela, que so percorre as linhas entregues. O saldo de cada
+    // linha e o saldo inicial mais a soma acumulada dos lancamentos da pagina, com o debito negativo
+    String EXTRATO_INICIO = "SELECT p.\"id\" AS \"id\", p.\"data_transferencia\" AS \"dataTransferencia\", p.\"valor\" AS \"valor\", " +
+            "p.\"tipo\" AS \"tipo\", p.\"natureza\" AS \"natureza\", p.\"nome_operador_transacao\" AS \"nomeOperadorTransacao\", " +
+            "p.\"id_transacao\" AS \"idTransacao\", CAST(:saldoInicial AS DECIMAL(20, 2)) + SUM(CASE WHEN p.\"natureza\" = 1 " +
+            "THEN -p.\"valor\" ELSE p.\"valor\" END) OVER (ORDER BY p.\"data_transferencia\", p.\"id\") AS \"saldo\" " +
+            "FROM (SELECT * FROM \"transferencia\" t WHERE t.\"conta_id\" = :contaId";
+    String EXTRATO_FIM = " ORDER BY t.\"data_transferencia\", t.\"id\" LIMIT :limite) p ORDER BY p.\"data_transferencia\", p.\"id\"";
 
-    Page<TransferenciaEntity> findByNomeOperadorTransacaoAndDataTransferenciaBetween(final Pageable pageable, final String nomeOperador, final LocalDateTime dataInicial, final LocalDateTime dataFinal);
+    @Override
+    @EntityGraph(attributePaths = "conta")
+    Page<TransferenciaEntity> findAll(final Pageable pageable);
 
-    @Query("SELECT SUM(t.valor) FROM TransferenciaEntity t WHERE t.dataTransferencia BETWEEN :startDate AND :endDate AND t.tipo <> 1")
-    BigDecimal sumValorByDataTransferenciaBetween(@Param("startDate") final LocalDateTime startDate, @Param("endDate") final LocalDateTime endDate);
+    @Query(value = LISTAGEM + " WHERE t.nomeOperadorTransacao = :nomeOperador",
+            countQuery = CONTAGEM + " WHERE t.nomeOperadorTransacao = :nomeOperador")
+    Page<TransferenciaEntity> findByNomeOperadorTransacao(final Pageable pageable, @Param("nomeOperador") final String nomeOperadorTransacao);
 
-    @Query("SELECT SUM(t.valor) FROM TransferenciaEntity t WHERE t.conta.id = :operador AND t.tipo <> 1")
-    BigDecimal sumValorByOperadorTransacao(@Param("operador") final int operador);
-}
\ No newline at end of file
+    @Query(value = LISTAGEM + " WHERE t.conta.id = :contaId", countQuery = CONTAGEM + " WHERE t.conta.id = :contaId")
+    Page<TransferenciaEntity> findByContaId(final Pageable pageable, @Param("contaId") final Integer contaId);
+
+    @Query(value = LISTAGEM + " WHERE t.dataTransferencia BETWEEN :dataInicial AND :dataFinal",
+            countQuery = CONTAGEM + " WHERE t.dataTransferencia BETWEEN :dataInicial AND :dataFinal")
+    Page<TransferenciaEntity> findByDataTransferenciaBetween(final Pageable pageable, @Param("dataInicial") final LocalDateTime dataInicial,
+                                                             @Param("dataFinal") final LocalDateTime dataFinal);
+
+    // Paginacao por cursor na ordem (dataTransferencia, id): a primeira pagina e as seguintes, a partir do ultimo item entregue.
+    // O Pageable so limita a quantidade de linhas; nao ha OFFSET nem COUNT.
+    @EntityGraph(attributePaths = "conta")
+    List<TransferenciaEntity> findByOrderByDataTransferenciaAscIdAsc(final Pageable limite);
+
+    @Query(LISTAGEM + " WHERE " + APOS_CURSOR + " ORDER BY t.dataTransferencia, t.id")
+    List<TransferenciaEntity> findAposCursor(final Pageable limite, @Param("data") final LocalDateTime data, @Param("id") final int id);
+
+    @EntityGraph(attributePaths = "conta")
+    List<TransferenciaEntity> findByDataTransferenciaBetweenOrderByDataTransferenciaAscIdAsc(final Pageable limite, final LocalDateTime dataInicial, final LocalDateTime dataFinal);
+
+    @Query(LISTAGEM + " WHERE t.dataTransferencia BETWEEN :dataInicial AND :dataFinal AND " + APOS_CURSOR +
+            " ORDER BY t.dataTransferencia, t.id")
+    List<TransferenciaEntity> findByDataTransferenciaBetweenAposCursor(final Pageable limite, @Param("dataInicial") final LocalDateTime dataInicial,
+                                                                       @Param("dataFinal") final LocalDateTime dataFinal,
+                                                                       @Param("data") final LocalDateTime data, @Param("id") final int id);
+
+    // Filtra pela coluna conta_id; a consulta derivada filtraria pelo id da conta juntada e leria o indice de datas inteiro
+    @Query(LISTAGEM + " WHERE t.conta.id = :contaId ORDER BY t.dataTransferencia, t.id")
+    List<TransferenciaEntity> findByContaIdOrderByDataTransferenciaAscIdAsc(final Pageable limite, @Param("contaId") final Integer contaId);
+
+    @Query(LISTAGEM + " WHERE t.conta.id = :contaId AND " + APOS_CURSOR + " ORDER BY t.dataTransferencia, t.id")
+    List<TransferenciaEntity> findByContaIdAposCursor(final Pageable limite, @Param("contaId") final Integer contaId,
+                                                      @Param("data") final LocalDateTime data, @Param("id") final int id);
+
+    // Exportacao do historico da conta: o Stream percorre o resultado do banco em lotes de TAMANHO_LOTE_EXPORTACAO linhas,
+    // sem OFFSET nem COUNT, e a projecao nao passa pelo contexto de persistencia, que cresceria a cada linha lida
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = TAMANHO_LOTE_EXPORTACAO))
+    @Query("SELECT t.dataTransferencia AS dataTransferencia, t.valor AS valor, t.tipo AS tipo, t.natureza AS natureza, " +
+            "t.nomeOperadorTransacao AS nomeOperadorTransacao, t.idTransacao AS idTransacao " +
+            "FROM TransferenciaEntity t WHERE t.conta.id = :contaId ORDER BY t.dataTransferencia, t.id")
+    Stream<TransferenciaExportacaoProjection> streamByContaId(@Param("contaId") final int contaId);
+
+    @Query(value = EXTRATO_INICIO + EXTRATO_FIM, nativeQuery = true)
+    List<LancamentoExtratoProjection> findExtratoByContaId(@Param("contaId") final int contaId, @Param("saldoInicial") final BigDecimal saldoInicial,
+                                                           @Param("limite") final int limite);
+
+    @Query(value = EXTRATO_INICIO + " AND t.\"data_transferencia\" >= :data AND (t.\"data_transferencia\" > :data OR t.\"id\" > :id)" +
+            EXTRATO_FIM, nativeQuery = true)
+    List<LancamentoExtratoProjection> findExtratoByContaIdAposCursor(@Param("contaId") final int contaId, @Param("data") final LocalDateTime data,
+                                                                     @Param("id") final int id, @Param("saldoInicial") final BigDecimal saldoInicial,
+                                                                     @Param("limite") final int limite);
+
+    @Query("SELECT SUM(t.valor) FROM TransferenciaEntity t WHERE t.dataTransferencia BETWEEN :startDate AND :endDate AND t.natureza = 0")
+    Dinheiro sumValorByDataTransferenciaBetween(@Param("startDate") final LocalDateTime startDate, @Param("endDate") final LocalDateTime endDate);
+
+    @Query("SELECT SUM(t.valor) FROM TransferenciaEntity t WHERE t.dataTransferencia >= :inicio AND t.dataTransferencia < :fim AND t.natureza = 0")
+    Dinheiro sumValorCreditosEntre(@Param("inicio") final LocalDateTime inicio, @Param("fim") final LocalDateTime fim);
+
+    @Query("SELECT YEAR(t.dataTransferencia) AS ano, MONTH(t.dataTransferencia) AS mes, DAY(t.dataTransferencia) AS dia, " +
+            "t.tipo AS tipo, t.conta.id AS contaId, SUM(t.valor) AS total FROM TransferenciaEntity t WHERE t.natureza = 0 " +
+            "GROUP BY YEAR(t.dataTransferencia), MONTH(t.dataTransferencia), DAY(t.dataTransferencia), t.tipo, t.conta.id")
+    List<TotalDiarioContaProjection> sumValorCreditosGroupByDiaTipoEConta();
+
+    @Query("SELECT YEAR(t.dataTransferencia) AS ano, MONTH(t.dataTransferencia) AS mes, DAY(t.dataTransferencia) AS dia, " +
+            "HOUR(t.dataTransferencia) AS hora, MINUTE(t.dataTransferencia) AS minuto, COUNT(t) AS quantidade, SUM(t.valor) AS total " +
+            "FROM TransferenciaEntity t WHERE t.natureza = 0 AND t.dataTransferencia >= :inicio AND t.dataTransferencia < :fim " +
+            "GROUP BY YEAR(t.dataTransferencia), MONTH(t.dataTransferencia), DAY(t.dataTransferencia), " +
+            "HOUR(t.dataTransferencia), MINUTE(t.dataTransferencia)")
+    List<TotalPorMinutoProjection> sumValorCreditosGroupByMinutoEntre(@Param("inicio") final LocalDateTime inicio, @Param("fim") final LocalDateTime fim);
+
+    @Query("SELECT SUM(CASE WHEN t.natureza = 1 THEN -t.valor ELSE t.valor END) FROM TransferenciaEntity t WHERE t.conta.id = :operador")
+    Dinheiro sumValorByOperadorTransacao(@Param("operador") final int operador);
+
+    @Query("SELECT t.conta.id AS contaId, SUM(CASE WHEN t.natureza = 1 THEN -t.valor ELSE t.valor END) AS saldo " +
+            "FROM TransferenciaEntity t GROUP BY t.conta.id")
+    List<SaldoContaProjection> sumValorGroupByConta();
+
+    @Query("SELECT t.conta.id AS contaId, SUM(CASE WHEN t.natureza = 1 THEN -t.valor ELSE t.valor END) AS saldo " +
+            "FROM TransferenciaEntity t WHERE t.dataTransferencia >= :inicio AND t.dataTransferencia < :fim GROUP BY t.conta.id")
+    List<SaldoContaProjection> sumValorGroupByContaEntreDatas(@Param("inicio") final LocalDateTime inicio, @Param("fim") final LocalDateTime fim);
+
+    @Query("SELECT SUM(CASE WHEN t.natureza = 1 THEN -t.valor ELSE t.valor END) FROM TransferenciaEntity t " +
+            "WHERE t.conta.id = :conta AND t.dataTransferencia <= :instante")
+    Dinheiro sumValorByContaAte(@Param("conta") final int conta, @Param("instante") final LocalDateTime instante);
+
+    @Query("SELECT SUM(CASE WHEN t.natureza = 1 THEN -t.valor ELSE t.valor END) FROM TransferenciaEntity t " +
+            "WHERE t.conta.id = :conta AND t.dataTransferencia >= :inicio AND t.dataTransferencia <= :instante")
+    Dinheiro sumValorByContaEntre(@Param("conta") final int conta, @Param("inicio") final LocalDateTime inicio,
+                                  @Param("instante") final LocalDateTime instante);
+
+    @Query("SELECT SUM(CASE WHEN t.natureza = 1 THEN -t.valor ELSE t.valor END) FROM TransferenciaEntity t " +
+            "WHERE t.conta.id = :conta AND " + ATE_LANCAMENTO)
+    Dinheiro sumValorByContaAteLancamento(@Param("conta") final int conta, @Param("data") final LocalDateTime data, @Param("id") final int id);
+
+    @Query("SELECT SUM(CASE WHEN t.natureza = 1 THEN -t.valor ELSE t.valor END) FROM TransferenciaEntity t " +
+            "WHERE t.conta.id = :conta AND t.dataTransferencia >= :inicio AND " + ATE_LANCAMENTO)
+    Dinheiro sumValorByContaEntreInicioELancamento(@Param("conta") final int conta, @Param("inicio") final LocalDateTime inicio,
+                                                  @Param("data") final LocalDateTime data, @Param("id") final int id);
+
+    @Query("SELECT MIN(t.dataTransferencia) FROM TransferenciaEntity t")
+    Optional<LocalDateTime> obterPrimeiraDataTransferencia();
+
+    @Query("SELECT MIN(t.dataTransferencia) FROM TransferenciaEntity t WHERE t.dataTransferencia >= :inicio")
+    Optional<LocalDateTime> obterPrimeiraDataTransferenciaAPartirDe(@Param("inicio") final LocalDateTime inicio);
+
+    // Lancamentos recuperados do journal que ja chegaram ao banco (ver JournalLancamentosMapeado)
+    @Query("SELECT t.idTransacao FROM TransferenciaEntity t WHERE t.dataTransferencia BETWEEN :inicio AND :fim")
+    List<String> findIdsTransacaoEntre(@Param("inicio") final LocalDateTime inicio, @Param("fim") final LocalDateTime fim);
+}
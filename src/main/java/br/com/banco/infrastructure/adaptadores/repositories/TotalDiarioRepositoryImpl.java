@@ -0,0 +1,248 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.repositories.ITotalDiarioRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.TotalDiarioContaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.TotalDiarioEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.TotalPorTipoProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Totais diarios dos lancamentos de credito, com a mesma regra de
+ * {@link SpringTransferenciaRepository#sumValorByDataTransferenciaBetween}.
+ * <p>
+ * Cada lancamento incrementa {@code total_diario_conta}; os dias encerrados sao consolidados em ordem em
+ * {@code total_diario}, uma linha por dia e tipo, inclusive os dias e tipos sem lancamentos. Todo dia entre o
+ * primeiro e o ultimo de {@code total_diario} esta consolidado, e os demais dias sao lidos de {@code total_diario_conta}.
+ * <p>
+ * Lancamentos em dias ja encerrados seguram o bloqueio compartilhado ate o fim da transacao, e a consolidacao e a
+ * reconstrucao, o exclusivo: um dia nao e consolidado enquanto houver incremento dele ainda sem commit.
+ */
+@Component
+public class TotalDiarioRepositoryImpl implements ITotalDiarioRepositoryPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TotalDiarioRepositoryImpl.class);
+
+    // Limite superior da comparacao com os lancamentos, que nao tem data maxima
+    private static final LocalDateTime LIMITE_LANCAMENTOS = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private final ReadWriteLock consolidacao = new ReentrantReadWriteLock();
+
+    private final SpringTotalDiarioContaRepository totalDiarioContaRepository;
+    private final SpringTotalDiarioRepository totalDiarioRepository;
+    private final SpringTransferenciaRepository transferenciaRepository;
+
+    public TotalDiarioRepositoryImpl(SpringTotalDiarioContaRepository totalDiarioContaRepository,
+                                     SpringTotalDiarioRepository totalDiarioRepository,
+                                     SpringTransferenciaRepository transferenciaRepository) {
+        this.totalDiarioContaRepository = totalDiarioContaRepository;
+        this.totalDiarioRepository = totalDiarioRepository;
+        this.transferenciaRepository = transferenciaRepository;
+    }
+
+    @Override
+    public void aplicarLancamento(final Transferencia transferencia) {
+        if (transferencia.getNatureza() != NaturezaLancamento.CREDITO) {
+            return;
+        }
+
+        LocalDate dia = transferencia.getDataTransferencia().toLocalDate();
+        bloquearSeDiaEncerrado(dia);
+        int contaId = transferencia.getContaId().getId();
+        int atualizados = totalDiarioContaRepository.incrementarTotal(dia, transferencia.getTipo(), contaId, transferencia.getValor());
+
+        if (atualizados == 0) {
+            // A conta esta bloqueada pelo controle de concorrencia, entao ninguem mais cria esta linha ao mesmo tempo
+            totalDiarioContaRepository.save(new TotalDiarioContaEntity(dia, transferencia.getTipo(), contaId, transferencia.getValor()));
+        }
+
+        // Lancamento com data retroativa em um dia ja consolidado, que tem linha para todos os tipos
+        if (diaConsolidado(dia)) {
+            totalDiarioRepository.incrementarTotal(dia, transferencia.getTipo(), transferencia.getValor());
+        }
+    }
+
+    @Override
+    public void aplicarLancamentos(final List<Transferencia> lancamentos) {
+        lancamentos.stream()
+                .filter(lancamento -> lancamento.getNatureza() == NaturezaLancamento.CREDITO)
+                .collect(Collectors.groupingBy(lancamento -> Arrays.asList(lancamento.getDataTransferencia().toLocalDate(),
+                        lancamento.getTipo(), lancamento.getContaId().getId()), LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(grupo -> aplicarLancamento(grupo.size() == 1 ? grupo.get(0) : somar(grupo)));
+    }
+
+    @Override
+    public void estornarLancamento(final Transferencia transferencia) {
+        if (transferencia.getNatureza() != NaturezaLancamento.CREDITO) {
+            return;
+        }
+
+        LocalDate dia = transferencia.getDataTransferencia().toLocalDate();
+        bloquearSeDiaEncerrado(dia);
+        Dinheiro valor = transferencia.getValor().negar();
+        totalDiarioContaRepository.incrementarTotal(dia, transferencia.getTipo(), transferencia.getContaId().getId(), valor);
+
+        if (diaConsolidado(dia)) {
+            totalDiarioRepository.incrementarTotal(dia, transferencia.getTipo(), valor);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obterTotalCreditos(final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
+        LOGGER.info("Obtendo total de creditos por periodo pelos totais diarios: {} a {}", dataInicial, dataFinal);
+        // Dias inteiros dentro do periodo saem dos totais diarios; as pontas, da tabela de transferencias
+        LocalDate primeiroDia = dataInicial.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? dataInicial.toLocalDate()
+                : dataInicial.toLocalDate().plusDays(1);
+        LocalDate ultimoDia = dataFinal.toLocalDate().minusDays(1);
+
+        if (primeiroDia.isAfter(ultimoDia)) {
+            return paraBigDecimal(transferenciaRepository.sumValorByDataTransferenciaBetween(dataInicial, dataFinal));
+        }
+
+        Dinheiro total = null;
+        if (dataInicial.isBefore(primeiroDia.atStartOfDay())) {
+            total = somar(total, transferenciaRepository.sumValorCreditosEntre(dataInicial, primeiroDia.atStartOfDay()));
+        }
+
+        // Os dias consolidados do periodo saem de total_diario; os anteriores e os seguintes, de total_diario_conta
+        LocalDate inicioConsolidado = totalDiarioRepository.obterPrimeiroDia()
+                .map(dia -> dia.isAfter(primeiroDia) ? dia : primeiroDia)
+                .orElse(primeiroDia);
+        LocalDate fimConsolidado = totalDiarioRepository.obterUltimoDia()
+                .map(dia -> dia.isBefore(ultimoDia) ? dia : ultimoDia)
+                .orElse(primeiroDia.minusDays(1));
+        if (inicioConsolidado.isAfter(fimConsolidado)) {
+            total = somar(total, totalDiarioContaRepository.sumTotalEntreDias(primeiroDia, ultimoDia));
+        } else {
+            if (inicioConsolidado.isAfter(primeiroDia)) {
+                total = somar(total, totalDiarioContaRepository.sumTotalEntreDias(primeiroDia, inicioConsolidado.minusDays(1)));
+            }
+            total = somar(total, totalDiarioRepository.sumTotalEntreDias(inicioConsolidado, fimConsolidado));
+            if (fimConsolidado.isBefore(ultimoDia)) {
+                total = somar(total, totalDiarioContaRepository.sumTotalEntreDias(fimConsolidado.plusDays(1), ultimoDia));
+            }
+        }
+
+        total = somar(total, transferenciaRepository.sumValorByDataTransferenciaBetween(ultimoDia.plusDays(1).atStartOfDay(), dataFinal));
+        return paraBigDecimal(total);
+    }
+
+    @Override
+    public Optional<LocalDate> obterProximoDiaPendente(final LocalDate limite) {
+        // Os dias sao consolidados sem intervalos, inclusive os sem lancamentos, a partir do primeiro com total por conta
+        return totalDiarioRepository.obterUltimoDia()
+                .map(ultimo -> Optional.of(ultimo.plusDays(1)))
+                .orElseGet(totalDiarioContaRepository::obterPrimeiroDia)
+                .filter(dia -> dia.isBefore(limite));
+    }
+
+    @Override
+    @Transactional
+    public int consolidarDia(final LocalDate dia) {
+        LOGGER.info("Consolidando totais diarios do dia {}", dia);
+        BloqueioTransacao.bloquearAteOFimDaTransacao(consolidacao.writeLock());
+        Map<TipoTransferencia, Dinheiro> somas = totalDiarioContaRepository.sumTotalGroupByTipo(dia).stream()
+                .collect(Collectors.toMap(TotalPorTipoProjection::getTipo, TotalPorTipoProjection::getTotal));
+        List<TotalDiarioEntity> totais = Arrays.stream(TipoTransferencia.values())
+                .map(tipo -> new TotalDiarioEntity(dia, tipo, somas.getOrDefault(tipo, Dinheiro.ZERO)))
+                .collect(Collectors.toList());
+        totalDiarioRepository.saveAll(totais);
+
+        return totais.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean historicoCompleto() {
+        Dinheiro lancado = transferenciaRepository.obterPrimeiraDataTransferencia()
+                .map(inicio -> transferenciaRepository.sumValorCreditosEntre(inicio, LIMITE_LANCAMENTOS))
+                .orElse(null);
+        if (!Objects.equals(zeroSeNulo(lancado), zeroSeNulo(totalDiarioContaRepository.sumTotal()))) {
+            return false;
+        }
+
+        // Consolidacoes anteriores pulavam os dias e tipos sem lancamentos
+        Optional<LocalDate> primeiroConsolidado = totalDiarioRepository.obterPrimeiroDia();
+        return primeiroConsolidado.isEmpty() || totalDiarioRepository.count() == (long) TipoTransferencia.values().length
+                * (ChronoUnit.DAYS.between(primeiroConsolidado.get(), totalDiarioRepository.obterUltimoDia().orElseThrow()) + 1);
+    }
+
+    @Override
+    @Transactional
+    public int reconstruir() {
+        LOGGER.info("Reconstruindo totais diarios pelos lancamentos");
+        BloqueioTransacao.bloquearAteOFimDaTransacao(consolidacao.writeLock());
+        totalDiarioRepository.deleteAllInBatch();
+        totalDiarioContaRepository.deleteAllInBatch();
+
+        List<TotalDiarioContaEntity> totais = transferenciaRepository.sumValorCreditosGroupByDiaTipoEConta().stream()
+                .map(total -> new TotalDiarioContaEntity(LocalDate.of(total.getAno(), total.getMes(), total.getDia()),
+                        total.getTipo(), total.getContaId(), total.getTotal()))
+                .collect(Collectors.toList());
+        totalDiarioContaRepository.saveAll(totais);
+
+        return totais.size();
+    }
+
+    private boolean diaConsolidado(final LocalDate dia) {
+        return totalDiarioRepository.obterPrimeiroDia().filter(primeiro -> !dia.isBefore(primeiro)).isPresent()
+                && totalDiarioRepository.obterUltimoDia().filter(ultimo -> !dia.isAfter(ultimo)).isPresent();
+    }
+
+    // Dias anteriores a hoje podem ser consolidados a qualquer momento; o dia corrente so depois da margem de fechamento
+    private void bloquearSeDiaEncerrado(final LocalDate dia) {
+        if (dia.isBefore(LocalDate.now())) {
+            BloqueioTransacao.bloquearAteOFimDaTransacao(consolidacao.readLock());
+        }
+    }
+
+    private static Dinheiro zeroSeNulo(final Dinheiro valor) {
+        return valor == null ? Dinheiro.ZERO : valor;
+    }
+
+    private static Dinheiro somar(final Dinheiro total, final Dinheiro parcela) {
+        if (parcela == null) {
+            return total;
+        }
+        return total == null ? parcela : total.somar(parcela);
+    }
+
+    // Os lancamentos do grupo tem o mesmo dia, tipo e conta; so o valor e somado
+    private static Transferencia somar(final List<Transferencia> grupo) {
+        Transferencia primeiro = grupo.get(0);
+        Transferencia soma = new Transferencia();
+        soma.setContaId(primeiro.getContaId());
+        soma.setDataTransferencia(primeiro.getDataTransferencia());
+        soma.setTipo(primeiro.getTipo());
+        soma.setNatureza(primeiro.getNatureza());
+        soma.setValor(grupo.stream().map(Transferencia::getValor).reduce(Dinheiro.ZERO, Dinheiro::somar));
+        return soma;
+    }
+
+    private static BigDecimal paraBigDecimal(final Dinheiro valor) {
+        return valor == null ? null : valor.toBigDecimal();
+    }
+}
@@ -1,22 +1,46 @@
 package br.com.banco.infrastructure.adaptadores.repositories;
 
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
 import br.com.banco.application.dtos.TransferenciaDTO;
 import br.com.banco.application.mappers.TransferenciaMapper;
 import br.com.banco.domain.exception.SaldoNaoEncontradoException;
 import br.com.banco.domain.exception.TransferenciaInvalidaException;
 import br.com.banco.domain.exception.TransferenciaNaoEncontradaException;
+import br.com.banco.domain.models.CursorTransferencia;
+import br.com.banco.domain.models.FiltroTransferencia;
 import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IGravacaoEmGrupoPort;
+import br.com.banco.domain.ports.interfaces.IIndiceTemporalPort;
+import br.com.banco.domain.ports.interfaces.IJournalLancamentosPort;
+import br.com.banco.domain.ports.repositories.ICheckpointSaldoRepositoryPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITotalDiarioRepositoryPort;
 import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
 import br.com.banco.infrastructure.adaptadores.persistence.entities.TransferenciaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.LancamentoExtratoProjection;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.TransferenciaExportacaoProjection;
+import br.com.banco.infrastructure.adaptadores.replicacao.LeituraReplica;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class TransferenciaRepositoryImpl implements ITransferenciaRepositoryPort {
@@ -24,13 +48,31 @@ public class TransferenciaRepositoryImpl implements ITransferenciaRepositoryPort
 
     private final SpringTransferenciaRepository transferenciaRepository;
     private final TransferenciaMapper transferenciaMapper;
+    private final ISaldoContaRepositoryPort saldoContaRepository;
+    private final ICheckpointSaldoRepositoryPort checkpointSaldoRepository;
+    private final ITotalDiarioRepositoryPort totalDiarioRepository;
+    private final IIndiceTemporalPort indiceTemporal;
+    private final IJournalLancamentosPort journal;
+    private final IGravacaoEmGrupoPort gravacaoEmGrupo;
+    private final EntityManager entityManager;
 
-    public TransferenciaRepositoryImpl(SpringTransferenciaRepository transferenciaRepository, TransferenciaMapper transferenciaMapper) {
+    public TransferenciaRepositoryImpl(SpringTransferenciaRepository transferenciaRepository, TransferenciaMapper transferenciaMapper,
+                                       ISaldoContaRepositoryPort saldoContaRepository, ICheckpointSaldoRepositoryPort checkpointSaldoRepository,
+                                       ITotalDiarioRepositoryPort totalDiarioRepository, IIndiceTemporalPort indiceTemporal,
+                                       IJournalLancamentosPort journal, IGravacaoEmGrupoPort gravacaoEmGrupo, EntityManager entityManager) {
         this.transferenciaRepository = transferenciaRepository;
         this.transferenciaMapper = transferenciaMapper;
+        this.saldoContaRepository = saldoContaRepository;
+        this.checkpointSaldoRepository = checkpointSaldoRepository;
+        this.totalDiarioRepository = totalDiarioRepository;
+        this.indiceTemporal = indiceTemporal;
+        this.journal = journal;
+        this.gravacaoEmGrupo = gravacaoEmGrupo;
+        this.entityManager = entityManager;
     }
 
     @Override
+    @LeituraReplica
     public Page<TransferenciaDTO> obterTodasTransferencias(final Pageable pageable) {
         try {
             LOGGER.info("Obtendo todas as transferencias");
@@ -48,6 +90,7 @@ public class TransferenciaRepositoryImpl implements ITransferenciaRepositoryPort
     }
 
     @Override
+    @LeituraReplica
     public Optional<Transferencia> obterTransferenciaPorId(final int id) {
         try {
             LOGGER.info("Obtendo transferência por ID: {}", id);
@@ -65,6 +108,7 @@ public class TransferenciaRepositoryImpl implements ITransferenciaRepositoryPort
     }
 
     @Override
+    @LeituraReplica
     public Page<TransferenciaDTO> obterTransferenciasPorPeriodo(final Pageable pageable, final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
         try {
             LOGGER.info("Obtendo transferências por período: {} a {}", dataInicial, dataFinal);
@@ -82,23 +126,15 @@ public class TransferenciaRepositoryImpl implements ITransferenciaRepositoryPort
     }
 
     @Override
-    public Page<TransferenciaDTO> obterTransferenciasPorOperadorEData(final Pageable pageable, final String nomeOperador, final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
-        try {
-            LOGGER.info("Obtendo transferências por operador: {} e período: {} a {}", nomeOperador, dataInicial, dataFinal);
-            Page<TransferenciaEntity> transferenciaEntities = transferenciaRepository.findByNomeOperadorTransacaoAndDataTransferenciaBetween(pageable, nomeOperador, dataInicial, dataFinal);
-
-            if (transferenciaEntities.isEmpty()) {
-                throw new TransferenciaInvalidaException("Transferencia nao encontrada");
-            }
-
-            return transferenciaMapper.mapToDtoPage(transferenciaEntities);
-        } catch (TransferenciaInvalidaException e) {
-            LOGGER.error("Erro ao obter transferências por operador: {} e período: {} a {}", nomeOperador, dataInicial, dataFinal);
-            throw new TransferenciaInvalidaException("Erro ao obter transferências por operador e período");
-        }
+    @LeituraReplica
+    public Page<TransferenciaDTO> buscarTransferencias(final Pageable pageable, final FiltroTransferencia filtro) {
+        LOGGER.info("Buscando transferências por filtro");
+        Page<TransferenciaEntity> transferenciaEntities = transferenciaRepository.findAll(TransferenciaSpecifications.porFiltro(filtro), pageable);
+        return transferenciaMapper.mapToDtoPage(transferenciaEntities);
     }
 
     @Override
+    @LeituraReplica
     public Page<TransferenciaDTO> obterTransferenciasPorOperador(final Pageable pageable, final String nomeOperador) {
         try {
             LOGGER.info("Obtendo transferências por operador: {}", nomeOperador);
@@ -116,6 +152,7 @@ public class TransferenciaRepositoryImpl implements ITransferenciaRepositoryPort
     }
 
     @Override
+    @LeituraReplica
     public Page<TransferenciaDTO> obterTransferenciasPorConta(final Pageable pageable, final int idConta) {
         try {
             LOGGER.info("Obtendo transferências por conta com ID: {}", idConta);
@@ -132,11 +169,93 @@ public class TransferenciaRepositoryImpl implements ITransferenciaRepositoryPort
         }
     }
 
+    // A transacao mantem a conexao e o cursor do banco abertos enquanto as linhas sao escritas na resposta
+    @Override
+    @LeituraReplica
+    public void exportarTransferenciasPorConta(final int idConta, final Consumer<TransferenciaDTO> consumidor) {
+        LOGGER.info("Exportando transferências da conta com ID: {}", idConta);
+        try (Stream<TransferenciaExportacaoProjection> linhas = transferenciaRepository.streamByContaId(idConta)) {
+            linhas.map(transferenciaMapper::mapExportacaoToDto).forEach(consumidor);
+        }
+    }
+
+    @Override
+    @LeituraReplica
+    public PaginaCursorDTO<TransferenciaDTO> obterTodasTransferenciasAposCursor(final CursorTransferencia cursor, final int tamanho) {
+        LOGGER.info("Obtendo todas as transferências por cursor");
+        Pageable limite = limite(tamanho);
+        return paginar(cursor == null
+                ? transferenciaRepository.findByOrderByDataTransferenciaAscIdAsc(limite)
+                : transferenciaRepository.findAposCursor(limite, cursor.getDataTransferencia(), cursor.getId()), tamanho);
+    }
+
+    @Override
+    @LeituraReplica
+    public PaginaCursorDTO<TransferenciaDTO> obterTransferenciasPorPeriodoAposCursor(final CursorTransferencia cursor, final int tamanho,
+                                                                                    final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
+        LOGGER.info("Obtendo transferências por período por cursor: {} a {}", dataInicial, dataFinal);
+        Pageable limite = limite(tamanho);
+        return paginar(cursor == null
+                ? transferenciaRepository.findByDataTransferenciaBetweenOrderByDataTransferenciaAscIdAsc(limite, dataInicial, dataFinal)
+                : transferenciaRepository.findByDataTransferenciaBetweenAposCursor(limite, dataInicial, dataFinal,
+                cursor.getDataTransferencia(), cursor.getId()), tamanho);
+    }
+
+    @Override
+    @LeituraReplica
+    public PaginaCursorDTO<TransferenciaDTO> buscarTransferenciasAposCursor(final CursorTransferencia cursor, final int tamanho,
+                                                                           final FiltroTransferencia filtro) {
+        LOGGER.info("Buscando transferências por filtro e cursor");
+        Specification<TransferenciaEntity> especificacao = TransferenciaSpecifications.porFiltro(filtro);
+        if (cursor != null) {
+            especificacao = especificacao.and(TransferenciaSpecifications.aposCursor(cursor));
+        }
+
+        // Direto pelo EntityManager: o findAll paginado do Spring Data faria um COUNT a cada pagina cheia
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransferenciaEntity> query = cb.createQuery(TransferenciaEntity.class);
+        Root<TransferenciaEntity> root = query.from(TransferenciaEntity.class);
+        query.where(especificacao.toPredicate(root, query, cb));
+        query.orderBy(cb.asc(root.get("dataTransferencia")), cb.asc(root.get("id")));
+        return paginar(entityManager.createQuery(query).setMaxResults(tamanho + 1).getResultList(), tamanho);
+    }
+
+    @Override
+    @LeituraReplica
+    public PaginaCursorDTO<TransferenciaDTO> obterTransferenciasPorContaAposCursor(final CursorTransferencia cursor, final int tamanho, final int idConta) {
+        LOGGER.info("Obtendo transferências por conta com ID por cursor: {}", idConta);
+        Pageable limite = limite(tamanho);
+        return paginar(cursor == null
+                ? transferenciaRepository.findByContaIdOrderByDataTransferenciaAscIdAsc(limite, idConta)
+                : transferenciaRepository.findByContaIdAposCursor(limite, idConta, cursor.getDataTransferencia(), cursor.getId()), tamanho);
+    }
+
+    @Override
+    @LeituraReplica
+    public PaginaCursorDTO<LancamentoExtratoDTO> obterExtratoPorContaAposCursor(final CursorTransferencia cursor, final int tamanho, final int idConta) {
+        LOGGER.info("Obtendo extrato da conta com ID por cursor: {}", idConta);
+        // O saldo inicial da pagina e o saldo logo apos o lancamento do cursor, recalculado aqui e nao levado no token
+        List<LancamentoExtratoProjection> linhas = cursor == null
+                ? transferenciaRepository.findExtratoByContaId(idConta, BigDecimal.ZERO, tamanho + 1)
+                : transferenciaRepository.findExtratoByContaIdAposCursor(idConta, cursor.getDataTransferencia(), cursor.getId(),
+                checkpointSaldoRepository.obterSaldoAteLancamento(idConta, cursor), tamanho + 1);
+
+        if (linhas.size() <= tamanho) {
+            return new PaginaCursorDTO<>(mapExtrato(linhas), null);
+        }
+
+        List<LancamentoExtratoProjection> pagina = linhas.subList(0, tamanho);
+        LancamentoExtratoProjection ultima = pagina.get(tamanho - 1);
+        return new PaginaCursorDTO<>(mapExtrato(pagina), new CursorTransferencia(ultima.getDataTransferencia(), ultima.getId()).codificar());
+    }
+
     @Override
+    @LeituraReplica
     public BigDecimal obterSaldoTotalPorPeriodo(final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
         try {
             LOGGER.info("Obtendo saldo total por periodo: {} a {}", dataInicial, dataFinal);
-            return transferenciaRepository.sumValorByDataTransferenciaBetween(dataInicial, dataFinal);
+            return indiceTemporal.obterTotalCreditos(dataInicial, dataFinal)
+                    .orElseGet(() -> totalDiarioRepository.obterTotalCreditos(dataInicial, dataFinal));
         } catch (SaldoNaoEncontradoException e) {
             LOGGER.error("Erro ao obter saldo total por periodo: {} a {}", dataInicial, dataFinal);
             throw new SaldoNaoEncontradoException("Erro ao obter saldo total por periodo");
@@ -144,22 +263,50 @@ public class TransferenciaRepositoryImpl implements ITransferenciaRepositoryPort
     }
 
     @Override
+    @LeituraReplica
     public BigDecimal obterSaldoTotalPorNumeroConta(final int numeroConta) {
         try {
             LOGGER.info("Obtendo saldo total por operador: {}", numeroConta);
-            return transferenciaRepository.sumValorByOperadorTransacao(numeroConta);
+            return saldoContaRepository.obterSaldo(numeroConta);
         } catch (SaldoNaoEncontradoException e) {
             LOGGER.error("Erro ao obter saldo total por operador: {}", numeroConta);
             throw new SaldoNaoEncontradoException("Erro ao obter saldo total por operador");
         }
     }
 
+    @Override
+    public String obterVersaoConta(final int idConta) {
+        LOGGER.info("Obtendo versão da conta com ID: {}", idConta);
+        return saldoContaRepository.obterVersao(idConta);
+    }
+
     @Override
     public void salvar(final Transferencia transferencia) {
+        // Com o journal ligado, o lancamento chega ao banco depois, pelo AgendadorJournalLancamentos; com a gravacao
+        // em grupo, no commit do grupo, antes de gravar retornar
+        if (!journal.registrar(transferencia) && !gravacaoEmGrupo.gravar(transferencia)) {
+            salvarLancamentos(List.of(transferencia));
+        }
+    }
+
+    @Override
+    public void salvarLancamentos(final List<Transferencia> lancamentos) {
         try {
-            LOGGER.info("Salvando transferência");
-            TransferenciaEntity transferenciaEntity = transferenciaMapper.mapModelToEntity(transferencia);
-            transferenciaRepository.save(transferenciaEntity);
+            LOGGER.info("Salvando {} lançamento(s)", lancamentos.size());
+            List<TransferenciaEntity> entidades = lancamentos.stream()
+                    .map(transferenciaMapper::mapModelToEntity)
+                    .collect(Collectors.toList());
+            // Os IDs vem da sequencia, entao os inserts so sao enviados no flush, juntos em um unico batch
+            transferenciaRepository.saveAll(entidades);
+            // Saldo e totais diarios recebem um UPDATE por conta (e dia e tipo), e nao um por lancamento
+            saldoContaRepository.aplicarLancamentos(lancamentos);
+            totalDiarioRepository.aplicarLancamentos(lancamentos);
+            lancamentos.forEach(indiceTemporal::registrarLancamento);
+            // Lancamento com data retroativa em um dia que ja tem checkpoint
+            lancamentos.stream()
+                    .map(lancamento -> lancamento.getDataTransferencia().toLocalDate())
+                    .min(Comparator.naturalOrder())
+                    .ifPresent(checkpointSaldoRepository::invalidarPorLancamento);
         } catch (TransferenciaInvalidaException e) {
             LOGGER.error("Erro ao salvar transferência");
             throw new TransferenciaInvalidaException("Erro ao salvar transferência");
@@ -172,9 +319,41 @@ public class TransferenciaRepositoryImpl implements ITransferenciaRepositoryPort
             LOGGER.info("Deletando transferência com ID: {}", transferencia.getId());
             TransferenciaEntity transferenciaEntity = transferenciaMapper.mapModelToEntity(transferencia);
             transferenciaRepository.delete(transferenciaEntity);
+            saldoContaRepository.estornarLancamento(transferencia);
+            totalDiarioRepository.estornarLancamento(transferencia);
+            indiceTemporal.removerLancamento(transferencia);
+            // Os checkpoints a partir do dia do lancamento ja o incluem; o proximo ciclo os regrava
+            checkpointSaldoRepository.invalidarPorLancamento(transferencia.getDataTransferencia().toLocalDate());
         } catch (TransferenciaInvalidaException e) {
             LOGGER.error("Erro ao deletar transferência com ID: {}", transferencia.getId());
             throw new TransferenciaInvalidaException("Erro ao deletar transferência com ID: " + transferencia.getId());
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void registrarLancamentosImportados(final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
+        LOGGER.info("Descartando checkpoints e indice temporal depois da importacao de lancamentos de {} a {}", dataInicial, dataFinal);
+        checkpointSaldoRepository.invalidarAPartirDe(dataInicial.toLocalDate());
+        indiceTemporal.carregar();
+    }
+
+    // Busca um item a mais para saber se existe proxima pagina sem precisar de COUNT
+    private static Pageable limite(final int tamanho) {
+        return PageRequest.of(0, tamanho + 1);
+    }
+
+    private List<LancamentoExtratoDTO> mapExtrato(final List<LancamentoExtratoProjection> linhas) {
+        return linhas.stream().map(transferenciaMapper::mapExtratoToDto).collect(Collectors.toList());
+    }
+
+    private PaginaCursorDTO<TransferenciaDTO> paginar(final List<TransferenciaEntity> entidades, final int tamanho) {
+        if (entidades.size() <= tamanho) {
+            return new PaginaCursorDTO<>(transferenciaMapper.mapEntityListToDtoList(entidades), null);
+        }
+
+        List<TransferenciaEntity> pagina = entidades.subList(0, tamanho);
+        TransferenciaEntity ultima = pagina.get(tamanho - 1);
+        return new PaginaCursorDTO<>(transferenciaMapper.mapEntityListToDtoList(pagina),
+                new CursorTransferencia(ultima.getDataTransferencia(), ultima.getId()).codificar());
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.domain.models.CursorTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.FiltroTransferencia;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.TransferenciaEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monta a busca de transferências a partir de um {@link FiltroTransferencia}: um único {@code WHERE} com as condições
+ * informadas, todas comparações diretas de coluna para que o banco use o índice do filtro mais seletivo. Os valores
+ * vão como parâmetros (ver {@code literal_handling_mode}), então o SQL só muda com o conjunto de filtros usado.
+ */
+final class TransferenciaSpecifications {
+
+    private TransferenciaSpecifications() {
+    }
+
+    static Specification<TransferenciaEntity> porFiltro(final FiltroTransferencia filtro) {
+        return (root, query, cb) -> {
+            // Na listagem traz a conta no mesmo SELECT, como LISTAGEM; a consulta de contagem (Long) nao pode ter fetch
+            if (!Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                root.fetch("conta", JoinType.LEFT);
+            }
+
+            List<Predicate> condicoes = new ArrayList<>();
+            if (filtro.getIdConta() != null) {
+                condicoes.add(cb.equal(root.get("conta").get("id"), filtro.getIdConta()));
+            }
+            if (filtro.getNomeOperador() != null) {
+                condicoes.add(cb.equal(root.get("nomeOperadorTransacao"), filtro.getNomeOperador()));
+            }
+            if (filtro.getTipo() != null) {
+                condicoes.add(cb.equal(root.get("tipo"), filtro.getTipo()));
+            }
+            if (filtro.getDataInicial() != null) {
+                condicoes.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("dataTransferencia"), filtro.getDataInicial()));
+            }
+            if (filtro.getDataFinal() != null) {
+                condicoes.add(cb.lessThanOrEqualTo(root.<LocalDateTime>get("dataTransferencia"), filtro.getDataFinal()));
+            }
+            if (filtro.getValorMinimo() != null) {
+                condicoes.add(cb.greaterThanOrEqualTo(root.<Dinheiro>get("valor"), filtro.getValorMinimo()));
+            }
+            if (filtro.getValorMaximo() != null) {
+                condicoes.add(cb.lessThanOrEqualTo(root.<Dinheiro>get("valor"), filtro.getValorMaximo()));
+            }
+            return cb.and(condicoes.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Transferências depois do cursor na ordem (dataTransferencia, id), na mesma forma de
+     * {@link SpringTransferenciaRepository#APOS_CURSOR}.
+     */
+    static Specification<TransferenciaEntity> aposCursor(final CursorTransferencia cursor) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> data = root.get("dataTransferencia");
+            return cb.and(cb.greaterThanOrEqualTo(data, cursor.getDataTransferencia()),
+                    cb.or(cb.greaterThan(data, cursor.getDataTransferencia()), cb.greaterThan(root.<Integer>get("id"), cursor.getId())));
+        };
+    }
+}
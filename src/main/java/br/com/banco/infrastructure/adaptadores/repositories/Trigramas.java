@@ -0,0 +1,46 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Trigramas (trechos de três caracteres) de um texto em minúsculas. Um termo só pode estar contido em um nome se
+ * todos os trigramas do termo estiverem entre os do nome; a busca usa isso para escolher as contas candidatas e
+ * confirma o trecho com {@code LIKE} só nelas.
+ */
+final class Trigramas {
+    static final int TAMANHO = 3;
+
+    private Trigramas() {
+    }
+
+    static String normalizar(final String texto) {
+        return texto.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> extrair(final String texto) {
+        String normalizado = normalizar(texto);
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (int i = 0; i + TAMANHO <= normalizado.length(); i++) {
+            trigramas.add(normalizado.substring(i, i + TAMANHO));
+        }
+        return trigramas;
+    }
+
+    /**
+     * Padrão {@code LIKE} que encontra {@code termo} em qualquer posição, com {@code %}, {@code _} e a barra
+     * escapados por {@code \}.
+     */
+    static String padraoContendo(final String termo) {
+        return "%" + escapar(normalizar(termo)) + "%";
+    }
+
+    static String padraoIniciandoCom(final String prefixo) {
+        return escapar(prefixo) + "%";
+    }
+
+    private static String escapar(final String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -3,40 +3,101 @@ package br.com.banco.infrastructure.config;
 import br.com.banco.application.mappers.ContaMapper;
 import br.com.banco.application.mappers.TransferenciaMapper;
 import br.com.banco.domain.adaptadores.services.ContaServiceImpl;
+import br.com.banco.domain.adaptadores.services.ImportacaoServiceImpl;
+import br.com.banco.domain.adaptadores.services.SaldoContaServiceImpl;
 import br.com.banco.domain.adaptadores.services.TransferenciaServiceImpl;
 import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.IControleConcorrenciaPort;
+import br.com.banco.domain.ports.interfaces.IFiltroContasPort;
+import br.com.banco.domain.ports.interfaces.IGravacaoEmGrupoPort;
+import br.com.banco.domain.ports.interfaces.IIdempotenciaPort;
+import br.com.banco.domain.ports.interfaces.IImportacaoServicePort;
+import br.com.banco.domain.ports.interfaces.IIndiceTemporalPort;
+import br.com.banco.domain.ports.interfaces.IJournalLancamentosPort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
 import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.domain.ports.repositories.ICheckpointSaldoRepositoryPort;
 import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.IImportacaoRepositoryPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITotalDiarioRepositoryPort;
 import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
 import br.com.banco.infrastructure.adaptadores.repositories.ContaRepositoryImpl;
 import br.com.banco.infrastructure.adaptadores.repositories.SpringContaRepository;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringContaTrigramaRepository;
 import br.com.banco.infrastructure.adaptadores.repositories.SpringTransferenciaRepository;
 import br.com.banco.infrastructure.adaptadores.repositories.TransferenciaRepositoryImpl;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.persistence.EntityManager;
+import java.nio.file.Path;
+
 @Configuration
 public class BeanConfiguracao {
 
     @Bean
-    public ITransferenciaServicePort transferenciaServicePort(ITransferenciaRepositoryPort transferenciaRepositoryPort, IContaRepositoryPort contaRepositoryPort, TransferenciaMapper transferenciaMapper) {
-        return new TransferenciaServiceImpl(transferenciaRepositoryPort, transferenciaMapper, contaRepositoryPort);
+    public ITransferenciaServicePort transferenciaServicePort(@Qualifier("transferenciaRepositoryPort") ITransferenciaRepositoryPort transferenciaRepositoryPort,
+                                                              IContaRepositoryPort contaRepositoryPort, TransferenciaMapper transferenciaMapper,
+                                                              IMotorSaldoPort motorSaldoPort,
+                                                              IControleConcorrenciaPort controleConcorrenciaPort,
+                                                              ICheckpointSaldoRepositoryPort checkpointSaldoRepositoryPort,
+                                                              IFiltroContasPort filtroContasPort,
+                                                              IIdempotenciaPort idempotenciaPort) {
+        return new TransferenciaServiceImpl(transferenciaRepositoryPort, transferenciaMapper, contaRepositoryPort, motorSaldoPort,
+                controleConcorrenciaPort, checkpointSaldoRepositoryPort, filtroContasPort, idempotenciaPort);
     }
 
+    // Com banco.cache-saldo.habilitado, o transferenciaRepositoryPort vem de CacheSaldoConfiguracao
     @Bean
-    public ITransferenciaRepositoryPort transferenciaRepositoryPort(SpringTransferenciaRepository transferenciaRepository, TransferenciaMapper transferenciaMapper) {
-        return new TransferenciaRepositoryImpl(transferenciaRepository, transferenciaMapper);
+    @ConditionalOnProperty(name = "banco.cache-saldo.habilitado", havingValue = "false", matchIfMissing = true)
+    public ITransferenciaRepositoryPort transferenciaRepositoryPort(SpringTransferenciaRepository transferenciaRepository, TransferenciaMapper transferenciaMapper,
+                                                                    ISaldoContaRepositoryPort saldoContaRepositoryPort,
+                                                                    ICheckpointSaldoRepositoryPort checkpointSaldoRepositoryPort,
+                                                                    ITotalDiarioRepositoryPort totalDiarioRepositoryPort,
+                                                                    IIndiceTemporalPort indiceTemporalPort,
+                                                                    IJournalLancamentosPort journalLancamentosPort,
+                                                                    IGravacaoEmGrupoPort gravacaoEmGrupoPort,
+                                                                    EntityManager entityManager) {
+        return new TransferenciaRepositoryImpl(transferenciaRepository, transferenciaMapper, saldoContaRepositoryPort, checkpointSaldoRepositoryPort,
+                totalDiarioRepositoryPort, indiceTemporalPort, journalLancamentosPort, gravacaoEmGrupoPort, entityManager);
+    }
+
+    @Bean(initMethod = "completarTotaisDiarios")
+    public ISaldoContaServicePort saldoContaServicePort(ISaldoContaRepositoryPort saldoContaRepositoryPort,
+                                                        ICheckpointSaldoRepositoryPort checkpointSaldoRepositoryPort,
+                                                        ITotalDiarioRepositoryPort totalDiarioRepositoryPort) {
+        return new SaldoContaServiceImpl(saldoContaRepositoryPort, checkpointSaldoRepositoryPort, totalDiarioRepositoryPort);
     }
 
     @Bean
-    public IContaServicePort contaServicePort(@Qualifier("contaRepositoryImpl") IContaRepositoryPort contaRepository, ContaMapper contaMapper) {
+    public IImportacaoServicePort importacaoServicePort(IImportacaoRepositoryPort importacaoRepositoryPort,
+                                                        @Qualifier("transferenciaRepositoryPort") ITransferenciaRepositoryPort transferenciaRepositoryPort,
+                                                        IFiltroContasPort filtroContasPort,
+                                                        IMotorSaldoPort motorSaldoPort,
+                                                        @Value("${banco.importacao.diretorio:importacao}") String diretorio,
+                                                        @Value("${banco.importacao.tamanho-lote:5000}") int tamanhoLote,
+                                                        @Value("${banco.importacao.tamanho-janela-bytes:67108864}") int tamanhoJanela) {
+        return new ImportacaoServiceImpl(importacaoRepositoryPort, transferenciaRepositoryPort, filtroContasPort, motorSaldoPort,
+                Path.of(diretorio), tamanhoLote, tamanhoJanela);
+    }
+
+    // Contas sem trigramas, de antes da busca por nome ou criadas direto no banco, sao indexadas na inicializacao
+    @Bean(initMethod = "indexarNomesPendentes")
+    public IContaServicePort contaServicePort(@Qualifier("contaRepositoryPort") IContaRepositoryPort contaRepository, ContaMapper contaMapper) {
         return new ContaServiceImpl(contaRepository, contaMapper);
     }
 
+    // Com banco.cache-conta.habilitado, o contaRepositoryPort vem de CacheContaConfiguracao
     @Bean
-    public IContaRepositoryPort contaRepositoryPort(SpringContaRepository contaRepository, ContaMapper contaMapper) {
-        return new ContaRepositoryImpl(contaRepository, contaMapper);
+    @ConditionalOnProperty(name = "banco.cache-conta.habilitado", havingValue = "false", matchIfMissing = true)
+    public IContaRepositoryPort contaRepositoryPort(SpringContaRepository contaRepository, SpringContaTrigramaRepository contaTrigramaRepository,
+                                                    ContaMapper contaMapper, IFiltroContasPort filtroContas) {
+        return new ContaRepositoryImpl(contaRepository, contaTrigramaRepository, contaMapper, filtroContas);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.cache.ContaRepositoryCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "banco.cache-conta.habilitado", havingValue = "true")
+public class CacheContaConfiguracao {
+
+    @Bean
+    public IContaRepositoryPort contaRepositoryPort(@Qualifier("contaRepositoryImpl") IContaRepositoryPort contaRepository,
+                                                    MeterRegistry meterRegistry,
+                                                    @Value("${banco.cache-conta.tamanho-maximo:10000}") long tamanhoMaximo,
+                                                    @Value("${banco.cache-conta.expiracao-ms:300000}") long expiracaoMs) {
+        return new ContaRepositoryCache(contaRepository, tamanhoMaximo, Duration.ofMillis(expiracaoMs), Ticker.systemTicker(), meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.adaptadores.services.SaldoContaServiceImpl;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.cache.TransferenciaRepositoryCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "banco.cache-saldo.habilitado", havingValue = "true")
+public class CacheSaldoConfiguracao {
+
+    // As datas dos lancamentos sao gravadas no fuso padrao, entao o "dia atual" tambem e o dele; um dia so e encerrado
+    // depois da mesma margem usada pelos totais diarios
+    @Bean
+    public ITransferenciaRepositoryPort transferenciaRepositoryPort(@Qualifier("transferenciaRepositoryImpl") ITransferenciaRepositoryPort transferenciaRepository,
+                                                                    MeterRegistry meterRegistry,
+                                                                    @Value("${banco.cache-saldo.tamanho-maximo:10000}") long tamanhoMaximo,
+                                                                    @Value("${banco.cache-saldo.expiracao-ms:300000}") long expiracaoMs) {
+        return new TransferenciaRepositoryCache(transferenciaRepository, tamanhoMaximo, Duration.ofMillis(expiracaoMs), Ticker.systemTicker(),
+                Clock.systemDefaultZone(), SaldoContaServiceImpl.MARGEM_FECHAMENTO_DIA, meterRegistry);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import br.com.banco.infrastructure.adaptadores.agendamento.AgendadorCheckpointSaldo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "banco.checkpoint-saldo.habilitado", havingValue = "true", matchIfMissing = true)
+public class CheckpointSaldoConfiguracao {
+
+    @Bean
+    public AgendadorCheckpointSaldo agendadorCheckpointSaldo(ISaldoContaServicePort saldoContaServicePort) {
+        return new AgendadorCheckpointSaldo(saldoContaServicePort);
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.ports.interfaces.IControleConcorrenciaPort;
+import br.com.banco.infrastructure.adaptadores.concorrencia.ControleConcorrenciaOtimista;
+import br.com.banco.infrastructure.adaptadores.concorrencia.ControleConcorrenciaPessimista;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringContaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class ConcorrenciaConfiguracao {
+
+    @Bean
+    @ConditionalOnProperty(name = "banco.concorrencia.estrategia", havingValue = "PESSIMISTA", matchIfMissing = true)
+    public IControleConcorrenciaPort controleConcorrenciaPessimista(SpringContaRepository contaRepository,
+                                                                   PlatformTransactionManager transactionManager,
+                                                                   MeterRegistry meterRegistry) {
+        return new ControleConcorrenciaPessimista(contaRepository, new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banco.concorrencia.estrategia", havingValue = "OTIMISTA")
+    public IControleConcorrenciaPort controleConcorrenciaOtimista(SpringContaRepository contaRepository,
+                                                                 PlatformTransactionManager transactionManager,
+                                                                 MeterRegistry meterRegistry,
+                                                                 @Value("${banco.concorrencia.otimista.tentativas:5}") int tentativas,
+                                                                 @Value("${banco.concorrencia.otimista.espera-inicial-ms:5}") long esperaInicialMs,
+                                                                 @Value("${banco.concorrencia.otimista.espera-maxima-ms:200}") long esperaMaximaMs) {
+        return new ControleConcorrenciaOtimista(contaRepository, new TransactionTemplate(transactionManager), meterRegistry,
+                tentativas, esperaInicialMs, esperaMaximaMs);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.models.Dinheiro;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Lê e escreve {@link Dinheiro} como número JSON com duas casas decimais, sem passar por {@code BigDecimal}.
+ */
+@JsonComponent
+public class DinheiroJsonComponent {
+
+    public static class Serializer extends JsonSerializer<Dinheiro> {
+        @Override
+        public void serialize(Dinheiro dinheiro, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeNumber(dinheiro.toString());
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Dinheiro> {
+        @Override
+        public Dinheiro deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+                return (Dinheiro) contexto.handleUnexpectedToken(Dinheiro.class, parser);
+            }
+            try {
+                return Dinheiro.de(parser.getText().trim());
+            } catch (NumberFormatException | ArithmeticException e) {
+                return (Dinheiro) contexto.handleWeirdStringValue(Dinheiro.class, parser.getText(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.ports.interfaces.IFiltroContasPort;
+import br.com.banco.infrastructure.adaptadores.filtro.FiltroContasBloom;
+import br.com.banco.infrastructure.adaptadores.filtro.FiltroContasDesabilitado;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringContaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FiltroContasConfiguracao {
+
+    @Bean(initMethod = "carregar")
+    @ConditionalOnProperty(name = "banco.filtro-contas.habilitado", havingValue = "true")
+    public IFiltroContasPort filtroContasBloom(SpringContaRepository contaRepository, MeterRegistry meterRegistry,
+                                               @Value("${banco.filtro-contas.capacidade-inicial:100000}") long capacidadeInicial,
+                                               @Value("${banco.filtro-contas.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+        return new FiltroContasBloom(contaRepository, capacidadeInicial, taxaFalsoPositivo, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banco.filtro-contas.habilitado", havingValue = "false", matchIfMissing = true)
+    public IFiltroContasPort filtroContasDesabilitado() {
+        return new FiltroContasDesabilitado();
+    }
+}
@@ -60,6 +60,30 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return handleExceptionInternal(ex, message, new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
     }
 
+    @ExceptionHandler(ConflitoConcorrenciaException.class)
+    public ResponseEntity<Object> handleConflitoConcorrenciaException(ConflitoConcorrenciaException ex, WebRequest request) {
+        String message = "Conflito de concorrencia na conta";
+        return handleExceptionInternal(ex, message, new HttpHeaders(), HttpStatus.CONFLICT, request);
+    }
+
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<Object> handleCursorInvalidoException(CursorInvalidoException ex, WebRequest request) {
+        String message = "Cursor invalido";
+        return handleExceptionInternal(ex, message, new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
+    }
+
+    @ExceptionHandler(ChaveIdempotenciaInvalidaException.class)
+    public ResponseEntity<Object> handleChaveIdempotenciaInvalidaException(ChaveIdempotenciaInvalidaException ex, WebRequest request) {
+        String message = "Chave de idempotencia invalida";
+        return handleExceptionInternal(ex, message, new HttpHeaders(), HttpStatus.UNPROCESSABLE_ENTITY, request);
+    }
+
+    @ExceptionHandler(ImportacaoInvalidaException.class)
+    public ResponseEntity<Object> handleImportacaoInvalidaException(ImportacaoInvalidaException ex, WebRequest request) {
+        String message = "Importacao invalida";
+        return handleExceptionInternal(ex, message, new HttpHeaders(), HttpStatus.UNPROCESSABLE_ENTITY, request);
+    }
+
     @Override
     protected ResponseEntity<Object> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers, HttpStatus status, WebRequest request) {
         String message = "Houve um erro ao processar sua requisição, tente novamente em instantes ou acione nosso suporte!";
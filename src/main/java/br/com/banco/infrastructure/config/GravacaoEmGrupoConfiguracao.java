@@ -0,0 +1,53 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.ports.interfaces.IGravacaoEmGrupoPort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.agendamento.GravadorGrupoLancamentos;
+import br.com.banco.infrastructure.adaptadores.gravacao.GravacaoEmGrupoDesabilitada;
+import br.com.banco.infrastructure.adaptadores.gravacao.GravacaoEmGrupoLancamentos;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class GravacaoEmGrupoConfiguracao {
+
+    @Bean(destroyMethod = "encerrar")
+    @ConditionalOnProperty(name = "banco.gravacao-grupo.habilitado", havingValue = "true")
+    public IGravacaoEmGrupoPort gravacaoEmGrupoLancamentos(EntityManager entityManager, MeterRegistry meterRegistry,
+                                                           @Value("${banco.gravacao-grupo.janela-ms:2}") long janelaMs,
+                                                           @Value("${banco.gravacao-grupo.tamanho-maximo:200}") int tamanhoMaximo) {
+        return new GravacaoEmGrupoLancamentos(entityManager, Duration.ofMillis(janelaMs), tamanhoMaximo, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banco.gravacao-grupo.habilitado", havingValue = "false", matchIfMissing = true)
+    public IGravacaoEmGrupoPort gravacaoEmGrupoDesabilitada() {
+        return new GravacaoEmGrupoDesabilitada();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "banco.gravacao-grupo.habilitado", havingValue = "true")
+    static class Gravador {
+
+        // O repositorio externo, para que a gravacao passe tambem pelo cache de saldos
+        @Bean(initMethod = "iniciar", destroyMethod = "encerrar")
+        public GravadorGrupoLancamentos gravadorGrupoLancamentos(IGravacaoEmGrupoPort gravacaoEmGrupoPort,
+                                                                 @Qualifier("transferenciaRepositoryPort") ITransferenciaRepositoryPort transferenciaRepositoryPort,
+                                                                 TransactionTemplate transactionTemplate, IMotorSaldoPort motorSaldoPort,
+                                                                 EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+            return new GravadorGrupoLancamentos(gravacaoEmGrupoPort, transferenciaRepositoryPort, transactionTemplate, motorSaldoPort,
+                    entityManagerFactory, dataSource);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.ports.interfaces.IIdempotenciaPort;
+import br.com.banco.infrastructure.adaptadores.agendamento.AgendadorIdempotencia;
+import br.com.banco.infrastructure.adaptadores.idempotencia.IdempotenciaPersistida;
+import br.com.banco.infrastructure.adaptadores.idempotencia.IdempotenciaRecusada;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringIdempotenciaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@EnableScheduling
+public class IdempotenciaConfiguracao {
+
+    @Bean
+    @ConditionalOnExpression("!${banco.journal.habilitado:false} and !${banco.gravacao-grupo.habilitado:false}")
+    public IIdempotenciaPort idempotenciaPort(SpringIdempotenciaRepository idempotenciaRepository, ObjectMapper objectMapper,
+                                              MeterRegistry meterRegistry,
+                                              @Value("${banco.idempotencia.tamanho-maximo:10000}") long tamanhoMaximo,
+                                              @Value("${banco.idempotencia.retencao-ms:86400000}") long retencaoMs,
+                                              @Value("${banco.idempotencia.espera-ms:30000}") long esperaMs) {
+        return new IdempotenciaPersistida(idempotenciaRepository, objectMapper, tamanhoMaximo, Duration.ofMillis(retencaoMs),
+                Duration.ofMillis(esperaMs), Ticker.systemTicker(), Clock.systemDefaultZone(), meterRegistry);
+    }
+
+    // O lancamento e confirmado fora da transacao da chave
+    @Bean
+    @ConditionalOnExpression("${banco.journal.habilitado:false} or ${banco.gravacao-grupo.habilitado:false}")
+    public IIdempotenciaPort idempotenciaRecusada() {
+        return new IdempotenciaRecusada();
+    }
+
+    @Bean
+    public AgendadorIdempotencia agendadorIdempotencia(IIdempotenciaPort idempotenciaPort) {
+        return new AgendadorIdempotencia(idempotenciaPort);
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.ports.interfaces.IIndiceTemporalPort;
+import br.com.banco.infrastructure.adaptadores.indice.IndiceTemporalDesabilitado;
+import br.com.banco.infrastructure.adaptadores.indice.IndiceTemporalFenwick;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringTransferenciaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class IndiceTemporalConfiguracao {
+
+    @Bean(initMethod = "carregar")
+    @ConditionalOnProperty(name = "banco.indice-temporal.habilitado", havingValue = "true")
+    public IIndiceTemporalPort indiceTemporalFenwick(SpringTransferenciaRepository transferenciaRepository,
+                                                     @Value("${banco.indice-temporal.retencao-dias:7}") int retencaoDias) {
+        return new IndiceTemporalFenwick(transferenciaRepository, retencaoDias, Clock.systemDefaultZone());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banco.indice-temporal.habilitado", havingValue = "false", matchIfMissing = true)
+    public IIndiceTemporalPort indiceTemporalDesabilitado() {
+        return new IndiceTemporalDesabilitado();
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.ports.interfaces.IJournalLancamentosPort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.agendamento.AgendadorJournalLancamentos;
+import br.com.banco.infrastructure.adaptadores.journal.JournalLancamentosDesabilitado;
+import br.com.banco.infrastructure.adaptadores.journal.JournalLancamentosMapeado;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringTransferenciaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+@Configuration
+public class JournalLancamentosConfiguracao {
+
+    @Bean(initMethod = "abrir", destroyMethod = "fechar")
+    @ConditionalOnProperty(name = "banco.journal.habilitado", havingValue = "true")
+    public IJournalLancamentosPort journalLancamentosMapeado(SpringTransferenciaRepository transferenciaRepository, MeterRegistry meterRegistry,
+                                                             @Value("${banco.journal.arquivo:journal/lancamentos.dat}") String arquivo,
+                                                             @Value("${banco.journal.tamanho-bytes:67108864}") int tamanhoBytes) {
+        return new JournalLancamentosMapeado(transferenciaRepository, Path.of(arquivo), tamanhoBytes, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banco.journal.habilitado", havingValue = "false", matchIfMissing = true)
+    public IJournalLancamentosPort journalLancamentosDesabilitado() {
+        return new JournalLancamentosDesabilitado();
+    }
+
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "banco.journal.habilitado", havingValue = "true")
+    static class GravacaoJournal {
+
+        // O repositorio externo, para que a gravacao passe tambem pelo cache de saldos
+        @Bean
+        public AgendadorJournalLancamentos agendadorJournalLancamentos(IJournalLancamentosPort journalLancamentosPort,
+                                                                       @Qualifier("transferenciaRepositoryPort") ITransferenciaRepositoryPort transferenciaRepositoryPort,
+                                                                       TransactionTemplate transactionTemplate,
+                                                                       IMotorSaldoPort motorSaldoPort,
+                                                                       @Value("${banco.journal.tamanho-lote:500}") int tamanhoLote) {
+            return new AgendadorJournalLancamentos(journalLancamentosPort, transferenciaRepositoryPort, transactionTemplate, motorSaldoPort, tamanhoLote);
+        }
+    }
+}
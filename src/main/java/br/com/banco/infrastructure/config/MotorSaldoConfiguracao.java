@@ -0,0 +1,29 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.ports.interfaces.IJournalLancamentosPort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.motor.MotorSaldoDesabilitado;
+import br.com.banco.infrastructure.adaptadores.motor.MotorSaldoParticionado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MotorSaldoConfiguracao {
+
+    @Bean
+    @ConditionalOnProperty(name = "banco.motor-saldo.habilitado", havingValue = "true")
+    public IMotorSaldoPort motorSaldoParticionado(ISaldoContaRepositoryPort saldoContaRepositoryPort,
+                                                  IJournalLancamentosPort journalLancamentosPort,
+                                                  @Value("${banco.motor-saldo.particoes:4}") int particoes) {
+        return new MotorSaldoParticionado(saldoContaRepositoryPort, journalLancamentosPort, particoes);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banco.motor-saldo.habilitado", havingValue = "false", matchIfMissing = true)
+    public IMotorSaldoPort motorSaldoDesabilitado(ISaldoContaRepositoryPort saldoContaRepositoryPort) {
+        return new MotorSaldoDesabilitado(saldoContaRepositoryPort);
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.infrastructure.adaptadores.replicacao.ConsistenciaLeituraFilter;
+import br.com.banco.infrastructure.adaptadores.replicacao.EstadoReplica;
+import br.com.banco.infrastructure.adaptadores.replicacao.LeituraReplicaAspect;
+import br.com.banco.infrastructure.adaptadores.replicacao.ReplicadorH2;
+import br.com.banco.infrastructure.adaptadores.replicacao.RoteamentoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "banco.replica.habilitado", havingValue = "true")
+public class ReplicaConfiguracao {
+
+    @Bean
+    public EstadoReplica estadoReplica(@Value("${banco.replica.atraso-maximo-ms:2000}") long atrasoMaximoMs) {
+        return new EstadoReplica(Clock.systemUTC(), Duration.ofMillis(atrasoMaximoMs));
+    }
+
+    @Bean
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource dataSource = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource dataSourceReplica(@Value("${banco.replica.url}") String url,
+                                              @Value("${banco.replica.usuario:sa}") String usuario,
+                                              @Value("${banco.replica.senha:}") String senha) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(usuario).password(senha).build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 EstadoReplica estadoReplica) {
+        RoteamentoDataSource roteamento = new RoteamentoDataSource(estadoReplica);
+        roteamento.setTargetDataSources(Map.of(RoteamentoDataSource.Destino.PRIMARIO, primario,
+                RoteamentoDataSource.Destino.REPLICA, replica));
+        roteamento.setDefaultTargetDataSource(primario);
+        roteamento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    @Bean
+    public LeituraReplicaAspect leituraReplicaAspect() {
+        return new LeituraReplicaAspect();
+    }
+
+    @Bean
+    public ConsistenciaLeituraFilter consistenciaLeituraFilter() {
+        return new ConsistenciaLeituraFilter();
+    }
+
+    @Bean
+    public ReplicadorH2 replicadorH2(@Qualifier("dataSourcePrimario") DataSource primario,
+                                     @Qualifier("dataSourceReplica") DataSource replica,
+                                     EstadoReplica estadoReplica) {
+        // No H2, REPEATABLE READ fixa a versao de cada tabela so no primeiro acesso a ela; SERIALIZABLE fixa a do
+        // banco inteiro, sem bloquear quem escreve
+        TransactionTemplate leituraPrimario = new TransactionTemplate(new DataSourceTransactionManager(primario));
+        leituraPrimario.setReadOnly(true);
+        leituraPrimario.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        return new ReplicadorH2(new JdbcTemplate(primario), new JdbcTemplate(replica), leituraPrimario,
+                new TransactionTemplate(new DataSourceTransactionManager(replica)), estadoReplica);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.banco.infrastructure.config;
+
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import br.com.banco.infrastructure.adaptadores.agendamento.AgendadorTotalDiario;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "banco.total-diario.habilitado", havingValue = "true", matchIfMissing = true)
+public class TotalDiarioConfiguracao {
+
+    @Bean
+    public AgendadorTotalDiario agendadorTotalDiario(ISaldoContaServicePort saldoContaServicePort) {
+        return new AgendadorTotalDiario(saldoContaServicePort);
+    }
+}
@@ -10,6 +10,8 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -85,6 +87,20 @@ class ContaControllerTest {
         verify(contaService, times(1)).obterContaPorNomeResponsavel(nomeResponsavel);
     }
 
+    @Test
+    void buscarContasPorNomeResponsavel_ComTermoValido_RetornaSlice() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        Slice<ContaDTO> contas = new SliceImpl<>(List.of(new ContaDTO()));
+
+        when(contaService.buscarContasPorNomeResponsavel("ana", pageable)).thenReturn(ResponseEntity.ok(contas));
+
+        ResponseEntity<Slice<ContaDTO>> response = contaController.buscarContasPorNomeResponsavel("ana", pageable);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(contas, response.getBody());
+        verify(contaService, times(1)).buscarContasPorNomeResponsavel("ana", pageable);
+    }
+
     @Test
     void salvarConta_ComContaDTOValido_RetornaStatusCriado() {
         ContaDTO contaDTO = new ContaDTO();
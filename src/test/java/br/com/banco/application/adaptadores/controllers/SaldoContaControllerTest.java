@@ -0,0 +1,54 @@
+package br.com.banco.application.adaptadores.controllers;
+
+import br.com.banco.application.adptadores.controllers.SaldoContaController;
+import br.com.banco.application.dtos.DivergenciaSaldoDTO;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class SaldoContaControllerTest {
+    private SaldoContaController saldoContaController;
+
+    @Mock
+    private ISaldoContaServicePort saldoContaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        saldoContaController = new SaldoContaController(saldoContaService);
+    }
+
+    @Test
+    void reconstruirSaldos_RetornaQuantidadeDeContas() {
+        when(saldoContaService.reconstruirSaldos()).thenReturn(ResponseEntity.ok(2));
+
+        ResponseEntity<Integer> resposta = saldoContaController.reconstruirSaldos();
+
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals(2, resposta.getBody());
+        verify(saldoContaService, times(1)).reconstruirSaldos();
+    }
+
+    @Test
+    void verificarSaldos_RetornaDivergencias() {
+        List<DivergenciaSaldoDTO> divergencias = List.of(new DivergenciaSaldoDTO(1, BigDecimal.ONE, BigDecimal.TEN));
+
+        when(saldoContaService.verificarSaldos()).thenReturn(ResponseEntity.ok(divergencias));
+
+        ResponseEntity<List<DivergenciaSaldoDTO>> resposta = saldoContaController.verificarSaldos();
+
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals(divergencias, resposta.getBody());
+        verify(saldoContaService, times(1)).verificarSaldos();
+    }
+}
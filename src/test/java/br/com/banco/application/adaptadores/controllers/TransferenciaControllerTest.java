@@ -1,8 +1,19 @@
 package br.com.banco.application.adaptadores.controllers;
 
 import br.com.banco.application.adptadores.controllers.TransferenciaController;
+import br.com.banco.application.dtos.ItemLoteDTO;
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
+import br.com.banco.application.dtos.ResultadoLoteDTO;
 import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.application.exportacao.FormatoExportacao;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.exception.TransferenciaInvalidaException;
+import br.com.banco.domain.models.Dinheiro;
 import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.infrastructure.config.DinheiroJsonComponent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -11,15 +22,28 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class TransferenciaControllerTest {
@@ -28,10 +52,15 @@ class TransferenciaControllerTest {
     @Mock
     private ITransferenciaServicePort transferenciaService;
 
+    private final MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/api/transferencias");
+    private final MockHttpServletResponse respostaHttp = new MockHttpServletResponse();
+    private final ServletWebRequest request = new ServletWebRequest(requisicao, respostaHttp);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        transferenciaController = new TransferenciaController(transferenciaService);
+        transferenciaController = new TransferenciaController(transferenciaService, new ObjectMapper()
+                .registerModule(new SimpleModule().addDeserializer(Dinheiro.class, new DinheiroJsonComponent.Deserializer())));
     }
 
     @Test
@@ -53,6 +82,36 @@ class TransferenciaControllerTest {
         verify(transferenciaService, times(1)).obterTodasTransferencias(pageable);
     }
 
+    @Test
+    void buscarTransferencias_ComFiltros_RepassaOFiltroAoServico() {
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
+        LocalDateTime dataInicial = LocalDateTime.now().minusDays(7);
+        Page<TransferenciaDTO> paginaDeTransferenciasDTO = new PageImpl<>(List.of(new TransferenciaDTO()), pageable, 1);
+
+        when(transferenciaService.buscarTransferencias(eq(pageable), any())).thenReturn(ResponseEntity.ok(paginaDeTransferenciasDTO));
+
+        ResponseEntity<Page<TransferenciaDTO>> resposta = transferenciaController.buscarTransferencias(pageable, null, 3,
+                TipoTransferencia.SAQUE, dataInicial, null, new BigDecimal("10.5"), null);
+
+        assertEquals(paginaDeTransferenciasDTO, resposta.getBody());
+        verify(transferenciaService).buscarTransferencias(eq(pageable), argThat(filtro -> filtro.getNomeOperador() == null
+                && filtro.getIdConta() == 3 && filtro.getTipo() == TipoTransferencia.SAQUE
+                && dataInicial.equals(filtro.getDataInicial()) && filtro.getDataFinal() == null
+                && Dinheiro.deCentavos(1050).equals(filtro.getValorMinimo()) && filtro.getValorMaximo() == null));
+    }
+
+    @Test
+    void exportarTransferenciasPorConta_RepassaAContaEOFormato() {
+        StreamingResponseBody corpo = saida -> { };
+
+        when(transferenciaService.exportarTransferenciasPorConta(5, FormatoExportacao.CSV)).thenReturn(ResponseEntity.ok(corpo));
+
+        ResponseEntity<StreamingResponseBody> resposta = transferenciaController.exportarTransferenciasPorConta(5, FormatoExportacao.CSV);
+
+        assertEquals(corpo, resposta.getBody());
+        verify(transferenciaService, times(1)).exportarTransferenciasPorConta(5, FormatoExportacao.CSV);
+    }
+
     @Test
     void obterTransferenciaPorOperadorEPorData_ComParametrosValidos_RetornaPageDeTransferenciaDTO() {
         Sort sort = Sort.by("id").ascending();
@@ -102,16 +161,60 @@ class TransferenciaControllerTest {
         int numeroContaDestino = 123;
         int numeroContaOrigem = 456;
 
-        when(transferenciaService.realizarTransferencia(transferenciaDTO, numeroContaDestino, numeroContaOrigem))
+        when(transferenciaService.realizarTransferencia(transferenciaDTO, numeroContaDestino, numeroContaOrigem, null))
                 .thenReturn(ResponseEntity.ok(transferenciaDTO));
 
         ResponseEntity<TransferenciaDTO> resposta = transferenciaController.realizarTransferencia(
-                transferenciaDTO, numeroContaDestino, numeroContaOrigem);
+                transferenciaDTO, numeroContaDestino, numeroContaOrigem, null);
 
         assertEquals(HttpStatus.OK, resposta.getStatusCode());
         assertEquals(transferenciaDTO, resposta.getBody());
         verify(transferenciaService, times(1))
-                .realizarTransferencia(transferenciaDTO, numeroContaDestino, numeroContaOrigem);
+                .realizarTransferencia(transferenciaDTO, numeroContaDestino, numeroContaOrigem, null);
+    }
+
+    @Test
+    void processarLote_ComNdjson_EntregaOsItensNaOrdem() throws IOException {
+        List<Object> lidos = lerLote("{\"tipo\":\"DEPOSITO\",\"valor\":10.50,\"numeroContaDestino\":1}\n" +
+                "\n{\"tipo\":\"TRANSFERENCIA\",\"valor\":\"2.00\",\"numeroContaDestino\":1,\"numeroContaOrigem\":2}\n");
+
+        assertEquals(2, lidos.size());
+        ItemLoteDTO deposito = (ItemLoteDTO) lidos.get(0);
+        ItemLoteDTO transferencia = (ItemLoteDTO) lidos.get(1);
+        assertEquals(TipoTransferencia.DEPOSITO, deposito.getTipo());
+        assertEquals(Dinheiro.de("10.50"), deposito.getValor());
+        assertEquals(2, transferencia.getNumeroContaOrigem());
+    }
+
+    @Test
+    void processarLote_ComItemInvalidoEJsonQuebrado_ContinuaNoItemSeguinteEEncerraNoQuebrado() throws IOException {
+        List<Object> lidos = lerLote("[{\"tipo\":\"SAQUE\",\"valor\":\"abc\",\"numeroContaDestino\":1}," +
+                "{\"tipo\":\"SAQUE\",\"valor\":1,\"numeroContaDestino\":1},{\"tipo\":");
+
+        assertEquals(3, lidos.size());
+        assertTrue(lidos.get(0) instanceof TransferenciaInvalidaException);
+        assertEquals(TipoTransferencia.SAQUE, ((ItemLoteDTO) lidos.get(1)).getTipo());
+        assertTrue(lidos.get(2) instanceof TransferenciaInvalidaException);
+    }
+
+    // Consome o lote como o servico: um item ilegivel chega como excecao de next()
+    private List<Object> lerLote(final String corpo) throws IOException {
+        List<Object> lidos = new ArrayList<>();
+        when(transferenciaService.processarLote(any())).thenAnswer(invocacao -> {
+            Iterator<ItemLoteDTO> itens = invocacao.getArgument(0);
+            while (itens.hasNext()) {
+                try {
+                    lidos.add(itens.next());
+                } catch (TransferenciaInvalidaException e) {
+                    lidos.add(e);
+                }
+            }
+            assertThrows(NoSuchElementException.class, itens::next);
+            return ResponseEntity.ok(new ResultadoLoteDTO(List.of()));
+        });
+
+        transferenciaController.processarLote(new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8)));
+        return lidos;
     }
 
     @Test
@@ -119,15 +222,28 @@ class TransferenciaControllerTest {
         TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
         int numeroContaDestino = 123;
 
-        when(transferenciaService.realizarDeposito(transferenciaDTO, numeroContaDestino))
+        when(transferenciaService.realizarDeposito(transferenciaDTO, numeroContaDestino, null))
                 .thenReturn(ResponseEntity.ok(transferenciaDTO));
 
         ResponseEntity<TransferenciaDTO> resposta = transferenciaController.realizarDeposito(
-                transferenciaDTO, numeroContaDestino);
+                transferenciaDTO, numeroContaDestino, null);
 
         assertEquals(HttpStatus.OK, resposta.getStatusCode());
         assertEquals(transferenciaDTO, resposta.getBody());
-        verify(transferenciaService, times(1)).realizarDeposito(transferenciaDTO, numeroContaDestino);
+        verify(transferenciaService, times(1)).realizarDeposito(transferenciaDTO, numeroContaDestino, null);
+    }
+
+    @Test
+    void realizarDeposito_ComChaveDeIdempotencia_RepassaAChaveAoServico() {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+
+        when(transferenciaService.realizarDeposito(transferenciaDTO, 123, "deposito-1"))
+                .thenReturn(ResponseEntity.ok(transferenciaDTO));
+
+        ResponseEntity<TransferenciaDTO> resposta = transferenciaController.realizarDeposito(transferenciaDTO, 123, "deposito-1");
+
+        assertEquals(transferenciaDTO, resposta.getBody());
+        verify(transferenciaService, times(1)).realizarDeposito(transferenciaDTO, 123, "deposito-1");
     }
 
     @Test
@@ -135,15 +251,15 @@ class TransferenciaControllerTest {
         TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
         int numeroContaDestino = 123;
 
-        when(transferenciaService.realizarSaque(transferenciaDTO, numeroContaDestino))
+        when(transferenciaService.realizarSaque(transferenciaDTO, numeroContaDestino, null))
                 .thenReturn(ResponseEntity.ok(transferenciaDTO));
 
         ResponseEntity<TransferenciaDTO> resposta = transferenciaController.realizarSaque(
-                transferenciaDTO, numeroContaDestino);
+                transferenciaDTO, numeroContaDestino, null);
 
         assertEquals(HttpStatus.OK, resposta.getStatusCode());
         assertEquals(transferenciaDTO, resposta.getBody());
-        verify(transferenciaService, times(1)).realizarSaque(transferenciaDTO, numeroContaDestino);
+        verify(transferenciaService, times(1)).realizarSaque(transferenciaDTO, numeroContaDestino, null);
     }
 
     @Test
@@ -208,7 +324,7 @@ class TransferenciaControllerTest {
                 .thenReturn(ResponseEntity.ok(paginaDeTransferenciasDTO));
 
         ResponseEntity<Page<TransferenciaDTO>> resposta = transferenciaController.obterTransferenciasPorConta(
-                idConta, pageable);
+                idConta, pageable, request);
 
         assertEquals(HttpStatus.OK, resposta.getStatusCode());
         assertEquals(paginaDeTransferenciasDTO, resposta.getBody());
@@ -239,10 +355,86 @@ class TransferenciaControllerTest {
         when(transferenciaService.obterSaldoTotalPorNumeroConta(numeroConta))
                 .thenReturn(ResponseEntity.ok(saldoTotal));
 
-        ResponseEntity<BigDecimal> resposta = transferenciaController.obterSaldoTotalPorOperador(numeroConta);
+        ResponseEntity<BigDecimal> resposta = transferenciaController.obterSaldoTotalPorOperador(numeroConta, request);
 
         assertEquals(HttpStatus.OK, resposta.getStatusCode());
         assertEquals(saldoTotal, resposta.getBody());
         verify(transferenciaService, times(1)).obterSaldoTotalPorNumeroConta(numeroConta);
     }
+
+    @Test
+    void obterSaldoEm_ComContaEInstanteValidos_RetornaSaldoNoInstante() {
+        int numeroConta = 1;
+        LocalDateTime instante = LocalDateTime.of(2020, 1, 1, 0, 0);
+        BigDecimal saldo = new BigDecimal("30394.96");
+
+        when(transferenciaService.obterSaldoEm(numeroConta, instante)).thenReturn(ResponseEntity.ok(saldo));
+
+        ResponseEntity<BigDecimal> resposta = transferenciaController.obterSaldoEm(numeroConta, instante, request);
+
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals(saldo, resposta.getBody());
+        verify(transferenciaService, times(1)).obterSaldoEm(numeroConta, instante);
+    }
+
+    @Test
+    void obterTransferenciasPorContaAposCursor_ComCursor_RetornaPaginaDoServico() {
+        PaginaCursorDTO<TransferenciaDTO> pagina = new PaginaCursorDTO<>(List.of(new TransferenciaDTO()), "proximo");
+
+        when(transferenciaService.obterTransferenciasPorContaAposCursor("cursor", 10, 1)).thenReturn(ResponseEntity.ok(pagina));
+
+        ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> resposta = transferenciaController.obterTransferenciasPorContaAposCursor(1, "cursor", 10, request);
+
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals(pagina, resposta.getBody());
+        verify(transferenciaService, times(1)).obterTransferenciasPorContaAposCursor("cursor", 10, 1);
+    }
+
+    @Test
+    void obterExtratoPorContaAposCursor_ComCursor_RetornaPaginaDoServico() {
+        PaginaCursorDTO<LancamentoExtratoDTO> pagina = new PaginaCursorDTO<>(List.of(new LancamentoExtratoDTO()), "proximo");
+
+        when(transferenciaService.obterExtratoPorContaAposCursor("cursor", 10, 1)).thenReturn(ResponseEntity.ok(pagina));
+
+        ResponseEntity<PaginaCursorDTO<LancamentoExtratoDTO>> resposta = transferenciaController.obterExtratoPorContaAposCursor(1, "cursor", 10, request);
+
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals(pagina, resposta.getBody());
+    }
+
+    @Test
+    void obterTransferenciasPorConta_SemIfNoneMatch_Responde200ComAVersaoNoETag() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        when(transferenciaService.obterVersaoConta(1)).thenReturn("3-1646092800.0");
+        when(transferenciaService.obterTransferenciasPorConta(pageable, 1)).thenReturn(ResponseEntity.ok(Page.empty()));
+
+        ResponseEntity<Page<TransferenciaDTO>> resposta = transferenciaController.obterTransferenciasPorConta(1, pageable, request);
+
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals("\"3-1646092800.0\"", respostaHttp.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void obterTransferenciasPorConta_ComIfNoneMatchDaVersaoAtual_Responde304SemConsultar() {
+        requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3-1646092800.0\"");
+        when(transferenciaService.obterVersaoConta(1)).thenReturn("3-1646092800.0");
+
+        assertNull(transferenciaController.obterTransferenciasPorConta(1, PageRequest.of(0, 10), request));
+
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), respostaHttp.getStatus());
+        verify(transferenciaService, never()).obterTransferenciasPorConta(any(), anyInt());
+    }
+
+    @Test
+    void obterSaldoTotalPorOperador_ComIfNoneMatchDeVersaoAntiga_RespondeOSaldoAtual() {
+        requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, "\"2-1646092800.0\"");
+        when(transferenciaService.obterVersaoConta(1)).thenReturn("3-1646092900.0");
+        when(transferenciaService.obterSaldoTotalPorNumeroConta(1)).thenReturn(ResponseEntity.ok(BigDecimal.TEN));
+
+        ResponseEntity<BigDecimal> resposta = transferenciaController.obterSaldoTotalPorOperador(1, request);
+
+        assertEquals(BigDecimal.TEN, resposta.getBody());
+        assertEquals(HttpStatus.OK.value(), respostaHttp.getStatus());
+        assertEquals("\"3-1646092900.0\"", respostaHttp.getHeader(HttpHeaders.ETAG));
+    }
 }
@@ -0,0 +1,102 @@
+package br.com.banco.application.importacao;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.exception.ImportacaoInvalidaException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorCsvImportacaoTest {
+
+    @Test
+    void ler_ContasELancamentos_PreencheOLote() {
+        LoteImportacao lote = ler("tipo,id,nome\n"
+                + "CONTA,7,\"Silva, \"\"Ze\"\" da\"\r\n"
+                + "# comentario\n"
+                + "\n"
+                + "TRANSFERENCIA,7,2019-05-01T10:15:30.5,1234.5,DEPOSITO,CREDITO,Operador,abc\n"
+                + "TRANSFERENCIA,7,2019-05-02 08:00:00,0.01,SAQUE,DEBITO,,", 10);
+
+        assertEquals(1, lote.getContas());
+        assertEquals(7, lote.getIdConta(0));
+        assertEquals("Silva, \"Ze\" da", lote.getNomeResponsavel(0));
+        assertEquals(2, lote.getLinhaConta(0));
+
+        assertEquals(2, lote.getLancamentos());
+        assertEquals(LocalDateTime.of(2019, 5, 1, 10, 15, 30, 500_000_000), lote.getData(0));
+        assertEquals(123450, lote.getCentavos(0));
+        assertEquals(TipoTransferencia.DEPOSITO, lote.getTipo(0));
+        assertEquals(NaturezaLancamento.CREDITO, lote.getNatureza(0));
+        assertEquals("Operador", lote.getOperador(0));
+        assertEquals("abc", lote.getIdTransacao(0));
+        assertEquals(5, lote.getLinhaLancamento(0));
+
+        assertEquals(1, lote.getCentavos(1));
+        assertEquals(NaturezaLancamento.DEBITO, lote.getNatureza(1));
+        assertNull(lote.getOperador(1));
+        assertEquals(36, lote.getIdTransacao(1).length());
+        assertEquals(LocalDateTime.of(2019, 5, 1, 10, 15, 30, 500_000_000), lote.getDataMinima());
+        assertEquals(LocalDateTime.of(2019, 5, 2, 8, 0), lote.getDataMaxima());
+    }
+
+    @Test
+    void ler_LinhaSemQuebraForaDoFimDoArquivo_NaoAvanca() {
+        ByteBuffer janela = ByteBuffer.wrap("CONTA,1,Ana\nCONTA,2,Be".getBytes(StandardCharsets.UTF_8));
+        LeitorCsvImportacao leitor = new LeitorCsvImportacao(10);
+        LoteImportacao lote = new LoteImportacao(10);
+
+        assertTrue(leitor.ler(janela, false, lote));
+        assertFalse(leitor.ler(janela, false, lote));
+
+        assertEquals(12, janela.position());
+        assertEquals(11, leitor.getLinha());
+        assertEquals(1, lote.getContas());
+        assertEquals(11, lote.getLinhaConta(0));
+    }
+
+    @Test
+    void ler_OperadorRepetido_ReaproveitaOTexto() {
+        LoteImportacao lote = ler("TRANSFERENCIA,1,2019-05-01T10:00:00,1,DEPOSITO,CREDITO,João,a\n"
+                + "TRANSFERENCIA,1,2019-05-01T10:00:00,1,DEPOSITO,CREDITO,João,b\n", 10);
+
+        assertEquals("João", lote.getOperador(0));
+        assertSame(lote.getOperador(0), lote.getOperador(1));
+    }
+
+    @Test
+    void ler_LinhasInvalidas_InformaALinha() {
+        assertInvalida("CONTA,1\n", "Linha 1: esperados 3 campos, encontrados 2");
+        assertInvalida("CONTA,0,Ana\n", "Linha 1: id da conta invalido");
+        assertInvalida("CONTA,1,\n", "Linha 1: nome do responsavel vazio");
+        assertInvalida("CONTA,1,\"Ana\n", "Linha 1: aspas sem fechamento");
+        assertInvalida("CONTA,1," + "a".repeat(51) + "\n", "Linha 1: nome do responsavel com mais de 50 caracteres");
+        assertInvalida("CONTA,1,Ana\nPIX,1\n", "Linha 2: tipo de registro desconhecido, esperado CONTA ou TRANSFERENCIA");
+        assertInvalida("TRANSFERENCIA,1,2019-02-30T10:00:00,1,DEPOSITO,CREDITO,,\n", "Linha 1: data da transferencia invalida");
+        assertInvalida("TRANSFERENCIA,1,2019-02-01,1,DEPOSITO,CREDITO,,\n", "Linha 1: data da transferencia invalida");
+        assertInvalida("TRANSFERENCIA,1,2019-02-01T10:00:00,-1,DEPOSITO,CREDITO,,\n", "Linha 1: valor negativo; o sentido do lancamento vem da natureza");
+        assertInvalida("TRANSFERENCIA,1,2019-02-01T10:00:00,1x,DEPOSITO,CREDITO,,\n", "Linha 1: valor invalido");
+        assertInvalida("TRANSFERENCIA,1,2019-02-01T10:00:00,1,PIX,CREDITO,,\n", "Linha 1: tipo invalido");
+        assertInvalida("TRANSFERENCIA,1,2019-02-01T10:00:00,1,DEPOSITO,credito,,\n", "Linha 1: natureza invalida");
+    }
+
+    private static LoteImportacao ler(final String csv, final int capacidade) {
+        ByteBuffer janela = ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8));
+        LeitorCsvImportacao leitor = new LeitorCsvImportacao(0);
+        LoteImportacao lote = new LoteImportacao(capacidade);
+        while (leitor.ler(janela, true, lote)) {
+            assertFalse(lote.isCheio());
+        }
+        assertEquals(janela.limit(), janela.position());
+        return lote;
+    }
+
+    private static void assertInvalida(final String csv, final String mensagem) {
+        ImportacaoInvalidaException e = assertThrows(ImportacaoInvalidaException.class, () -> ler(csv, 10));
+        assertEquals(mensagem, e.getMessage());
+    }
+}
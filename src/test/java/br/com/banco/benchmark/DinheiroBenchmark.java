@@ -0,0 +1,97 @@
+package br.com.banco.benchmark;
+
+import br.com.banco.domain.models.Dinheiro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o caminho antigo em {@link BigDecimal} com {@link Dinheiro} no trecho quente de uma requisição:
+ * leitura do valor JSON, as cópias DTO -> modelo -> entidade (cada {@code setValor} fazia {@code setScale})
+ * e a soma dos lançamentos.
+ * <p>
+ * Não roda com o {@code mvn test}. Para executar, depois de {@code mvn test-compile}:
+ * <pre>
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     br.com.banco.benchmark.DinheiroBenchmark
+ * </pre>
+ * O {@link GCProfiler} informa a taxa de alocação ({@code gc.alloc.rate.norm}, em bytes por operação)
+ * junto com a vazão.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DinheiroBenchmark {
+
+    private static final int LANCAMENTOS = 64;
+
+    private String[] valoresJson;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        valoresJson = new String[LANCAMENTOS];
+        for (int i = 0; i < LANCAMENTOS; i++) {
+            valoresJson[i] = random.nextInt(1, 1_000_000) + "." + random.nextInt(10) + random.nextInt(10);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (String json : valoresJson) {
+            BigDecimal dto = new BigDecimal(json).setScale(2, RoundingMode.HALF_EVEN);
+            BigDecimal modelo = dto.setScale(2, RoundingMode.HALF_EVEN);
+            BigDecimal entidade = modelo.setScale(2, RoundingMode.HALF_EVEN);
+            total = total.add(entidade);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Dinheiro dinheiro() {
+        Dinheiro total = Dinheiro.ZERO;
+        for (String json : valoresJson) {
+            // As copias DTO -> modelo -> entidade so repassam a referencia imutavel
+            total = total.somar(Dinheiro.de(json));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal dinheiroComBordaJdbc() {
+        Dinheiro total = Dinheiro.ZERO;
+        for (String json : valoresJson) {
+            total = total.somar(Dinheiro.de(Dinheiro.de(json).toBigDecimal()));
+        }
+        return total.toBigDecimal();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opcoes = new OptionsBuilder()
+                .include(DinheiroBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opcoes).run();
+    }
+}
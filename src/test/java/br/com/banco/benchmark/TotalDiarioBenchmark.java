@@ -0,0 +1,126 @@
+package br.com.banco.benchmark;
+
+import br.com.banco.BancoApplication;
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringTransferenciaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o /saldo-total-por-periodo somando os lancamentos ({@code sumValorByDataTransferenciaBetween}) com a
+ * leitura pelos totais diarios, em um periodo aleatorio de ate um ano sobre {@code linhas} lancamentos
+ * (um a cada 3 segundos a partir de 2020, alternando credito e debito).
+ * <p>
+ * Nao roda com o {@code mvn test}. A carga de 10 milhoes de linhas no H2 em memoria precisa de heap; para
+ * executar, depois de {@code mvn test-compile}:
+ * <pre>
+ * java -Xmx8g -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     br.com.banco.benchmark.TotalDiarioBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class TotalDiarioBenchmark {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final int SEGUNDOS_ENTRE_LANCAMENTOS = 3;
+
+    @Param("10000000")
+    private int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private SpringTransferenciaRepository springTransferenciaRepository;
+    private ITransferenciaRepositoryPort transferenciaRepository;
+    private long segundosCarregados;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = new SpringApplicationBuilder(BancoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark-total-diario",
+                        "banco.checkpoint-saldo.habilitado=false",
+                        "banco.total-diario.habilitado=false",
+                        "logging.level.root=WARN")
+                .run();
+        springTransferenciaRepository = contexto.getBean(SpringTransferenciaRepository.class);
+        transferenciaRepository = contexto.getBeanFactory().getBean("transferenciaRepositoryPort", ITransferenciaRepositoryPort.class);
+
+        IContaServicePort contaService = contexto.getBean(IContaServicePort.class);
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel("Benchmark");
+        contaService.salvarConta(contaDTO);
+        int contaId = contaService.obterContaPorNomeResponsavel("Benchmark").getBody().getId();
+
+        // Ids acima dos da sequencia; tipo e natureza pelo ordinal, como o Hibernate grava
+        contexto.getBean(JdbcTemplate.class).update("INSERT INTO \"transferencia\" (\"id\", \"data_transferencia\", \"valor\", " +
+                        "\"tipo\", \"conta_id\", \"id_transacao\", \"natureza\") " +
+                        "SELECT X + 100000000, DATEADD('SECOND', X * " + SEGUNDOS_ENTRE_LANCAMENTOS + ", ?), " +
+                        "(MOD(X, 100000) + 1) / 100.0, MOD(X, 3), ?, CAST(X AS VARCHAR), MOD(X, 2) FROM SYSTEM_RANGE(1, ?)",
+                INICIO, contaId, linhas);
+        segundosCarregados = (long) linhas * SEGUNDOS_ENTRE_LANCAMENTOS;
+
+        contexto.getBean(ISaldoContaServicePort.class).reconstruirTotaisDiarios();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Dinheiro somandoLancamentos() {
+        LocalDateTime[] periodo = periodoAleatorio();
+        return springTransferenciaRepository.sumValorByDataTransferenciaBetween(periodo[0], periodo[1]);
+    }
+
+    @Benchmark
+    public BigDecimal pelosTotaisDiarios() {
+        LocalDateTime[] periodo = periodoAleatorio();
+        return transferenciaRepository.obterSaldoTotalPorPeriodo(periodo[0], periodo[1]);
+    }
+
+    private LocalDateTime[] periodoAleatorio() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime inicio = INICIO.plusSeconds(random.nextLong(segundosCarregados / 2));
+        return new LocalDateTime[]{inicio, inicio.plusSeconds(random.nextLong(1, segundosCarregados / 2))};
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opcoes = new OptionsBuilder()
+                .include(TotalDiarioBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opcoes).run();
+    }
+}
@@ -11,10 +11,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -102,6 +106,26 @@ class ContaServiceImplTest {
         verify(contaRepository, times(1)).obterContaPorNomeResponsavel(nomeResponsavel);
     }
 
+    @Test
+    void buscarContasPorNomeResponsavel_ComTermoValido_DeveRetornarSlice() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<ContaDTO> contas = new SliceImpl<>(List.of(new ContaDTO()));
+
+        when(contaRepository.buscarPorNomeResponsavel("ana", pageable)).thenReturn(contas);
+
+        ResponseEntity<Slice<ContaDTO>> response = contaService.buscarContasPorNomeResponsavel("ana", pageable);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(contas, response.getBody());
+    }
+
+    @Test
+    void buscarContasPorNomeResponsavel_ComTermoCurto_DeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> contaService.buscarContasPorNomeResponsavel(" an ", PageRequest.of(0, 10)));
+        assertThrows(IllegalArgumentException.class, () -> contaService.buscarContasPorNomeResponsavel(null, PageRequest.of(0, 10)));
+        verify(contaRepository, never()).buscarPorNomeResponsavel(any(), any());
+    }
+
     @Test
     void salvarConta_ComContaDTOValida_DeveRetornarVoid() {
         ContaDTO contaDTO = new ContaDTO();
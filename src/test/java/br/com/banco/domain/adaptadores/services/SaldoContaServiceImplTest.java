@@ -0,0 +1,155 @@
+package br.com.banco.domain.adaptadores.services;
+
+import br.com.banco.application.dtos.DivergenciaSaldoDTO;
+import br.com.banco.domain.ports.repositories.ICheckpointSaldoRepositoryPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITotalDiarioRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SaldoContaServiceImplTest {
+
+    private SaldoContaServiceImpl saldoContaService;
+
+    @Mock
+    private ISaldoContaRepositoryPort saldoContaRepository;
+
+    @Mock
+    private ICheckpointSaldoRepositoryPort checkpointSaldoRepository;
+
+    @Mock
+    private ITotalDiarioRepositoryPort totalDiarioRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        saldoContaService = new SaldoContaServiceImpl(saldoContaRepository, checkpointSaldoRepository, totalDiarioRepository);
+    }
+
+    @Test
+    void reconstruirSaldos_SubstituiPelosSaldosDosLancamentos() {
+        Map<Integer, BigDecimal> saldos = Map.of(1, BigDecimal.TEN);
+
+        when(saldoContaRepository.calcularSaldosPelosLancamentos()).thenReturn(saldos);
+        when(saldoContaRepository.substituirSaldos(saldos)).thenReturn(1);
+
+        ResponseEntity<Integer> response = saldoContaService.reconstruirSaldos();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody());
+        verify(saldoContaRepository, times(1)).substituirSaldos(saldos);
+    }
+
+    @Test
+    void verificarSaldos_ComSaldosConsistentes_RetornaListaVazia() {
+        when(saldoContaRepository.obterSaldosMaterializados()).thenReturn(Map.of(1, new BigDecimal("10.00")));
+        when(saldoContaRepository.calcularSaldosPelosLancamentos()).thenReturn(Map.of(1, BigDecimal.TEN));
+
+        ResponseEntity<List<DivergenciaSaldoDTO>> response = saldoContaService.verificarSaldos();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().isEmpty());
+    }
+
+    @Test
+    void verificarSaldos_ComSaldosDivergentes_RetornaDivergencias() {
+        when(saldoContaRepository.obterSaldosMaterializados()).thenReturn(Map.of(1, BigDecimal.ONE));
+        when(saldoContaRepository.calcularSaldosPelosLancamentos()).thenReturn(Map.of(1, BigDecimal.TEN, 2, BigDecimal.ONE));
+
+        ResponseEntity<List<DivergenciaSaldoDTO>> response = saldoContaService.verificarSaldos();
+
+        assertEquals(2, response.getBody().size());
+        DivergenciaSaldoDTO divergenciaConta2 = response.getBody().stream()
+                .filter(divergencia -> divergencia.getContaId() == 2)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(BigDecimal.ZERO, divergenciaConta2.getSaldoMaterializado());
+        assertEquals(BigDecimal.ONE, divergenciaConta2.getSaldoLancamentos());
+    }
+
+    @Test
+    void gerarCheckpoints_ProcessaDiasPendentesEmOrdemAteNaoRestarNenhum() {
+        LocalDate primeiroDia = LocalDate.of(2023, 3, 10);
+        LocalDate segundoDia = LocalDate.of(2023, 3, 12);
+
+        when(checkpointSaldoRepository.obterProximoDiaPendente(any()))
+                .thenReturn(Optional.of(primeiroDia), Optional.of(segundoDia), Optional.empty());
+        when(checkpointSaldoRepository.gerarCheckpoints(primeiroDia)).thenReturn(2);
+        when(checkpointSaldoRepository.gerarCheckpoints(segundoDia)).thenReturn(1);
+
+        ResponseEntity<Integer> response = saldoContaService.gerarCheckpoints();
+
+        assertEquals(3, response.getBody());
+        verify(checkpointSaldoRepository, times(2)).gerarCheckpoints(any());
+    }
+
+    @Test
+    void gerarCheckpoints_SemDiasPendentes_NaoGravaNada() {
+        when(checkpointSaldoRepository.obterProximoDiaPendente(any())).thenReturn(Optional.empty());
+
+        ResponseEntity<Integer> response = saldoContaService.gerarCheckpoints();
+
+        assertEquals(0, response.getBody());
+        verify(checkpointSaldoRepository, never()).gerarCheckpoints(any());
+    }
+
+    @Test
+    void consolidarTotaisDiarios_ConsolidaDiasPendentesEmOrdem() {
+        LocalDate dia = LocalDate.of(2023, 3, 10);
+
+        when(totalDiarioRepository.obterProximoDiaPendente(any())).thenReturn(Optional.of(dia), Optional.empty());
+        when(totalDiarioRepository.consolidarDia(dia)).thenReturn(3);
+
+        ResponseEntity<Integer> response = saldoContaService.consolidarTotaisDiarios();
+
+        assertEquals(3, response.getBody());
+        verify(totalDiarioRepository, times(1)).consolidarDia(dia);
+    }
+
+    @Test
+    void reconstruirTotaisDiarios_ReconstroiEConsolidaOsDiasEncerrados() {
+        when(totalDiarioRepository.reconstruir()).thenReturn(5);
+        when(totalDiarioRepository.obterProximoDiaPendente(any())).thenReturn(Optional.empty());
+
+        ResponseEntity<Integer> response = saldoContaService.reconstruirTotaisDiarios();
+
+        assertEquals(5, response.getBody());
+        verify(totalDiarioRepository, times(1)).reconstruir();
+        verify(totalDiarioRepository, never()).consolidarDia(any());
+    }
+
+    @Test
+    void completarTotaisDiarios_HistoricoCompleto_NaoReconstroi() {
+        when(totalDiarioRepository.historicoCompleto()).thenReturn(true);
+
+        ResponseEntity<Integer> response = saldoContaService.completarTotaisDiarios();
+
+        assertEquals(0, response.getBody());
+        verify(totalDiarioRepository, never()).reconstruir();
+    }
+
+    @Test
+    void completarTotaisDiarios_HistoricoIncompleto_Reconstroi() {
+        when(totalDiarioRepository.historicoCompleto()).thenReturn(false);
+        when(totalDiarioRepository.reconstruir()).thenReturn(4);
+        when(totalDiarioRepository.obterProximoDiaPendente(any())).thenReturn(Optional.empty());
+
+        ResponseEntity<Integer> response = saldoContaService.completarTotaisDiarios();
+
+        assertEquals(4, response.getBody());
+        verify(totalDiarioRepository, times(1)).reconstruir();
+    }
+}
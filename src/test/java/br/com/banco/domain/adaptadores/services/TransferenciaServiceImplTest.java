@@ -1,25 +1,62 @@
 package br.com.banco.domain.adaptadores.services;
 
+import br.com.banco.application.dtos.ItemLoteDTO;
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
+import br.com.banco.application.dtos.ResultadoItemLoteDTO;
+import br.com.banco.application.dtos.ResultadoLoteDTO;
 import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.application.exportacao.FormatoExportacao;
 import br.com.banco.application.mappers.TransferenciaMapper;
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.enums.SituacaoItemLote;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.exception.ContaNaoEncontradaException;
+import br.com.banco.domain.exception.CursorInvalidoException;
+import br.com.banco.domain.exception.SaldoInsuficienteException;
+import br.com.banco.domain.exception.TransferenciaInvalidaException;
 import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.CursorTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.FiltroTransferencia;
 import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IControleConcorrenciaPort;
+import br.com.banco.domain.ports.interfaces.IFiltroContasPort;
+import br.com.banco.domain.ports.interfaces.IIdempotenciaPort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.repositories.ICheckpointSaldoRepositoryPort;
 import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
 import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -36,10 +73,35 @@ class TransferenciaServiceImplTest {
     @Mock
     private IContaRepositoryPort repositorioConta;
 
+    @Mock
+    private IMotorSaldoPort motorSaldo;
+
+    @Mock
+    private IMotorSaldoPort.Movimento movimento;
+
+    @Mock
+    private IControleConcorrenciaPort controleConcorrencia;
+
+    @Mock
+    private ICheckpointSaldoRepositoryPort repositorioCheckpointSaldo;
+
+    @Mock
+    private IFiltroContasPort filtroContas;
+
+    @Mock
+    private IIdempotenciaPort idempotencia;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
-        servicoTransferencia = new TransferenciaServiceImpl(repositorioTransferencia, mapperTransferencia, repositorioConta);
+        when(controleConcorrencia.executar(anyList(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(filtroContas.podeExistir(anyInt())).thenReturn(true);
+        when(motorSaldo.debitar(anyInt(), any())).thenReturn(movimento);
+        when(motorSaldo.creditar(anyInt(), any())).thenReturn(movimento);
+        when(motorSaldo.transferir(anyInt(), anyInt(), any())).thenReturn(movimento);
+        when(idempotencia.executar(any(), any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        servicoTransferencia = new TransferenciaServiceImpl(repositorioTransferencia, mapperTransferencia, repositorioConta,
+                motorSaldo, controleConcorrencia, repositorioCheckpointSaldo, filtroContas, idempotencia);
     }
 
     @Test
@@ -64,16 +126,16 @@ class TransferenciaServiceImplTest {
         LocalDateTime dataInicial = LocalDateTime.now().minusDays(7);
         LocalDateTime dataFinal = LocalDateTime.now();
 
-        when(repositorioTransferencia.obterTransferenciasPorOperadorEData(pageable, nomeOperador, dataInicial, dataFinal))
-                .thenReturn(transferenciasMock);
+        when(repositorioTransferencia.buscarTransferencias(eq(pageable), any())).thenReturn(transferenciasMock);
 
         ResponseEntity<Page<TransferenciaDTO>> response = servicoTransferencia.obterTransferenciaPorOperadorEPorData(
                 pageable, nomeOperador, dataInicial, dataFinal);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(transferenciasMock, response.getBody());
-        verify(repositorioTransferencia, times(1))
-                .obterTransferenciasPorOperadorEData(pageable, nomeOperador, dataInicial, dataFinal);
+        verify(repositorioTransferencia, times(1)).buscarTransferencias(eq(pageable), argThat(filtro ->
+                nomeOperador.equals(filtro.getNomeOperador()) && dataInicial.equals(filtro.getDataInicial())
+                        && dataFinal.equals(filtro.getDataFinal()) && filtro.getIdConta() == null && filtro.getTipo() == null));
     }
 
     @Test
@@ -81,61 +143,153 @@ class TransferenciaServiceImplTest {
         Page<TransferenciaDTO> transferenciasMock = mock(Page.class);
         Pageable pageable = mock(Pageable.class);
 
-        when(repositorioTransferencia.obterTodasTransferencias(pageable)).thenReturn(transferenciasMock);
+        when(repositorioTransferencia.buscarTransferencias(eq(pageable), any())).thenReturn(transferenciasMock);
 
         ResponseEntity<Page<TransferenciaDTO>> response = servicoTransferencia.obterTransferenciaPorOperadorEPorData(
                 pageable, null, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(transferenciasMock, response.getBody());
-        verify(repositorioTransferencia, times(1)).obterTodasTransferencias(pageable);
+        verify(repositorioTransferencia, times(1)).buscarTransferencias(eq(pageable), argThat(filtro ->
+                filtro.getNomeOperador() == null && filtro.getDataInicial() == null && filtro.getDataFinal() == null));
     }
 
     @Test
-    void obterTransferenciaPorOperadorEPorData_ComApenasNomeOperador_RetornaTransferencias() {
-        Page<TransferenciaDTO> transferenciasMock = mock(Page.class);
-        Pageable pageable = mock(Pageable.class);
-        String nomeOperador = "Operador";
+    void obterTransferenciaPorOperadorEPorDataAposCursor_ComApenasNomeOperador_DecodificaOCursor() {
+        PaginaCursorDTO<TransferenciaDTO> pagina = new PaginaCursorDTO<>(List.of(), null);
+        String cursor = new CursorTransferencia(LocalDateTime.of(2023, 1, 2, 3, 4, 5), 42).codificar();
 
-        when(repositorioTransferencia.obterTransferenciasPorOperador(pageable, nomeOperador))
-                .thenReturn(transferenciasMock);
+        when(repositorioTransferencia.buscarTransferenciasAposCursor(any(), eq(20), any())).thenReturn(pagina);
 
-        ResponseEntity<Page<TransferenciaDTO>> response = servicoTransferencia.obterTransferenciaPorOperadorEPorData(
-                pageable, nomeOperador, null, null);
+        ResponseEntity<PaginaCursorDTO<TransferenciaDTO>> response = servicoTransferencia.obterTransferenciaPorOperadorEPorDataAposCursor(
+                cursor, 20, "Operador", LocalDateTime.of(2023, 1, 1, 0, 0), null);
+
+        assertEquals(pagina, response.getBody());
+        verify(repositorioTransferencia).buscarTransferenciasAposCursor(
+                argThat(posicao -> posicao.getId() == 42 && posicao.getDataTransferencia().equals(LocalDateTime.of(2023, 1, 2, 3, 4, 5))),
+                eq(20), argThat(filtro -> "Operador".equals(filtro.getNomeOperador()) && filtro.getDataInicial() == null
+                        && filtro.getDataFinal() == null));
+    }
+
+    @Test
+    void obterTransferenciaPorOperadorEPorDataAposCursor_ComPeriodoInvertido_LancaIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> servicoTransferencia.obterTransferenciaPorOperadorEPorDataAposCursor(
+                null, 20, null, LocalDateTime.of(2023, 2, 1, 0, 0), LocalDateTime.of(2023, 1, 1, 0, 0)));
+
+        verifyNoInteractions(repositorioTransferencia);
+    }
+
+    @Test
+    void exportarTransferenciasPorConta_ComContaExistente_EscreveAsLinhasNoCorpo() throws IOException {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setDataTransferencia(LocalDateTime.of(2023, 1, 2, 3, 4, 5));
+        transferenciaDTO.setValor(Dinheiro.deCentavos(1050));
+        transferenciaDTO.setTipo(TipoTransferencia.DEPOSITO);
+        transferenciaDTO.setNatureza(NaturezaLancamento.CREDITO);
+        transferenciaDTO.setIdTransacao("abc");
+
+        when(repositorioConta.obterContaPorId(7)).thenReturn(Optional.of(mock(Conta.class)));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransferenciaDTO>>getArgument(1).accept(transferenciaDTO);
+            return null;
+        }).when(repositorioTransferencia).exportarTransferenciasPorConta(eq(7), any());
+
+        ResponseEntity<StreamingResponseBody> response = servicoTransferencia.exportarTransferenciasPorConta(7, FormatoExportacao.CSV);
+        verifyNoInteractions(repositorioTransferencia);
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        response.getBody().writeTo(saida);
+
+        assertEquals("text/csv;charset=UTF-8", response.getHeaders().getContentType().toString());
+        assertEquals("dataTransferencia,valor,tipo,natureza,nomeOperadorTransacao,idTransacao\r\n" +
+                "2023-01-02T03:04:05,10.50,DEPOSITO,CREDITO,,abc\r\n", saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportarTransferenciasPorConta_ComContaInexistente_LancaContaNaoEncontradaException() {
+        when(repositorioConta.obterContaPorId(7)).thenThrow(new ContaNaoEncontradaException("Conta não encontrada"));
+
+        assertThrows(ContaNaoEncontradaException.class, () -> servicoTransferencia.exportarTransferenciasPorConta(7, FormatoExportacao.NDJSON));
+
+        verifyNoInteractions(repositorioTransferencia);
+    }
+
+    @Test
+    void obterExtratoPorContaAposCursor_ComContaExistente_RepassaOCursorDecodificado() {
+        CursorTransferencia cursor = new CursorTransferencia(LocalDateTime.of(2023, 1, 1, 10, 0), 9);
+        PaginaCursorDTO<LancamentoExtratoDTO> pagina = new PaginaCursorDTO<>(List.of(new LancamentoExtratoDTO()), null);
+
+        when(repositorioConta.obterContaPorId(7)).thenReturn(Optional.of(mock(Conta.class)));
+        when(repositorioTransferencia.obterExtratoPorContaAposCursor(argThat(lido -> lido.getId() == 9
+                && lido.getDataTransferencia().equals(cursor.getDataTransferencia())), eq(10), eq(7))).thenReturn(pagina);
+
+        ResponseEntity<PaginaCursorDTO<LancamentoExtratoDTO>> response = servicoTransferencia.obterExtratoPorContaAposCursor(cursor.codificar(), 10, 7);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(transferenciasMock, response.getBody());
-        verify(repositorioTransferencia, times(1)).obterTransferenciasPorOperador(pageable, nomeOperador);
+        assertEquals(pagina, response.getBody());
+    }
+
+    @Test
+    void obterExtratoPorContaAposCursor_ComContaInexistente_LancaContaNaoEncontradaException() {
+        when(repositorioConta.obterContaPorId(7)).thenThrow(new ContaNaoEncontradaException("Conta não encontrada"));
+
+        assertThrows(ContaNaoEncontradaException.class, () -> servicoTransferencia.obterExtratoPorContaAposCursor(null, 10, 7));
+
+        verifyNoInteractions(repositorioTransferencia);
+    }
+
+    @Test
+    void obterTodasTransferenciasAposCursor_ComCursorInvalido_LancaCursorInvalidoException() {
+        assertThrows(CursorInvalidoException.class, () -> servicoTransferencia.obterTodasTransferenciasAposCursor("nao-e-um-cursor", 10));
+
+        verifyNoInteractions(repositorioTransferencia);
     }
 
     @Test
-    void obterTransferenciaPorOperadorEPorData_ComApenasDataInicialEDataFinal_RetornaTransferencias() {
+    void obterTransferenciaPorOperadorEPorData_ComApenasDataInicial_NaoFiltraPorPeriodo() {
         Page<TransferenciaDTO> transferenciasMock = mock(Page.class);
         Pageable pageable = mock(Pageable.class);
-        LocalDateTime dataInicial = LocalDateTime.now().minusDays(7);
-        LocalDateTime dataFinal = LocalDateTime.now();
 
-        when(repositorioTransferencia.obterTransferenciasPorPeriodo(pageable, dataInicial, dataFinal))
-                .thenReturn(transferenciasMock);
+        when(repositorioTransferencia.buscarTransferencias(eq(pageable), any())).thenReturn(transferenciasMock);
 
-        ResponseEntity<Page<TransferenciaDTO>> response = servicoTransferencia.obterTransferenciaPorOperadorEPorData(
-                pageable, null, dataInicial, dataFinal);
+        servicoTransferencia.obterTransferenciaPorOperadorEPorData(pageable, "Operador", LocalDateTime.now().minusDays(7), null);
 
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(transferenciasMock, response.getBody());
-        verify(repositorioTransferencia, times(1)).obterTransferenciasPorPeriodo(pageable, dataInicial, dataFinal);
+        verify(repositorioTransferencia, times(1)).buscarTransferencias(eq(pageable), argThat(filtro ->
+                "Operador".equals(filtro.getNomeOperador()) && filtro.getDataInicial() == null && filtro.getDataFinal() == null));
     }
 
     @Test
-    void obterTransferenciaPorOperadorEPorData_ComTodosParametrosNulos_RetornaInternalServerError() {
+    void obterTransferenciaPorOperadorEPorData_ComErroNoRepositorio_PropagaAExcecao() {
         Pageable pageable = mock(Pageable.class);
 
-        when(repositorioTransferencia.obterTodasTransferencias(pageable)).thenThrow(RuntimeException.class);
+        when(repositorioTransferencia.buscarTransferencias(eq(pageable), any())).thenThrow(RuntimeException.class);
 
         assertThrows(RuntimeException.class, () -> servicoTransferencia.obterTransferenciaPorOperadorEPorData(
                 pageable, null, null, null));
 
-        verify(repositorioTransferencia, times(1)).obterTodasTransferencias(pageable);
+        verify(repositorioTransferencia, times(1)).buscarTransferencias(eq(pageable), any());
+    }
+
+    @Test
+    void buscarTransferencias_ComDataInicialPosteriorAFinal_LancaIllegalArgumentException() {
+        FiltroTransferencia filtro = new FiltroTransferencia();
+        filtro.setDataInicial(LocalDateTime.now());
+        filtro.setDataFinal(LocalDateTime.now().minusDays(1));
+
+        assertThrows(IllegalArgumentException.class, () -> servicoTransferencia.buscarTransferencias(mock(Pageable.class), filtro));
+
+        verifyNoInteractions(repositorioTransferencia);
+    }
+
+    @Test
+    void buscarTransferencias_ComValorMinimoMaiorQueMaximo_LancaIllegalArgumentException() {
+        FiltroTransferencia filtro = new FiltroTransferencia();
+        filtro.setValorMinimo(Dinheiro.deCentavos(1000));
+        filtro.setValorMaximo(Dinheiro.deCentavos(999));
+
+        assertThrows(IllegalArgumentException.class, () -> servicoTransferencia.buscarTransferencias(mock(Pageable.class), filtro));
+
+        verifyNoInteractions(repositorioTransferencia);
     }
 
     @Test
@@ -173,10 +327,12 @@ class TransferenciaServiceImplTest {
         Conta contaDestinatarioMock = mock(Conta.class);
         Conta contaOrigemMock = mock(Conta.class);
         Transferencia transferenciaMock = mock(Transferencia.class);
+        Transferencia creditoMock = mock(Transferencia.class);
         TransferenciaDTO transferenciaDTO1Mock = mock(TransferenciaDTO.class);
 
         when(repositorioConta.obterContaPorId(anyInt())).thenReturn(Optional.of(contaDestinatarioMock), Optional.of(contaOrigemMock));
-        when(mapperTransferencia.mapTransferencia(eq(transferenciaDTOMock), eq(contaDestinatarioMock), eq(contaOrigemMock))).thenReturn(transferenciaMock);
+        when(mapperTransferencia.mapLancamentosTransferencia(eq(transferenciaDTOMock), eq(contaDestinatarioMock), eq(contaOrigemMock)))
+                .thenReturn(List.of(transferenciaMock, creditoMock));
         when(mapperTransferencia.mapModelToDto(transferenciaMock)).thenReturn(transferenciaDTO1Mock);
 
         ResponseEntity<TransferenciaDTO> response = servicoTransferencia.realizarTransferencia(
@@ -184,9 +340,243 @@ class TransferenciaServiceImplTest {
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(transferenciaDTO1Mock, response.getBody());
+        verify(controleConcorrencia, times(1)).executar(eq(List.of(456, 123)), any());
         verify(repositorioConta, times(2)).obterContaPorId(anyInt());
-        verify(mapperTransferencia, times(1)).mapTransferencia(eq(transferenciaDTOMock), eq(contaDestinatarioMock), eq(contaOrigemMock));
-        verify(repositorioTransferencia, times(1)).salvar(transferenciaMock);
+        verify(mapperTransferencia, times(1)).mapLancamentosTransferencia(eq(transferenciaDTOMock), eq(contaDestinatarioMock), eq(contaOrigemMock));
+        verify(repositorioTransferencia, times(1)).salvarLancamentos(List.of(transferenciaMock, creditoMock));
         verify(mapperTransferencia, times(1)).mapModelToDto(transferenciaMock);
     }
+
+    @Test
+    void processarLote_GravaOsItensValidosDoBlocoDeUmaVezERejeitaOsDemais() {
+        Conta conta1 = new Conta();
+        conta1.setId(1);
+        Conta conta2 = new Conta();
+        conta2.setId(2);
+        Transferencia deposito = lancamento("dep");
+        Transferencia debito = lancamento("trf");
+        Transferencia credito = lancamento("trf");
+        when(filtroContas.podeExistir(9)).thenReturn(false);
+        when(repositorioConta.obterContasPorIds(List.of(1, 2, 3))).thenReturn(Map.of(1, conta1, 2, conta2));
+        when(mapperTransferencia.mapTransferenciaDeposito(any(), eq(conta1))).thenReturn(deposito);
+        when(mapperTransferencia.mapLancamentosTransferencia(any(), eq(conta1), eq(conta2))).thenReturn(List.of(debito, credito));
+        doThrow(new SaldoInsuficienteException("Saldo insuficiente")).when(motorSaldo).debitar(eq(2), any());
+
+        Iterator<ItemLoteDTO> itens = List.of(
+                item(TipoTransferencia.DEPOSITO, "10.00", 1, null),
+                item(TipoTransferencia.SAQUE, "-1.00", 1, null),
+                item(TipoTransferencia.TRANSFERENCIA, "5.00", 1, 2),
+                item(TipoTransferencia.DEPOSITO, "1.00", 9, null),
+                item(TipoTransferencia.SAQUE, "1.00", 2, null),
+                item(TipoTransferencia.DEPOSITO, "1.00", 3, null),
+                item(null, "1.00", 1, null)).iterator();
+
+        ResultadoLoteDTO resultado = servicoTransferencia.processarLote(itens).getBody();
+
+        assertEquals(2, resultado.getProcessados());
+        assertEquals(5, resultado.getRejeitados());
+        List<ResultadoItemLoteDTO> resultados = resultado.getItens();
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), resultados.stream().map(ResultadoItemLoteDTO::getIndice).collect(Collectors.toList()));
+        assertEquals("dep", resultados.get(0).getIdTransacao());
+        assertEquals("trf", resultados.get(2).getIdTransacao());
+        assertEquals("Valor nao pode ser negativo", resultados.get(1).getMensagem());
+        assertEquals("Conta não encontrada: 9", resultados.get(3).getMensagem());
+        assertEquals("Saldo insuficiente", resultados.get(4).getMensagem());
+        assertEquals("Conta não encontrada: 3", resultados.get(5).getMensagem());
+        assertEquals(SituacaoItemLote.REJEITADO, resultados.get(6).getSituacao());
+        verify(controleConcorrencia, times(1)).executar(eq(List.of(1, 2, 3)), any());
+        verify(repositorioTransferencia, times(1)).salvarLancamentos(List.of(deposito, debito, credito));
+        verify(motorSaldo, times(1)).invalidar(Set.of(1, 2));
+        verify(movimento, times(2)).confirmar();
+        verify(movimento, times(1)).desfazer();
+        verify(repositorioConta, never()).obterContaPorId(anyInt());
+    }
+
+    @Test
+    void processarLote_ComItemIlegivelEErroAoGravar_RejeitaOItemEOBloco() {
+        Conta conta = new Conta();
+        conta.setId(1);
+        when(repositorioConta.obterContasPorIds(List.of(1))).thenReturn(Map.of(1, conta));
+        when(mapperTransferencia.mapTransferenciaDeposito(any(), eq(conta))).thenReturn(lancamento("dep"));
+        doThrow(new TransferenciaInvalidaException("Erro ao salvar transferência")).when(repositorioTransferencia).salvarLancamentos(anyList());
+        List<Object> entrada = List.of(item(TipoTransferencia.DEPOSITO, "1.00", 1, null),
+                new TransferenciaInvalidaException("Item invalido"), item(TipoTransferencia.DEPOSITO, "2.00", 1, null));
+
+        ResultadoLoteDTO resultado = servicoTransferencia.processarLote(iterador(entrada)).getBody();
+
+        assertEquals(0, resultado.getProcessados());
+        assertEquals("Item invalido", resultado.getItens().get(1).getMensagem());
+        assertTrue(resultado.getItens().get(0).getMensagem().contains("Erro ao salvar transferência"));
+        assertTrue(resultado.getItens().get(2).getMensagem().contains("Erro ao salvar transferência"));
+    }
+
+    private static ItemLoteDTO item(final TipoTransferencia tipo, final String valor, final Integer destino, final Integer origem) {
+        ItemLoteDTO item = new ItemLoteDTO();
+        item.setTipo(tipo);
+        item.setValor(Dinheiro.de(valor));
+        item.setNumeroContaDestino(destino);
+        item.setNumeroContaOrigem(origem);
+        return item;
+    }
+
+    private static Transferencia lancamento(final String idTransacao) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setIdTransacao(idTransacao);
+        return transferencia;
+    }
+
+    // Itens do lote; as excecoes saem de next(), como no LeitorLote
+    private static Iterator<ItemLoteDTO> iterador(final List<Object> entrada) {
+        Iterator<Object> elementos = new ArrayList<>(entrada).iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return elementos.hasNext();
+            }
+
+            @Override
+            public ItemLoteDTO next() {
+                Object elemento = elementos.next();
+                if (elemento instanceof RuntimeException) {
+                    throw (RuntimeException) elemento;
+                }
+                return (ItemLoteDTO) elemento;
+            }
+        };
+    }
+
+    @Test
+    void obterSaldoTotalPorNumeroConta_ComContaValida_RetornaSaldoDoRepositorio() {
+        int numeroConta = 1;
+        BigDecimal saldo = BigDecimal.valueOf(1500);
+
+        when(repositorioTransferencia.obterSaldoTotalPorNumeroConta(numeroConta)).thenReturn(saldo);
+
+        ResponseEntity<BigDecimal> response = servicoTransferencia.obterSaldoTotalPorNumeroConta(numeroConta);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(saldo, response.getBody());
+        verify(repositorioTransferencia, times(1)).obterSaldoTotalPorNumeroConta(numeroConta);
+    }
+
+    @Test
+    void obterVersaoConta_RetornaAVersaoDoRepositorio() {
+        when(repositorioTransferencia.obterVersaoConta(1)).thenReturn("3-1646128800.0");
+
+        assertEquals("3-1646128800.0", servicoTransferencia.obterVersaoConta(1));
+        verify(repositorioTransferencia, never()).obterTransferenciasPorConta(any(), anyInt());
+    }
+
+    @Test
+    void obterSaldoEm_ComInstanteValido_RetornaSaldoDosCheckpoints() {
+        int numeroConta = 1;
+        LocalDateTime instante = LocalDateTime.of(2020, 1, 1, 0, 0);
+        BigDecimal saldo = new BigDecimal("30394.96");
+
+        when(repositorioCheckpointSaldo.obterSaldoEm(numeroConta, instante)).thenReturn(saldo);
+
+        ResponseEntity<BigDecimal> response = servicoTransferencia.obterSaldoEm(numeroConta, instante);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(saldo, response.getBody());
+        verify(repositorioTransferencia, never()).obterSaldoTotalPorNumeroConta(anyInt());
+    }
+
+    @Test
+    void realizarTransferencia_ComSaldoInsuficienteNoMotor_NaoAcessaRepositorios() {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.deCentavos(10_000));
+
+        doThrow(new SaldoInsuficienteException("Saldo insuficiente")).when(motorSaldo)
+                .transferir(456, 123, transferenciaDTO.getValor());
+
+        assertThrows(SaldoInsuficienteException.class, () -> servicoTransferencia.realizarTransferencia(
+                transferenciaDTO, 123, 456));
+
+        verifyNoInteractions(controleConcorrencia, repositorioConta, repositorioTransferencia);
+    }
+
+    @Test
+    void realizarTransferencia_ValidaNoMotorAntesDeBloquearEConfirmaDepoisDeGravar() {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.deCentavos(10_000));
+        Transferencia debito = mock(Transferencia.class);
+        when(repositorioConta.obterContaPorId(anyInt())).thenReturn(Optional.of(mock(Conta.class)));
+        when(mapperTransferencia.mapLancamentosTransferencia(any(), any(), any())).thenReturn(List.of(debito, mock(Transferencia.class)));
+
+        servicoTransferencia.realizarTransferencia(transferenciaDTO, 123, 456);
+
+        InOrder ordem = inOrder(motorSaldo, controleConcorrencia, movimento);
+        ordem.verify(motorSaldo).transferir(456, 123, transferenciaDTO.getValor());
+        ordem.verify(controleConcorrencia).executar(eq(List.of(456, 123)), any());
+        ordem.verify(movimento).confirmar();
+        verify(movimento, never()).desfazer();
+    }
+
+    @Test
+    void realizarDeposito_ComFalhaAoGravar_DesfazMovimentoNoMotor() {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.deCentavos(10_000));
+        when(repositorioConta.obterContaPorId(1)).thenReturn(Optional.empty());
+
+        assertThrows(ContaNaoEncontradaException.class, () -> servicoTransferencia.realizarDeposito(transferenciaDTO, 1));
+
+        verify(movimento, times(1)).desfazer();
+        verify(movimento, never()).confirmar();
+    }
+
+    @Test
+    void realizarDeposito_ComContaRecusadaPeloFiltro_NaoBloqueiaNemAcessaRepositorios() {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.deCentavos(10_000));
+        when(filtroContas.podeExistir(999)).thenReturn(false);
+
+        assertThrows(ContaNaoEncontradaException.class, () -> servicoTransferencia.realizarDeposito(transferenciaDTO, 999));
+
+        verifyNoInteractions(controleConcorrencia, motorSaldo, repositorioConta, repositorioTransferencia);
+    }
+
+    @Test
+    void realizarSaque_ComSaldoInsuficienteNoMotor_NaoAcessaRepositorios() {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.deCentavos(10_000));
+
+        doThrow(new SaldoInsuficienteException("Saldo insuficiente")).when(motorSaldo)
+                .debitar(1, transferenciaDTO.getValor());
+
+        assertThrows(SaldoInsuficienteException.class, () -> servicoTransferencia.realizarSaque(transferenciaDTO, 1));
+
+        verifyNoInteractions(controleConcorrencia, repositorioConta, repositorioTransferencia);
+    }
+
+    @Test
+    void realizarDeposito_ComChaveDeIdempotencia_RegistraARespostaDentroDaOperacao() {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de("100.00"));
+        Conta conta = new Conta();
+        Transferencia deposito = new Transferencia();
+        TransferenciaDTO resposta = new TransferenciaDTO();
+        when(repositorioConta.obterContaPorId(1)).thenReturn(Optional.of(conta));
+        when(mapperTransferencia.mapTransferenciaDeposito(transferenciaDTO, conta)).thenReturn(deposito);
+        when(mapperTransferencia.mapModelToDto(deposito)).thenReturn(resposta);
+
+        assertEquals(resposta, servicoTransferencia.realizarDeposito(transferenciaDTO, 1, "deposito-1").getBody());
+
+        InOrder ordem = inOrder(repositorioTransferencia, idempotencia);
+        ordem.verify(repositorioTransferencia).salvar(deposito);
+        ordem.verify(idempotencia).registrar("deposito-1", "DEPOSITO:1:100.00", resposta);
+        verify(idempotencia).executar(eq("deposito-1"), eq("DEPOSITO:1:100.00"), any());
+    }
+
+    @Test
+    void realizarTransferencia_ComChaveJaConcluida_DevolveARespostaGuardadaSemExecutar() {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de("5.00"));
+        TransferenciaDTO guardada = new TransferenciaDTO();
+        doReturn(guardada).when(idempotencia).executar(eq("transferencia-1"), eq("TRANSFERENCIA:456:123:5.00"), any());
+
+        assertEquals(guardada, servicoTransferencia.realizarTransferencia(transferenciaDTO, 123, 456, "transferencia-1").getBody());
+
+        verifyNoInteractions(controleConcorrencia, motorSaldo, repositorioConta, repositorioTransferencia);
+    }
 }
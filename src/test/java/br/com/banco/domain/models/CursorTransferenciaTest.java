@@ -0,0 +1,34 @@
+package br.com.banco.domain.models;
+
+import br.com.banco.domain.exception.CursorInvalidoException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTransferenciaTest {
+
+    @Test
+    void decodificar_TokenGeradoPorCodificar_RetornaAMesmaPosicao() {
+        LocalDateTime data = LocalDateTime.of(2023, 7, 15, 23, 59, 59, 123456000);
+
+        CursorTransferencia cursor = CursorTransferencia.decodificar(new CursorTransferencia(data, 987).codificar());
+
+        assertEquals(data, cursor.getDataTransferencia());
+        assertEquals(987, cursor.getId());
+    }
+
+    @Test
+    void decodificar_TokenVazio_RetornaNuloParaAPrimeiraPagina() {
+        assertNull(CursorTransferencia.decodificar(null));
+        assertNull(CursorTransferencia.decodificar(""));
+    }
+
+    @Test
+    void decodificar_TokenAdulterado_LancaCursorInvalidoException() {
+        assertThrows(CursorInvalidoException.class, () -> CursorTransferencia.decodificar("%%%"));
+        assertThrows(CursorInvalidoException.class, () -> CursorTransferencia.decodificar("c2VtLXNlcGFyYWRvcg"));
+        assertThrows(CursorInvalidoException.class, () -> CursorTransferencia.decodificar("MjAyMy0wMS0wMXw0Mg"));
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.banco.domain.models;
+
+import br.com.banco.infrastructure.adaptadores.persistence.converters.DinheiroConverter;
+import br.com.banco.infrastructure.config.DinheiroJsonComponent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DinheiroTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new SimpleModule()
+            .addSerializer(Dinheiro.class, new DinheiroJsonComponent.Serializer())
+            .addDeserializer(Dinheiro.class, new DinheiroJsonComponent.Deserializer()));
+
+    @Test
+    void de_ComTextoDecimal_ConverteParaCentavos() {
+        assertEquals(123450, Dinheiro.de("1234.5").getCentavos());
+        assertEquals(-1, Dinheiro.de("-0.01").getCentavos());
+        assertEquals(700, Dinheiro.de("7").getCentavos());
+        assertEquals(50, Dinheiro.de(".5").getCentavos());
+    }
+
+    @Test
+    void de_ComMaisDeDuasCasas_ArredondaHalfEven() {
+        assertEquals(2, Dinheiro.de("0.025").getCentavos());
+        assertEquals(4, Dinheiro.de("0.035").getCentavos());
+        assertEquals(150, Dinheiro.de("1.5E0").getCentavos());
+    }
+
+    @Test
+    void de_ComTextoInvalido_LancaNumberFormatException() {
+        assertThrows(NumberFormatException.class, () -> Dinheiro.de("abc"));
+        assertThrows(NumberFormatException.class, () -> Dinheiro.de("-"));
+        assertThrows(NumberFormatException.class, () -> Dinheiro.de(""));
+    }
+
+    @Test
+    void de_ForaDoLimiteDeCentavos_LancaArithmeticException() {
+        assertThrows(ArithmeticException.class, () -> Dinheiro.de("92233720368547758.08"));
+        assertThrows(ArithmeticException.class, () -> Dinheiro.de(new BigDecimal("1E+20")));
+    }
+
+    @Test
+    void somarESubtrair_SaoExatos() {
+        Dinheiro valor = Dinheiro.de("0.10").somar(Dinheiro.de("0.20"));
+
+        assertEquals(Dinheiro.de("0.30"), valor);
+        assertEquals(Dinheiro.de("-0.70"), valor.subtrair(Dinheiro.de("1")));
+        assertThrows(ArithmeticException.class, () -> Dinheiro.deCentavos(Long.MAX_VALUE).somar(Dinheiro.deCentavos(1)));
+    }
+
+    @Test
+    void toBigDecimal_UsaEscalaDois() {
+        assertEquals(new BigDecimal("1234.50"), Dinheiro.de("1234.5").toBigDecimal());
+        assertEquals(new BigDecimal("-0.05"), Dinheiro.deCentavos(-5).toBigDecimal());
+        assertEquals("-0.05", Dinheiro.deCentavos(-5).toString());
+    }
+
+    @Test
+    void converter_IdaEVoltaPelaColunaNumeric() {
+        DinheiroConverter converter = new DinheiroConverter();
+        Dinheiro valor = Dinheiro.de("98765.43");
+
+        assertEquals(new BigDecimal("98765.43"), converter.convertToDatabaseColumn(valor));
+        assertEquals(valor, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(valor)));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void json_IdaEVoltaComoNumero() throws Exception {
+        assertEquals("1234.50", objectMapper.writeValueAsString(Dinheiro.de("1234.5")));
+        assertEquals(Dinheiro.de("10.99"), objectMapper.readValue("10.99", Dinheiro.class));
+        assertEquals(Dinheiro.de("10"), objectMapper.readValue("\"10\"", Dinheiro.class));
+    }
+}
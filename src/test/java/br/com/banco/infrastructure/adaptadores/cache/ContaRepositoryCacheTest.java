@@ -0,0 +1,141 @@
+package br.com.banco.infrastructure.adaptadores.cache;
+
+import br.com.banco.domain.exception.ContaNaoEncontradaException;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ContaRepositoryCacheTest {
+
+    private final IContaRepositoryPort contaRepository = mock(IContaRepositoryPort.class);
+    private final AtomicLong agoraNanos = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ContaRepositoryCache cache = new ContaRepositoryCache(contaRepository, 100, Duration.ofMinutes(5), agoraNanos::get,
+            meterRegistry);
+
+    @Test
+    void obterContaPorId_SegundaLeitura_NaoVaiAoRepositorio() {
+        when(contaRepository.obterContaPorId(1)).thenReturn(Optional.of(conta(1, "Ana")));
+
+        assertEquals("Ana", cache.obterContaPorId(1).orElseThrow().getNomeResponsavel());
+        assertEquals("Ana", cache.obterContaPorId(1).orElseThrow().getNomeResponsavel());
+
+        verify(contaRepository, times(1)).obterContaPorId(1);
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "conta.por-id", "result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "conta.por-id", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void obterContasPorIds_BuscaSoAsQueFaltamNoCache() {
+        when(contaRepository.obterContaPorId(1)).thenReturn(Optional.of(conta(1, "Ana")));
+        when(contaRepository.obterContasPorIds(List.of(2, 3))).thenReturn(Map.of(2, conta(2, "Bia")));
+        cache.obterContaPorId(1);
+
+        Map<Integer, Conta> contas = cache.obterContasPorIds(List.of(1, 2, 3));
+        cache.obterContaPorId(2);
+
+        assertEquals(Set.of(1, 2), contas.keySet());
+        assertEquals("Bia", contas.get(2).getNomeResponsavel());
+        verify(contaRepository, times(1)).obterContasPorIds(List.of(2, 3));
+        verify(contaRepository, never()).obterContaPorId(2);
+    }
+
+    @Test
+    void obterContaPorId_DepoisDaExpiracao_LeDeNovo() {
+        when(contaRepository.obterContaPorId(1)).thenReturn(Optional.of(conta(1, "Ana")));
+
+        cache.obterContaPorId(1);
+        agoraNanos.addAndGet(TimeUnit.MINUTES.toNanos(5) + 1);
+        cache.obterContaPorId(1);
+
+        verify(contaRepository, times(2)).obterContaPorId(1);
+    }
+
+    @Test
+    void obterContaPorId_ContaInexistente_NaoGuardaEPropagaAExcecao() {
+        when(contaRepository.obterContaPorId(1)).thenThrow(new ContaNaoEncontradaException("Conta não encontrada"));
+
+        assertThrows(ContaNaoEncontradaException.class, () -> cache.obterContaPorId(1));
+        assertThrows(ContaNaoEncontradaException.class, () -> cache.obterContaPorId(1));
+
+        verify(contaRepository, times(2)).obterContaPorId(1);
+    }
+
+    @Test
+    void obterContaPorId_AlterarAContaDevolvida_NaoAlteraOCache() {
+        when(contaRepository.obterContaPorId(1)).thenReturn(Optional.of(conta(1, "Ana")));
+
+        cache.obterContaPorId(1).orElseThrow().setNomeResponsavel("Outro");
+
+        assertEquals("Ana", cache.obterContaPorId(1).orElseThrow().getNomeResponsavel());
+    }
+
+    @Test
+    void obterContaPorNomeResponsavel_SemConta_NaoGuardaOResultadoVazio() {
+        when(contaRepository.obterContaPorNomeResponsavel("Bia")).thenReturn(Optional.empty(), Optional.of(conta(2, "Bia")));
+
+        assertTrue(cache.obterContaPorNomeResponsavel("Bia").isEmpty());
+        assertEquals(2, cache.obterContaPorNomeResponsavel("Bia").orElseThrow().getId());
+        assertEquals(2, cache.obterContaPorNomeResponsavel("Bia").orElseThrow().getId());
+
+        verify(contaRepository, times(2)).obterContaPorNomeResponsavel("Bia");
+    }
+
+    @Test
+    void salvar_InvalidaOIdETodasAsBuscasPorNome() {
+        when(contaRepository.obterContaPorId(1)).thenReturn(Optional.of(conta(1, "Ana")), Optional.of(conta(1, "Ana Maria")));
+        when(contaRepository.obterContaPorNomeResponsavel("Ana")).thenReturn(Optional.of(conta(1, "Ana")));
+        cache.obterContaPorId(1);
+        cache.obterContaPorNomeResponsavel("Ana");
+
+        cache.salvar(conta(1, "Ana Maria"));
+
+        assertEquals("Ana Maria", cache.obterContaPorId(1).orElseThrow().getNomeResponsavel());
+        cache.obterContaPorNomeResponsavel("Ana");
+        verify(contaRepository).salvar(any());
+        verify(contaRepository, times(2)).obterContaPorId(1);
+        verify(contaRepository, times(2)).obterContaPorNomeResponsavel("Ana");
+    }
+
+    @Test
+    void deletar_DentroDeTransacao_InvalidaDeNovoAoFinal() {
+        when(contaRepository.obterContaPorId(1)).thenReturn(Optional.of(conta(1, "Ana")));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.deletar(1);
+            // Leitura concorrente antes do commit, ainda com a conta no banco
+            cache.obterContaPorId(1);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        cache.obterContaPorId(1);
+        verify(contaRepository).deletar(1);
+        verify(contaRepository, times(2)).obterContaPorId(1);
+    }
+
+    private static Conta conta(final int id, final String nome) {
+        Conta conta = new Conta();
+        conta.setId(id);
+        conta.setNomeResponsavel(nome);
+        return conta;
+    }
+}
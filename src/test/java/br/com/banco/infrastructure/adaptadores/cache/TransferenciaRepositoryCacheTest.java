@@ -0,0 +1,177 @@
+package br.com.banco.infrastructure.adaptadores.cache;
+
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransferenciaRepositoryCacheTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2022, 3, 10, 15, 0);
+    private static final LocalDateTime INICIO_MARCO = LocalDateTime.of(2022, 3, 1, 0, 0);
+    private static final LocalDateTime FIM_DIA_5 = LocalDateTime.of(2022, 3, 5, 23, 59, 59);
+
+    private final ITransferenciaRepositoryPort transferenciaRepository = mock(ITransferenciaRepositoryPort.class);
+    private final AtomicLong agoraNanos = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TransferenciaRepositoryCache cache = criarCache(AGORA);
+
+    @Test
+    void obterSaldoTotalPorNumeroConta_SegundaLeitura_NaoVaiAoRepositorio() {
+        when(transferenciaRepository.obterSaldoTotalPorNumeroConta(1)).thenReturn(BigDecimal.TEN);
+
+        assertEquals(BigDecimal.TEN, cache.obterSaldoTotalPorNumeroConta(1));
+        assertEquals(BigDecimal.TEN, cache.obterSaldoTotalPorNumeroConta(1));
+
+        verify(transferenciaRepository, times(1)).obterSaldoTotalPorNumeroConta(1);
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "saldo.por-conta", "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void obterSaldoTotalPorNumeroConta_DepoisDaExpiracao_LeDeNovo() {
+        when(transferenciaRepository.obterSaldoTotalPorNumeroConta(1)).thenReturn(BigDecimal.TEN);
+
+        cache.obterSaldoTotalPorNumeroConta(1);
+        agoraNanos.addAndGet(TimeUnit.MINUTES.toNanos(5) + 1);
+        cache.obterSaldoTotalPorNumeroConta(1);
+
+        verify(transferenciaRepository, times(2)).obterSaldoTotalPorNumeroConta(1);
+    }
+
+    @Test
+    void salvarLancamentos_InvalidaSoAsContasDosLancamentos() {
+        when(transferenciaRepository.obterSaldoTotalPorNumeroConta(anyInt())).thenReturn(BigDecimal.TEN);
+        cache.obterSaldoTotalPorNumeroConta(1);
+        cache.obterSaldoTotalPorNumeroConta(2);
+        cache.obterSaldoTotalPorNumeroConta(3);
+
+        List<Transferencia> lancamentos = List.of(lancamento(1, AGORA), lancamento(2, AGORA));
+        cache.salvarLancamentos(lancamentos);
+        cache.obterSaldoTotalPorNumeroConta(1);
+        cache.obterSaldoTotalPorNumeroConta(2);
+        cache.obterSaldoTotalPorNumeroConta(3);
+
+        verify(transferenciaRepository).salvarLancamentos(lancamentos);
+        verify(transferenciaRepository, times(2)).obterSaldoTotalPorNumeroConta(1);
+        verify(transferenciaRepository, times(2)).obterSaldoTotalPorNumeroConta(2);
+        verify(transferenciaRepository, times(1)).obterSaldoTotalPorNumeroConta(3);
+    }
+
+    @Test
+    void obterSaldoTotalPorPeriodo_PeriodoEncerrado_NaoExpiraNemSaiComLancamentoDeHoje() {
+        when(transferenciaRepository.obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5)).thenReturn(BigDecimal.ONE);
+
+        cache.obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5);
+        agoraNanos.addAndGet(TimeUnit.DAYS.toNanos(30));
+        cache.salvar(lancamento(1, AGORA));
+
+        assertEquals(BigDecimal.ONE, cache.obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5));
+        verify(transferenciaRepository, times(1)).obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5);
+    }
+
+    @Test
+    void obterSaldoTotalPorPeriodo_PeriodoQueChegaAHoje_SempreVaiAoRepositorio() {
+        LocalDateTime fimDeHoje = AGORA.toLocalDate().atTime(23, 59, 59);
+
+        cache.obterSaldoTotalPorPeriodo(INICIO_MARCO, fimDeHoje);
+        cache.obterSaldoTotalPorPeriodo(INICIO_MARCO, AGORA.toLocalDate().atStartOfDay());
+
+        verify(transferenciaRepository, times(1)).obterSaldoTotalPorPeriodo(INICIO_MARCO, fimDeHoje);
+        verify(transferenciaRepository, times(1)).obterSaldoTotalPorPeriodo(INICIO_MARCO, AGORA.toLocalDate().atStartOfDay());
+    }
+
+    @Test
+    void obterSaldoTotalPorPeriodo_DiaAnteriorDentroDaMargemDeFechamento_VaiAoRepositorio() {
+        LocalDateTime fimDia9 = LocalDateTime.of(2022, 3, 9, 23, 59, 59);
+        TransferenciaRepositoryCache logoAposMeiaNoite = criarCache(LocalDateTime.of(2022, 3, 10, 0, 4));
+        TransferenciaRepositoryCache aposAMargem = criarCache(LocalDateTime.of(2022, 3, 10, 0, 6));
+        when(transferenciaRepository.obterSaldoTotalPorPeriodo(INICIO_MARCO, fimDia9)).thenReturn(BigDecimal.ONE);
+
+        logoAposMeiaNoite.obterSaldoTotalPorPeriodo(INICIO_MARCO, fimDia9);
+        logoAposMeiaNoite.obterSaldoTotalPorPeriodo(INICIO_MARCO, fimDia9);
+        verify(transferenciaRepository, times(2)).obterSaldoTotalPorPeriodo(INICIO_MARCO, fimDia9);
+
+        aposAMargem.obterSaldoTotalPorPeriodo(INICIO_MARCO, fimDia9);
+        aposAMargem.obterSaldoTotalPorPeriodo(INICIO_MARCO, fimDia9);
+        verify(transferenciaRepository, times(3)).obterSaldoTotalPorPeriodo(INICIO_MARCO, fimDia9);
+    }
+
+    @Test
+    void obterSaldoTotalPorPeriodo_LancamentoRetroativoDuranteALeitura_NaoGuardaASomaAntiga() {
+        when(transferenciaRepository.obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5)).thenAnswer(chamada -> {
+            // O commit do lancamento e o descarte acontecem enquanto a soma antiga ainda esta sendo lida
+            cache.salvar(lancamento(1, LocalDateTime.of(2022, 3, 2, 12, 0)));
+            return BigDecimal.ONE;
+        }).thenReturn(BigDecimal.TEN);
+
+        assertEquals(BigDecimal.ONE, cache.obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5));
+
+        assertEquals(BigDecimal.TEN, cache.obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5));
+        assertEquals(BigDecimal.TEN, cache.obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5));
+        verify(transferenciaRepository, times(2)).obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5);
+    }
+
+    @Test
+    void deletar_LancamentoRetroativo_InvalidaSoOsPeriodosQueOContem() {
+        LocalDateTime inicioDia6 = LocalDateTime.of(2022, 3, 6, 0, 0);
+        LocalDateTime fimDia8 = LocalDateTime.of(2022, 3, 8, 23, 59, 59);
+        when(transferenciaRepository.obterSaldoTotalPorPeriodo(any(), any())).thenReturn(BigDecimal.ONE);
+        cache.obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5);
+        cache.obterSaldoTotalPorPeriodo(inicioDia6, fimDia8);
+
+        cache.deletar(lancamento(1, LocalDateTime.of(2022, 3, 7, 12, 0)));
+        cache.obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5);
+        cache.obterSaldoTotalPorPeriodo(inicioDia6, fimDia8);
+
+        verify(transferenciaRepository, times(1)).obterSaldoTotalPorPeriodo(INICIO_MARCO, FIM_DIA_5);
+        verify(transferenciaRepository, times(2)).obterSaldoTotalPorPeriodo(inicioDia6, fimDia8);
+    }
+
+    @Test
+    void salvar_DentroDeTransacao_InvalidaDeNovoAoFinal() {
+        when(transferenciaRepository.obterSaldoTotalPorNumeroConta(1)).thenReturn(BigDecimal.ONE, BigDecimal.TEN);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.salvar(lancamento(1, AGORA));
+            // Leitura concorrente antes do commit, ainda com o saldo antigo
+            cache.obterSaldoTotalPorNumeroConta(1);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(BigDecimal.TEN, cache.obterSaldoTotalPorNumeroConta(1));
+    }
+
+    private TransferenciaRepositoryCache criarCache(final LocalDateTime agora) {
+        return new TransferenciaRepositoryCache(transferenciaRepository, 100, Duration.ofMinutes(5), agoraNanos::get,
+                Clock.fixed(agora.toInstant(ZoneOffset.UTC), ZoneOffset.UTC), Duration.ofMinutes(5), meterRegistry);
+    }
+
+    private static Transferencia lancamento(final int contaId, final LocalDateTime data) {
+        Conta conta = new Conta();
+        conta.setId(contaId);
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaId(conta);
+        transferencia.setDataTransferencia(data);
+        return transferencia;
+    }
+}
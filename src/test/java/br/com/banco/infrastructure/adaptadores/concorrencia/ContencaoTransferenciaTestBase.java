@@ -0,0 +1,79 @@
+package br.com.banco.infrastructure.adaptadores.concorrencia;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.exception.ConflitoConcorrenciaException;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dispara depósitos concorrentes em uma única conta e confere que o saldo materializado
+ * continua igual à soma dos lançamentos, qualquer que seja a estratégia configurada.
+ */
+abstract class ContencaoTransferenciaTestBase {
+
+    private static final int CLIENTES = 8;
+    private static final int DEPOSITOS_POR_CLIENTE = 25;
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private ISaldoContaRepositoryPort saldoContaRepository;
+
+    @Test
+    void depositosConcorrentes_NaContaQuente_MantemSaldoConsistente() throws Exception {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel("Conta Quente");
+        contaService.salvarConta(contaDTO);
+        int contaId = contaService.obterContaPorNomeResponsavel(contaDTO.getNomeResponsavel()).getBody().getId();
+
+        AtomicInteger concluidos = new AtomicInteger();
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            tarefas.add(clientes.submit(() -> {
+                for (int j = 0; j < DEPOSITOS_POR_CLIENTE; j++) {
+                    TransferenciaDTO deposito = new TransferenciaDTO();
+                    deposito.setValor(Dinheiro.deCentavos(100));
+                    try {
+                        transferenciaService.realizarDeposito(deposito, contaId);
+                        concluidos.incrementAndGet();
+                    } catch (ConflitoConcorrenciaException e) {
+                        // aceito: a estrategia desistiu apos esgotar a espera ou as tentativas
+                    }
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        clientes.shutdown();
+
+        long lancamentos = transferenciaService.obterTransferenciasPorConta(Pageable.unpaged(), contaId)
+                .getBody().getTotalElements();
+        assertTrue(concluidos.get() > 0);
+        assertEquals(concluidos.get(), lancamentos);
+        assertEquals(0, BigDecimal.valueOf(concluidos.get()).compareTo(saldoContaRepository.obterSaldo(contaId)));
+        assertEquals(saldoContaRepository.calcularSaldosPelosLancamentos().get(contaId),
+                saldoContaRepository.obterSaldosMaterializados().get(contaId));
+    }
+}
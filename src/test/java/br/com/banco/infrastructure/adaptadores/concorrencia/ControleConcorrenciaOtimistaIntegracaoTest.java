@@ -0,0 +1,8 @@
+package br.com.banco.infrastructure.adaptadores.concorrencia;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {"banco.concorrencia.estrategia=OTIMISTA", "banco.concorrencia.otimista.tentativas=20",
+        "spring.datasource.url=jdbc:h2:mem:contencao-otimista"})
+class ControleConcorrenciaOtimistaIntegracaoTest extends ContencaoTransferenciaTestBase {
+}
@@ -0,0 +1,95 @@
+package br.com.banco.infrastructure.adaptadores.concorrencia;
+
+import br.com.banco.domain.exception.ConflitoConcorrenciaException;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringContaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ControleConcorrenciaOtimistaTest {
+
+    private final SpringContaRepository contaRepository = mock(SpringContaRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ControleConcorrenciaOtimista controleConcorrencia;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(contaRepository.obterVersao(anyInt())).thenReturn(Optional.of(3L));
+        when(contaRepository.incrementarVersao(anyInt(), eq(3L))).thenReturn(1);
+        controleConcorrencia = new ControleConcorrenciaOtimista(contaRepository, new TransactionTemplate(transactionManager),
+                meterRegistry, 3, 1, 4);
+    }
+
+    @Test
+    void executar_SemConflito_LeVersoesAntesEIncrementaDepoisDaOperacaoEmOrdemCrescente() {
+        Runnable operacao = mock(Runnable.class);
+
+        String resultado = controleConcorrencia.executar(List.of(9, 2, 9), () -> {
+            operacao.run();
+            return "ok";
+        });
+
+        assertEquals("ok", resultado);
+        InOrder ordem = inOrder(contaRepository, operacao);
+        ordem.verify(contaRepository, times(2)).obterVersao(anyInt());
+        ordem.verify(operacao).run();
+        ordem.verify(contaRepository).incrementarVersao(2, 3L);
+        ordem.verify(contaRepository).incrementarVersao(9, 3L);
+        assertEquals(0.0, meterRegistry.get("banco.concorrencia.retentativas").counter().count());
+    }
+
+    @Test
+    void executar_ComVersaoAlteradaDuranteAOperacao_DesfazERepete() {
+        AtomicInteger chamadas = new AtomicInteger();
+        when(contaRepository.incrementarVersao(1, 3L)).thenReturn(0, 1);
+
+        String resultado = controleConcorrencia.executar(List.of(1), () -> "ok" + chamadas.incrementAndGet());
+
+        assertEquals("ok2", resultado);
+        assertEquals(1.0, meterRegistry.get("banco.concorrencia.retentativas").counter().count());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void executar_ComConflitoNoCommit_Repete() {
+        doThrow(new ObjectOptimisticLockingFailureException("ContaEntity", 1))
+                .doNothing()
+                .when(transactionManager).commit(any());
+
+        assertEquals("ok", controleConcorrencia.executar(List.of(1), () -> "ok"));
+
+        assertEquals(1.0, meterRegistry.get("banco.concorrencia.retentativas").counter().count());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void executar_ComConflitoPersistente_LancaConflitoConcorrenciaAposEsgotarTentativas() {
+        doThrow(new ObjectOptimisticLockingFailureException("ContaEntity", 1))
+                .when(transactionManager).commit(any());
+
+        assertThrows(ConflitoConcorrenciaException.class, () -> controleConcorrencia.executar(List.of(1, 2), () -> "ok"));
+
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(2.0, meterRegistry.get("banco.concorrencia.retentativas").counter().count());
+        assertEquals(1.0, meterRegistry.get("banco.concorrencia.conflitos.esgotados").counter().count());
+    }
+}
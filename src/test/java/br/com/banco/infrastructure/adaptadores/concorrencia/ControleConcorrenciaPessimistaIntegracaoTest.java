@@ -0,0 +1,8 @@
+package br.com.banco.infrastructure.adaptadores.concorrencia;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {"banco.concorrencia.estrategia=PESSIMISTA",
+        "spring.datasource.url=jdbc:h2:mem:contencao-pessimista"})
+class ControleConcorrenciaPessimistaIntegracaoTest extends ContencaoTransferenciaTestBase {
+}
@@ -0,0 +1,59 @@
+package br.com.banco.infrastructure.adaptadores.concorrencia;
+
+import br.com.banco.domain.exception.ConflitoConcorrenciaException;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringContaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ControleConcorrenciaPessimistaTest {
+
+    private final SpringContaRepository contaRepository = mock(SpringContaRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ControleConcorrenciaPessimista controleConcorrencia;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        controleConcorrencia = new ControleConcorrenciaPessimista(contaRepository, new TransactionTemplate(transactionManager),
+                meterRegistry);
+    }
+
+    @Test
+    void executar_BloqueiaContasEmOrdemCrescenteAntesDaOperacao() {
+        String resultado = controleConcorrencia.executar(List.of(7, 3, 7), () -> {
+            verify(contaRepository, times(2)).bloquearParaAtualizacao(anyInt());
+            return "ok";
+        });
+
+        assertEquals("ok", resultado);
+        InOrder ordem = inOrder(contaRepository);
+        ordem.verify(contaRepository).bloquearParaAtualizacao(3);
+        ordem.verify(contaRepository).bloquearParaAtualizacao(7);
+        assertEquals(2, meterRegistry.get("banco.concorrencia.bloqueio.espera").timer().count());
+    }
+
+    @Test
+    void executar_ComTimeoutNoBloqueio_LancaConflitoConcorrencia() {
+        when(contaRepository.bloquearParaAtualizacao(anyInt())).thenThrow(new PessimisticLockingFailureException("timeout"));
+
+        assertThrows(ConflitoConcorrenciaException.class, () -> controleConcorrencia.executar(List.of(1, 2), () -> "ok"));
+
+        verify(transactionManager).rollback(any());
+        assertEquals(1.0, meterRegistry.get("banco.concorrencia.bloqueio.expirados").counter().count());
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.banco.infrastructure.adaptadores.filtro;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroBloomEscalavelTest {
+
+    @Test
+    void adicionar_AlemDaCapacidade_AbreCamadasSemFalsosNegativos() {
+        FiltroBloomEscalavel filtro = new FiltroBloomEscalavel(1000, 0.01);
+
+        for (int i = 1; i <= 20_000; i++) {
+            filtro.adicionar(i);
+        }
+
+        assertTrue(filtro.quantidadeCamadas() > 1);
+        for (int i = 1; i <= 20_000; i++) {
+            assertTrue(filtro.podeConter(i), "Falso negativo: " + i);
+        }
+    }
+
+    @Test
+    void podeConter_ValoresNuncaIncluidos_FicaAbaixoDaTaxaPedida() {
+        FiltroBloomEscalavel filtro = new FiltroBloomEscalavel(1000, 0.01);
+        for (int i = 1; i <= 20_000; i++) {
+            filtro.adicionar(i);
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 1_000_001; i <= 1_100_000; i++) {
+            if (filtro.podeConter(i)) {
+                falsosPositivos++;
+            }
+        }
+
+        assertTrue(falsosPositivos < 1000, () -> "Falsos positivos em 100000 consultas: " + filtro.taxaFalsoPositivoEstimada());
+        assertTrue(filtro.taxaFalsoPositivoEstimada() > 0 && filtro.taxaFalsoPositivoEstimada() < 0.01);
+    }
+
+    @Test
+    void adicionar_ValorRepetido_NaoConta() {
+        FiltroBloomEscalavel filtro = new FiltroBloomEscalavel(10, 0.01);
+
+        assertTrue(filtro.adicionar(42));
+        assertFalse(filtro.adicionar(42));
+
+        assertEquals(1, filtro.quantidade());
+        assertFalse(filtro.podeConter(43));
+    }
+
+    @Test
+    void construtor_ComParametrosInvalidos_LancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloomEscalavel(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloomEscalavel(10, 1));
+    }
+}
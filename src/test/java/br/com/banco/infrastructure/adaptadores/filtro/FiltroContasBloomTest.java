@@ -0,0 +1,61 @@
+package br.com.banco.infrastructure.adaptadores.filtro;
+
+import br.com.banco.infrastructure.adaptadores.repositories.SpringContaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FiltroContasBloomTest {
+
+    private final SpringContaRepository contaRepository = mock(SpringContaRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FiltroContasBloom filtro = new FiltroContasBloom(contaRepository, 1000, 0.01, meterRegistry);
+
+    @Test
+    void carregar_LeOsIdsEmLotesPelaChave() {
+        List<Integer> primeiroLote = IntStream.rangeClosed(1, 10_000).boxed().collect(Collectors.toList());
+        when(contaRepository.findIdsAposId(PageRequest.of(0, 10_000), Integer.MIN_VALUE)).thenReturn(primeiroLote);
+        when(contaRepository.findIdsAposId(PageRequest.of(0, 10_000), 10_000)).thenReturn(List.of(10_005));
+
+        filtro.carregar();
+
+        assertTrue(filtro.podeExistir(1));
+        assertTrue(filtro.podeExistir(10_000));
+        assertTrue(filtro.podeExistir(10_005));
+        // IDs que ja passavam pelo filtro (falsos positivos) nao ocupam a camada
+        double contas = meterRegistry.get("conta.filtro.contas").gauge().value();
+        assertTrue(contas > 9_800 && contas <= 10_001, () -> "Contas no filtro: " + contas);
+        verify(contaRepository, times(2)).findIdsAposId(any(), anyInt());
+    }
+
+    @Test
+    void registrarConta_ContaNova_PassaAPoderExistir() {
+        assertFalse(filtro.podeExistir(7));
+
+        filtro.registrarConta(7);
+
+        assertTrue(filtro.podeExistir(7));
+    }
+
+    @Test
+    void taxaFalsoPositivo_FracaoDasContasInexistentesQueForamAoBanco() {
+        assertEquals(0, meterRegistry.get("conta.filtro.taxa-falso-positivo").gauge().value());
+
+        filtro.podeExistir(1);
+        filtro.podeExistir(2);
+        filtro.podeExistir(3);
+        filtro.registrarFalsoPositivo(4);
+
+        assertEquals(0.25, meterRegistry.get("conta.filtro.taxa-falso-positivo").gauge().value());
+        assertEquals(3, meterRegistry.get("conta.filtro.rejeicoes").functionCounter().count());
+        assertEquals(1, meterRegistry.get("conta.filtro.falsos-positivos").functionCounter().count());
+    }
+}
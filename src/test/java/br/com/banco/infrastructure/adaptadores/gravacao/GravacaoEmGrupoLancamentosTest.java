@@ -0,0 +1,229 @@
+package br.com.banco.infrastructure.adaptadores.gravacao;
+
+import br.com.banco.domain.models.Transferencia;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GravacaoEmGrupoLancamentosTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ExecutorService chamadores = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void encerrarChamadores() {
+        chamadores.shutdownNow();
+    }
+
+    @Test
+    void gravar_EsperaOCommitDoGrupo() throws Exception {
+        GravacaoEmGrupoLancamentos gravacao = new GravacaoEmGrupoLancamentos(entityManager, Duration.ofMillis(1), 10, meterRegistry);
+
+        CompletableFuture<Boolean> chamador = CompletableFuture.supplyAsync(() -> gravacao.gravar(new Transferencia()), chamadores);
+        assertThrows(TimeoutException.class, () -> chamador.get(200, TimeUnit.MILLISECONDS));
+
+        assertEquals(1, gravacao.gravarProximoGrupo(lote -> { }));
+        assertTrue(chamador.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void gravarProximoGrupo_JuntaOsQueEstaoNaFilaEmUmaUnicaGravacao() throws Exception {
+        GravacaoEmGrupoLancamentos gravacao = new GravacaoEmGrupoLancamentos(entityManager, Duration.ofMillis(1), 10, meterRegistry);
+        List<CompletableFuture<Boolean>> chamadas = enfileirar(gravacao, 3);
+        List<List<Transferencia>> gravados = new ArrayList<>();
+
+        assertEquals(3, gravacao.gravarProximoGrupo(gravados::add));
+
+        assertEquals(1, gravados.size());
+        assertEquals(3, gravados.get(0).size());
+        for (CompletableFuture<Boolean> chamada : chamadas) {
+            assertTrue(chamada.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, meterRegistry.get("banco.gravacao-grupo.lancamentos").summary().count());
+        assertEquals(3, meterRegistry.get("banco.gravacao-grupo.lancamentos").summary().totalAmount());
+        assertEquals(3, meterRegistry.get("banco.gravacao-grupo.espera").timer().count());
+    }
+
+    @Test
+    void gravarProximoGrupo_DentroDaJanela_EsperaOsQueAindaVaoChegar() throws Exception {
+        GravacaoEmGrupoLancamentos gravacao = new GravacaoEmGrupoLancamentos(entityManager, Duration.ofSeconds(5), 2, meterRegistry);
+        List<Integer> tamanhos = new ArrayList<>();
+        enfileirar(gravacao, 1);
+
+        CompletableFuture<Integer> grupo = CompletableFuture.supplyAsync(() -> gravacao.gravarProximoGrupo(lote -> tamanhos.add(lote.size())));
+        assertThrows(TimeoutException.class, () -> grupo.get(200, TimeUnit.MILLISECONDS));
+        // O segundo completa o tamanho maximo e encerra a janela antes do fim
+        CompletableFuture.supplyAsync(() -> gravacao.gravar(new Transferencia()), chamadores);
+
+        assertEquals(2, grupo.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2), tamanhos);
+    }
+
+    @Test
+    void gravarProximoGrupo_RespeitaOTamanhoMaximo() throws Exception {
+        GravacaoEmGrupoLancamentos gravacao = new GravacaoEmGrupoLancamentos(entityManager, Duration.ofMillis(1), 2, meterRegistry);
+        enfileirar(gravacao, 5);
+        List<Integer> tamanhos = new ArrayList<>();
+
+        while (gravacao.gravarProximoGrupo(lote -> tamanhos.add(lote.size())) > 0) {
+            assertTrue(tamanhos.size() <= 3);
+        }
+
+        assertEquals(List.of(2, 2, 1), tamanhos);
+        assertEquals(2.0, meterRegistry.get("banco.gravacao-grupo.tamanho-maximo").gauge().value());
+        assertEquals(1.0, meterRegistry.get("banco.gravacao-grupo.janela").gauge().value());
+    }
+
+    @Test
+    void gravarProximoGrupo_ComErro_GravaUmAUmEFalhaSoOLancamentoComProblema() throws Exception {
+        GravacaoEmGrupoLancamentos gravacao = new GravacaoEmGrupoLancamentos(entityManager, Duration.ofMillis(1), 10, meterRegistry);
+        Transferencia invalido = new Transferencia();
+        invalido.setIdTransacao("invalido");
+        List<CompletableFuture<Boolean>> validos = enfileirar(gravacao, 2);
+        CompletableFuture<Boolean> comProblema = CompletableFuture.supplyAsync(() -> gravacao.gravar(invalido), chamadores);
+        aguardarFila(gravacao, 3);
+        List<Integer> gravados = new ArrayList<>();
+
+        assertEquals(3, gravacao.gravarProximoGrupo(lote -> {
+            if (lote.contains(invalido)) {
+                throw new IllegalStateException("Lancamento invalido");
+            }
+            gravados.add(lote.size());
+        }));
+
+        assertEquals(List.of(1, 1), gravados);
+        for (CompletableFuture<Boolean> chamada : validos) {
+            assertTrue(chamada.get(5, TimeUnit.SECONDS));
+        }
+        CompletionException erro = assertThrows(CompletionException.class, comProblema::join);
+        assertTrue(erro.getCause() instanceof IllegalStateException);
+        assertEquals(1, meterRegistry.get("banco.gravacao-grupo.desfeitos").counter().count());
+    }
+
+    @Test
+    void gravarProximoGrupo_SemLancamentos_RetornaZero() {
+        GravacaoEmGrupoLancamentos gravacao = new GravacaoEmGrupoLancamentos(entityManager, Duration.ofMillis(1), 10, meterRegistry);
+
+        assertEquals(0, gravacao.gravarProximoGrupo(lote -> fail("Nao ha grupo")));
+    }
+
+    @Test
+    void encerrar_FalhaQuemEstaNaFilaENovasChamadasGravamDireto() throws Exception {
+        GravacaoEmGrupoLancamentos gravacao = new GravacaoEmGrupoLancamentos(entityManager, Duration.ofMillis(1), 10, meterRegistry);
+        List<CompletableFuture<Boolean>> pendentes = enfileirar(gravacao, 1);
+
+        gravacao.encerrar();
+
+        assertThrows(CompletionException.class, () -> pendentes.get(0).join());
+        assertFalse(gravacao.gravar(new Transferencia()));
+    }
+
+    @Test
+    void gravar_DentroDeUmaTransacao_SoEntraNaFilaNoCommitDepoisDasOutrasEscritas() throws Exception {
+        GravacaoEmGrupoLancamentos gravacao = new GravacaoEmGrupoLancamentos(entityManager, Duration.ofMillis(1), 10, meterRegistry);
+        CountDownLatch registrado = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Void> chamador = CompletableFuture.runAsync(() -> emTransacao(() -> {
+            assertTrue(gravacao.gravar(new Transferencia()));
+            registrado.countDown();
+            aguardar(commit);
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        }), chamadores);
+        assertTrue(registrado.await(5, TimeUnit.SECONDS));
+        assertEquals(0, gravacao.gravarProximoGrupo(lote -> fail("Ainda sem commit")));
+        verifyNoInteractions(entityManager);
+
+        commit.countDown();
+        aguardarFila(gravacao, 1);
+        verify(entityManager).flush();
+        assertEquals(1, gravacao.gravarProximoGrupo(lote -> { }));
+        chamador.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void gravar_ComRollbackDaTransacao_NaoEntraNaFila() {
+        GravacaoEmGrupoLancamentos gravacao = new GravacaoEmGrupoLancamentos(entityManager, Duration.ofMillis(1), 10, meterRegistry);
+
+        emTransacao(() -> {
+            gravacao.gravar(new Transferencia());
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        });
+
+        assertEquals(0, gravacao.gravarProximoGrupo(lote -> fail("Transacao desfeita")));
+    }
+
+    @Test
+    void gravar_ComErroNasOutrasEscritasDaTransacao_NaoEntraNaFila() {
+        GravacaoEmGrupoLancamentos gravacao = new GravacaoEmGrupoLancamentos(entityManager, Duration.ofMillis(1), 10, meterRegistry);
+        doThrow(new IllegalStateException("Chave duplicada")).when(entityManager).flush();
+
+        emTransacao(() -> {
+            gravacao.gravar(new Transferencia());
+            assertThrows(IllegalStateException.class, () -> TransactionSynchronizationUtils.triggerBeforeCommit(false));
+        });
+
+        assertEquals(0, gravacao.gravarProximoGrupo(lote -> fail("Transacao com erro")));
+    }
+
+    private static void emTransacao(final Runnable corpo) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            corpo.run();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void aguardar(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<CompletableFuture<Boolean>> enfileirar(final GravacaoEmGrupoLancamentos gravacao, final int quantidade) throws InterruptedException {
+        double naFila = fila();
+        List<CompletableFuture<Boolean>> chamadas = IntStream.range(0, quantidade)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> gravacao.gravar(new Transferencia()), chamadores))
+                .collect(Collectors.toList());
+        aguardarFila(gravacao, (int) naFila + quantidade);
+        return chamadas;
+    }
+
+    private void aguardarFila(final GravacaoEmGrupoLancamentos gravacao, final int tamanho) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (fila() < tamanho) {
+            assertTrue(System.nanoTime() < limite, "Os chamadores nao entraram na fila");
+            Thread.sleep(1);
+        }
+    }
+
+    private double fila() {
+        return meterRegistry.get("banco.gravacao-grupo.fila").gauge().value();
+    }
+}
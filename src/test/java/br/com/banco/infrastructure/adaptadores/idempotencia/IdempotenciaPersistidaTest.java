@@ -0,0 +1,209 @@
+package br.com.banco.infrastructure.adaptadores.idempotencia;
+
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.exception.ChaveIdempotenciaInvalidaException;
+import br.com.banco.domain.exception.ConflitoConcorrenciaException;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.IdempotenciaEntity;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringIdempotenciaRepository;
+import br.com.banco.infrastructure.config.DinheiroJsonComponent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdempotenciaPersistidaTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2022, 3, 10, 15, 0);
+    private static final String REQUISICAO = "DEPOSITO:1:10.50";
+
+    private final SpringIdempotenciaRepository idempotenciaRepository = mock(SpringIdempotenciaRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new SimpleModule()
+                    .addSerializer(Dinheiro.class, new DinheiroJsonComponent.Serializer())
+                    .addDeserializer(Dinheiro.class, new DinheiroJsonComponent.Deserializer()));
+    private final AtomicLong agoraNanos = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotenciaPersistida idempotencia = new IdempotenciaPersistida(idempotenciaRepository, objectMapper, 100,
+            Duration.ofHours(24), Duration.ofSeconds(5), agoraNanos::get, Clock.fixed(AGORA.toInstant(ZoneOffset.UTC), ZoneOffset.UTC), meterRegistry);
+
+    private final AtomicInteger execucoes = new AtomicInteger();
+
+    @Test
+    void executar_SemChave_SoExecutaAOperacao() {
+        TransferenciaDTO resposta = resposta("a");
+
+        assertSame(resposta, idempotencia.executar(null, REQUISICAO, () -> resposta));
+        idempotencia.registrar(null, REQUISICAO, resposta);
+
+        verifyNoInteractions(idempotenciaRepository);
+    }
+
+    @Test
+    void executar_ChaveRepetida_DevolveARespostaSemExecutarDeNovo() {
+        TransferenciaDTO resposta = resposta("a");
+
+        assertSame(resposta, idempotencia.executar("k1", REQUISICAO, contar(resposta)));
+        assertSame(resposta, idempotencia.executar("k1", REQUISICAO, contar(resposta("b"))));
+
+        assertEquals(1, execucoes.get());
+        verify(idempotenciaRepository, times(1)).findById("k1");
+        assertEquals(1, meterRegistry.get("banco.idempotencia.repeticoes").counter().count());
+    }
+
+    @Test
+    void executar_RepeticaoDuranteAExecucao_EsperaAPrimeiraEDevolveAMesmaResposta() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciada = new CountDownLatch(1);
+        TransferenciaDTO resposta = resposta("a");
+        CompletableFuture<TransferenciaDTO> primeira = CompletableFuture.supplyAsync(() -> idempotencia.executar("k1", REQUISICAO, () -> {
+            iniciada.countDown();
+            aguardar(liberar);
+            execucoes.incrementAndGet();
+            return resposta;
+        }));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<TransferenciaDTO> repetida = CompletableFuture.supplyAsync(() -> idempotencia.executar("k1", REQUISICAO, contar(resposta("b"))));
+        assertThrows(TimeoutException.class, () -> repetida.get(200, TimeUnit.MILLISECONDS));
+        liberar.countDown();
+
+        assertSame(resposta, primeira.get(5, TimeUnit.SECONDS));
+        assertSame(resposta, repetida.get(5, TimeUnit.SECONDS));
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void executar_RepeticaoDuranteUmaExecucaoDemorada_DesisteDepoisDaEsperaSemExecutar() throws Exception {
+        IdempotenciaPersistida idempotencia = new IdempotenciaPersistida(idempotenciaRepository, objectMapper, 100, Duration.ofHours(24),
+                Duration.ofMillis(100), agoraNanos::get, Clock.systemDefaultZone(), meterRegistry);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CompletableFuture<TransferenciaDTO> primeira = CompletableFuture.supplyAsync(() -> idempotencia.executar("k1", REQUISICAO, () -> {
+            iniciada.countDown();
+            aguardar(liberar);
+            return resposta("a");
+        }));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+        try {
+            assertThrows(ConflitoConcorrenciaException.class, () -> idempotencia.executar("k1", REQUISICAO, contar(resposta("b"))));
+            assertEquals(0, execucoes.get());
+        } finally {
+            liberar.countDown();
+        }
+        assertEquals("a", primeira.get(5, TimeUnit.SECONDS).getIdTransacao());
+    }
+
+    @Test
+    void executar_ForaDaMemoria_DevolveARespostaGravadaNaTabela() throws Exception {
+        TransferenciaDTO original = resposta("a");
+        original.setValor(Dinheiro.de("10.50"));
+        original.setTipo(TipoTransferencia.DEPOSITO);
+        original.setDataTransferencia(AGORA);
+        when(idempotenciaRepository.findById("k1")).thenReturn(Optional.of(
+                new IdempotenciaEntity("k1", REQUISICAO, objectMapper.writeValueAsString(original), AGORA)));
+
+        TransferenciaDTO resposta = idempotencia.executar("k1", REQUISICAO, contar(resposta("b")));
+
+        assertEquals(0, execucoes.get());
+        assertEquals("a", resposta.getIdTransacao());
+        assertEquals(Dinheiro.de("10.50"), resposta.getValor());
+        assertEquals(TipoTransferencia.DEPOSITO, resposta.getTipo());
+        assertEquals(AGORA, resposta.getDataTransferencia());
+    }
+
+    @Test
+    void executar_MesmaChaveEmOutraRequisicao_Recusa() {
+        idempotencia.executar("k1", REQUISICAO, contar(resposta("a")));
+
+        assertThrows(ChaveIdempotenciaInvalidaException.class, () -> idempotencia.executar("k1", "DEPOSITO:1:99.00", contar(resposta("b"))));
+        assertThrows(ChaveIdempotenciaInvalidaException.class, () -> idempotencia.executar(" ", REQUISICAO, contar(resposta("b"))));
+        assertThrows(ChaveIdempotenciaInvalidaException.class, () -> idempotencia.executar("k".repeat(256), REQUISICAO, contar(resposta("b"))));
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void executar_ComErro_AProximaRequisicaoExecutaDeNovo() {
+        assertThrows(IllegalStateException.class, () -> idempotencia.executar("k1", REQUISICAO, () -> {
+            throw new IllegalStateException("Falha");
+        }));
+
+        TransferenciaDTO resposta = resposta("a");
+        assertSame(resposta, idempotencia.executar("k1", REQUISICAO, contar(resposta)));
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void executar_ChaveConfirmadaAntesPorOutraInstancia_DevolveARespostaDela() throws Exception {
+        when(idempotenciaRepository.findById("k1")).thenReturn(Optional.empty(), Optional.of(
+                new IdempotenciaEntity("k1", REQUISICAO, objectMapper.writeValueAsString(resposta("outra")), AGORA)));
+
+        TransferenciaDTO resposta = idempotencia.executar("k1", REQUISICAO, () -> {
+            throw new DataIntegrityViolationException("PK idempotencia");
+        });
+
+        assertEquals("outra", resposta.getIdTransacao());
+    }
+
+    @Test
+    void registrar_GravaARespostaEmJsonERemoverExpiradas_UsaARetencao() throws Exception {
+        TransferenciaDTO resposta = resposta("a");
+
+        idempotencia.registrar("k1", REQUISICAO, resposta);
+        idempotencia.removerExpiradas();
+
+        ArgumentCaptor<IdempotenciaEntity> gravada = ArgumentCaptor.forClass(IdempotenciaEntity.class);
+        verify(idempotenciaRepository).save(gravada.capture());
+        assertEquals("k1", gravada.getValue().getChave());
+        assertEquals(REQUISICAO, gravada.getValue().getRequisicao());
+        assertEquals(objectMapper.writeValueAsString(resposta), gravada.getValue().getResposta());
+        assertEquals(AGORA, gravada.getValue().getCriadaEm());
+        assertTrue(gravada.getValue().isNew());
+        verify(idempotenciaRepository).deleteByCriadaEmAntesDe(AGORA.minusHours(24));
+    }
+
+    private Supplier<TransferenciaDTO> contar(final TransferenciaDTO resposta) {
+        return () -> {
+            execucoes.incrementAndGet();
+            return resposta;
+        };
+    }
+
+    private static void aguardar(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static TransferenciaDTO resposta(final String idTransacao) {
+        TransferenciaDTO resposta = new TransferenciaDTO();
+        resposta.setIdTransacao(idTransacao);
+        return resposta;
+    }
+}
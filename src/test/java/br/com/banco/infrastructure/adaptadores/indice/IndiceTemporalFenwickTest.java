@@ -0,0 +1,81 @@
+package br.com.banco.infrastructure.adaptadores.indice;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringTransferenciaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IndiceTemporalFenwickTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2022, 3, 10, 15, 0);
+
+    private final SpringTransferenciaRepository transferenciaRepository = mock(SpringTransferenciaRepository.class);
+    private final RelogioAjustavel relogio = new RelogioAjustavel(AGORA);
+    private final IndiceTemporalFenwick indice = new IndiceTemporalFenwick(transferenciaRepository, 2, relogio);
+
+    @Test
+    void obterTotalCreditos_PertoDoFimDaJanela_DeslizaSemLerOBanco() {
+        when(transferenciaRepository.sumValorCreditosGroupByMinutoEntre(any(), any())).thenReturn(List.of());
+        indice.carregar();
+        indice.registrarLancamento(credito(AGORA.minusHours(1), "10.00"));
+        // Depois do fim da janela, que vai ate um dia a frente
+        indice.registrarLancamento(credito(AGORA.plusHours(30), "5.00"));
+        indice.registrarLancamento(credito(AGORA.plusDays(5), "7.00"));
+
+        assertEquals(Optional.empty(), indice.obterTotalCreditos(AGORA.plusHours(29), AGORA.plusHours(31).minusNanos(1)));
+
+        relogio.agora = AGORA.plusHours(13);
+        assertEquals(Optional.of(new BigDecimal("5.00")), indice.obterTotalCreditos(AGORA.plusHours(29), AGORA.plusHours(31).minusNanos(1)));
+        assertEquals(Optional.of(new BigDecimal("15.00")), indice.obterTotalCreditos(AGORA.minusHours(2), AGORA.plusHours(36).minusNanos(1)));
+
+        relogio.agora = AGORA.plusDays(4).plusHours(12);
+        assertEquals(Optional.of(new BigDecimal("7.00")), indice.obterTotalCreditos(AGORA.plusDays(4), AGORA.plusDays(5).plusHours(1).minusNanos(1)));
+
+        verify(transferenciaRepository, times(1)).sumValorCreditosGroupByMinutoEntre(any(), any());
+    }
+
+    private static Transferencia credito(final LocalDateTime data, final String valor) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setDataTransferencia(data);
+        transferencia.setNatureza(NaturezaLancamento.CREDITO);
+        transferencia.setValor(Dinheiro.de(valor));
+        return transferencia;
+    }
+
+    private static final class RelogioAjustavel extends Clock {
+        private LocalDateTime agora;
+
+        private RelogioAjustavel(final LocalDateTime agora) {
+            this.agora = agora;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora.toInstant(ZoneOffset.UTC);
+        }
+    }
+}
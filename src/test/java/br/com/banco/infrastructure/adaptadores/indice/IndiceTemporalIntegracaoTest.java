@@ -0,0 +1,158 @@
+package br.com.banco.infrastructure.adaptadores.indice;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.application.mappers.TransferenciaMapper;
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.IIndiceTemporalPort;
+import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.TransferenciaEntity;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringTransferenciaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "banco.indice-temporal.habilitado=true",
+        "banco.indice-temporal.retencao-dias=2",
+        "spring.datasource.url=jdbc:h2:mem:indicetemporal"})
+class IndiceTemporalIntegracaoTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    @Qualifier("contaRepositoryImpl")
+    private IContaRepositoryPort contaRepository;
+
+    @Autowired
+    @Qualifier("transferenciaRepositoryPort")
+    private ITransferenciaRepositoryPort transferenciaRepository;
+
+    @Autowired
+    private IIndiceTemporalPort indiceTemporal;
+
+    @Autowired
+    private SpringTransferenciaRepository springTransferenciaRepository;
+
+    @Autowired
+    private TransferenciaMapper transferenciaMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void obterSaldoTotalPorPeriodo_PeloIndice_IgualAoSomatorioDosLancamentos() {
+        Random aleatorio = new Random(7);
+        Conta primeira = contaRepository.obterContaPorId(criarConta("Karen")).orElseThrow();
+        Conta segunda = contaRepository.obterContaPorId(criarConta("Lucas")).orElseThrow();
+        for (int i = 0; i < 80; i++) {
+            lancar(aleatorio, primeira, segunda, instanteAleatorio(aleatorio));
+        }
+        List<LocalDateTime[]> periodos = periodos(aleatorio);
+
+        assertPeriodosIguais(periodos);
+        assertTrue(indiceTemporal.obterTotalCreditos(AGORA.minusDays(1), AGORA.plusHours(6)).isPresent());
+        assertTrue(indiceTemporal.obterTotalCreditos(AGORA.minusDays(3), AGORA).isEmpty());
+
+        // Rollback nao altera o indice; exclusao sai dele depois do commit
+        transactionTemplate.executeWithoutResult(status -> {
+            depositar(primeira, "999.99", AGORA.minusHours(2));
+            status.setRollbackOnly();
+        });
+        Transferencia excluido = creditoRecente(segunda.getId());
+        transactionTemplate.executeWithoutResult(status -> transferenciaRepository.deletar(excluido));
+        assertPeriodosIguais(periodos);
+
+        ((IndiceTemporalFenwick) indiceTemporal).carregar();
+        assertPeriodosIguais(periodos);
+    }
+
+    private void assertPeriodosIguais(final List<LocalDateTime[]> periodos) {
+        for (LocalDateTime[] periodo : periodos) {
+            Dinheiro esperado = springTransferenciaRepository.sumValorByDataTransferenciaBetween(periodo[0], periodo[1]);
+            assertEquals(esperado == null ? null : esperado.toBigDecimal(),
+                    transferenciaRepository.obterSaldoTotalPorPeriodo(periodo[0], periodo[1]),
+                    () -> "Periodo de " + periodo[0] + " a " + periodo[1]);
+        }
+    }
+
+    private List<LocalDateTime[]> periodos(final Random aleatorio) {
+        List<LocalDateTime[]> periodos = new ArrayList<>();
+        periodos.add(new LocalDateTime[]{AGORA.minusDays(4), AGORA.plusDays(1)});
+        periodos.add(new LocalDateTime[]{AGORA.minusDays(1), AGORA});
+        periodos.add(new LocalDateTime[]{AGORA.minusHours(5), AGORA.minusHours(5)});
+        periodos.add(new LocalDateTime[]{AGORA.minusHours(5).plusSeconds(10), AGORA.minusHours(5).plusSeconds(50)});
+        periodos.add(new LocalDateTime[]{AGORA.minusHours(30).plusSeconds(17), AGORA.minusHours(2).minusSeconds(1)});
+        for (int i = 0; i < 60; i++) {
+            LocalDateTime inicio = instanteAleatorio(aleatorio);
+            LocalDateTime fim = instanteAleatorio(aleatorio);
+            periodos.add(inicio.isAfter(fim) ? new LocalDateTime[]{fim, inicio} : new LocalDateTime[]{inicio, fim});
+        }
+        return periodos;
+    }
+
+    private LocalDateTime instanteAleatorio(final Random aleatorio) {
+        // De tres dias atras, fora da retencao, ate seis horas a frente; um quinto cai exatamente na virada do minuto
+        LocalDateTime minuto = AGORA.minusMinutes(aleatorio.nextInt(3 * 24 * 60)).plusMinutes(6 * 60);
+        return aleatorio.nextInt(5) == 0 ? minuto : minuto.plusSeconds(aleatorio.nextInt(60));
+    }
+
+    private void lancar(final Random aleatorio, final Conta primeira, final Conta segunda, final LocalDateTime data) {
+        String valor = (1 + aleatorio.nextInt(500)) + "." + (10 + aleatorio.nextInt(90));
+        if (aleatorio.nextBoolean()) {
+            transactionTemplate.executeWithoutResult(status -> depositar(aleatorio.nextBoolean() ? primeira : segunda, valor, data));
+            return;
+        }
+        List<Transferencia> lancamentos = transferenciaMapper.mapLancamentosTransferencia(transferencia(valor), segunda, primeira);
+        lancamentos.forEach(lancamento -> lancamento.setDataTransferencia(data));
+        transactionTemplate.executeWithoutResult(status -> transferenciaRepository.salvarLancamentos(lancamentos));
+    }
+
+    private void depositar(final Conta conta, final String valor, final LocalDateTime data) {
+        Transferencia deposito = transferenciaMapper.mapTransferenciaDeposito(transferencia(valor), conta);
+        deposito.setDataTransferencia(data);
+        transferenciaRepository.salvar(deposito);
+    }
+
+    private Transferencia creditoRecente(final int contaId) {
+        TransferenciaEntity credito = springTransferenciaRepository.findByContaId(Pageable.unpaged(), contaId).stream()
+                .filter(entidade -> entidade.getNatureza() == NaturezaLancamento.CREDITO)
+                .filter(entidade -> entidade.getDataTransferencia().isAfter(AGORA.minusDays(1)))
+                .findFirst()
+                .orElseThrow();
+        return transferenciaMapper.mapEntityToModel(credito);
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private TransferenciaDTO transferencia(final String valor) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de(valor));
+        return transferenciaDTO;
+    }
+}
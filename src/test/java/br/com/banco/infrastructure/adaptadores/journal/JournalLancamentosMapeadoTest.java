@@ -0,0 +1,234 @@
+package br.com.banco.infrastructure.adaptadores.journal;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringTransferenciaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JournalLancamentosMapeadoTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.of(2022, 3, 10, 15, 0, 0, 123_456_789);
+
+    @TempDir
+    Path diretorio;
+
+    private final SpringTransferenciaRepository transferenciaRepository = mock(SpringTransferenciaRepository.class);
+
+    @Test
+    void aplicarPendentes_EntregaOsLancamentosNaOrdemEUmaVezSo() throws IOException {
+        JournalLancamentosMapeado journal = abrir(1 << 16);
+        Transferencia deposito = lancamento(1, "10.50", "a");
+        deposito.setNomeOperadorTransacao("Operador");
+        journal.registrar(deposito);
+        journal.registrar(lancamento(2, "0.01", "b"));
+
+        List<Transferencia> aplicados = aplicar(journal, 10);
+
+        assertEquals(List.of("a", "b"), ids(aplicados));
+        Transferencia lido = aplicados.get(0);
+        assertEquals(1, lido.getContaId().getId());
+        assertEquals(DATA, lido.getDataTransferencia());
+        assertEquals(Dinheiro.de("10.50"), lido.getValor());
+        assertEquals(TipoTransferencia.DEPOSITO, lido.getTipo());
+        assertEquals(NaturezaLancamento.CREDITO, lido.getNatureza());
+        assertEquals("Operador", lido.getNomeOperadorTransacao());
+        assertNull(aplicados.get(1).getNomeOperadorTransacao());
+        assertEquals(List.of(), aplicar(journal, 10));
+        verifyNoInteractions(transferenciaRepository);
+    }
+
+    @Test
+    void aplicarPendentes_ComErroNaGravacao_EntregaOMesmoLoteDeNovo() throws IOException {
+        JournalLancamentosMapeado journal = abrir(1 << 16);
+        journal.registrar(lancamento(1, "1.00", "a"));
+
+        assertThrows(IllegalStateException.class, () -> journal.aplicarPendentes(10, lote -> {
+            throw new IllegalStateException("Banco fora do ar");
+        }));
+
+        assertEquals(List.of("a"), ids(aplicar(journal, 10)));
+    }
+
+    @Test
+    void abrir_DepoisDeUmaQueda_ReleOsPendentesEDescartaOsQueJaEstaoNoBanco() throws IOException {
+        JournalLancamentosMapeado journal = abrir(1 << 16);
+        journal.registrar(lancamento(1, "1.00", "a"));
+        journal.registrar(lancamento(1, "2.00", "b"));
+        journal.registrar(lancamento(1, "3.00", "c"));
+        journal.registrar(lancamento(1, "4.00", "d"));
+        assertEquals(List.of("a"), ids(aplicar(journal, 1)));
+
+        // "b" chegou ao banco, mas a queda veio antes de o cabecalho avancar
+        when(transferenciaRepository.findIdsTransacaoEntre(any(), any())).thenReturn(List.of("a", "b"));
+        JournalLancamentosMapeado reaberto = abrir(1 << 16);
+        reaberto.registrar(lancamento(1, "5.00", "e"));
+
+        assertEquals(List.of("c", "d", "e"), ids(aplicar(reaberto, 10)));
+        verify(transferenciaRepository, times(1)).findIdsTransacaoEntre(DATA.minusNanos(1_000_000), DATA.plusNanos(1_000_000));
+    }
+
+    @Test
+    void abrir_ComRegistroCortado_ParaNoUltimoRegistroInteiro() throws IOException {
+        JournalLancamentosMapeado journal = abrir(1 << 16);
+        journal.registrar(lancamento(1, "1.00", "a"));
+        journal.registrar(lancamento(1, "2.00", "b"));
+        journal.fechar();
+
+        // Corrompe o ultimo byte do segundo registro, logo depois do primeiro
+        try (FileChannel canal = FileChannel.open(arquivo(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer tamanho = ByteBuffer.allocate(4);
+            canal.read(tamanho, 16);
+            int segundo = 16 + 16 + tamanho.flip().getInt();
+            canal.read(tamanho.clear(), segundo);
+            canal.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), segundo + 16 + tamanho.flip().getInt() - 1);
+        }
+
+        JournalLancamentosMapeado reaberto = abrir(1 << 16);
+        reaberto.registrar(lancamento(1, "3.00", "c"));
+
+        assertEquals(List.of("a", "c"), ids(aplicar(reaberto, 10)));
+    }
+
+    @Test
+    void registrar_SemEspacoNoFim_VoltaAoInicioDepoisDeTudoAplicado() throws IOException {
+        JournalLancamentosMapeado journal = abrir(256);
+        List<String> aplicados = new ArrayList<>();
+        // Cabem 5 registros de 47 bytes: o arquivo e reaproveitado varias vezes
+        for (int i = 0; i < 20; i++) {
+            journal.registrar(lancamento(1, "1.00", "l" + i));
+            aplicados.addAll(ids(aplicar(journal, 10)));
+        }
+        journal.registrar(lancamento(1, "1.00", "pendente"));
+
+        assertEquals(20, aplicados.size());
+        when(transferenciaRepository.findIdsTransacaoEntre(any(), any())).thenReturn(List.of());
+        assertEquals(List.of("pendente"), ids(aplicar(abrir(256), 10)));
+    }
+
+    @Test
+    void registrar_ComJournalCheio_EsperaOsPendentesSeremAplicados() throws Exception {
+        JournalLancamentosMapeado journal = abrir(240);
+        int registrados = 0;
+        // Registros de 47 bytes (16 de cabecalho e 31 do lancamento): cabem 4 depois dos 16 bytes do cabecalho do arquivo
+        while (registrados < 4) {
+            journal.registrar(lancamento(1, "1.00", "l" + registrados++));
+        }
+
+        CompletableFuture<Boolean> bloqueado = CompletableFuture.supplyAsync(() -> journal.registrar(lancamento(1, "1.00", "extra")));
+        assertThrows(TimeoutException.class, () -> bloqueado.get(200, TimeUnit.MILLISECONDS));
+
+        assertEquals(4, aplicar(journal, 10).size());
+        assertTrue(bloqueado.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("extra"), ids(aplicar(journal, 10)));
+    }
+
+    @Test
+    void registrar_DentroDeUmaTransacao_SoEscreveNoCommit() throws IOException {
+        JournalLancamentosMapeado journal = abrir(1 << 16);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(journal.registrar(lancamento(1, "1.00", "a")));
+            assertEquals(List.of(), aplicar(journal, 10));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("a"), ids(aplicar(journal, 10)));
+    }
+
+    @Test
+    void registrar_ComRollback_NaoEscreveNada() throws IOException {
+        JournalLancamentosMapeado journal = abrir(1 << 16);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            journal.registrar(lancamento(1, "1.00", "a"));
+
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        journal.registrar(lancamento(1, "2.00", "b"));
+
+        assertEquals(List.of("b"), ids(aplicar(journal, 10)));
+    }
+
+    @Test
+    void registrar_ComJournalCheioDentroDeUmaTransacao_NaoEsperaAntesDoCommit() throws IOException {
+        JournalLancamentosMapeado journal = abrir(240);
+        for (int i = 0; i < 4; i++) {
+            journal.registrar(lancamento(1, "1.00", "l" + i));
+        }
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Retorna mesmo sem espaco: a espera fica para o commit, quando a conta ja nao esta bloqueada
+            assertTrue(journal.registrar(lancamento(1, "1.00", "extra")));
+            assertEquals(4, aplicar(journal, 10).size());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("extra"), ids(aplicar(journal, 10)));
+    }
+
+    private JournalLancamentosMapeado abrir(final int capacidade) throws IOException {
+        JournalLancamentosMapeado journal = new JournalLancamentosMapeado(transferenciaRepository, arquivo(), capacidade, new SimpleMeterRegistry());
+        journal.abrir();
+        return journal;
+    }
+
+    private Path arquivo() {
+        return diretorio.resolve("lancamentos.dat");
+    }
+
+    private static List<Transferencia> aplicar(final JournalLancamentosMapeado journal, final int limite) {
+        List<Transferencia> aplicados = new ArrayList<>();
+        journal.aplicarPendentes(limite, aplicados::addAll);
+        return aplicados;
+    }
+
+    private static List<String> ids(final List<Transferencia> lancamentos) {
+        return lancamentos.stream().map(Transferencia::getIdTransacao).collect(Collectors.toList());
+    }
+
+    private static Transferencia lancamento(final int contaId, final String valor, final String idTransacao) {
+        Conta conta = new Conta();
+        conta.setId(contaId);
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaId(conta);
+        transferencia.setDataTransferencia(DATA);
+        transferencia.setValor(Dinheiro.de(valor));
+        transferencia.setTipo(TipoTransferencia.DEPOSITO);
+        transferencia.setNatureza(NaturezaLancamento.CREDITO);
+        transferencia.setIdTransacao(idTransacao);
+        return transferencia;
+    }
+}
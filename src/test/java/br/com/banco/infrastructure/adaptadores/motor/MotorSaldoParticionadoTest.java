@@ -0,0 +1,200 @@
+package br.com.banco.infrastructure.adaptadores.motor;
+
+import br.com.banco.domain.exception.ConflitoConcorrenciaException;
+import br.com.banco.domain.exception.SaldoInsuficienteException;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IJournalLancamentosPort;
+import br.com.banco.domain.ports.interfaces.IMotorSaldoPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class MotorSaldoParticionadoTest {
+
+    private static final int CONTAS = 20;
+
+    private final ISaldoContaRepositoryPort saldoContaRepository = mock(ISaldoContaRepositoryPort.class);
+    private final IJournalLancamentosPort journal = mock(IJournalLancamentosPort.class);
+    private MotorSaldoParticionado motorSaldo;
+
+    @BeforeEach
+    void setUp() {
+        when(saldoContaRepository.obterSaldo(anyInt())).thenReturn(new BigDecimal("1000.00"));
+        motorSaldo = new MotorSaldoParticionado(saldoContaRepository, journal, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        motorSaldo.close();
+    }
+
+    @Test
+    void consultar_CarregaSaldoMaterializadoUmaVezPorConta() {
+        assertEquals(new BigDecimal("1000.00"), motorSaldo.consultar(7));
+        assertEquals(new BigDecimal("1000.00"), motorSaldo.consultar(7));
+
+        verify(saldoContaRepository, times(1)).obterSaldo(7);
+    }
+
+    @Test
+    void debitar_ComSaldoInsuficiente_LancaSaldoInsuficienteSemAlterarSaldo() {
+        assertThrows(SaldoInsuficienteException.class, () -> motorSaldo.debitar(1, Dinheiro.de("1000.01")));
+
+        assertEquals(new BigDecimal("1000.00"), motorSaldo.consultar(1));
+    }
+
+    @Test
+    void transferir_EntreParticoes_DebitaOrigemECreditaDestino() {
+        motorSaldo.transferir(1, 2, Dinheiro.de("250.50"));
+
+        assertEquals(new BigDecimal("749.50"), motorSaldo.consultar(1));
+        assertEquals(new BigDecimal("1250.50"), motorSaldo.consultar(2));
+    }
+
+    @Test
+    void transferir_NaMesmaParticao_DebitaOrigemECreditaDestino() {
+        motorSaldo.transferir(1, 5, Dinheiro.de("0.01"));
+
+        assertEquals(new BigDecimal("999.99"), motorSaldo.consultar(1));
+        assertEquals(new BigDecimal("1000.01"), motorSaldo.consultar(5));
+    }
+
+    @Test
+    void transferir_ComSaldoInsuficiente_NaoCreditaDestino() {
+        assertThrows(SaldoInsuficienteException.class, () -> motorSaldo.transferir(1, 2, Dinheiro.de("5000.00")));
+
+        assertEquals(new BigDecimal("1000.00"), motorSaldo.consultar(1));
+        assertEquals(new BigDecimal("1000.00"), motorSaldo.consultar(2));
+    }
+
+    @Test
+    void consultar_CarregaSaldoForaDaThreadSequenciadora() {
+        AtomicReference<String> threadDaCarga = new AtomicReference<>();
+        when(saldoContaRepository.obterSaldo(3)).thenAnswer(invocacao -> {
+            threadDaCarga.set(Thread.currentThread().getName());
+            return new BigDecimal("10.00");
+        });
+
+        assertEquals(new BigDecimal("10.00"), motorSaldo.consultar(3));
+
+        assertFalse(threadDaCarga.get().startsWith("motor-saldo"));
+    }
+
+    @Test
+    void desfazer_DevolveValorUmaUnicaVez() {
+        IMotorSaldoPort.Movimento movimento = motorSaldo.transferir(1, 2, Dinheiro.de("250.00"));
+
+        movimento.desfazer();
+        movimento.desfazer();
+        movimento.confirmar();
+
+        assertEquals(new BigDecimal("1000.00"), motorSaldo.consultar(1));
+        assertEquals(new BigDecimal("1000.00"), motorSaldo.consultar(2));
+    }
+
+    @Test
+    void invalidar_ComMovimentoEmAndamento_SoRecarregaDepoisDeConcluido() {
+        IMotorSaldoPort.Movimento emAndamento = motorSaldo.debitar(1, Dinheiro.de("100.00"));
+        when(saldoContaRepository.obterSaldo(1)).thenReturn(new BigDecimal("500.00"));
+        motorSaldo.invalidar(Set.of(1));
+
+        motorSaldo.creditar(1, Dinheiro.de("1.00")).confirmar();
+        assertEquals(new BigDecimal("901.00"), motorSaldo.consultar(1));
+        verify(saldoContaRepository, times(1)).obterSaldo(1);
+
+        emAndamento.confirmar();
+        motorSaldo.creditar(1, Dinheiro.de("1.00")).confirmar();
+        assertEquals(new BigDecimal("501.00"), motorSaldo.consultar(1));
+    }
+
+    @Test
+    void invalidar_RecarregaSaldoNoProximoMovimentoMasNaoNaConsulta() {
+        motorSaldo.debitar(1, Dinheiro.de("100.00")).confirmar();
+        when(saldoContaRepository.obterSaldo(1)).thenReturn(new BigDecimal("500.00"));
+
+        motorSaldo.invalidar(Set.of(1));
+
+        assertEquals(new BigDecimal("900.00"), motorSaldo.consultar(1));
+        motorSaldo.creditar(1, Dinheiro.de("1.00"));
+        assertEquals(new BigDecimal("501.00"), motorSaldo.consultar(1));
+        verify(saldoContaRepository, times(2)).obterSaldo(1);
+    }
+
+    @Test
+    void invalidar_ComLancamentosPendentesNoJournal_MantemSaldoEmMemoria() {
+        motorSaldo.debitar(1, Dinheiro.de("100.00")).confirmar();
+        when(journal.possuiPendentes(1)).thenReturn(true);
+
+        motorSaldo.invalidar(Set.of(1));
+        motorSaldo.creditar(1, Dinheiro.de("1.00"));
+
+        assertEquals(new BigDecimal("901.00"), motorSaldo.consultar(1));
+        verify(saldoContaRepository, times(1)).obterSaldo(1);
+    }
+
+    @Test
+    void debitar_ContaNuncaCarregadaComLancamentosPendentesNoJournal_LancaConflito() {
+        when(journal.possuiPendentes(9)).thenReturn(true);
+
+        assertThrows(ConflitoConcorrenciaException.class, () -> motorSaldo.debitar(9, Dinheiro.de("1.00")));
+
+        verify(saldoContaRepository, never()).obterSaldo(9);
+    }
+
+    @Test
+    void transferir_EntreParticoesComFalhaNoCredito_DevolveDebitoDaOrigem() {
+        motorSaldo.consultar(1);
+        when(saldoContaRepository.obterSaldo(2)).thenThrow(new IllegalStateException("banco indisponivel"));
+
+        assertThrows(IllegalStateException.class, () -> motorSaldo.transferir(1, 2, Dinheiro.de("250.00")));
+
+        assertEquals(new BigDecimal("1000.00"), motorSaldo.consultar(1));
+    }
+
+    @Test
+    void transferir_Concorrentemente_PreservaSaldoTotalSemSaldoNegativo() throws Exception {
+        ExecutorService clientes = Executors.newFixedThreadPool(8);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            tarefas.add(clientes.submit(() -> {
+                for (int j = 0; j < 2_000; j++) {
+                    int origem = ThreadLocalRandom.current().nextInt(1, CONTAS + 1);
+                    int destino = ThreadLocalRandom.current().nextInt(1, CONTAS + 1);
+                    try {
+                        motorSaldo.transferir(origem, destino, Dinheiro.de("37.13"));
+                    } catch (SaldoInsuficienteException e) {
+                        // esperado quando a origem esgota o saldo
+                    }
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        clientes.shutdown();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int conta = 1; conta <= CONTAS; conta++) {
+            BigDecimal saldo = motorSaldo.consultar(conta);
+            assertTrue(saldo.signum() >= 0);
+            total = total.add(saldo);
+        }
+        assertEquals(new BigDecimal("20000.00"), total);
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistenciaLeituraFilterTest {
+
+    private final ConsistenciaLeituraFilter filter = new ConsistenciaLeituraFilter();
+
+    @AfterEach
+    void tearDown() {
+        ConsistenciaLeitura.limpar();
+    }
+
+    @Test
+    void doFilter_ComCabecalho_ExigeAVersaoDuranteARequisicao() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ConsistenciaLeitura.CABECALHO, "42");
+
+        assertEquals(List.of(42L), versoesDuranteARequisicao(request));
+        assertEquals(0, ConsistenciaLeitura.versaoExigida());
+    }
+
+    @Test
+    void doFilter_SemCabecalhoOuInvalido_NaoExigeVersao() throws Exception {
+        MockHttpServletRequest invalido = new MockHttpServletRequest();
+        invalido.addHeader(ConsistenciaLeitura.CABECALHO, "abc");
+
+        assertEquals(List.of(0L), versoesDuranteARequisicao(new MockHttpServletRequest()));
+        assertEquals(List.of(0L), versoesDuranteARequisicao(invalido));
+    }
+
+    private List<Long> versoesDuranteARequisicao(final MockHttpServletRequest request) throws Exception {
+        List<Long> versoes = new ArrayList<>();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                versoes.add(ConsistenciaLeitura.versaoExigida());
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(servlet));
+        return versoes;
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EstadoReplicaTest {
+
+    private static final Instant AGORA = Instant.parse("2022-03-01T12:00:00Z");
+
+    private final EstadoReplica estado = new EstadoReplica(Clock.fixed(AGORA, ZoneOffset.UTC), Duration.ofSeconds(2));
+
+    @Test
+    void podeLer_SemCopia_RetornaFalse() {
+        assertFalse(estado.podeLer(0));
+    }
+
+    @Test
+    void podeLer_DentroDoAtrasoMaximo_RetornaTrue() {
+        estado.registrarCopia(0, AGORA.minusSeconds(2));
+
+        assertTrue(estado.podeLer(0));
+    }
+
+    @Test
+    void podeLer_AcimaDoAtrasoMaximo_RetornaFalse() {
+        estado.registrarCopia(0, AGORA.minusMillis(2001));
+
+        assertFalse(estado.podeLer(0));
+    }
+
+    @Test
+    void podeLer_CopiaSemAEscritaExigida_RetornaFalse() {
+        long primeira = estado.registrarEscrita();
+        estado.registrarCopia(estado.versaoAtual(), AGORA);
+        long segunda = estado.registrarEscrita();
+
+        assertTrue(estado.podeLer(primeira));
+        assertFalse(estado.podeLer(segunda));
+    }
+
+    @Test
+    void construtor_AtrasoNegativo_LancaExcecao() {
+        Clock relogio = Clock.systemUTC();
+        Duration atraso = Duration.ofMillis(-1);
+
+        assertThrows(IllegalArgumentException.class, () -> new EstadoReplica(relogio, atraso));
+    }
+}
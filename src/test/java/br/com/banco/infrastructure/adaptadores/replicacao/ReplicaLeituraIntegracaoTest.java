@@ -0,0 +1,177 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.domain.exception.ContaNaoEncontradaException;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.infrastructure.adaptadores.repositories.SpringContaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "banco.cache-conta.habilitado=false",
+        "banco.replica.habilitado=true",
+        "banco.replica.url=jdbc:h2:mem:replicaleitura;DB_CLOSE_DELAY=-1",
+        "banco.replica.atraso-maximo-ms=600000",
+        // A copia para a replica e disparada pelos testes
+        "banco.replica.espera-inicial-ms=3600000",
+        "spring.datasource.url=jdbc:h2:mem:primarioleitura"})
+class ReplicaLeituraIntegracaoTest {
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private SpringContaRepository springContaRepository;
+
+    @Autowired
+    private ReplicadorH2 replicador;
+
+    @Autowired
+    private EstadoReplica estadoReplica;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Autowired
+    @Qualifier("dataSourceReplica")
+    private DataSource dataSourceReplica;
+
+    @AfterEach
+    void tearDown() {
+        ConsistenciaLeitura.limpar();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void leituraDoAdaptador_SemEscritasPendentes_VaiParaAReplica() {
+        int id = criarConta("Replica Leitura");
+        replicarComoOutroChamador();
+        renomearNaReplica(id, "Alterada na replica");
+
+        assertEquals("Alterada na replica", contaService.obterContaPorId(id).getBody().getNomeResponsavel());
+        assertEquals("Replica Leitura", jdbcTemplate.queryForObject(
+                "SELECT \"nome_responsavel\" FROM \"conta\" WHERE \"id\" = ?", String.class, id));
+    }
+
+    @Test
+    void leituraForaDoAdaptador_FicaNoPrimario() {
+        int id = criarConta("Replica Spring Data");
+        replicarComoOutroChamador();
+        renomearNaReplica(id, "Alterada na replica");
+
+        // Somente leitura, mas sem @LeituraReplica
+        String nome = transacao.execute(status -> springContaRepository.findById(id).orElseThrow().getNomeResponsavel());
+        assertEquals("Replica Spring Data", nome);
+    }
+
+    @Test
+    void escrita_VaiParaOPrimario_ESoOAutorLeAntesDaProximaCopia() {
+        replicarComoOutroChamador();
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), resposta));
+
+        criarConta("Replica Escrita");
+
+        String versao = resposta.getHeader(ConsistenciaLeitura.CABECALHO);
+        assertNotNull(versao);
+        assertEquals(estadoReplica.versaoAtual(), Long.parseLong(versao));
+        assertEquals(0, new JdbcTemplate(dataSourceReplica).queryForObject(
+                "SELECT COUNT(*) FROM \"conta\" WHERE \"nome_responsavel\" = 'Replica Escrita'", Integer.class));
+
+        // O autor le do primario; outro chamador le a replica, que ainda nao tem a conta
+        assertEquals("Replica Escrita", contaService.obterContaPorNomeResponsavel("Replica Escrita").getBody().getNomeResponsavel());
+        CompletionException erro = assertThrows(CompletionException.class,
+                () -> emOutroChamador(() -> contaService.obterContaPorNomeResponsavel("Replica Escrita")));
+        assertInstanceOf(ContaNaoEncontradaException.class, erro.getCause());
+
+        // Outro chamador com a versao recebida tambem le do primario
+        assertEquals("Replica Escrita", emOutroChamador(() -> {
+            ConsistenciaLeitura.exigir(Long.parseLong(versao));
+            return contaService.obterContaPorNomeResponsavel("Replica Escrita").getBody().getNomeResponsavel();
+        }));
+
+        replicarComoOutroChamador();
+        assertEquals("Replica Escrita", emOutroChamador(
+                () -> contaService.obterContaPorNomeResponsavel("Replica Escrita").getBody().getNomeResponsavel()));
+    }
+
+    @Test
+    void replicaAcimaDoAtrasoMaximo_LeituraVoltaParaOPrimario() {
+        int id = criarConta("Replica Atrasada");
+        replicarComoOutroChamador();
+        renomearNaReplica(id, "Alterada na replica");
+
+        estadoReplica.registrarCopia(estadoReplica.versaoAtual(), Instant.now().minusSeconds(3600));
+        try {
+            assertEquals("Replica Atrasada", contaService.obterContaPorId(id).getBody().getNomeResponsavel());
+        } finally {
+            replicarComoOutroChamador();
+        }
+    }
+
+    @Test
+    void leituraQueVoltouParaOPrimario_SeguintesNaoLeemCopiaAnterior() {
+        int id = criarConta("Replica Monotonica");
+        replicarComoOutroChamador();
+        renomearNaReplica(id, "Alterada na replica");
+        long versao = estadoReplica.versaoAtual();
+
+        estadoReplica.registrarCopia(versao, Instant.now().minusSeconds(3600));
+        try {
+            assertEquals("Replica Monotonica", contaService.obterContaPorId(id).getBody().getNomeResponsavel());
+            // Copia recente, mas anterior a ultima escrita que a leitura no primario pode ter visto
+            estadoReplica.registrarCopia(versao - 1, Instant.now());
+            assertEquals("Replica Monotonica", contaService.obterContaPorId(id).getBody().getNomeResponsavel());
+        } finally {
+            replicarComoOutroChamador();
+        }
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return jdbcTemplate.queryForObject("SELECT \"id\" FROM \"conta\" WHERE \"nome_responsavel\" = ?", Integer.class, nome);
+    }
+
+    private void replicarComoOutroChamador() {
+        replicador.replicar();
+        ConsistenciaLeitura.limpar();
+    }
+
+    private void renomearNaReplica(final int id, final String nome) {
+        new JdbcTemplate(dataSourceReplica).update("UPDATE \"conta\" SET \"nome_responsavel\" = ? WHERE \"id\" = ?", nome, id);
+    }
+
+    private static <T> T emOutroChamador(final Supplier<T> leitura) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return leitura.get();
+            } finally {
+                ConsistenciaLeitura.limpar();
+            }
+        }).join();
+    }
+}
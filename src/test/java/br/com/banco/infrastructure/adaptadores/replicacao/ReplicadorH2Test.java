@@ -0,0 +1,59 @@
+package br.com.banco.infrastructure.adaptadores.replicacao;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicadorH2Test {
+
+    private static final String URL_PRIMARIO = "jdbc:h2:mem:replicador-primario;DB_CLOSE_DELAY=-1";
+
+    private final DriverManagerDataSource dataSourcePrimario = new DriverManagerDataSource(URL_PRIMARIO, "sa", "");
+    private final DriverManagerDataSource dataSourceReplica =
+            new DriverManagerDataSource("jdbc:h2:mem:replicador-replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    // Outro DataSource, para que as escritas nao entrem na transacao de leitura do replicador
+    private final JdbcTemplate escritor = new JdbcTemplate(new DriverManagerDataSource(URL_PRIMARIO, "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(dataSourceReplica);
+
+    @Test
+    void replicar_ComCommitEntreAsLeituras_CopiaTodasAsTabelasDoMesmoInstantaneo() {
+        escritor.execute("CREATE TABLE \"saldo\" (\"id\" INT PRIMARY KEY)");
+        escritor.execute("CREATE TABLE \"transferencia\" (\"id\" INT PRIMARY KEY)");
+        escritor.update("INSERT INTO \"saldo\" VALUES (1)");
+        escritor.update("INSERT INTO \"transferencia\" VALUES (1)");
+
+        // Confirma uma escrita nas duas tabelas logo depois da leitura da primeira
+        JdbcTemplate primario = new JdbcTemplate(dataSourcePrimario) {
+            @Override
+            public void query(String sql, RowCallbackHandler rch) {
+                super.query(sql, rch);
+                if (sql.endsWith("\"saldo\"")) {
+                    escritor.update("INSERT INTO \"saldo\" VALUES (2)");
+                    escritor.update("INSERT INTO \"transferencia\" VALUES (2)");
+                }
+            }
+        };
+        TransactionTemplate leituraPrimario = new TransactionTemplate(new DataSourceTransactionManager(dataSourcePrimario));
+        leituraPrimario.setReadOnly(true);
+        leituraPrimario.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        ReplicadorH2 replicador = new ReplicadorH2(primario, replica, leituraPrimario,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSourceReplica)),
+                new EstadoReplica(Clock.systemUTC(), Duration.ofSeconds(2)));
+
+        replicador.replicar();
+
+        assertEquals(1, replica.queryForObject("SELECT COUNT(*) FROM \"saldo\"", Integer.class));
+        assertEquals(1, replica.queryForObject("SELECT COUNT(*) FROM \"transferencia\"", Integer.class));
+        assertEquals(2, escritor.queryForObject("SELECT COUNT(*) FROM \"transferencia\"", Integer.class));
+    }
+}
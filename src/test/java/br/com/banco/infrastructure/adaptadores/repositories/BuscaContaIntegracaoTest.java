@@ -0,0 +1,131 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.domain.exception.ContaNaoEncontradaException;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {CapturaSql.PROPRIEDADE,
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        // Os testes de plano precisam que a busca por nome chegue ao banco
+        "banco.cache-conta.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:buscaconta"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BuscaContaIntegracaoTest {
+
+    private static final List<String> NOMES = List.of("Mariana Souza", "Ana", "Diana", "Ana Paula", "Juliana Anastacia",
+            "Bruno Santana", "Caio_Ana", "Caio Xana", "Joana 100% Silva", "Jo");
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> todos = new ArrayList<>(NOMES);
+
+    @BeforeAll
+    void setUp() {
+        for (int i = 0; i < 300; i++) {
+            todos.add("Cliente " + i);
+        }
+        todos.forEach(this::criarConta);
+    }
+
+    @Test
+    void buscarContasPorNomeResponsavel_OrdenaPorRelevanciaEPagina() {
+        List<String> primeira = nomes(contaService.buscarContasPorNomeResponsavel("ANA", PageRequest.of(0, 4)).getBody());
+        Slice<ContaDTO> segunda = contaService.buscarContasPorNomeResponsavel("ana", PageRequest.of(1, 4)).getBody();
+
+        // Igual, comeca pelo termo, palavra que comeca pelo termo (do nome mais curto ao mais longo) e os demais
+        assertEquals(List.of("Ana", "Ana Paula", "Juliana Anastacia", "Diana"), primeira);
+        assertEquals(List.of("Caio_Ana", "Caio Xana", "Mariana Souza", "Bruno Santana"), nomes(segunda));
+        assertTrue(segunda.hasNext());
+        assertEquals(List.of("Joana 100% Silva"), nomes(contaService.buscarContasPorNomeResponsavel("ana", PageRequest.of(2, 4)).getBody()));
+    }
+
+    @Test
+    void buscarContasPorNomeResponsavel_IgualAoFiltroPorTrecho() {
+        for (String termo : List.of("ana", "cliente 1", "ente 29", "o_a", "0% s", "aio", "xyz", "na s", "e 3")) {
+            List<String> esperados = todos.stream()
+                    .filter(nome -> nome.toLowerCase(Locale.ROOT).contains(termo))
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            List<String> encontrados = nomes(contaService.buscarContasPorNomeResponsavel(termo, PageRequest.of(0, 1000)).getBody());
+            assertEquals(esperados, encontrados.stream().sorted().collect(Collectors.toList()), () -> "Termo " + termo);
+        }
+    }
+
+    @Test
+    void obterContaPorNomeResponsavel_ComVariosNomesContendoOTermo_RetornaONomeExato() {
+        assertEquals("Ana", contaService.obterContaPorNomeResponsavel("ana").getBody().getNomeResponsavel());
+        assertEquals("Cliente 1", contaService.obterContaPorNomeResponsavel("Cliente 1").getBody().getNomeResponsavel());
+        assertEquals("Jo", contaService.obterContaPorNomeResponsavel("Jo").getBody().getNomeResponsavel());
+    }
+
+    @Test
+    void deletarConta_RemoveDaBusca() {
+        criarConta("Zuleica Temporaria");
+        int id = contaService.obterContaPorNomeResponsavel("Zuleica").getBody().getId();
+
+        contaService.deletarConta(id);
+
+        assertTrue(contaService.buscarContasPorNomeResponsavel("zuleica", PageRequest.of(0, 10)).getBody().isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"conta_trigrama\" WHERE \"conta_id\" = ?", Integer.class, id));
+    }
+
+    @Test
+    void indexarNomesPendentes_IndexaContasGravadasSemTrigramas() {
+        jdbcTemplate.update("INSERT INTO \"conta\" (\"nome_responsavel\", \"versao\") VALUES ('Wanderleia Direto No Banco', 0)");
+        jdbcTemplate.update("INSERT INTO \"conta\" (\"nome_responsavel\", \"versao\") VALUES ('Wa', 0)");
+        assertThrows(ContaNaoEncontradaException.class, () -> contaService.obterContaPorNomeResponsavel("Wanderleia"));
+
+        assertEquals(1, contaService.indexarNomesPendentes().getBody());
+
+        assertEquals("Wanderleia Direto No Banco", contaService.obterContaPorNomeResponsavel("Wanderleia").getBody().getNomeResponsavel());
+        assertEquals(List.of("Wanderleia Direto No Banco"), nomes(contaService.buscarContasPorNomeResponsavel("banco", PageRequest.of(0, 10)).getBody()));
+        assertEquals(0, contaService.indexarNomesPendentes().getBody());
+    }
+
+    @Test
+    void buscarContasPorNomeResponsavel_LeAsContasPelosIndices() {
+        jdbcTemplate.execute("ANALYZE");
+        CapturaSql.SQL.clear();
+        contaService.buscarContasPorNomeResponsavel("cliente 12", PageRequest.of(0, 10));
+        contaService.obterContaPorNomeResponsavel("Jo");
+
+        assertEquals(2, CapturaSql.SQL.size());
+        for (String sql : CapturaSql.SQL) {
+            // O H2 nomeia em maiusculas o indice que cria para a restricao unica
+            String plano = CapturaSql.explicar(jdbcTemplate, sql).toLowerCase(Locale.ROOT);
+            assertFalse(plano.contains(".tablescan"), plano);
+            assertTrue(plano.contains("uk_conta_trigrama") || plano.contains("idx_conta_nome"), plano);
+        }
+    }
+
+    private List<String> nomes(final Slice<ContaDTO> contas) {
+        return contas.getContent().stream().map(ContaDTO::getNomeResponsavel).collect(Collectors.toList());
+    }
+
+    private void criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+    }
+}
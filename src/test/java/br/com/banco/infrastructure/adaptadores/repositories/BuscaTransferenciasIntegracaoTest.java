@@ -0,0 +1,202 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.FiltroTransferencia;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {CapturaSql.PROPRIEDADE,
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:buscatransferencias"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BuscaTransferenciasIntegracaoTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2022, 3, 1, 0, 0);
+    private static final int CONTAS = 20;
+    private static final int LINHAS = 20_000;
+    private static final int PRIMEIRO_ID = 100_000_000;
+    private static final PageRequest SEGUNDA_PAGINA = PageRequest.of(1, 50, Sort.by("id"));
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int primeiraConta;
+
+    // A linha X gerada no setUp, recalculada em memoria para conferir as buscas
+    private final List<Linha> linhas = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() {
+        for (int i = 0; i < CONTAS; i++) {
+            ContaDTO contaDTO = new ContaDTO();
+            contaDTO.setNomeResponsavel("Busca " + i);
+            contaService.salvarConta(contaDTO);
+        }
+        primeiraConta = contaService.obterContaPorNomeResponsavel("Busca 0").getBody().getId();
+
+        jdbcTemplate.update("INSERT INTO \"transferencia\" (\"id\", \"data_transferencia\", \"valor\", \"tipo\", \"conta_id\", " +
+                        "\"nome_operador_transacao\", \"id_transacao\", \"natureza\") " +
+                        "SELECT X + ?, DATEADD('MINUTE', X * 10, ?), (MOD(X, 1000) + 1) / 100.0, MOD(X, 3), " +
+                        "? + MOD(X, ?), 'Operador ' || MOD(X, 50), CAST(X AS VARCHAR), MOD(X, 2) FROM SYSTEM_RANGE(1, ?)",
+                PRIMEIRO_ID, INICIO, primeiraConta, CONTAS, LINHAS);
+        jdbcTemplate.execute("ANALYZE");
+
+        for (int x = 1; x <= LINHAS; x++) {
+            linhas.add(new Linha(String.valueOf(x), INICIO.plusMinutes(x * 10L), x % 1000 + 1, TipoTransferencia.values()[x % 3],
+                    primeiraConta + x % CONTAS, "Operador " + x % 50));
+        }
+    }
+
+    @Test
+    void buscarTransferencias_IgualAoFiltroEmMemoria() {
+        filtros().forEach((descricao, filtro) -> {
+            List<String> esperados = linhas.stream()
+                    .filter(atende(filtro))
+                    .map(linha -> linha.idTransacao)
+                    .collect(Collectors.toList());
+
+            Page<TransferenciaDTO> pagina = transferenciaService.buscarTransferencias(SEGUNDA_PAGINA, filtro).getBody();
+
+            assertEquals(esperados.size(), pagina.getTotalElements(), descricao);
+            assertEquals(esperados.subList(Math.min(50, esperados.size()), Math.min(100, esperados.size())),
+                    pagina.getContent().stream().map(TransferenciaDTO::getIdTransacao).collect(Collectors.toList()), descricao);
+            pagina.getContent().forEach(transferencia -> assertNotNull(transferencia.getConta(), descricao));
+        });
+    }
+
+    @Test
+    void buscarTransferencias_MesmosFiltrosComOutrosValores_GeramOMesmoSql() {
+        FiltroTransferencia primeira = filtro(f -> {
+            f.setIdConta(primeiraConta);
+            f.setTipo(TipoTransferencia.SAQUE);
+            f.setValorMinimo(Dinheiro.deCentavos(100));
+        });
+        FiltroTransferencia segunda = filtro(f -> {
+            f.setIdConta(primeiraConta + 7);
+            f.setTipo(TipoTransferencia.DEPOSITO);
+            f.setValorMinimo(Dinheiro.deCentavos(555));
+        });
+
+        assertEquals(sqlDaBusca(primeira), sqlDaBusca(segunda));
+    }
+
+    @Test
+    void buscarTransferencias_ComFiltroIndexado_NaoVarreATabela() {
+        filtros().forEach((descricao, filtro) -> {
+            if (filtro.getIdConta() == null && filtro.getNomeOperador() == null && filtro.getDataInicial() == null) {
+                return;
+            }
+            for (String sql : sqlDaBusca(filtro)) {
+                String plano = CapturaSql.explicar(jdbcTemplate, sql);
+                assertFalse(plano.contains(".tableScan"), () -> descricao + " varre a tabela:\n" + plano);
+            }
+        });
+    }
+
+    private Map<String, FiltroTransferencia> filtros() {
+        LocalDateTime dataInicial = INICIO.plusDays(10);
+        LocalDateTime dataFinal = INICIO.plusDays(40);
+
+        Map<String, FiltroTransferencia> filtros = new LinkedHashMap<>();
+        filtros.put("sem filtro", new FiltroTransferencia());
+        filtros.put("conta", filtro(f -> f.setIdConta(primeiraConta + 3)));
+        filtros.put("operador e tipo", filtro(f -> {
+            f.setNomeOperador("Operador 7");
+            f.setTipo(TipoTransferencia.SAQUE);
+        }));
+        filtros.put("conta, periodo e valor", filtro(f -> {
+            f.setIdConta(primeiraConta + 5);
+            f.setDataInicial(dataInicial);
+            f.setDataFinal(dataFinal);
+            f.setValorMinimo(Dinheiro.deCentavos(200));
+            f.setValorMaximo(Dinheiro.deCentavos(800));
+        }));
+        filtros.put("so data inicial", filtro(f -> f.setDataInicial(INICIO.plusDays(100))));
+        filtros.put("tipo e valor minimo", filtro(f -> {
+            f.setTipo(TipoTransferencia.TRANSFERENCIA);
+            f.setValorMinimo(Dinheiro.deCentavos(990));
+        }));
+        filtros.put("todos", filtro(f -> {
+            f.setNomeOperador("Operador 10");
+            f.setIdConta(primeiraConta + 10);
+            f.setTipo(TipoTransferencia.DEPOSITO);
+            f.setDataInicial(dataInicial);
+            f.setDataFinal(INICIO.plusDays(120));
+            f.setValorMinimo(Dinheiro.deCentavos(100));
+            f.setValorMaximo(Dinheiro.deCentavos(900));
+        }));
+        filtros.put("operador sem resultado", filtro(f -> f.setNomeOperador("Operador 99")));
+        return filtros;
+    }
+
+    private Predicate<Linha> atende(final FiltroTransferencia filtro) {
+        return linha -> (filtro.getIdConta() == null || linha.contaId == filtro.getIdConta())
+                && (filtro.getNomeOperador() == null || linha.operador.equals(filtro.getNomeOperador()))
+                && (filtro.getTipo() == null || linha.tipo == filtro.getTipo())
+                && (filtro.getDataInicial() == null || !linha.data.isBefore(filtro.getDataInicial()))
+                && (filtro.getDataFinal() == null || !linha.data.isAfter(filtro.getDataFinal()))
+                && (filtro.getValorMinimo() == null || linha.centavos >= filtro.getValorMinimo().getCentavos())
+                && (filtro.getValorMaximo() == null || linha.centavos <= filtro.getValorMaximo().getCentavos());
+    }
+
+    private List<String> sqlDaBusca(final FiltroTransferencia filtro) {
+        CapturaSql.SQL.clear();
+        // Primeira pagina cheia: consulta a listagem e a contagem
+        transferenciaService.buscarTransferencias(PageRequest.of(0, 10, Sort.by("id")), filtro);
+        return new ArrayList<>(CapturaSql.SQL);
+    }
+
+    private static FiltroTransferencia filtro(final Consumer<FiltroTransferencia> preencher) {
+        FiltroTransferencia filtro = new FiltroTransferencia();
+        preencher.accept(filtro);
+        return filtro;
+    }
+
+    private static final class Linha {
+        private final String idTransacao;
+        private final LocalDateTime data;
+        private final long centavos;
+        private final TipoTransferencia tipo;
+        private final int contaId;
+        private final String operador;
+
+        private Linha(String idTransacao, LocalDateTime data, long centavos, TipoTransferencia tipo, int contaId, String operador) {
+            this.idTransacao = idTransacao;
+            this.data = data;
+            this.centavos = centavos;
+            this.tipo = tipo;
+            this.contaId = contaId;
+            this.operador = operador;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra o SQL gerado pelo Hibernate para que os testes de plano rodem o EXPLAIN da consulta exata. Ativado com
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class CapturaSql implements StatementInspector {
+    static final String PROPRIEDADE = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+            "br.com.banco.infrastructure.adaptadores.repositories.CapturaSql";
+
+    static final List<String> SQL = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        SQL.add(sql);
+        return sql;
+    }
+
+    static String explicar(final JdbcTemplate jdbcTemplate, final String sql) {
+        // O H2 escolhe o plano no prepare, sem olhar os valores; o EXPLAIN vai com todos os parametros nulos
+        return jdbcTemplate.execute((Connection conexao) -> {
+            try (PreparedStatement comando = conexao.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= comando.getParameterMetaData().getParameterCount(); i++) {
+                    comando.setObject(i, null);
+                }
+                try (ResultSet resultado = comando.executeQuery()) {
+                    resultado.next();
+                    return resultado.getString(1);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,188 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.application.mappers.TransferenciaMapper;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.CheckpointSaldoEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.TransferenciaEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"banco.checkpoint-saldo.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:checkpoints"})
+class CheckpointSaldoIntegracaoTest {
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    @Qualifier("contaRepositoryImpl")
+    private IContaRepositoryPort contaRepository;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    @Qualifier("transferenciaRepositoryPort")
+    private ITransferenciaRepositoryPort transferenciaRepository;
+
+    @Autowired
+    private ISaldoContaServicePort saldoContaService;
+
+    @Autowired
+    private SpringTransferenciaRepository springTransferenciaRepository;
+
+    @Autowired
+    private SpringCheckpointSaldoRepository checkpointSaldoRepository;
+
+    @Autowired
+    private TransferenciaMapper transferenciaMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void obterSaldoEm_ComCheckpoints_SomaApenasOsLancamentosPosterioresAoCheckpoint() {
+        int contaId = criarConta("Helena");
+        Conta conta = contaRepository.obterContaPorId(contaId).orElseThrow();
+        depositar(conta, "100.00", LocalDateTime.of(2022, 1, 10, 10, 0));
+        sacar(conta, "30.00", LocalDateTime.of(2022, 1, 10, 15, 0));
+        depositar(conta, "50.00", LocalDateTime.of(2022, 1, 12, 9, 0));
+
+        assertSaldosEm(contaId);
+        assertTrue(saldoContaService.gerarCheckpoints().getBody() >= 2);
+        assertEquals(0, saldoContaService.gerarCheckpoints().getBody());
+
+        assertEquals(List.of(LocalDate.of(2022, 1, 10), LocalDate.of(2022, 1, 12)), diasComCheckpoint(contaId));
+        assertSaldosEm(contaId);
+
+        // Retomada: so o dia novo e processado, a partir do checkpoint de 12/01
+        depositar(conta, "5.00", LocalDateTime.of(2022, 1, 15, 18, 0));
+        assertEquals(1, saldoContaService.gerarCheckpoints().getBody());
+        assertEquals(new BigDecimal("125.00"), saldoEm(contaId, LocalDateTime.of(2022, 1, 16, 0, 0)));
+
+        // Estornar um lancamento antigo invalida os checkpoints a partir do dia dele
+        Transferencia estornado = lancamentoDoDia(contaId, LocalDate.of(2022, 1, 12));
+        transactionTemplate.executeWithoutResult(status -> transferenciaRepository.deletar(estornado));
+        assertEquals(List.of(LocalDate.of(2022, 1, 10)), diasComCheckpoint(contaId));
+        assertEquals(new BigDecimal("75.00"), saldoEm(contaId, LocalDateTime.of(2022, 1, 16, 0, 0)));
+
+        saldoContaService.gerarCheckpoints();
+        assertEquals(List.of(LocalDate.of(2022, 1, 10), LocalDate.of(2022, 1, 15)), diasComCheckpoint(contaId));
+        assertEquals(new BigDecimal("75.00"), saldoEm(contaId, LocalDateTime.of(2022, 1, 16, 0, 0)));
+    }
+
+    @Test
+    void salvar_LancamentoRetroativo_InvalidaCheckpointsAPartirDoDiaDele() {
+        int contaId = criarConta("Otavio");
+        Conta conta = contaRepository.obterContaPorId(contaId).orElseThrow();
+        depositar(conta, "40.00", LocalDateTime.of(2021, 3, 2, 10, 0));
+        depositar(conta, "60.00", LocalDateTime.of(2021, 3, 5, 10, 0));
+        saldoContaService.gerarCheckpoints();
+        assertEquals(List.of(LocalDate.of(2021, 3, 2), LocalDate.of(2021, 3, 5)), diasComCheckpoint(contaId));
+
+        depositar(conta, "7.00", LocalDateTime.of(2021, 3, 4, 8, 0));
+
+        assertEquals(List.of(LocalDate.of(2021, 3, 2)), diasComCheckpoint(contaId));
+        assertEquals(new BigDecimal("107.00"), saldoEm(contaId, LocalDateTime.of(2021, 3, 6, 0, 0)));
+
+        saldoContaService.gerarCheckpoints();
+        assertEquals(List.of(LocalDate.of(2021, 3, 2), LocalDate.of(2021, 3, 4), LocalDate.of(2021, 3, 5)), diasComCheckpoint(contaId));
+        assertEquals(new BigDecimal("107.00"), saldoEm(contaId, LocalDateTime.of(2021, 3, 6, 0, 0)));
+    }
+
+    @Test
+    void gerarCheckpoints_ExecucoesConcorrentes_GravamCadaDiaUmaVez() throws Exception {
+        int contaId = criarConta("Paula");
+        Conta conta = contaRepository.obterContaPorId(contaId).orElseThrow();
+        for (int dia = 1; dia <= 20; dia++) {
+            depositar(conta, "1.00", LocalDateTime.of(2020, 5, dia, 12, 0));
+        }
+
+        List<CompletableFuture<Integer>> execucoes = List.of(
+                CompletableFuture.supplyAsync(() -> saldoContaService.gerarCheckpoints().getBody()),
+                CompletableFuture.supplyAsync(() -> saldoContaService.gerarCheckpoints().getBody()));
+        for (CompletableFuture<Integer> execucao : execucoes) {
+            execucao.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(20, diasComCheckpoint(contaId).size());
+        assertEquals(new BigDecimal("20.00"), saldoEm(contaId, LocalDateTime.of(2020, 6, 1, 0, 0)));
+    }
+
+    private void assertSaldosEm(final int contaId) {
+        assertEquals(new BigDecimal("0.00"), saldoEm(contaId, LocalDateTime.of(2021, 12, 31, 23, 59)));
+        assertEquals(new BigDecimal("100.00"), saldoEm(contaId, LocalDateTime.of(2022, 1, 10, 12, 0)));
+        assertEquals(new BigDecimal("70.00"), saldoEm(contaId, LocalDateTime.of(2022, 1, 11, 0, 0)));
+        assertEquals(new BigDecimal("70.00"), saldoEm(contaId, LocalDateTime.of(2022, 1, 12, 8, 59)));
+        assertEquals(new BigDecimal("120.00"), saldoEm(contaId, LocalDateTime.of(2022, 1, 12, 9, 0)));
+        assertEquals(new BigDecimal("120.00"), saldoEm(contaId, LocalDateTime.of(2022, 6, 1, 0, 0)));
+    }
+
+    private BigDecimal saldoEm(final int contaId, final LocalDateTime instante) {
+        return transferenciaService.obterSaldoEm(contaId, instante).getBody();
+    }
+
+    private List<LocalDate> diasComCheckpoint(final int contaId) {
+        return checkpointSaldoRepository.findAll().stream()
+                .filter(checkpoint -> checkpoint.getContaId() == contaId)
+                .map(CheckpointSaldoEntity::getDataReferencia)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private Transferencia lancamentoDoDia(final int contaId, final LocalDate dia) {
+        TransferenciaEntity lancamento = springTransferenciaRepository.findByContaId(Pageable.unpaged(), contaId).stream()
+                .filter(entidade -> entidade.getDataTransferencia().toLocalDate().equals(dia))
+                .findFirst()
+                .orElseThrow();
+        return transferenciaMapper.mapEntityToModel(lancamento);
+    }
+
+    private void depositar(final Conta conta, final String valor, final LocalDateTime data) {
+        Transferencia deposito = transferenciaMapper.mapTransferenciaDeposito(transferencia(valor), conta);
+        deposito.setDataTransferencia(data);
+        transactionTemplate.executeWithoutResult(status -> transferenciaRepository.salvar(deposito));
+    }
+
+    private void sacar(final Conta conta, final String valor, final LocalDateTime data) {
+        Transferencia saque = transferenciaMapper.mapTransferenciaSaque(transferencia(valor), conta);
+        saque.setDataTransferencia(data);
+        transactionTemplate.executeWithoutResult(status -> transferenciaRepository.salvar(saque));
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private TransferenciaDTO transferencia(final String valor) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de(valor));
+        return transferenciaDTO;
+    }
+}
@@ -5,17 +5,28 @@ import br.com.banco.application.mappers.ContaMapper;
 import br.com.banco.domain.exception.ContaNaoEncontradaException;
 import br.com.banco.domain.exception.SalvarContaException;
 import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.ports.interfaces.IFiltroContasPort;
 import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaTrigramaEntity;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,13 +38,20 @@ class ContaRepositoryImplTest {
     @Mock
     private SpringContaRepository contaRepository;
 
+    @Mock
+    private SpringContaTrigramaRepository contaTrigramaRepository;
+
     @Mock
     private ContaMapper contaMapper;
 
+    @Mock
+    private IFiltroContasPort filtroContas;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
-        repositorioConta = new ContaRepositoryImpl(contaRepository, contaMapper);
+        when(filtroContas.podeExistir(anyInt())).thenReturn(true);
+        repositorioConta = new ContaRepositoryImpl(contaRepository, contaTrigramaRepository, contaMapper, filtroContas);
     }
 
     @Test
@@ -81,57 +99,134 @@ class ContaRepositoryImplTest {
     }
 
     @Test
-    void obterContaPorNomeResponsavel_ComNomeResponsavelExistente_RetornaConta() {
+    void obterContaPorId_ComIdInexistente_RegistraFalsoPositivoDoFiltro() {
+        when(contaRepository.findById(1)).thenReturn(Optional.empty());
+
+        assertThrows(ContaNaoEncontradaException.class, () -> repositorioConta.obterContaPorId(1));
+
+        verify(filtroContas).registrarFalsoPositivo(1);
+    }
+
+    @Test
+    void obterContaPorId_ComIdRecusadoPeloFiltro_NaoVaiAoBanco() {
+        when(filtroContas.podeExistir(1)).thenReturn(false);
+
+        assertThrows(ContaNaoEncontradaException.class, () -> repositorioConta.obterContaPorId(1));
+
+        verifyNoInteractions(contaRepository);
+        verify(filtroContas, never()).registrarFalsoPositivo(anyInt());
+    }
+
+    @Test
+    void obterContasPorIds_LeSoOsCandidatosDoFiltroNumaConsulta() {
+        ContaEntity entity1 = new ContaEntity();
+        entity1.setId(1);
+        ContaEntity entity2 = new ContaEntity();
+        entity2.setId(2);
+        Conta conta1 = new Conta();
+        conta1.setId(1);
+        Conta conta2 = new Conta();
+        conta2.setId(2);
+        when(filtroContas.podeExistir(9)).thenReturn(false);
+        when(contaRepository.findAllById(List.of(1, 2, 3))).thenReturn(List.of(entity1, entity2));
+        when(contaMapper.mapEntityToModel(entity1)).thenReturn(Optional.of(conta1));
+        when(contaMapper.mapEntityToModel(entity2)).thenReturn(Optional.of(conta2));
+
+        Map<Integer, Conta> contas = repositorioConta.obterContasPorIds(List.of(1, 2, 3, 9));
+
+        assertEquals(Map.of(1, conta1, 2, conta2), contas);
+        verify(contaRepository, times(1)).findAllById(any());
+        verify(filtroContas).registrarFalsoPositivo(3);
+        verify(filtroContas, never()).registrarFalsoPositivo(9);
+    }
+
+    @Test
+    void obterContaPorNomeResponsavel_ComNomeResponsavelExistente_RetornaContaMelhorColocada() {
         String nomeResponsavel = "Responsável";
         ContaEntity contaEntityMock = mock(ContaEntity.class);
         Conta contaMock = mock(Conta.class);
 
-        when(contaRepository.findByNomeResponsavelContainingIgnoreCase(nomeResponsavel)).thenReturn(contaEntityMock);
+        when(contaRepository.buscarPorTrigramas(eq(PageRequest.of(0, 1)), eq(Set.of("res", "esp", "spo", "pon", "ons", "nsá", "sáv", "áve", "vel")),
+                eq(9L), eq("responsável"), eq("%responsável%"), eq("responsável%"), eq("% responsável%")))
+                .thenReturn(new SliceImpl<>(List.of(contaEntityMock)));
         when(contaMapper.mapEntityToModel(contaEntityMock)).thenReturn(Optional.of(contaMock));
 
         Optional<Conta> result = repositorioConta.obterContaPorNomeResponsavel(nomeResponsavel);
 
         assertTrue(result.isPresent());
         assertEquals(contaMock, result.get());
-        verify(contaRepository, times(1)).findByNomeResponsavelContainingIgnoreCase(nomeResponsavel);
         verify(contaMapper, times(1)).mapEntityToModel(contaEntityMock);
     }
 
     @Test
     void obterContaPorNomeResponsavel_ComNomeResponsavelInexistente_RetornaContaVazia() {
         String nomeResponsavel = "Responsável";
-        Mockito.when(contaRepository.findByNomeResponsavelContainingIgnoreCase(nomeResponsavel)).thenReturn(null);
+        when(contaRepository.buscarPorTrigramas(any(), any(), anyLong(), any(), any(), any(), any())).thenReturn(new SliceImpl<>(List.of()));
 
         Optional<Conta> result = repositorioConta.obterContaPorNomeResponsavel(nomeResponsavel);
 
         assertFalse(result.isPresent());
-        verify(contaRepository, times(1)).findByNomeResponsavelContainingIgnoreCase(nomeResponsavel);
         verify(contaMapper, never()).mapEntityToModel(any());
     }
 
+    @Test
+    void obterContaPorNomeResponsavel_ComNomeSemTrigrama_BuscaNomeExato() {
+        ContaEntity contaEntityMock = mock(ContaEntity.class);
+        Conta contaMock = mock(Conta.class);
+
+        when(contaRepository.findByNomeResponsavelOrderByIdAsc(PageRequest.of(0, 1), "Jo")).thenReturn(new SliceImpl<>(List.of(contaEntityMock)));
+        when(contaMapper.mapEntityToModel(contaEntityMock)).thenReturn(Optional.of(contaMock));
+
+        Optional<Conta> result = repositorioConta.obterContaPorNomeResponsavel(" Jo ");
+
+        assertEquals(Optional.of(contaMock), result);
+        verify(contaRepository, never()).buscarPorTrigramas(any(), any(), anyLong(), any(), any(), any(), any());
+    }
+
     @Test
     void obterContaPorNomeResponsavel_ComExcecao_RetornaInternalServerError() {
         String nomeResponsavel = "Responsável";
 
-        when(contaRepository.findByNomeResponsavelContainingIgnoreCase(nomeResponsavel)).thenThrow(RuntimeException.class);
+        when(contaRepository.buscarPorTrigramas(any(), any(), anyLong(), any(), any(), any(), any())).thenThrow(RuntimeException.class);
 
         assertThrows(ContaNaoEncontradaException.class, () -> {
             repositorioConta.obterContaPorNomeResponsavel(nomeResponsavel);
         });
+    }
+
+    @Test
+    void buscarPorNomeResponsavel_ComTermoComCuringas_EscapaOPadraoEIgnoraAOrdenacaoPedida() {
+        Slice<ContaEntity> contaEntities = new SliceImpl<>(List.of());
+        Slice<ContaDTO> contasMock = mock(Slice.class);
 
-        verify(contaRepository, times(1)).findByNomeResponsavelContainingIgnoreCase(nomeResponsavel);
+        when(contaRepository.buscarPorTrigramas(PageRequest.of(2, 5), Set.of("a_%", "_%b"), 2L, "a_%b", "%a\\_\\%b%", "a\\_\\%b%",
+                "% a\\_\\%b%")).thenReturn(contaEntities);
+        when(contaMapper.mapToDtoSlice(contaEntities)).thenReturn(contasMock);
+
+        Slice<ContaDTO> response = repositorioConta.buscarPorNomeResponsavel("A_%b", PageRequest.of(2, 5, Sort.by("id")));
+
+        assertEquals(contasMock, response);
     }
 
     @Test
-    void salvar_ComContaValida_SalvaConta() {
+    void salvar_ComContaValida_SalvaContaEIndexaOsTrigramasDoNome() {
         Conta contaMock = mock(Conta.class);
-        ContaEntity contaEntityMock = mock(ContaEntity.class);
+        ContaEntity contaEntity = new ContaEntity();
+        ContaEntity salva = new ContaEntity();
+        salva.setId(7);
+        salva.setNomeResponsavel("Ana Ana");
 
-        when(contaMapper.mapModelToEntity(contaMock)).thenReturn(contaEntityMock);
+        when(contaMapper.mapModelToEntity(contaMock)).thenReturn(contaEntity);
+        when(contaRepository.save(contaEntity)).thenReturn(salva);
 
         repositorioConta.salvar(contaMock);
 
-        verify(contaRepository, times(1)).save(contaEntityMock);
+        ArgumentCaptor<List<ContaTrigramaEntity>> trigramas = ArgumentCaptor.forClass(List.class);
+        verify(contaTrigramaRepository).saveAll(trigramas.capture());
+        assertEquals(List.of("ana", "na ", "a a", " an"),
+                trigramas.getValue().stream().map(ContaTrigramaEntity::getTrigrama).collect(Collectors.toList()));
+        assertTrue(trigramas.getValue().stream().allMatch(trigrama -> trigrama.getContaId() == 7));
+        verify(filtroContas).registrarConta(7);
     }
 
     @Test
@@ -145,6 +240,7 @@ class ContaRepositoryImplTest {
         });
 
         verify(contaRepository, never()).save(any());
+        verify(contaTrigramaRepository, never()).saveAll(any());
     }
 
     @Test
@@ -156,6 +252,7 @@ class ContaRepositoryImplTest {
 
         repositorioConta.deletar(id);
 
+        verify(contaTrigramaRepository, times(1)).deleteByContaId(id);
         verify(contaRepository, times(1)).delete(contaEntityMock);
     }
 
@@ -169,6 +266,15 @@ class ContaRepositoryImplTest {
         });
     }
 
+    @Test
+    void deletar_ComIdRecusadoPeloFiltro_NaoVaiAoBanco() {
+        when(filtroContas.podeExistir(1)).thenReturn(false);
+
+        assertThrows(ContaNaoEncontradaException.class, () -> repositorioConta.deletar(1));
+
+        verifyNoInteractions(contaRepository, contaTrigramaRepository);
+    }
+
     @Test
     void deletar_ComExcecao_RetornaInternalServerError() {
         int id = 1;
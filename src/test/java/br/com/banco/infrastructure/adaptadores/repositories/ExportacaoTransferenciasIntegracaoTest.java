@@ -0,0 +1,122 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.exportacao.FormatoExportacao;
+import br.com.banco.domain.exception.ContaNaoEncontradaException;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {CapturaSql.PROPRIEDADE,
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:exportacao"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportacaoTransferenciasIntegracaoTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2022, 3, 1, 0, 0);
+    private static final int LINHAS = 5_000;
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private int contaId;
+
+    @BeforeAll
+    void setUp() {
+        for (String nome : List.of("Exportacao", "Outra Exportacao")) {
+            ContaDTO contaDTO = new ContaDTO();
+            contaDTO.setNomeResponsavel(nome);
+            contaService.salvarConta(contaDTO);
+        }
+        contaId = contaService.obterContaPorNomeResponsavel("Exportacao").getBody().getId();
+        int outraConta = contaService.obterContaPorNomeResponsavel("Outra Exportacao").getBody().getId();
+
+        // Ids em ordem inversa a das datas, para a exportacao provar que ordena por data; as linhas pares sao da outra conta
+        jdbcTemplate.update("INSERT INTO \"transferencia\" (\"id\", \"data_transferencia\", \"valor\", \"tipo\", \"conta_id\", " +
+                        "\"nome_operador_transacao\", \"id_transacao\", \"natureza\") " +
+                        "SELECT 200000000 - X, DATEADD('MINUTE', X, ?), X / 100.0, MOD(X, 3), CASE WHEN MOD(X, 2) = 0 THEN CAST(? AS INT) ELSE CAST(? AS INT) END, " +
+                        "CASE WHEN X = 1 THEN 'Silva, \"Jr\"' ELSE 'Operador ' || MOD(X, 7) END, CAST(X AS VARCHAR), MOD(X, 2) FROM SYSTEM_RANGE(1, ?)",
+                INICIO, outraConta, contaId, LINHAS * 2);
+    }
+
+    @Test
+    void exportarTransferenciasPorConta_EmCsv_EscreveTodasAsLinhasEmOrdem() throws IOException {
+        ResponseEntity<StreamingResponseBody> resposta = transferenciaService.exportarTransferenciasPorConta(contaId, FormatoExportacao.CSV);
+
+        assertEquals("text/csv;charset=UTF-8", resposta.getHeaders().getContentType().toString());
+        assertEquals("attachment; filename=\"transferencias-conta-" + contaId + ".csv\"",
+                resposta.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+
+        String[] linhas = escrever(resposta).split("\r\n");
+
+        assertEquals(LINHAS + 1, linhas.length);
+        assertEquals("dataTransferencia,valor,tipo,natureza,nomeOperadorTransacao,idTransacao", linhas[0]);
+        assertEquals("2022-03-01T00:01:00,0.01,SAQUE,DEBITO,\"Silva, \"\"Jr\"\"\",1", linhas[1]);
+        assertEquals("2022-03-01T00:03:00,0.03,DEPOSITO,DEBITO,Operador 3,3", linhas[2]);
+        assertTrue(linhas[LINHAS].endsWith(",Operador " + (LINHAS * 2 - 1) % 7 + "," + (LINHAS * 2 - 1)), linhas[LINHAS]);
+    }
+
+    @Test
+    void exportarTransferenciasPorConta_EmNdjson_EscreveUmObjetoPorLinhaComUmaUnicaConsulta() throws IOException {
+        ResponseEntity<StreamingResponseBody> resposta = transferenciaService.exportarTransferenciasPorConta(contaId, FormatoExportacao.NDJSON);
+
+        CapturaSql.SQL.clear();
+        String conteudo = escrever(resposta);
+
+        // Uma unica consulta, sem OFFSET/LIMIT e sem COUNT
+        assertEquals(1, CapturaSql.SQL.size(), CapturaSql.SQL::toString);
+        String sql = CapturaSql.SQL.get(0).toLowerCase(Locale.ROOT);
+        assertFalse(sql.contains("count(") || sql.contains("limit") || sql.contains("offset"), sql);
+
+        assertTrue(conteudo.endsWith("\n"));
+        String[] linhas = conteudo.split("\n");
+        assertEquals(LINHAS, linhas.length);
+        JsonNode primeira = objectMapper.readTree(linhas[0]);
+        assertEquals("2022-03-01T00:01:00", primeira.get("dataTransferencia").asText());
+        assertEquals("0.01", primeira.get("valor").decimalValue().toPlainString());
+        assertEquals("SAQUE", primeira.get("tipo").asText());
+        assertEquals("Silva, \"Jr\"", primeira.get("nomeOperadorTransacao").asText());
+        assertEquals(String.valueOf(LINHAS * 2 - 1), objectMapper.readTree(linhas[LINHAS - 1]).get("idTransacao").asText());
+    }
+
+    @Test
+    void exportarTransferenciasPorConta_ComContaInexistente_LancaAntesDeEscrever() {
+        assertThrows(ContaNaoEncontradaException.class,
+                () -> transferenciaService.exportarTransferenciasPorConta(Integer.MAX_VALUE, FormatoExportacao.CSV));
+    }
+
+    private String escrever(final ResponseEntity<StreamingResponseBody> resposta) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        resposta.getBody().writeTo(saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
+import br.com.banco.domain.exception.ContaNaoEncontradaException;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {CapturaSql.PROPRIEDADE,
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:extratoconta"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExtratoContaIntegracaoTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2022, 3, 1, 0, 0);
+    private static final int LINHAS = 300;
+    private static final int PRIMEIRO_ID = 100_000_000;
+    private static final int TAMANHO = 7;
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private ISaldoContaServicePort saldoContaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int contaId;
+
+    // "idTransacao=saldo em centavos" de cada lancamento da conta, na ordem do extrato
+    private final List<String> esperado = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() {
+        contaId = criarConta("Extrato A");
+        criarConta("Extrato B");
+
+        // Tres lancamentos por instante, com os IDs em ordem inversa a insercao; um em cada quatro vai para a outra conta
+        // e um em cada tres e debito
+        jdbcTemplate.update("INSERT INTO \"transferencia\" (\"id\", \"data_transferencia\", \"valor\", \"tipo\", \"conta_id\", " +
+                        "\"nome_operador_transacao\", \"id_transacao\", \"natureza\") " +
+                        "SELECT ? - X, DATEADD('HOUR', (X / 3) * 5, ?), (MOD(X * 37, 1000) + 1) / 100.0, MOD(X, 3), " +
+                        "? + CASE WHEN MOD(X, 4) = 0 THEN 1 ELSE 0 END, 'Operador', CAST(X AS VARCHAR), " +
+                        "CASE WHEN MOD(X, 3) = 0 THEN 1 ELSE 0 END FROM SYSTEM_RANGE(1, ?)",
+                PRIMEIRO_ID + LINHAS, INICIO, contaId, LINHAS);
+
+        List<long[]> linhas = new ArrayList<>();
+        for (long x = 1; x <= LINHAS; x++) {
+            if (x % 4 != 0) {
+                long centavos = (x * 37 % 1000 + 1) * (x % 3 == 0 ? -1 : 1);
+                linhas.add(new long[]{(x / 3) * 5, PRIMEIRO_ID + LINHAS - x, x, centavos});
+            }
+        }
+        linhas.sort(Comparator.<long[]>comparingLong(linha -> linha[0]).thenComparingLong(linha -> linha[1]));
+        long saldo = 0;
+        for (long[] linha : linhas) {
+            saldo += linha[3];
+            esperado.add(linha[2] + "=" + saldo);
+        }
+    }
+
+    @Test
+    void obterExtrato_PercorrendoAsPaginas_TrazOSaldoAposCadaLancamento() {
+        assertEquals(esperado, percorrerExtrato());
+
+        // Com checkpoints, o saldo inicial das paginas parte do ultimo dia consolidado
+        assertTrue(saldoContaService.gerarCheckpoints().getBody() > 0);
+        assertEquals(esperado, percorrerExtrato());
+    }
+
+    @Test
+    void obterExtrato_CadaPagina_CalculaOSaldoEmUmaUnicaConsulta() {
+        CapturaSql.SQL.clear();
+        PaginaCursorDTO<LancamentoExtratoDTO> primeira = transferenciaService.obterExtratoPorContaAposCursor(null, TAMANHO, contaId).getBody();
+        assertEquals(1, extratos().size());
+
+        CapturaSql.SQL.clear();
+        transferenciaService.obterExtratoPorContaAposCursor(primeira.getProximoCursor(), TAMANHO, contaId);
+        assertEquals(1, extratos().size());
+    }
+
+    @Test
+    void obterExtrato_ContaInexistente_LancaExcecao() {
+        assertThrows(ContaNaoEncontradaException.class, () -> transferenciaService.obterExtratoPorContaAposCursor(null, TAMANHO, contaId + 1000));
+    }
+
+    private List<String> percorrerExtrato() {
+        List<String> lidos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaCursorDTO<LancamentoExtratoDTO> pagina = transferenciaService.obterExtratoPorContaAposCursor(cursor, TAMANHO, contaId).getBody();
+            assertTrue(pagina.getConteudo().size() <= TAMANHO);
+            pagina.getConteudo().forEach(lancamento -> lidos.add(lancamento.getIdTransacao() + "=" + lancamento.getSaldo().getCentavos()));
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+        return lidos;
+    }
+
+    private List<String> extratos() {
+        return CapturaSql.SQL.stream()
+                .map(String::toLowerCase)
+                .filter(sql -> sql.contains(" over ("))
+                .collect(Collectors.toList());
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.exception.ContaNaoEncontradaException;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {CapturaSql.PROPRIEDADE,
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "banco.filtro-contas.habilitado=true",
+        "spring.datasource.url=jdbc:h2:mem:filtrocontas"})
+class FiltroContasIntegracaoTest {
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void depositoEmContaQueNuncaExistiu_RecusadoSemIrAoBanco() {
+        int conta = criarConta("Filtro A");
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de("10.00"));
+
+        CapturaSql.SQL.clear();
+        assertThrows(ContaNaoEncontradaException.class, () -> transferenciaService.realizarDeposito(transferenciaDTO, conta + 1_000_000));
+        assertThrows(ContaNaoEncontradaException.class, () -> contaService.obterContaPorId(conta + 1_000_000));
+
+        assertTrue(CapturaSql.SQL.isEmpty(), CapturaSql.SQL::toString);
+        assertTrue(meterRegistry.get("conta.filtro.rejeicoes").functionCounter().count() >= 2);
+        transferenciaService.realizarDeposito(transferenciaDTO, conta);
+    }
+
+    @Test
+    void contaExcluida_ContinuaNoFiltroEContaComoFalsoPositivo() {
+        int conta = criarConta("Filtro B");
+        double falsosPositivos = meterRegistry.get("conta.filtro.falsos-positivos").functionCounter().count();
+
+        contaService.deletarConta(conta);
+
+        assertThrows(ContaNaoEncontradaException.class, () -> contaService.obterContaPorId(conta));
+        assertEquals(falsosPositivos + 1, meterRegistry.get("conta.filtro.falsos-positivos").functionCounter().count());
+        assertTrue(meterRegistry.get("conta.filtro.taxa-falso-positivo").gauge().value() > 0);
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "banco.gravacao-grupo.habilitado=true",
+        "banco.gravacao-grupo.janela-ms=20",
+        "banco.gravacao-grupo.tamanho-maximo=16",
+        "spring.datasource.url=jdbc:h2:mem:gravacaogrupo"})
+class GravacaoEmGrupoIntegracaoTest {
+
+    private static final int CONTAS = 32;
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private ISaldoContaRepositoryPort saldoContaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void realizarDeposito_RequisicoesSimultaneas_SaoGravadasEmMenosCommitsEVisiveisAoRetornar() throws Exception {
+        List<Integer> contas = IntStream.range(0, CONTAS).mapToObj(i -> criarConta("Grupo " + i)).collect(Collectors.toList());
+        DistributionSummary grupos = meterRegistry.get("banco.gravacao-grupo.lancamentos").summary();
+        long gruposAntes = grupos.count();
+        ExecutorService executor = Executors.newFixedThreadPool(CONTAS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<BigDecimal>> saldos = contas.stream()
+                    .map(conta -> CompletableFuture.supplyAsync(() -> {
+                        aguardar(largada);
+                        transferenciaService.realizarDeposito(transferencia("12.34"), conta);
+                        // O deposito ja esta no banco quando a requisicao retorna
+                        return transferenciaService.obterSaldoTotalPorNumeroConta(conta).getBody();
+                    }, executor))
+                    .collect(Collectors.toList());
+            largada.countDown();
+
+            for (CompletableFuture<BigDecimal> saldo : saldos) {
+                assertEquals(new BigDecimal("12.34"), saldo.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        long commits = grupos.count() - gruposAntes;
+        assertTrue(commits < CONTAS, "commits: " + commits);
+        assertEquals(saldoContaRepository.calcularSaldosPelosLancamentos(), saldoContaRepository.obterSaldosMaterializados());
+    }
+
+    @Test
+    void realizarSaque_DepoisDoDeposito_PassaPeloGrupoComOSaldoCorreto() {
+        int conta = criarConta("Grupo saque");
+
+        transferenciaService.realizarDeposito(transferencia("50.00"), conta);
+        transferenciaService.realizarSaque(transferencia("20.00"), conta);
+
+        assertEquals(new BigDecimal("30.00"), transferenciaService.obterSaldoTotalPorNumeroConta(conta).getBody());
+    }
+
+    @Test
+    void realizarDeposito_ComRollbackDaTransacaoDepoisDeGravar_NaoChegaAoBanco() {
+        int conta = criarConta("Grupo rollback");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            transferenciaService.realizarDeposito(transferencia("5.00"), conta);
+            status.setRollbackOnly();
+        });
+        transferenciaService.realizarDeposito(transferencia("2.00"), conta);
+
+        assertEquals(1, transferenciaService.obterTransferenciasPorConta(Pageable.unpaged(), conta).getBody().getTotalElements());
+        assertEquals(new BigDecimal("2.00"), transferenciaService.obterSaldoTotalPorNumeroConta(conta).getBody());
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private static TransferenciaDTO transferencia(final String valor) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de(valor));
+        return transferenciaDTO;
+    }
+
+    private static void aguardar(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
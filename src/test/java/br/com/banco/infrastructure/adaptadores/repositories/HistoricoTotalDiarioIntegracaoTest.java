@@ -0,0 +1,125 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.application.mappers.TransferenciaMapper;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:historicototaisdiarios"})
+class HistoricoTotalDiarioIntegracaoTest {
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    @Qualifier("contaRepositoryImpl")
+    private IContaRepositoryPort contaRepository;
+
+    @Autowired
+    @Qualifier("transferenciaRepositoryPort")
+    private ITransferenciaRepositoryPort transferenciaRepository;
+
+    @Autowired
+    private ISaldoContaServicePort saldoContaService;
+
+    @Autowired
+    private SpringTransferenciaRepository springTransferenciaRepository;
+
+    @Autowired
+    private TransferenciaMapper transferenciaMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void completarTotaisDiarios_LancamentosAnterioresAosTotais_EntramNaReconstrucao() {
+        int contaId = criarConta("Karina");
+        LocalDateTime dia = LocalDateTime.of(2021, 6, 10, 0, 0);
+        // Lancamentos gravados direto na tabela, como os existentes antes da implantacao dos totais diarios
+        jdbcTemplate.update("INSERT INTO \"transferencia\" (\"id\", \"data_transferencia\", \"valor\", \"tipo\", \"conta_id\", " +
+                        "\"nome_operador_transacao\", \"id_transacao\", \"natureza\") " +
+                        "SELECT X + 200000000, DATEADD('HOUR', X * 7, ?), X, 0, ?, NULL, 'historico-' || X, 0 FROM SYSTEM_RANGE(1, 20)",
+                dia, contaId);
+
+        assertTrue(saldoContaService.completarTotaisDiarios().getBody() > 0);
+        assertPeriodoIgual(dia, dia.plusDays(7));
+        assertPeriodoIgual(dia.plusHours(5), dia.plusDays(3).plusHours(2));
+
+        assertEquals(0, saldoContaService.completarTotaisDiarios().getBody());
+    }
+
+    @Test
+    void reconstruirTotaisDiarios_AguardaLancamentoRetroativoSemCommit() throws Exception {
+        Conta conta = contaRepository.obterContaPorId(criarConta("Lucas")).orElseThrow();
+        LocalDateTime data = LocalDate.of(2021, 9, 3).atTime(10, 0);
+        CountDownLatch gravado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        CompletableFuture<Void> deposito = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+            transferenciaDTO.setValor(Dinheiro.de("31.00"));
+            Transferencia transferencia = transferenciaMapper.mapTransferenciaDeposito(transferenciaDTO, conta);
+            transferencia.setDataTransferencia(data);
+            transferenciaRepository.salvar(transferencia);
+            gravado.countDown();
+            aguardar(liberar);
+        }));
+        aguardar(gravado);
+
+        // A reconstrucao nao pode ler os lancamentos enquanto o deposito retroativo nao tiver commit
+        CompletableFuture<Integer> reconstrucao = CompletableFuture.supplyAsync(() -> saldoContaService.reconstruirTotaisDiarios().getBody());
+        assertThrows(TimeoutException.class, () -> reconstrucao.get(300, TimeUnit.MILLISECONDS));
+
+        liberar.countDown();
+        deposito.get(5, TimeUnit.SECONDS);
+        reconstrucao.get(5, TimeUnit.SECONDS);
+        assertPeriodoIgual(data.toLocalDate().atStartOfDay(), data.plusDays(2));
+    }
+
+    private void assertPeriodoIgual(final LocalDateTime dataInicial, final LocalDateTime dataFinal) {
+        Dinheiro esperado = springTransferenciaRepository.sumValorByDataTransferenciaBetween(dataInicial, dataFinal);
+        assertEquals(esperado.toBigDecimal(), transferenciaRepository.obterSaldoTotalPorPeriodo(dataInicial, dataFinal));
+    }
+
+    private static void aguardar(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.exception.ChaveIdempotenciaInvalidaException;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.infrastructure.adaptadores.idempotencia.IdempotenciaPersistida;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:idempotencia"})
+class IdempotenciaIntegracaoTest {
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private SpringIdempotenciaRepository idempotenciaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void realizarDeposito_RepeticoesConcorrentesDaChave_DepositamUmaVezEDevolvemAMesmaResposta() throws Exception {
+        int conta = criarConta("Idempotencia A");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<TransferenciaDTO>> respostas = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        aguardar(largada);
+                        return transferenciaService.realizarDeposito(transferencia("25.00"), conta, "deposito-concorrente").getBody();
+                    }, executor))
+                    .collect(Collectors.toList());
+            largada.countDown();
+
+            List<String> ids = respostas.stream().map(CompletableFuture::join).map(TransferenciaDTO::getIdTransacao).distinct().collect(Collectors.toList());
+            assertEquals(1, ids.size(), ids::toString);
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(new BigDecimal("25.00"), saldo(conta));
+        assertTrue(idempotenciaRepository.existsById("deposito-concorrente"));
+    }
+
+    @Test
+    void realizarSaque_RepeticaoEmOutraInstancia_DevolveARespostaGravadaSemExecutar() {
+        int conta = criarConta("Idempotencia B");
+        transferenciaService.realizarDeposito(transferencia("50.00"), conta);
+        TransferenciaDTO original = transferenciaService.realizarSaque(transferencia("20.00"), conta, "saque-1").getBody();
+
+        TransferenciaDTO repetida = outraInstancia().executar("saque-1", "SAQUE:" + conta + ":20.00", () -> fail("Executou de novo"));
+
+        assertEquals(original.getIdTransacao(), repetida.getIdTransacao());
+        assertEquals(original.getValor(), repetida.getValor());
+        assertEquals(original.getDataTransferencia(), repetida.getDataTransferencia());
+        assertEquals(conta, repetida.getConta().getId());
+        assertEquals(new BigDecimal("30.00"), saldo(conta));
+    }
+
+    @Test
+    void executar_ChaveConfirmadaPorOutraInstanciaDuranteAExecucao_DesfazEDevolveARespostaDela() {
+        int conta = criarConta("Idempotencia C");
+        TransferenciaDTO original = transferenciaService.realizarDeposito(transferencia("10.00"), conta, "deposito-corrida").getBody();
+        String requisicao = "DEPOSITO:" + conta + ":10.00";
+        IdempotenciaPersistida outra = outraInstancia();
+
+        // A outra instancia nao viu a chave na tabela antes de comecar: so o insert da chave primaria a detem
+        TransferenciaDTO resposta = outra.executar("deposito-corrida", requisicao, () -> transactionTemplate.execute(status -> {
+            TransferenciaDTO propria = transferencia("10.00");
+            outra.registrar("deposito-corrida", requisicao, propria);
+            return propria;
+        }));
+
+        assertEquals(original.getIdTransacao(), resposta.getIdTransacao());
+    }
+
+    @Test
+    void realizarTransferencia_MesmaChaveComOutroValor_ERecusada() {
+        int origem = criarConta("Idempotencia D");
+        int destino = criarConta("Idempotencia E");
+        transferenciaService.realizarDeposito(transferencia("10.00"), origem);
+        transferenciaService.realizarTransferencia(transferencia("1.00"), destino, origem, "transferencia-1");
+
+        assertThrows(ChaveIdempotenciaInvalidaException.class,
+                () -> transferenciaService.realizarTransferencia(transferencia("2.00"), destino, origem, "transferencia-1"));
+        assertEquals(new BigDecimal("1.00"), saldo(destino));
+    }
+
+    // Sem nada em memoria, como outra instancia da aplicacao ou esta depois de reiniciar
+    private IdempotenciaPersistida outraInstancia() {
+        return new IdempotenciaPersistida(idempotenciaRepository, objectMapper, 100, Duration.ofHours(24), Duration.ofSeconds(30), Ticker.systemTicker(),
+                Clock.systemDefaultZone(), new SimpleMeterRegistry());
+    }
+
+    private BigDecimal saldo(final int conta) {
+        return transferenciaService.obterSaldoTotalPorNumeroConta(conta).getBody();
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private static TransferenciaDTO transferencia(final String valor) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de(valor));
+        return transferenciaDTO;
+    }
+
+    private static void aguardar(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
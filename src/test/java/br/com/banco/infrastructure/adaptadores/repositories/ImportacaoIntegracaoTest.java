@@ -0,0 +1,194 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.ResultadoImportacaoDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.exception.ImportacaoInvalidaException;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.IImportacaoServicePort;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "banco.importacao.diretorio=target/importacao-integracao",
+        "banco.importacao.tamanho-lote=3",
+        "banco.importacao.tamanho-janela-bytes=128",
+        "spring.datasource.url=jdbc:h2:mem:importacao"})
+class ImportacaoIntegracaoTest {
+
+    private static final Path DIRETORIO = Path.of("target/importacao-integracao");
+    private static final LocalDateTime INICIO_JANEIRO = LocalDateTime.of(2019, 1, 1, 0, 0);
+    private static final LocalDateTime FIM_JANEIRO = LocalDateTime.of(2019, 1, 31, 23, 59, 59);
+
+    @Autowired
+    private IImportacaoServicePort importacaoService;
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private ISaldoContaServicePort saldoContaService;
+
+    @Autowired
+    private SpringSaldoContaRepository saldoContaRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(DIRETORIO);
+    }
+
+    @Test
+    void importar_GravaContasELancamentosEAtualizaOQueDependeDeles() throws IOException {
+        escrever("historico.csv", "tipo,id,dados\n"
+                + "CONTA,1001,Importada Um\n"
+                + "CONTA,1002,\"Importada, Dois\"\n"
+                + "TRANSFERENCIA,1001,2019-01-10T10:00:00,100.00,DEPOSITO,CREDITO,Importada Um,t1\n"
+                + "TRANSFERENCIA,1001,2019-01-11T10:00:00,30.00,TRANSFERENCIA,DEBITO,\"Importada, Dois\",t2\n"
+                + "TRANSFERENCIA,1002,2019-01-11T10:00:00,30.00,TRANSFERENCIA,CREDITO,Importada Um,t2\n"
+                + "TRANSFERENCIA,1002,2019-01-12T10:00:00,5.50,SAQUE,DEBITO,,");
+
+        ResultadoImportacaoDTO resultado = importacaoService.importar("historico.csv").getBody();
+
+        assertEquals(7, resultado.getLinhas());
+        assertEquals(2, resultado.getContas());
+        assertEquals(4, resultado.getLancamentos());
+        assertEquals(0, resultado.getRetomadaNaLinha());
+        assertEquals("Importada, Dois", contaService.obterContaPorId(1002).getBody().getNomeResponsavel());
+        assertEquals(new BigDecimal("70.00"), transferenciaService.obterSaldoTotalPorNumeroConta(1001).getBody());
+        assertEquals(new BigDecimal("24.50"), transferenciaService.obterSaldoTotalPorNumeroConta(1002).getBody());
+        assertEquals(new BigDecimal("130.00"), transferenciaService.obterSaldoTotalPorPeriodo(INICIO_JANEIRO, FIM_JANEIRO).getBody());
+        assertEquals(List.of(), saldoContaService.verificarSaldos().getBody());
+        assertEquals(List.of(1001, 1002), contaService.buscarContasPorNomeResponsavel("portada", PageRequest.of(0, 10)).getBody()
+                .stream().map(ContaDTO::getId).sorted().collect(Collectors.toList()));
+
+        ContaDTO nova = new ContaDTO();
+        nova.setNomeResponsavel("Depois da Importacao");
+        contaService.salvarConta(nova);
+        assertTrue(contaService.obterContaPorNomeResponsavel("Depois da Importacao").getBody().getId() > 1002);
+
+        // Outro arquivo com lancamentos de uma conta ja gravada, no periodo que ja esta no cache
+        escrever("complemento.csv", "TRANSFERENCIA,1001,2019-01-20T10:00:00,1.00,DEPOSITO,CREDITO,,\n");
+        importacaoService.importar("complemento.csv");
+
+        assertEquals(new BigDecimal("71.00"), transferenciaService.obterSaldoTotalPorNumeroConta(1001).getBody());
+        assertEquals(new BigDecimal("131.00"), transferenciaService.obterSaldoTotalPorPeriodo(INICIO_JANEIRO, FIM_JANEIRO).getBody());
+    }
+
+    @Test
+    void importar_DepoisDeUmaLinhaInvalida_ContinuaDoUltimoLoteGravado() throws IOException {
+        String lotesGravados = "CONTA,2001,Retomada\n"
+                + "TRANSFERENCIA,2001,2019-02-01T10:00:00,10.00,DEPOSITO,CREDITO,,r1\n"
+                + "TRANSFERENCIA,2001,2019-02-02T10:00:00,10.00,DEPOSITO,CREDITO,,r2\n";
+        escrever("retomada.csv", lotesGravados
+                + "TRANSFERENCIA,2001,2019-02-03T10:00:00,10.00,DEPOSITO,CREDITO,,r3\n"
+                + "TRANSFERENCIA,9999,2019-02-04T10:00:00,10.00,DEPOSITO,CREDITO,,r4\n"
+                + "TRANSFERENCIA,2001,2019-02-05T10:00:00,10.00,DEPOSITO,CREDITO,,r5\n");
+
+        ImportacaoInvalidaException erro = assertThrows(ImportacaoInvalidaException.class, () -> importacaoService.importar("retomada.csv"));
+        assertEquals("Linha 5: conta 9999 nao encontrada", erro.getMessage());
+        assertEquals(new BigDecimal("20.00"), transferenciaService.obterSaldoTotalPorNumeroConta(2001).getBody());
+
+        escrever("retomada.csv", lotesGravados
+                + "TRANSFERENCIA,2001,2019-02-03T10:00:00,10.00,DEPOSITO,CREDITO,,r3\n"
+                + "TRANSFERENCIA,2001,2019-02-04T10:00:00,10.00,DEPOSITO,CREDITO,,r4\n"
+                + "TRANSFERENCIA,2001,2019-02-05T10:00:00,10.00,DEPOSITO,CREDITO,,r5\n");
+        ResultadoImportacaoDTO resultado = importacaoService.importar("retomada.csv").getBody();
+
+        assertEquals(3, resultado.getRetomadaNaLinha());
+        assertEquals(6, resultado.getLinhas());
+        assertEquals(1, resultado.getContas());
+        assertEquals(5, resultado.getLancamentos());
+        assertEquals(new BigDecimal("50.00"), transferenciaService.obterSaldoTotalPorNumeroConta(2001).getBody());
+
+        // Ja concluida: nada e gravado de novo
+        assertEquals(6, importacaoService.importar("retomada.csv").getBody().getRetomadaNaLinha());
+        assertEquals(new BigDecimal("50.00"), transferenciaService.obterSaldoTotalPorNumeroConta(2001).getBody());
+    }
+
+    @Test
+    void importar_ContaComSaldo_SomaOsLancamentosSemRecriarOSaldo() throws IOException {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel("Movimentada Antes");
+        contaService.salvarConta(contaDTO);
+        int contaId = contaService.obterContaPorNomeResponsavel("Movimentada Antes").getBody().getId();
+        TransferenciaDTO deposito = new TransferenciaDTO();
+        deposito.setValor(Dinheiro.de("12.00"));
+        transferenciaService.realizarDeposito(deposito, contaId);
+        long versao = saldoContaRepository.findById(contaId).orElseThrow().getVersao();
+
+        escrever("movimentada.csv", "TRANSFERENCIA," + contaId + ",2019-03-01T10:00:00,8.00,DEPOSITO,CREDITO,,m1\n"
+                + "TRANSFERENCIA," + contaId + ",2019-03-02T10:00:00,3.00,SAQUE,DEBITO,,m2\n");
+        importacaoService.importar("movimentada.csv");
+
+        assertEquals(new BigDecimal("17.00"), transferenciaService.obterSaldoTotalPorNumeroConta(contaId).getBody());
+        // Incremento sobre a linha existente: a versao continua a sequencia, entao ETags antigos nao voltam a valer
+        assertTrue(saldoContaRepository.findById(contaId).orElseThrow().getVersao() > versao);
+        assertEquals(new BigDecimal("8.00"), transferenciaService.obterSaldoTotalPorPeriodo(LocalDateTime.of(2019, 3, 1, 0, 0),
+                LocalDateTime.of(2019, 3, 3, 0, 0)).getBody());
+        assertEquals(List.of(), saldoContaService.verificarSaldos().getBody());
+    }
+
+    @Test
+    void importar_InterrompidaDepoisDeUmLote_GeracaoDeIdsJaPulaAsContasGravadas() throws IOException {
+        escrever("interrompida.csv", "CONTA,6001,Lote Um\nCONTA,6002,Lote Um\nCONTA,6003,Lote Um\nCONTA,6001,Repetida\n");
+        assertThrows(ImportacaoInvalidaException.class, () -> importacaoService.importar("interrompida.csv"));
+
+        ContaDTO nova = new ContaDTO();
+        nova.setNomeResponsavel("Durante a Importacao");
+        contaService.salvarConta(nova);
+        assertTrue(contaService.obterContaPorNomeResponsavel("Durante a Importacao").getBody().getId() > 6003);
+    }
+
+    @Test
+    void importar_ArquivoAlteradoAntesDoCheckpoint_Recusa() throws IOException {
+        escrever("alterado.csv", "CONTA,3001,Alterada\nCONTA,3002,Alterada Dois\nCONTA,3003,Alterada Tres\nCONTA,3001,Repetida\n");
+        ImportacaoInvalidaException erro = assertThrows(ImportacaoInvalidaException.class, () -> importacaoService.importar("alterado.csv"));
+        assertEquals("Linha 4: conta 3001 repetida", erro.getMessage());
+
+        escrever("alterado.csv", "CONTA,3001,Alterado\nCONTA,3002,Alterada Dois\nCONTA,3003,Alterada Tres\nCONTA,3004,Nova\n");
+
+        erro = assertThrows(ImportacaoInvalidaException.class, () -> importacaoService.importar("alterado.csv"));
+        assertEquals("O arquivo alterado.csv mudou desde a ultima execucao da importacao", erro.getMessage());
+    }
+
+    @Test
+    void importar_ContaJaExistente_Recusa() throws IOException {
+        escrever("existente.csv", "CONTA,4001,Primeira\n");
+        importacaoService.importar("existente.csv");
+        escrever("existente-de-novo.csv", "CONTA,4001,Segunda\n");
+
+        ImportacaoInvalidaException erro = assertThrows(ImportacaoInvalidaException.class, () -> importacaoService.importar("existente-de-novo.csv"));
+        assertEquals("Linha 1: conta 4001 ja existe", erro.getMessage());
+    }
+
+    @Test
+    void importar_ForaDoDiretorio_Recusa() {
+        assertThrows(ImportacaoInvalidaException.class, () -> importacaoService.importar("../../pom.xml"));
+        assertThrows(ImportacaoInvalidaException.class, () -> importacaoService.importar("inexistente.csv"));
+    }
+
+    private static void escrever(final String arquivo, final String conteudo) throws IOException {
+        Files.writeString(DIRETORIO.resolve(arquivo), conteudo, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.ItemLoteDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.exception.ChaveIdempotenciaInvalidaException;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.agendamento.AgendadorJournalLancamentos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"banco.journal.habilitado=true",
+        "banco.journal.arquivo=target/journal-integracao/${random.uuid}.dat",
+        // A gravacao em segundo plano so roda quando o teste chama o agendador
+        "banco.journal.espera-inicial-ms=3600000",
+        "banco.journal.intervalo-ms=3600000",
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:journallancamentos"})
+class JournalLancamentosIntegracaoTest {
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private ISaldoContaRepositoryPort saldoContaRepository;
+
+    @Autowired
+    private AgendadorJournalLancamentos agendador;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void realizarDeposito_ChegaAoBancoSoNaGravacaoDoJournal() {
+        int conta = criarConta("Journal Ana");
+        // As transferencias e o lote continuam indo direto ao banco
+        transferenciaService.processarLote(List.of(deposito(conta, "10.00")).iterator());
+        assertEquals(new BigDecimal("10.00"), transferenciaService.obterSaldoTotalPorNumeroConta(conta).getBody());
+
+        transferenciaService.realizarDeposito(transferencia("5.00"), conta);
+        transferenciaService.realizarSaque(transferencia("1.50"), conta);
+
+        assertEquals(1, transferenciaService.obterTransferenciasPorConta(Pageable.unpaged(), conta).getBody().getTotalElements());
+        assertEquals(new BigDecimal("10.00"), transferenciaService.obterSaldoTotalPorNumeroConta(conta).getBody());
+
+        agendador.aplicarJournal();
+
+        assertEquals(3, transferenciaService.obterTransferenciasPorConta(Pageable.unpaged(), conta).getBody().getTotalElements());
+        // A gravacao passa pelo cache de saldos, que descarta o saldo lido antes dela
+        assertEquals(new BigDecimal("13.50"), transferenciaService.obterSaldoTotalPorNumeroConta(conta).getBody());
+        assertEquals(saldoContaRepository.calcularSaldosPelosLancamentos(), saldoContaRepository.obterSaldosMaterializados());
+    }
+
+    @Test
+    void realizarDeposito_ComRollbackDaTransacao_NaoChegaAoBanco() {
+        int conta = criarConta("Journal Bruno");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            transferenciaService.realizarDeposito(transferencia("5.00"), conta);
+            status.setRollbackOnly();
+        });
+        transferenciaService.realizarDeposito(transferencia("2.00"), conta);
+        agendador.aplicarJournal();
+
+        assertEquals(1, transferenciaService.obterTransferenciasPorConta(Pageable.unpaged(), conta).getBody().getTotalElements());
+        assertEquals(new BigDecimal("2.00"), transferenciaService.obterSaldoTotalPorNumeroConta(conta).getBody());
+    }
+
+    @Test
+    void realizarDeposito_ComChaveDeIdempotencia_ERecusado() {
+        int conta = criarConta("Journal Carla");
+
+        assertThrows(ChaveIdempotenciaInvalidaException.class,
+                () -> transferenciaService.realizarDeposito(transferencia("5.00"), conta, "journal-1"));
+        transferenciaService.realizarDeposito(transferencia("2.00"), conta);
+        agendador.aplicarJournal();
+
+        assertEquals(new BigDecimal("2.00"), transferenciaService.obterSaldoTotalPorNumeroConta(conta).getBody());
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private static ItemLoteDTO deposito(final int conta, final String valor) {
+        ItemLoteDTO item = new ItemLoteDTO();
+        item.setTipo(TipoTransferencia.DEPOSITO);
+        item.setValor(Dinheiro.de(valor));
+        item.setNumeroContaDestino(conta);
+        return item;
+    }
+
+    private static TransferenciaDTO transferencia(final String valor) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de(valor));
+        return transferenciaDTO;
+    }
+}
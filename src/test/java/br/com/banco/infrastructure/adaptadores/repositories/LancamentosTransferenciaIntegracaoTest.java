@@ -0,0 +1,115 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.application.mappers.TransferenciaMapper;
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:lancamentos"})
+class LancamentosTransferenciaIntegracaoTest {
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    @Qualifier("contaRepositoryImpl")
+    private IContaRepositoryPort contaRepository;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    @Qualifier("transferenciaRepositoryPort")
+    private ITransferenciaRepositoryPort transferenciaRepository;
+
+    @Autowired
+    private ISaldoContaRepositoryPort saldoContaRepository;
+
+    @Autowired
+    private TransferenciaMapper transferenciaMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void realizarTransferencia_DebitaOrigemECreditaDestino() {
+        int origem = criarConta("Ana");
+        int destino = criarConta("Bruno");
+        transferenciaService.realizarDeposito(transferencia("100.00"), origem);
+
+        transferenciaService.realizarTransferencia(transferencia("30.00"), destino, origem);
+
+        assertEquals(new BigDecimal("70.00"), saldoContaRepository.obterSaldo(origem));
+        assertEquals(new BigDecimal("30.00"), saldoContaRepository.obterSaldo(destino));
+        assertEquals(saldoContaRepository.calcularSaldosPelosLancamentos(), saldoContaRepository.obterSaldosMaterializados());
+
+        TransferenciaDTO debito = transferenciaService.obterTransferenciasPorConta(Pageable.unpaged(), origem).getBody()
+                .filter(lancamento -> lancamento.getNatureza() == NaturezaLancamento.DEBITO).toList().get(0);
+        TransferenciaDTO credito = transferenciaService.obterTransferenciasPorConta(Pageable.unpaged(), destino).getBody()
+                .toList().get(0);
+        assertEquals(NaturezaLancamento.CREDITO, credito.getNatureza());
+        assertEquals(debito.getIdTransacao(), credito.getIdTransacao());
+    }
+
+    @Test
+    void salvarLancamentos_EnviaAsDuasPernasEmUmUnicoBatch() {
+        int origem = criarConta("Carla");
+        int destino = criarConta("Davi");
+        transferenciaService.realizarDeposito(transferencia("10.00"), origem);
+        transferenciaService.realizarDeposito(transferencia("10.00"), destino);
+        // Cria a linha do dia em total_diario_conta, que nas proximas transferencias so recebe UPDATE
+        transferenciaService.realizarTransferencia(transferencia("1.00"), destino, origem);
+        Conta contaOrigem = contaRepository.obterContaPorId(origem).orElseThrow();
+        Conta contaDestino = contaRepository.obterContaPorId(destino).orElseThrow();
+        List<Transferencia> lancamentos = transferenciaMapper.mapLancamentosTransferencia(transferencia("5.00"),
+                contaDestino, contaOrigem);
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        transactionTemplate.executeWithoutResult(status -> transferenciaRepository.salvarLancamentos(lancamentos));
+
+        assertEquals(2, estatisticas.getEntityInsertCount());
+        // um statement para o batch dos dois inserts, um UPDATE de saldo_conta por conta e, na perna de credito,
+        // o UPDATE de total_diario_conta mais a leitura do ultimo dia consolidado
+        assertEquals(5, estatisticas.getPrepareStatementCount());
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private TransferenciaDTO transferencia(final String valor) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de(valor));
+        return transferenciaDTO;
+    }
+}
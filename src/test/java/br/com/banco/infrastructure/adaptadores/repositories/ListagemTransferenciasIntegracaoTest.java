@@ -0,0 +1,127 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:listagemtransferencias"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListagemTransferenciasIntegracaoTest {
+
+    private static final String[] NOMES = {"Paulo", "Quezia", "Rafael", "Sofia"};
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    private int contaPaulo;
+
+    @BeforeAll
+    void setUp() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        inicio = LocalDateTime.now().minusSeconds(1);
+        int[] contas = new int[NOMES.length];
+        for (int i = 0; i < NOMES.length; i++) {
+            contas[i] = criarConta(NOMES[i]);
+            transferenciaService.realizarDeposito(transferencia("500.00"), contas[i]);
+        }
+        // Cada conta transfere para todas as outras: toda pagina mistura varias contas distintas
+        for (int origem : contas) {
+            for (int destino : contas) {
+                if (origem != destino) {
+                    transferenciaService.realizarTransferencia(transferencia("3.00"), destino, origem);
+                }
+            }
+        }
+        fim = LocalDateTime.now().plusSeconds(1);
+        contaPaulo = contas[0];
+    }
+
+    @Test
+    void listagensPaginadas_UmSelectEUmCountPorPagina() {
+        PageRequest pagina = PageRequest.of(1, 6, Sort.by("dataTransferencia", "id"));
+
+        assertPaginaComContas(2, () -> transferenciaService.obterTodasTransferencias(pagina).getBody());
+        assertPaginaComContas(2, () -> transferenciaService.obterTransferenciasPorPeriodo(pagina, inicio, fim).getBody());
+        assertPaginaComContas(2, () -> transferenciaService.obterTransferenciasPorOperador(PageRequest.of(0, 6), "Paulo").getBody());
+        assertPaginaComContas(2, () -> transferenciaService.obterTransferenciaPorOperadorEPorData(PageRequest.of(0, 6), "Paulo", inicio, fim).getBody());
+
+        estatisticas.clear();
+        Page<TransferenciaDTO> porConta = transferenciaService.obterTransferenciasPorConta(PageRequest.of(0, 6), contaPaulo).getBody();
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityFetchCount());
+        assertTrue(porConta.getContent().stream().allMatch(dto -> "Paulo".equals(dto.getConta().getNomeResponsavel())));
+    }
+
+    @Test
+    void listagensPorCursor_UmUnicoSelectPorPagina() {
+        assertPaginaComContas(1, () -> transferenciaService.obterTodasTransferenciasAposCursor(null, 6).getBody());
+        assertPaginaComContas(1, () -> transferenciaService.obterTransferenciasPorPeriodoAposCursor(null, 6, inicio, fim).getBody());
+        assertPaginaComContas(1, () -> transferenciaService.obterTransferenciasPorOperadorAposCursor(null, 6, "Paulo").getBody());
+
+        String cursor = transferenciaService.obterTransferenciasPorPeriodoAposCursor(null, 4, inicio, fim).getBody().getProximoCursor();
+        assertPaginaComContas(1, () -> transferenciaService.obterTransferenciasPorPeriodoAposCursor(cursor, 6, inicio, fim).getBody());
+        assertPaginaComContas(1, () -> transferenciaService.obterTodasTransferenciasAposCursor(cursor, 6).getBody());
+        assertPaginaComContas(1, () -> transferenciaService.obterTransferenciaPorOperadorEPorDataAposCursor(cursor, 6, "Paulo", inicio, fim)
+                .getBody());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertPaginaComContas(final long comandosEsperados, final Supplier<?> consulta) {
+        estatisticas.clear();
+        Object pagina = consulta.get();
+        List<TransferenciaDTO> conteudo = pagina instanceof Page
+                ? ((Page<TransferenciaDTO>) pagina).getContent()
+                : ((PaginaCursorDTO<TransferenciaDTO>) pagina).getConteudo();
+
+        // As contas vem no mesmo SELECT das transferencias, sem carga separada por conta distinta
+        assertEquals(comandosEsperados, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityFetchCount());
+        assertTrue(conteudo.stream().map(dto -> dto.getConta().getId()).distinct().count() > 1);
+        assertTrue(conteudo.stream().allMatch(dto -> dto.getConta().getNomeResponsavel() != null));
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private TransferenciaDTO transferencia(final String valor) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de(valor));
+        return transferenciaDTO;
+    }
+}
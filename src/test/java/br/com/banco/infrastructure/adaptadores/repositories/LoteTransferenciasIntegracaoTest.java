@@ -0,0 +1,100 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.ItemLoteDTO;
+import br.com.banco.application.dtos.ResultadoItemLoteDTO;
+import br.com.banco.application.dtos.ResultadoLoteDTO;
+import br.com.banco.domain.enums.SituacaoItemLote;
+import br.com.banco.domain.enums.TipoTransferencia;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.TransferenciaEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        // O saque acima do saldo so e recusado com o motor de saldo ligado
+        "banco.motor-saldo.habilitado=true",
+        "spring.datasource.url=jdbc:h2:mem:lotetransferencias"})
+class LoteTransferenciasIntegracaoTest {
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private ISaldoContaRepositoryPort saldoContaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void processarLote_GravaOsBlocosEmBatchERejeitaSoOsItensInvalidos() {
+        int ana = criarConta("Lote Ana");
+        int bruno = criarConta("Lote Bruno");
+        List<ItemLoteDTO> itens = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            itens.add(item(TipoTransferencia.DEPOSITO, "2.00", ana, null));
+            itens.add(item(TipoTransferencia.TRANSFERENCIA, "1.00", bruno, ana));
+            itens.add(item(TipoTransferencia.SAQUE, "0.50", bruno, null));
+        }
+        // Conta inexistente, valor negativo e um saque maior que o saldo
+        itens.set(10, item(TipoTransferencia.DEPOSITO, "1.00", Integer.MAX_VALUE, null));
+        itens.set(600, item(TipoTransferencia.DEPOSITO, "-1.00", ana, null));
+        itens.set(1199, item(TipoTransferencia.SAQUE, "10000.00", ana, null));
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        ResultadoLoteDTO resultado = transferenciaService.processarLote(itens.iterator()).getBody();
+
+        assertEquals(1197, resultado.getProcessados());
+        assertEquals(3, resultado.getRejeitados());
+        List<ResultadoItemLoteDTO> resultados = resultado.getItens();
+        assertEquals(1200, resultados.size());
+        assertEquals(SituacaoItemLote.REJEITADO, resultados.get(10).getSituacao());
+        assertEquals(SituacaoItemLote.REJEITADO, resultados.get(600).getSituacao());
+        assertEquals(SituacaoItemLote.REJEITADO, resultados.get(1199).getSituacao());
+        assertEquals(SituacaoItemLote.PROCESSADO, resultados.get(11).getSituacao());
+        assertNotNull(resultados.get(11).getIdTransacao());
+
+        // 399 depositos de 2,00 e 399 transferencias de 1,00; Bruno ainda faz 399 saques de 0,50
+        assertEquals(new BigDecimal("399.00"), saldoContaRepository.obterSaldo(ana));
+        assertEquals(new BigDecimal("199.50"), saldoContaRepository.obterSaldo(bruno));
+        assertEquals(saldoContaRepository.calcularSaldosPelosLancamentos(), saldoContaRepository.obterSaldosMaterializados());
+
+        long lancamentos = estatisticas.getEntityStatistics(TransferenciaEntity.class.getName()).getInsertCount();
+        assertEquals(1596, lancamentos);
+        // Os inserts vao em batches de 50 e os saldos sao atualizados uma vez por conta em cada bloco
+        assertTrue(estatisticas.getPrepareStatementCount() < lancamentos / 10, () -> "Statements: " + estatisticas.getPrepareStatementCount());
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private static ItemLoteDTO item(final TipoTransferencia tipo, final String valor, final Integer destino, final Integer origem) {
+        ItemLoteDTO item = new ItemLoteDTO();
+        item.setTipo(tipo);
+        item.setValor(Dinheiro.de(valor));
+        item.setNumeroContaDestino(destino);
+        item.setNumeroContaOrigem(origem);
+        return item;
+    }
+}
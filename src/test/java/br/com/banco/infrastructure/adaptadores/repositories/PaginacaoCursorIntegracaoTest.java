@@ -0,0 +1,98 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:paginacaocursor"})
+class PaginacaoCursorIntegracaoTest {
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private SpringTransferenciaRepository springTransferenciaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void obterTransferenciasPorContaAposCursor_PercorreTodasAsPaginasNaOrdemDeDataEId() {
+        int origem = criarConta("Marina");
+        int destino = criarConta("Nuno");
+        transferenciaService.realizarDeposito(transferencia("1000.00"), origem);
+        for (int i = 1; i <= 12; i++) {
+            // As duas pernas de cada transferencia tem a mesma data; o ID desempata
+            transferenciaService.realizarTransferencia(transferencia(i + ".00"), destino, origem);
+        }
+        List<String> esperadas = springTransferenciaRepository.findAll(Sort.by("dataTransferencia", "id")).stream()
+                .filter(entidade -> entidade.getConta().getId() == origem)
+                .map(entidade -> entidade.getIdTransacao() + entidade.getNatureza())
+                .collect(Collectors.toList());
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<String> lidas = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            estatisticas.clear();
+            PaginaCursorDTO<TransferenciaDTO> pagina = transferenciaService.obterTransferenciasPorContaAposCursor(cursor, 5, origem).getBody();
+            // Uma unica consulta por pagina: sem OFFSET e sem o COUNT do Page
+            assertEquals(1, estatisticas.getQueryExecutionCount());
+            pagina.getConteudo().forEach(dto -> lidas.add(dto.getIdTransacao() + dto.getNatureza()));
+            cursor = pagina.getProximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(13, esperadas.size());
+        assertEquals(esperadas, lidas);
+        assertEquals(3, paginas);
+    }
+
+    @Test
+    void obterTodasTransferenciasAposCursor_ComTamanhoExato_UltimaPaginaSemProximoCursor() {
+        int conta = criarConta("Olga");
+        transferenciaService.realizarDeposito(transferencia("10.00"), conta);
+        long total = springTransferenciaRepository.count();
+
+        PaginaCursorDTO<TransferenciaDTO> pagina = transferenciaService.obterTodasTransferenciasAposCursor("", (int) total).getBody();
+
+        assertEquals(total, pagina.getConteudo().size());
+        assertNull(pagina.getProximoCursor());
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private TransferenciaDTO transferencia(final String valor) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de(valor));
+        return transferenciaDTO;
+    }
+}
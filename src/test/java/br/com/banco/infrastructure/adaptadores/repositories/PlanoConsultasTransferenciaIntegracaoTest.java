@@ -0,0 +1,174 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.domain.models.CursorTransferencia;
+import br.com.banco.domain.models.FiltroTransferencia;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.TransferenciaExportacaoProjection;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {CapturaSql.PROPRIEDADE,
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:planoconsultas"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlanoConsultasTransferenciaIntegracaoTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2022, 3, 1, 0, 0);
+    private static final int CONTAS = 20;
+    private static final int LINHAS = 20_000;
+
+    // Consultas que leem a tabela inteira por definicao: a listagem sem filtro e a reconstrucao dos saldos
+    private static final Set<String> VARREDURA_ESPERADA = Set.of("findAll", "sumValorGroupByConta");
+
+    // Sem filtro, mas leem so a ponta do indice: a primeira pagina por cursor e a data mais antiga
+    private static final Set<String> PONTA_DO_INDICE = Set.of("findByOrderByDataTransferenciaAscIdAsc", "obterPrimeiraDataTransferencia");
+
+    // Acesso por indice sem condicao, como em "/* PUBLIC.idx_transferencia_data */": percorre o indice inteiro
+    private static final Pattern INDICE_SEM_CONDICAO = Pattern.compile("/\\* PUBLIC\\.[^:*]+ \\*/");
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private SpringTransferenciaRepository repository;
+
+    @Autowired
+    @Qualifier("transferenciaRepositoryImpl")
+    private ITransferenciaRepositoryPort transferenciaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    private int contaId;
+
+    @BeforeAll
+    void setUp() {
+        for (int i = 0; i < CONTAS; i++) {
+            ContaDTO contaDTO = new ContaDTO();
+            contaDTO.setNomeResponsavel("Plano " + i);
+            contaService.salvarConta(contaDTO);
+        }
+        contaId = contaService.obterContaPorNomeResponsavel("Plano 0").getBody().getId();
+        int primeiraConta = contaId;
+
+        // Um lancamento a cada 10 minutos, espalhado pelas contas e operadores; tipo e natureza pelo ordinal
+        jdbcTemplate.update("INSERT INTO \"transferencia\" (\"id\", \"data_transferencia\", \"valor\", \"tipo\", \"conta_id\", " +
+                        "\"nome_operador_transacao\", \"id_transacao\", \"natureza\") " +
+                        "SELECT X + 100000000, DATEADD('MINUTE', X * 10, ?), (MOD(X, 1000) + 1) / 100.0, MOD(X, 3), " +
+                        "? + MOD(X, ?), 'Operador ' || MOD(X, 50), CAST(X AS VARCHAR), MOD(X, 2) FROM SYSTEM_RANGE(1, ?)",
+                INICIO, primeiraConta, CONTAS, LINHAS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void consultasDoRepositorio_NaoVarremATabelaDeTransferencias() {
+        Map<String, List<String>> planos = planosPorMetodo();
+
+        List<String> naoCobertos = Arrays.stream(SpringTransferenciaRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .filter(nome -> !planos.containsKey(nome) && !VARREDURA_ESPERADA.contains(nome))
+                .collect(Collectors.toList());
+        assertEquals(List.of(), naoCobertos, "Consulta nova sem verificacao de plano");
+
+        planos.forEach((metodo, planosDoMetodo) -> {
+            assertFalse(planosDoMetodo.isEmpty(), metodo);
+            for (String plano : planosDoMetodo) {
+                assertFalse(plano.contains(".tableScan"), () -> metodo + " varre a tabela:\n" + plano);
+                if (!PONTA_DO_INDICE.contains(metodo)) {
+                    assertFalse(INDICE_SEM_CONDICAO.matcher(plano).find(), () -> metodo + " percorre um indice inteiro:\n" + plano);
+                }
+            }
+        });
+    }
+
+    private Map<String, List<String>> planosPorMetodo() {
+        LocalDateTime dataInicial = INICIO.plusDays(10);
+        LocalDateTime dataFinal = INICIO.plusDays(12);
+        PageRequest pagina = PageRequest.of(1, 20, Sort.by("dataTransferencia", "id"));
+        PageRequest limite = PageRequest.of(0, 21);
+
+        Map<String, Runnable> consultas = new LinkedHashMap<>();
+        consultas.put("findByNomeOperadorTransacao", () -> repository.findByNomeOperadorTransacao(pagina, "Operador 7"));
+        consultas.put("findByContaId", () -> repository.findByContaId(pagina, contaId));
+        consultas.put("findByDataTransferenciaBetween", () -> repository.findByDataTransferenciaBetween(pagina, dataInicial, dataFinal));
+        consultas.put("findByOrderByDataTransferenciaAscIdAsc", () -> repository.findByOrderByDataTransferenciaAscIdAsc(limite));
+        consultas.put("findAposCursor", () -> repository.findAposCursor(limite, dataInicial, 0));
+        consultas.put("findByDataTransferenciaBetweenOrderByDataTransferenciaAscIdAsc",
+                () -> repository.findByDataTransferenciaBetweenOrderByDataTransferenciaAscIdAsc(limite, dataInicial, dataFinal));
+        consultas.put("findByDataTransferenciaBetweenAposCursor",
+                () -> repository.findByDataTransferenciaBetweenAposCursor(limite, dataInicial, dataFinal, dataInicial, 0));
+        consultas.put("findByContaIdOrderByDataTransferenciaAscIdAsc", () -> repository.findByContaIdOrderByDataTransferenciaAscIdAsc(limite, contaId));
+        consultas.put("findByContaIdAposCursor", () -> repository.findByContaIdAposCursor(limite, contaId, dataInicial, 0));
+        // Busca por filtro e cursor, montada com Criteria fora do SpringTransferenciaRepository
+        FiltroTransferencia porOperador = new FiltroTransferencia();
+        porOperador.setNomeOperador("Operador 7");
+        FiltroTransferencia porOperadorEPeriodo = new FiltroTransferencia();
+        porOperadorEPeriodo.setNomeOperador("Operador 7");
+        porOperadorEPeriodo.setDataInicial(dataInicial);
+        porOperadorEPeriodo.setDataFinal(dataFinal);
+        CursorTransferencia cursor = new CursorTransferencia(dataInicial, 0);
+        consultas.put("buscarTransferenciasAposCursor(operador)",
+                () -> transferenciaRepository.buscarTransferenciasAposCursor(cursor, 20, porOperador));
+        consultas.put("buscarTransferenciasAposCursor(operador, periodo)",
+                () -> transferenciaRepository.buscarTransferenciasAposCursor(cursor, 20, porOperadorEPeriodo));
+        // O Stream precisa de uma transacao aberta enquanto e lido
+        consultas.put("streamByContaId", () -> transacao.executeWithoutResult(status -> {
+            try (Stream<TransferenciaExportacaoProjection> linhas = repository.streamByContaId(contaId)) {
+                linhas.limit(10).forEach(linha -> { });
+            }
+        }));
+        consultas.put("findExtratoByContaId", () -> repository.findExtratoByContaId(contaId, BigDecimal.ZERO, 21));
+        consultas.put("findExtratoByContaIdAposCursor",
+                () -> repository.findExtratoByContaIdAposCursor(contaId, dataInicial, 0, BigDecimal.ZERO, 21));
+        consultas.put("sumValorByDataTransferenciaBetween", () -> repository.sumValorByDataTransferenciaBetween(dataInicial, dataFinal));
+        consultas.put("sumValorCreditosEntre", () -> repository.sumValorCreditosEntre(dataInicial, dataFinal));
+        consultas.put("sumValorCreditosGroupByDiaTipoEConta", repository::sumValorCreditosGroupByDiaTipoEConta);
+        consultas.put("sumValorCreditosGroupByMinutoEntre", () -> repository.sumValorCreditosGroupByMinutoEntre(dataInicial, dataFinal));
+        consultas.put("sumValorByOperadorTransacao", () -> repository.sumValorByOperadorTransacao(contaId));
+        consultas.put("sumValorGroupByContaEntreDatas", () -> repository.sumValorGroupByContaEntreDatas(dataInicial, dataFinal));
+        consultas.put("sumValorByContaAte", () -> repository.sumValorByContaAte(contaId, dataFinal));
+        consultas.put("sumValorByContaEntre", () -> repository.sumValorByContaEntre(contaId, dataInicial, dataFinal));
+        consultas.put("sumValorByContaAteLancamento", () -> repository.sumValorByContaAteLancamento(contaId, dataFinal, 0));
+        consultas.put("sumValorByContaEntreInicioELancamento",
+                () -> repository.sumValorByContaEntreInicioELancamento(contaId, dataInicial, dataFinal, 0));
+        consultas.put("obterPrimeiraDataTransferencia", repository::obterPrimeiraDataTransferencia);
+        consultas.put("obterPrimeiraDataTransferenciaAPartirDe", () -> repository.obterPrimeiraDataTransferenciaAPartirDe(dataInicial));
+        consultas.put("findIdsTransacaoEntre", () -> repository.findIdsTransacaoEntre(dataInicial, dataInicial.plusMinutes(30)));
+
+        Map<String, List<String>> planos = new LinkedHashMap<>();
+        consultas.forEach((metodo, consulta) -> {
+            CapturaSql.SQL.clear();
+            consulta.run();
+            planos.put(metodo, CapturaSql.SQL.stream().map(sql -> CapturaSql.explicar(jdbcTemplate, sql)).collect(Collectors.toList()));
+        });
+        return planos;
+    }
+}
@@ -0,0 +1,207 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.SaldoContaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.SaldoContaProjection;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.VersaoContaProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SaldoContaRepositoryImplTest {
+
+    private SaldoContaRepositoryImpl repositorioSaldoConta;
+
+    @Mock
+    private SpringSaldoContaRepository saldoContaRepository;
+
+    @Mock
+    private SpringTransferenciaRepository transferenciaRepository;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        repositorioSaldoConta = new SaldoContaRepositoryImpl(saldoContaRepository, transferenciaRepository);
+    }
+
+    @Test
+    void obterSaldo_ComSaldoMaterializado_NaoConsultaLancamentos() {
+        int contaId = 1;
+        SaldoContaEntity saldoConta = new SaldoContaEntity(contaId, BigDecimal.valueOf(250), LocalDateTime.now());
+
+        when(saldoContaRepository.findById(contaId)).thenReturn(Optional.of(saldoConta));
+
+        BigDecimal saldo = repositorioSaldoConta.obterSaldo(contaId);
+
+        assertEquals(BigDecimal.valueOf(250), saldo);
+        verify(transferenciaRepository, never()).sumValorByOperadorTransacao(anyInt());
+    }
+
+    @Test
+    void obterSaldo_SemSaldoMaterializado_CalculaPelosLancamentos() {
+        int contaId = 1;
+
+        when(saldoContaRepository.findById(contaId)).thenReturn(Optional.empty());
+        when(transferenciaRepository.sumValorByOperadorTransacao(contaId)).thenReturn(Dinheiro.de(BigDecimal.TEN));
+
+        BigDecimal saldo = repositorioSaldoConta.obterSaldo(contaId);
+
+        assertEquals(new BigDecimal("10.00"), saldo);
+        verify(saldoContaRepository, never()).save(any());
+    }
+
+    @Test
+    void obterVersao_ComSaldoMaterializado_JuntaContadorDataDeAtualizacaoEVersaoDaConta() {
+        VersaoContaProjection versao = versao(2L, 7L, LocalDateTime.of(2022, 3, 1, 10, 0, 0, 500));
+        when(saldoContaRepository.findVersaoByContaId(1)).thenReturn(Optional.of(versao));
+
+        assertEquals("7-1646128800.500-2", repositorioSaldoConta.obterVersao(1));
+    }
+
+    @Test
+    void obterVersao_SemSaldoMaterializado_UsaZeroParaOsLancamentos() {
+        VersaoContaProjection versao = versao(3L, null, null);
+        when(saldoContaRepository.findVersaoByContaId(1)).thenReturn(Optional.of(versao));
+
+        assertEquals("0-3", repositorioSaldoConta.obterVersao(1));
+        verify(transferenciaRepository, never()).sumValorByOperadorTransacao(anyInt());
+    }
+
+    @Test
+    void obterVersao_ContaInexistente_RetornaZero() {
+        when(saldoContaRepository.findVersaoByContaId(1)).thenReturn(Optional.empty());
+
+        assertEquals("0", repositorioSaldoConta.obterVersao(1));
+    }
+
+    @Test
+    void aplicarLancamento_ComDeposito_IncrementaSaldo() {
+        Transferencia deposito = criarTransferencia(1, BigDecimal.valueOf(100), NaturezaLancamento.CREDITO);
+
+        when(saldoContaRepository.incrementarSaldo(eq(1), eq(new BigDecimal("100.00")), any())).thenReturn(1);
+
+        repositorioSaldoConta.aplicarLancamento(deposito);
+
+        verify(saldoContaRepository, times(1)).incrementarSaldo(eq(1), eq(new BigDecimal("100.00")), any());
+        verify(saldoContaRepository, never()).save(any());
+    }
+
+    @Test
+    void aplicarLancamento_ComValorZero_AtualizaAVersao() {
+        Transferencia deposito = criarTransferencia(1, BigDecimal.ZERO, NaturezaLancamento.CREDITO);
+
+        when(saldoContaRepository.incrementarSaldo(anyInt(), any(), any())).thenReturn(1);
+
+        repositorioSaldoConta.aplicarLancamento(deposito);
+
+        verify(saldoContaRepository, times(1)).incrementarSaldo(eq(1), eq(new BigDecimal("0.00")), any());
+    }
+
+    @Test
+    void aplicarLancamento_ComDebito_DecrementaSaldo() {
+        Transferencia saque = criarTransferencia(1, BigDecimal.valueOf(100), NaturezaLancamento.DEBITO);
+
+        when(saldoContaRepository.incrementarSaldo(anyInt(), any(), any())).thenReturn(1);
+
+        repositorioSaldoConta.aplicarLancamento(saque);
+
+        verify(saldoContaRepository, times(1)).incrementarSaldo(eq(1), eq(new BigDecimal("-100.00")), any());
+    }
+
+    @Test
+    void aplicarLancamento_SemSaldoMaterializado_MaterializaPelosLancamentos() {
+        Transferencia deposito = criarTransferencia(1, BigDecimal.valueOf(100), NaturezaLancamento.CREDITO);
+
+        when(saldoContaRepository.incrementarSaldo(anyInt(), any(), any())).thenReturn(0);
+        when(transferenciaRepository.sumValorByOperadorTransacao(1)).thenReturn(Dinheiro.de(BigDecimal.valueOf(300)));
+
+        repositorioSaldoConta.aplicarLancamento(deposito);
+
+        ArgumentCaptor<SaldoContaEntity> captor = ArgumentCaptor.forClass(SaldoContaEntity.class);
+        verify(saldoContaRepository, times(1)).save(captor.capture());
+        assertEquals(1, captor.getValue().getContaId());
+        assertEquals(new BigDecimal("300.00"), captor.getValue().getSaldo());
+    }
+
+    @Test
+    void aplicarLancamentos_IncrementaCadaContaUmaVezComOSaldoLiquido() {
+        List<Transferencia> lancamentos = List.of(
+                criarTransferencia(1, BigDecimal.valueOf(100), NaturezaLancamento.CREDITO),
+                criarTransferencia(2, BigDecimal.valueOf(30), NaturezaLancamento.CREDITO),
+                criarTransferencia(1, BigDecimal.valueOf(30), NaturezaLancamento.DEBITO),
+                criarTransferencia(1, BigDecimal.valueOf(5), NaturezaLancamento.CREDITO));
+
+        when(saldoContaRepository.incrementarSaldo(anyInt(), any(), any())).thenReturn(1);
+
+        repositorioSaldoConta.aplicarLancamentos(lancamentos);
+
+        verify(saldoContaRepository, times(1)).incrementarSaldo(eq(1), eq(new BigDecimal("75.00")), any());
+        verify(saldoContaRepository, times(1)).incrementarSaldo(eq(2), eq(new BigDecimal("30.00")), any());
+        verifyNoMoreInteractions(saldoContaRepository);
+    }
+
+    @Test
+    void estornarLancamento_ComCredito_DecrementaSaldo() {
+        Transferencia transferencia = criarTransferencia(2, BigDecimal.valueOf(40), NaturezaLancamento.CREDITO);
+
+        when(saldoContaRepository.incrementarSaldo(anyInt(), any(), any())).thenReturn(1);
+
+        repositorioSaldoConta.estornarLancamento(transferencia);
+
+        verify(saldoContaRepository, times(1)).incrementarSaldo(eq(2), eq(new BigDecimal("-40.00")), any());
+    }
+
+    @Test
+    void calcularSaldosPelosLancamentos_RetornaSaldoPorConta() {
+        SaldoContaProjection projecao = mock(SaldoContaProjection.class);
+        when(projecao.getContaId()).thenReturn(1);
+        when(projecao.getSaldo()).thenReturn(Dinheiro.de(BigDecimal.ONE));
+        when(transferenciaRepository.sumValorGroupByConta()).thenReturn(List.of(projecao));
+
+        Map<Integer, BigDecimal> saldos = repositorioSaldoConta.calcularSaldosPelosLancamentos();
+
+        assertEquals(Map.of(1, new BigDecimal("1.00")), saldos);
+    }
+
+    @Test
+    void substituirSaldos_ApagaESalvaTodosOsSaldos() {
+        int contas = repositorioSaldoConta.substituirSaldos(Map.of(1, BigDecimal.ONE, 2, BigDecimal.TEN));
+
+        assertEquals(2, contas);
+        verify(saldoContaRepository, times(1)).deleteAllInBatch();
+        verify(saldoContaRepository, times(1)).saveAll(anyList());
+    }
+
+    private Transferencia criarTransferencia(int contaId, BigDecimal valor, NaturezaLancamento natureza) {
+        Conta conta = new Conta();
+        conta.setId(contaId);
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaId(conta);
+        transferencia.setValor(Dinheiro.de(valor));
+        transferencia.setNatureza(natureza);
+        return transferencia;
+    }
+
+    private static VersaoContaProjection versao(final Long versaoConta, final Long versaoSaldo, final LocalDateTime dataAtualizacao) {
+        VersaoContaProjection versao = mock(VersaoContaProjection.class);
+        when(versao.getVersaoConta()).thenReturn(versaoConta);
+        when(versao.getVersaoSaldo()).thenReturn(versaoSaldo);
+        when(versao.getDataAtualizacao()).thenReturn(dataAtualizacao);
+        return versao;
+    }
+}
@@ -0,0 +1,163 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.application.mappers.TransferenciaMapper;
+import br.com.banco.domain.enums.NaturezaLancamento;
+import br.com.banco.domain.models.Conta;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import br.com.banco.domain.ports.repositories.IContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.TransferenciaEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:totaisdiarios"})
+class TotalDiarioIntegracaoTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2022, 2, 1, 0, 0);
+    private static final int DIAS = 10;
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    @Qualifier("contaRepositoryImpl")
+    private IContaRepositoryPort contaRepository;
+
+    @Autowired
+    @Qualifier("transferenciaRepositoryPort")
+    private ITransferenciaRepositoryPort transferenciaRepository;
+
+    @Autowired
+    private ISaldoContaServicePort saldoContaService;
+
+    @Autowired
+    private SpringTransferenciaRepository springTransferenciaRepository;
+
+    @Autowired
+    private TransferenciaMapper transferenciaMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void obterSaldoTotalPorPeriodo_PelosTotaisDiarios_IgualAoSomatorioDosLancamentos() {
+        Random aleatorio = new Random(42);
+        Conta primeira = contaRepository.obterContaPorId(criarConta("Igor")).orElseThrow();
+        Conta segunda = contaRepository.obterContaPorId(criarConta("Julia")).orElseThrow();
+        for (int i = 0; i < 80; i++) {
+            lancar(aleatorio, primeira, segunda, instanteAleatorio(aleatorio));
+        }
+        List<LocalDateTime[]> periodos = periodos(aleatorio);
+
+        assertPeriodosIguais(periodos);
+
+        assertTrue(saldoContaService.consolidarTotaisDiarios().getBody() > 0);
+        assertPeriodosIguais(periodos);
+
+        // Lancamento retroativo e estorno em dias ja consolidados
+        depositar(primeira, "12.34", INICIO.plusDays(2).withHour(13));
+        depositar(segunda, "7.00", INICIO.minusDays(1).withHour(9));
+        Transferencia estornado = primeiroCredito(segunda.getId());
+        transactionTemplate.executeWithoutResult(status -> transferenciaRepository.deletar(estornado));
+        assertPeriodosIguais(periodos);
+
+        assertTrue(saldoContaService.reconstruirTotaisDiarios().getBody() > 0);
+        assertPeriodosIguais(periodos);
+    }
+
+    private void assertPeriodosIguais(final List<LocalDateTime[]> periodos) {
+        for (LocalDateTime[] periodo : periodos) {
+            Dinheiro esperado = springTransferenciaRepository.sumValorByDataTransferenciaBetween(periodo[0], periodo[1]);
+            assertEquals(esperado == null ? null : esperado.toBigDecimal(),
+                    transferenciaRepository.obterSaldoTotalPorPeriodo(periodo[0], periodo[1]),
+                    () -> "Periodo de " + periodo[0] + " a " + periodo[1]);
+        }
+    }
+
+    private List<LocalDateTime[]> periodos(final Random aleatorio) {
+        List<LocalDateTime[]> periodos = new ArrayList<>();
+        periodos.add(new LocalDateTime[]{INICIO.minusDays(5), INICIO.plusDays(DIAS + 5)});
+        periodos.add(new LocalDateTime[]{INICIO, INICIO.plusDays(DIAS)});
+        periodos.add(new LocalDateTime[]{INICIO.plusDays(2), INICIO.plusDays(3)});
+        periodos.add(new LocalDateTime[]{INICIO.plusDays(2), INICIO.plusDays(2)});
+        periodos.add(new LocalDateTime[]{INICIO.plusDays(4).withHour(6), INICIO.plusDays(4).withHour(18)});
+        periodos.add(new LocalDateTime[]{INICIO.plusDays(1).withHour(23), INICIO.plusDays(6).withHour(1)});
+        for (int i = 0; i < 60; i++) {
+            LocalDateTime inicio = instanteAleatorio(aleatorio);
+            LocalDateTime fim = instanteAleatorio(aleatorio);
+            periodos.add(inicio.isAfter(fim) ? new LocalDateTime[]{fim, inicio} : new LocalDateTime[]{inicio, fim});
+        }
+        return periodos;
+    }
+
+    private LocalDateTime instanteAleatorio(final Random aleatorio) {
+        // Inclui meias-noites exatas, que sao a fronteira entre os totais diarios e as pontas do periodo
+        LocalDateTime dia = INICIO.plusDays(aleatorio.nextInt(DIAS));
+        return aleatorio.nextInt(5) == 0 ? dia : dia.plusMinutes(aleatorio.nextInt(24 * 60));
+    }
+
+    private void lancar(final Random aleatorio, final Conta primeira, final Conta segunda, final LocalDateTime data) {
+        String valor = (1 + aleatorio.nextInt(500)) + "." + (10 + aleatorio.nextInt(90));
+        switch (aleatorio.nextInt(3)) {
+            case 0:
+                depositar(aleatorio.nextBoolean() ? primeira : segunda, valor, data);
+                break;
+            case 1:
+                Transferencia saque = transferenciaMapper.mapTransferenciaSaque(transferencia(valor), primeira);
+                saque.setDataTransferencia(data);
+                transactionTemplate.executeWithoutResult(status -> transferenciaRepository.salvar(saque));
+                break;
+            default:
+                List<Transferencia> lancamentos = transferenciaMapper.mapLancamentosTransferencia(transferencia(valor), segunda, primeira);
+                lancamentos.forEach(lancamento -> lancamento.setDataTransferencia(data));
+                transactionTemplate.executeWithoutResult(status -> transferenciaRepository.salvarLancamentos(lancamentos));
+        }
+    }
+
+    private void depositar(final Conta conta, final String valor, final LocalDateTime data) {
+        Transferencia deposito = transferenciaMapper.mapTransferenciaDeposito(transferencia(valor), conta);
+        deposito.setDataTransferencia(data);
+        transactionTemplate.executeWithoutResult(status -> transferenciaRepository.salvar(deposito));
+    }
+
+    private Transferencia primeiroCredito(final int contaId) {
+        TransferenciaEntity credito = springTransferenciaRepository.findByContaId(Pageable.unpaged(), contaId).stream()
+                .filter(entidade -> entidade.getNatureza() == NaturezaLancamento.CREDITO)
+                .filter(entidade -> !entidade.getDataTransferencia().isBefore(INICIO))
+                .findFirst()
+                .orElseThrow();
+        return transferenciaMapper.mapEntityToModel(credito);
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private TransferenciaDTO transferencia(final String valor) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de(valor));
+        return transferenciaDTO;
+    }
+}
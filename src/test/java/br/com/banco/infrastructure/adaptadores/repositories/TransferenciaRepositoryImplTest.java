@@ -1,22 +1,41 @@
 package br.com.banco.infrastructure.adaptadores.repositories;
 
+import br.com.banco.application.dtos.LancamentoExtratoDTO;
+import br.com.banco.application.dtos.PaginaCursorDTO;
 import br.com.banco.application.dtos.TransferenciaDTO;
 import br.com.banco.application.mappers.TransferenciaMapper;
 import br.com.banco.domain.exception.SaldoNaoEncontradoException;
 import br.com.banco.domain.exception.TransferenciaInvalidaException;
 import br.com.banco.domain.exception.TransferenciaNaoEncontradaException;
+import br.com.banco.domain.models.CursorTransferencia;
+import br.com.banco.domain.models.FiltroTransferencia;
 import br.com.banco.domain.models.Transferencia;
+import br.com.banco.domain.ports.interfaces.IIndiceTemporalPort;
+import br.com.banco.domain.ports.interfaces.IGravacaoEmGrupoPort;
+import br.com.banco.domain.ports.interfaces.IJournalLancamentosPort;
+import br.com.banco.domain.ports.repositories.ICheckpointSaldoRepositoryPort;
+import br.com.banco.domain.ports.repositories.ISaldoContaRepositoryPort;
+import br.com.banco.domain.ports.repositories.ITotalDiarioRepositoryPort;
 import br.com.banco.domain.ports.repositories.ITransferenciaRepositoryPort;
 import br.com.banco.infrastructure.adaptadores.persistence.entities.TransferenciaEntity;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.LancamentoExtratoProjection;
+import br.com.banco.infrastructure.adaptadores.persistence.projections.TransferenciaExportacaoProjection;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
+import javax.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,7 +44,15 @@ class TransferenciaRepositoryImplTest {
 
     private final SpringTransferenciaRepository transferenciaRepository = mock(SpringTransferenciaRepository.class);
     private final TransferenciaMapper transferenciaMapper = mock(TransferenciaMapper.class);
-    private final ITransferenciaRepositoryPort repositorioTransferencia = new TransferenciaRepositoryImpl(transferenciaRepository, transferenciaMapper);
+    private final ISaldoContaRepositoryPort saldoContaRepository = mock(ISaldoContaRepositoryPort.class);
+    private final ICheckpointSaldoRepositoryPort checkpointSaldoRepository = mock(ICheckpointSaldoRepositoryPort.class);
+    private final ITotalDiarioRepositoryPort totalDiarioRepository = mock(ITotalDiarioRepositoryPort.class);
+    private final IIndiceTemporalPort indiceTemporal = mock(IIndiceTemporalPort.class);
+    private final IJournalLancamentosPort journal = mock(IJournalLancamentosPort.class);
+    private final IGravacaoEmGrupoPort gravacaoEmGrupo = mock(IGravacaoEmGrupoPort.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ITransferenciaRepositoryPort repositorioTransferencia = new TransferenciaRepositoryImpl(transferenciaRepository, transferenciaMapper, saldoContaRepository,
+            checkpointSaldoRepository, totalDiarioRepository, indiceTemporal, journal, gravacaoEmGrupo, entityManager);
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TransferenciaRepositoryImplTest.class);
 
@@ -125,41 +152,23 @@ class TransferenciaRepositoryImplTest {
 
 
     @Test
-    void obterTransferenciasPorOperadorEData_ComPageableValido_RetornaTransferencias() {
+    void buscarTransferencias_ComFiltro_ConsultaPorSpecification() {
         Page<TransferenciaEntity> transferenciaEntityMock = mock(Page.class);
         Pageable pageable = mock(Pageable.class);
         Page<TransferenciaDTO> transferenciasMock = mock(Page.class);
-        LocalDateTime dataInicial = LocalDateTime.now();
-        LocalDateTime dataFinal = LocalDateTime.now();
-        String nomeOperador = "Operador";
+        FiltroTransferencia filtro = new FiltroTransferencia();
+        filtro.setNomeOperador("Operador");
 
-        when(transferenciaRepository.findByNomeOperadorTransacaoAndDataTransferenciaBetween(pageable, nomeOperador, dataInicial, dataFinal)).thenReturn(transferenciaEntityMock);
+        when(transferenciaRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(transferenciaEntityMock);
         when(transferenciaMapper.mapToDtoPage(transferenciaEntityMock)).thenReturn(transferenciasMock);
 
-        Page<TransferenciaDTO> response = repositorioTransferencia.obterTransferenciasPorOperadorEData(pageable, nomeOperador, dataInicial, dataFinal);
+        Page<TransferenciaDTO> response = repositorioTransferencia.buscarTransferencias(pageable, filtro);
 
         assertEquals(transferenciasMock, response);
-        verify(transferenciaRepository, times(1)).findByNomeOperadorTransacaoAndDataTransferenciaBetween(pageable, nomeOperador, dataInicial, dataFinal);
+        verify(transferenciaRepository, times(1)).findAll(any(Specification.class), eq(pageable));
         verify(transferenciaMapper, times(1)).mapToDtoPage(transferenciaEntityMock);
     }
 
-
-    @Test
-    void obterTransferenciasPorOperadorEData_ComExcecao_RetornaInternalServerError() {
-        Pageable pageable = mock(Pageable.class);
-        LocalDateTime dataInicial = LocalDateTime.now();
-        LocalDateTime dataFinal = LocalDateTime.now();
-        String nomeOperador = "Operador";
-
-        when(transferenciaRepository.findByNomeOperadorTransacaoAndDataTransferenciaBetween(pageable, nomeOperador, dataInicial, dataFinal)).thenThrow(RuntimeException.class);
-
-        assertThrows(RuntimeException.class, () -> {
-            repositorioTransferencia.obterTransferenciasPorOperadorEData(pageable, nomeOperador, dataInicial, dataFinal);
-        });
-
-        verify(transferenciaRepository, times(1)).findByNomeOperadorTransacaoAndDataTransferenciaBetween(pageable, nomeOperador, dataInicial, dataFinal);
-    }
-
     @Test
     void obterTransferenciasPorOperador_ComPageableValido_RetornaTransferencias() {
         Page<TransferenciaEntity> transferenciaEntityMock = mock(Page.class);
@@ -192,6 +201,25 @@ class TransferenciaRepositoryImplTest {
         verify(transferenciaRepository, times(1)).findByNomeOperadorTransacao(pageable, nomeOperador);
     }
 
+    @Test
+    void exportarTransferenciasPorConta_EntregaCadaLinhaEFechaOStream() {
+        TransferenciaExportacaoProjection primeira = mock(TransferenciaExportacaoProjection.class);
+        TransferenciaExportacaoProjection segunda = mock(TransferenciaExportacaoProjection.class);
+        TransferenciaDTO primeiraDTO = new TransferenciaDTO();
+        TransferenciaDTO segundaDTO = new TransferenciaDTO();
+        AtomicBoolean fechado = new AtomicBoolean();
+        List<TransferenciaDTO> entregues = new ArrayList<>();
+
+        when(transferenciaRepository.streamByContaId(1)).thenReturn(Stream.of(primeira, segunda).onClose(() -> fechado.set(true)));
+        when(transferenciaMapper.mapExportacaoToDto(primeira)).thenReturn(primeiraDTO);
+        when(transferenciaMapper.mapExportacaoToDto(segunda)).thenReturn(segundaDTO);
+
+        repositorioTransferencia.exportarTransferenciasPorConta(1, entregues::add);
+
+        assertEquals(List.of(primeiraDTO, segundaDTO), entregues);
+        assertTrue(fechado.get());
+    }
+
     @Test
     void obterTransferenciasPorConta_ComPageableValido_RetornaTransferencias() {
         Page<TransferenciaEntity> transferenciaEntityMock = mock(Page.class);
@@ -224,18 +252,103 @@ class TransferenciaRepositoryImplTest {
         verify(transferenciaRepository, times(1)).findByContaId(pageable, idConta);
     }
 
+    @Test
+    void obterTransferenciasPorContaAposCursor_ComItemAMais_RetornaCursorDoUltimoEntregue() {
+        TransferenciaEntity primeira = entidade(10, LocalDateTime.of(2023, 1, 1, 10, 0));
+        TransferenciaEntity segunda = entidade(11, LocalDateTime.of(2023, 1, 1, 10, 0));
+        TransferenciaEntity excedente = entidade(12, LocalDateTime.of(2023, 1, 2, 8, 0));
+        CursorTransferencia cursor = new CursorTransferencia(LocalDateTime.of(2022, 12, 31, 0, 0), 9);
+
+        when(transferenciaRepository.findByContaIdAposCursor(any(), eq(1), eq(cursor.getDataTransferencia()), eq(9)))
+                .thenReturn(List.of(primeira, segunda, excedente));
+        when(transferenciaMapper.mapEntityListToDtoList(List.of(primeira, segunda))).thenReturn(List.of(new TransferenciaDTO(), new TransferenciaDTO()));
+
+        PaginaCursorDTO<TransferenciaDTO> pagina = repositorioTransferencia.obterTransferenciasPorContaAposCursor(cursor, 2, 1);
+
+        assertEquals(2, pagina.getConteudo().size());
+        CursorTransferencia proximo = CursorTransferencia.decodificar(pagina.getProximoCursor());
+        assertEquals(11, proximo.getId());
+        assertEquals(segunda.getDataTransferencia(), proximo.getDataTransferencia());
+        verify(transferenciaRepository).findByContaIdAposCursor(argThat(limite -> limite.getPageSize() == 3 && limite.getOffset() == 0),
+                eq(1), eq(cursor.getDataTransferencia()), eq(9));
+    }
+
+    @Test
+    void obterExtratoPorContaAposCursor_SemCursor_ComecaDoSaldoZero() {
+        LancamentoExtratoProjection unica = mock(LancamentoExtratoProjection.class);
+        LancamentoExtratoDTO unicaDTO = new LancamentoExtratoDTO();
+
+        when(transferenciaRepository.findExtratoByContaId(1, BigDecimal.ZERO, 11)).thenReturn(List.of(unica));
+        when(transferenciaMapper.mapExtratoToDto(unica)).thenReturn(unicaDTO);
+
+        PaginaCursorDTO<LancamentoExtratoDTO> pagina = repositorioTransferencia.obterExtratoPorContaAposCursor(null, 10, 1);
+
+        assertEquals(List.of(unicaDTO), pagina.getConteudo());
+        assertNull(pagina.getProximoCursor());
+        verifyNoInteractions(checkpointSaldoRepository);
+    }
+
+    @Test
+    void obterExtratoPorContaAposCursor_ComCursor_ComecaDoSaldoAteOCursor() {
+        CursorTransferencia cursor = new CursorTransferencia(LocalDateTime.of(2023, 1, 1, 10, 0), 9);
+        LancamentoExtratoProjection primeira = lancamentoExtrato(10, LocalDateTime.of(2023, 1, 1, 10, 0));
+        LancamentoExtratoProjection excedente = lancamentoExtrato(11, LocalDateTime.of(2023, 1, 2, 8, 0));
+        BigDecimal saldoInicial = new BigDecimal("150.00");
+
+        when(checkpointSaldoRepository.obterSaldoAteLancamento(1, cursor)).thenReturn(saldoInicial);
+        when(transferenciaRepository.findExtratoByContaIdAposCursor(1, cursor.getDataTransferencia(), 9, saldoInicial, 2))
+                .thenReturn(List.of(primeira, excedente));
+        when(transferenciaMapper.mapExtratoToDto(primeira)).thenReturn(new LancamentoExtratoDTO());
+
+        PaginaCursorDTO<LancamentoExtratoDTO> pagina = repositorioTransferencia.obterExtratoPorContaAposCursor(cursor, 1, 1);
+
+        assertEquals(1, pagina.getConteudo().size());
+        CursorTransferencia proximo = CursorTransferencia.decodificar(pagina.getProximoCursor());
+        assertEquals(10, proximo.getId());
+        assertEquals(primeira.getDataTransferencia(), proximo.getDataTransferencia());
+        verify(transferenciaMapper, never()).mapExtratoToDto(excedente);
+    }
+
+    @Test
+    void obterTodasTransferenciasAposCursor_SemCursorEUltimaPagina_RetornaSemProximoCursor() {
+        TransferenciaEntity unica = entidade(1, LocalDateTime.of(2023, 1, 1, 10, 0));
+
+        when(transferenciaRepository.findByOrderByDataTransferenciaAscIdAsc(any())).thenReturn(List.of(unica));
+        when(transferenciaMapper.mapEntityListToDtoList(List.of(unica))).thenReturn(List.of(new TransferenciaDTO()));
+
+        PaginaCursorDTO<TransferenciaDTO> pagina = repositorioTransferencia.obterTodasTransferenciasAposCursor(null, 10);
+
+        assertEquals(1, pagina.getConteudo().size());
+        assertNull(pagina.getProximoCursor());
+        verify(transferenciaRepository, never()).findAposCursor(any(), any(), anyInt());
+    }
+
     @Test
     void obterSaldoTotalPorPeriodo_ComValoresValidos_RetornaSaldoTotal() {
-        BigDecimal saldoMock = BigDecimal.valueOf(1000);
+        BigDecimal saldoMock = new BigDecimal("1000.00");
         LocalDateTime dataInicial = LocalDateTime.now();
         LocalDateTime dataFinal = LocalDateTime.now();
 
-        when(transferenciaRepository.sumValorByDataTransferenciaBetween(dataInicial, dataFinal)).thenReturn(saldoMock);
+        when(indiceTemporal.obterTotalCreditos(dataInicial, dataFinal)).thenReturn(Optional.empty());
+        when(totalDiarioRepository.obterTotalCreditos(dataInicial, dataFinal)).thenReturn(saldoMock);
+
+        BigDecimal result = repositorioTransferencia.obterSaldoTotalPorPeriodo(dataInicial, dataFinal);
+
+        assertEquals(new BigDecimal("1000.00"), result);
+        verify(totalDiarioRepository, times(1)).obterTotalCreditos(dataInicial, dataFinal);
+    }
+
+    @Test
+    void obterSaldoTotalPorPeriodo_CobertoPeloIndiceTemporal_NaoConsultaOsTotaisDiarios() {
+        LocalDateTime dataInicial = LocalDateTime.now().minusHours(1);
+        LocalDateTime dataFinal = LocalDateTime.now();
+
+        when(indiceTemporal.obterTotalCreditos(dataInicial, dataFinal)).thenReturn(Optional.of(new BigDecimal("25.00")));
 
         BigDecimal result = repositorioTransferencia.obterSaldoTotalPorPeriodo(dataInicial, dataFinal);
 
-        assertEquals(saldoMock, result);
-        verify(transferenciaRepository, times(1)).sumValorByDataTransferenciaBetween(dataInicial, dataFinal);
+        assertEquals(new BigDecimal("25.00"), result);
+        verify(totalDiarioRepository, never()).obterTotalCreditos(any(), any());
     }
 
     @Test
@@ -243,52 +356,110 @@ class TransferenciaRepositoryImplTest {
         LocalDateTime dataInicial = LocalDateTime.now();
         LocalDateTime dataFinal = LocalDateTime.now();
 
-        when(transferenciaRepository.sumValorByDataTransferenciaBetween(dataInicial, dataFinal)).thenThrow(RuntimeException.class);
+        when(indiceTemporal.obterTotalCreditos(dataInicial, dataFinal)).thenReturn(Optional.empty());
+        when(totalDiarioRepository.obterTotalCreditos(dataInicial, dataFinal)).thenThrow(RuntimeException.class);
 
         assertThrows(RuntimeException.class, () -> {
             repositorioTransferencia.obterSaldoTotalPorPeriodo(dataInicial, dataFinal);
         });
 
-        verify(transferenciaRepository, times(1)).sumValorByDataTransferenciaBetween(dataInicial, dataFinal);
+        verify(totalDiarioRepository, times(1)).obterTotalCreditos(dataInicial, dataFinal);
     }
 
     @Test
-    void obterSaldoTotalPorNomeOperador_ComNomeOperadorValido_RetornaSaldoTotal() {
-        BigDecimal saldoMock = BigDecimal.valueOf(1000);
+    void obterSaldoTotalPorNomeOperador_ComNomeOperadorValido_RetornaSaldoMaterializado() {
         int numeroConta = 1;
 
-        when(transferenciaRepository.sumValorByOperadorTransacao(numeroConta)).thenReturn(saldoMock);
+        when(saldoContaRepository.obterSaldo(numeroConta)).thenReturn(new BigDecimal("1000.00"));
 
         BigDecimal result = repositorioTransferencia.obterSaldoTotalPorNumeroConta(numeroConta);
 
-        assertEquals(saldoMock, result);
-        verify(transferenciaRepository, times(1)).sumValorByOperadorTransacao(numeroConta);
+        assertEquals(new BigDecimal("1000.00"), result);
+        verify(saldoContaRepository, times(1)).obterSaldo(numeroConta);
+        verify(transferenciaRepository, never()).sumValorByOperadorTransacao(anyInt());
     }
 
     @Test
     void obterSaldoTotalPorNomeOperador_ComExcecao_RetornaSaldoNaoEncontrado() {
         int numeroConta = 1;
 
-        when(transferenciaRepository.sumValorByOperadorTransacao(numeroConta)).thenThrow(RuntimeException.class);
+        when(saldoContaRepository.obterSaldo(numeroConta)).thenThrow(RuntimeException.class);
 
         assertThrows(RuntimeException.class, () -> {
             repositorioTransferencia.obterSaldoTotalPorNumeroConta(numeroConta);
         });
 
-        verify(transferenciaRepository, times(1)).sumValorByOperadorTransacao(numeroConta);
+        verify(saldoContaRepository, times(1)).obterSaldo(numeroConta);
     }
 
 
+
     @Test
     void salvar_ComTransferenciaValida_SalvaTransferencia() {
         Transferencia transferenciaMock = mock(Transferencia.class);
         TransferenciaEntity transferenciaEntityMock = mock(TransferenciaEntity.class);
 
         when(transferenciaMapper.mapModelToEntity(transferenciaMock)).thenReturn(transferenciaEntityMock);
+        when(transferenciaMock.getDataTransferencia()).thenReturn(LocalDateTime.of(2023, 3, 10, 15, 30));
+
+        repositorioTransferencia.salvar(transferenciaMock);
+
+        verify(transferenciaRepository, times(1)).saveAll(List.of(transferenciaEntityMock));
+        verify(saldoContaRepository, times(1)).aplicarLancamentos(List.of(transferenciaMock));
+    }
+
+    @Test
+    void salvar_ComJournalLigado_SoGravaNoJournal() {
+        Transferencia transferenciaMock = mock(Transferencia.class);
+        when(journal.registrar(transferenciaMock)).thenReturn(true);
+
+        repositorioTransferencia.salvar(transferenciaMock);
+
+        verifyNoInteractions(transferenciaRepository, saldoContaRepository, totalDiarioRepository, gravacaoEmGrupo);
+    }
+
+    @Test
+    void salvar_ComGravacaoEmGrupoLigada_DeixaAGravacaoParaOGrupo() {
+        Transferencia transferenciaMock = mock(Transferencia.class);
+        when(gravacaoEmGrupo.gravar(transferenciaMock)).thenReturn(true);
 
         repositorioTransferencia.salvar(transferenciaMock);
 
-        verify(transferenciaRepository, times(1)).save(transferenciaEntityMock);
+        verify(gravacaoEmGrupo).gravar(transferenciaMock);
+        verifyNoInteractions(transferenciaRepository, saldoContaRepository, totalDiarioRepository);
+    }
+
+    @Test
+    void salvarLancamentos_ComDebitoECredito_SalvaAsDuasPernasEmUmaChamada() {
+        Transferencia debitoMock = mock(Transferencia.class);
+        Transferencia creditoMock = mock(Transferencia.class);
+        TransferenciaEntity debitoEntityMock = mock(TransferenciaEntity.class);
+        TransferenciaEntity creditoEntityMock = mock(TransferenciaEntity.class);
+
+        when(transferenciaMapper.mapModelToEntity(debitoMock)).thenReturn(debitoEntityMock);
+        when(transferenciaMapper.mapModelToEntity(creditoMock)).thenReturn(creditoEntityMock);
+        when(debitoMock.getDataTransferencia()).thenReturn(LocalDateTime.of(2023, 3, 10, 15, 30));
+        when(creditoMock.getDataTransferencia()).thenReturn(LocalDateTime.of(2023, 3, 10, 15, 30));
+
+        repositorioTransferencia.salvarLancamentos(List.of(debitoMock, creditoMock));
+
+        verify(transferenciaRepository, times(1)).saveAll(List.of(debitoEntityMock, creditoEntityMock));
+        verify(transferenciaRepository, never()).save(any());
+        verify(saldoContaRepository, times(1)).aplicarLancamentos(List.of(debitoMock, creditoMock));
+        verify(totalDiarioRepository, times(1)).aplicarLancamentos(List.of(debitoMock, creditoMock));
+    }
+
+    @Test
+    void salvarLancamentos_ComDatasDiferentes_InvalidaCheckpointsAPartirDoDiaMaisAntigo() {
+        Transferencia recente = mock(Transferencia.class);
+        Transferencia retroativo = mock(Transferencia.class);
+        when(recente.getDataTransferencia()).thenReturn(LocalDateTime.of(2023, 3, 12, 9, 0));
+        when(retroativo.getDataTransferencia()).thenReturn(LocalDateTime.of(2023, 3, 8, 23, 59));
+
+        repositorioTransferencia.salvarLancamentos(List.of(recente, retroativo));
+
+        verify(checkpointSaldoRepository, times(1)).invalidarPorLancamento(LocalDate.of(2023, 3, 8));
+        verify(checkpointSaldoRepository, never()).invalidarAPartirDe(any());
     }
 
     @Test
@@ -297,14 +468,15 @@ class TransferenciaRepositoryImplTest {
         TransferenciaEntity transferenciaEntityMock = mock(TransferenciaEntity.class);
 
         when(transferenciaMapper.mapModelToEntity(transferenciaMock)).thenReturn(transferenciaEntityMock);
-        doThrow(RuntimeException.class).when(transferenciaRepository).save(transferenciaEntityMock);
+        doThrow(RuntimeException.class).when(transferenciaRepository).saveAll(List.of(transferenciaEntityMock));
 
         assertThrows(RuntimeException.class, () -> {
             repositorioTransferencia.salvar(transferenciaMock);
         });
 
         verify(transferenciaMapper, times(1)).mapModelToEntity(transferenciaMock);
-        verify(transferenciaRepository, times(1)).save(transferenciaEntityMock);
+        verify(transferenciaRepository, times(1)).saveAll(List.of(transferenciaEntityMock));
+        verify(saldoContaRepository, never()).aplicarLancamentos(any());
     }
 
     @Test
@@ -313,10 +485,13 @@ class TransferenciaRepositoryImplTest {
         TransferenciaEntity transferenciaEntityMock = mock(TransferenciaEntity.class);
 
         when(transferenciaMapper.mapModelToEntity(transferenciaMock)).thenReturn(transferenciaEntityMock);
+        when(transferenciaMock.getDataTransferencia()).thenReturn(LocalDateTime.of(2023, 3, 10, 15, 30));
 
         repositorioTransferencia.deletar(transferenciaMock);
 
         verify(transferenciaRepository, times(1)).delete(transferenciaEntityMock);
+        verify(saldoContaRepository, times(1)).estornarLancamento(transferenciaMock);
+        verify(checkpointSaldoRepository, times(1)).invalidarPorLancamento(LocalDate.of(2023, 3, 10));
     }
 
     @Test
@@ -333,4 +508,18 @@ class TransferenciaRepositoryImplTest {
 
         verify(transferenciaRepository, times(1)).delete(any(TransferenciaEntity.class));
     }
+
+    private static TransferenciaEntity entidade(final int id, final LocalDateTime data) {
+        TransferenciaEntity entidade = new TransferenciaEntity();
+        entidade.setId(id);
+        entidade.setDataTransferencia(data);
+        return entidade;
+    }
+
+    private static LancamentoExtratoProjection lancamentoExtrato(final int id, final LocalDateTime data) {
+        LancamentoExtratoProjection lancamento = mock(LancamentoExtratoProjection.class);
+        when(lancamento.getId()).thenReturn(id);
+        when(lancamento.getDataTransferencia()).thenReturn(data);
+        return lancamento;
+    }
 }
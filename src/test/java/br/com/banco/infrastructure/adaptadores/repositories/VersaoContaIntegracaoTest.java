@@ -0,0 +1,102 @@
+package br.com.banco.infrastructure.adaptadores.repositories;
+
+import br.com.banco.application.dtos.ContaDTO;
+import br.com.banco.application.dtos.TransferenciaDTO;
+import br.com.banco.domain.models.Dinheiro;
+import br.com.banco.domain.ports.interfaces.IContaServicePort;
+import br.com.banco.domain.ports.interfaces.ISaldoContaServicePort;
+import br.com.banco.domain.ports.interfaces.ITransferenciaServicePort;
+import br.com.banco.infrastructure.adaptadores.persistence.entities.ContaEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {CapturaSql.PROPRIEDADE,
+        "banco.checkpoint-saldo.habilitado=false",
+        "banco.total-diario.habilitado=false",
+        "spring.datasource.url=jdbc:h2:mem:versaoconta"})
+class VersaoContaIntegracaoTest {
+
+    @Autowired
+    private IContaServicePort contaService;
+
+    @Autowired
+    private ITransferenciaServicePort transferenciaService;
+
+    @Autowired
+    private ISaldoContaServicePort saldoContaService;
+
+    @Autowired
+    private SpringContaRepository contaRepository;
+
+    @Test
+    void obterVersaoConta_MudaACadaLancamentoDaConta() {
+        int conta = criarConta("Versao A");
+        int outra = criarConta("Versao B");
+        Set<String> versoes = new HashSet<>();
+
+        assertTrue(versoes.add(transferenciaService.obterVersaoConta(conta)));
+        transferenciaService.realizarDeposito(transferencia("100.00"), conta);
+        assertTrue(versoes.add(transferenciaService.obterVersaoConta(conta)));
+        transferenciaService.realizarSaque(transferencia("30.00"), conta);
+        assertTrue(versoes.add(transferenciaService.obterVersaoConta(conta)));
+        // Nao muda o saldo, mas aparece na listagem
+        transferenciaService.realizarDeposito(transferencia("0.00"), conta);
+        assertTrue(versoes.add(transferenciaService.obterVersaoConta(conta)));
+        transferenciaService.realizarTransferencia(transferencia("10.00"), outra, conta);
+        String versao = transferenciaService.obterVersaoConta(conta);
+        assertTrue(versoes.add(versao));
+
+        transferenciaService.realizarDeposito(transferencia("5.00"), outra);
+        assertEquals(versao, transferenciaService.obterVersaoConta(conta));
+
+        saldoContaService.reconstruirSaldos();
+        assertTrue(versoes.add(transferenciaService.obterVersaoConta(conta)));
+    }
+
+    @Test
+    void obterVersaoConta_MudaQuandoOResponsavelEAlterado() {
+        int conta = criarConta("Versao Nome");
+        transferenciaService.realizarDeposito(transferencia("1.00"), conta);
+        String versao = transferenciaService.obterVersaoConta(conta);
+
+        ContaEntity contaEntity = contaRepository.findById(conta).orElseThrow();
+        contaEntity.setNomeResponsavel("Versao Nome Alterado");
+        contaRepository.save(contaEntity);
+
+        assertNotEquals(versao, transferenciaService.obterVersaoConta(conta));
+    }
+
+    @Test
+    void obterVersaoConta_LeSoOSaldoMaterializadoPelaChave() {
+        int conta = criarConta("Versao C");
+        transferenciaService.realizarDeposito(transferencia("1.00"), conta);
+
+        CapturaSql.SQL.clear();
+        transferenciaService.obterVersaoConta(conta);
+
+        List<String> sql = List.copyOf(CapturaSql.SQL);
+        assertEquals(1, sql.size(), sql::toString);
+        assertTrue(sql.get(0).contains("\"saldo_conta\""), sql::toString);
+        assertFalse(sql.get(0).contains("\"transferencia\""), sql::toString);
+    }
+
+    private int criarConta(final String nome) {
+        ContaDTO contaDTO = new ContaDTO();
+        contaDTO.setNomeResponsavel(nome);
+        contaService.salvarConta(contaDTO);
+        return contaService.obterContaPorNomeResponsavel(nome).getBody().getId();
+    }
+
+    private TransferenciaDTO transferencia(final String valor) {
+        TransferenciaDTO transferenciaDTO = new TransferenciaDTO();
+        transferenciaDTO.setValor(Dinheiro.de(valor));
+        return transferenciaDTO;
+    }
+}